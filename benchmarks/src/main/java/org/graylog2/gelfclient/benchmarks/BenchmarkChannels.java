@@ -0,0 +1,40 @@
+/*
+ * Copyright 2026 Graylog, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graylog2.gelfclient.benchmarks;
+
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.util.ReferenceCountUtil;
+import org.openjdk.jmh.infra.Blackhole;
+
+final class BenchmarkChannels {
+    private BenchmarkChannels() {
+    }
+
+    /**
+     * Writes the given message through the outbound pipeline of the channel and releases everything which comes out
+     * of it, so that pooled buffers are returned and no outbound messages pile up between invocations.
+     */
+    static void writeAndRelease(EmbeddedChannel channel, Object message, Blackhole blackhole) {
+        channel.writeOutbound(message);
+
+        Object encoded;
+        while ((encoded = channel.readOutbound()) != null) {
+            blackhole.consume(encoded);
+            ReferenceCountUtil.release(encoded);
+        }
+    }
+}
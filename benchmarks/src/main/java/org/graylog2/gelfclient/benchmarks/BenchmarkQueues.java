@@ -0,0 +1,45 @@
+/*
+ * Copyright 2026 Graylog, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graylog2.gelfclient.benchmarks;
+
+import org.graylog2.gelfclient.GelfMessage;
+import org.graylog2.gelfclient.QueueType;
+import org.graylog2.gelfclient.queue.PriorityLaneBlockingQueue;
+import org.graylog2.gelfclient.queue.RingBufferBlockingQueue;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Creates the transport queues like {@link org.graylog2.gelfclient.transport.AbstractGelfTransport} does.
+ */
+final class BenchmarkQueues {
+    private BenchmarkQueues() {
+    }
+
+    static BlockingQueue<GelfMessage> create(QueueType queueType, int queueSize) {
+        switch (queueType) {
+            case RING_BUFFER:
+                return new RingBufferBlockingQueue<>(queueSize);
+            case PRIORITY_LANES:
+                return new PriorityLaneBlockingQueue<>(queueSize, 10, GelfMessage::getLevel);
+            case LINKED:
+            default:
+                return new LinkedBlockingQueue<>(queueSize);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2026 Graylog, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graylog2.gelfclient.benchmarks;
+
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.channel.socket.DatagramPacket;
+import org.graylog2.gelfclient.GelfMessage;
+import org.graylog2.gelfclient.benchmarks.GelfMessageFixtures.MessageSize;
+import org.graylog2.gelfclient.encoder.GelfMessageChunkEncoder;
+import org.graylog2.gelfclient.encoder.GelfMessageJsonEncoder;
+import org.graylog2.gelfclient.encoder.GelfMessageUdpEncoder;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.channels.DatagramChannel;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the uncompressed GELF UDP pipeline with different chunk sizes, including sending the datagrams to a local
+ * socket, so that the cost of the additional system calls for smaller chunks is part of the result.
+ * <p>Next to the messages per second, the datagrams ({@code packets}) and bytes ({@code bytes}) per second are
+ * reported. Nobody reads from the receiving socket, the kernel drops the datagrams once its buffer is full.</p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ChunkSizeBenchmark {
+    @Param({"MEDIUM", "LARGE"})
+    public MessageSize messageSize;
+
+    // Smaller chunk sizes can't hold the LARGE message in 128 chunks.
+    @Param({"1420", "8960", "65495"})
+    public int maxChunkSize;
+
+    private GelfMessage message;
+    private EmbeddedChannel channel;
+    private DatagramChannel receiver;
+    private DatagramChannel sender;
+
+    /**
+     * The number of datagrams and bytes sent, reported by JMH as rate per second.
+     */
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Counters {
+        public long packets;
+        public long bytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            packets = 0;
+            bytes = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        message = GelfMessageFixtures.createMessage(messageSize, 10);
+
+        receiver = DatagramChannel.open().bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        sender = DatagramChannel.open().connect(receiver.getLocalAddress());
+
+        // Same handler order as in GelfUdpTransport without compression.
+        channel = new EmbeddedChannel();
+        channel.pipeline().addLast(new GelfMessageUdpEncoder((InetSocketAddress) receiver.getLocalAddress()));
+        channel.pipeline().addLast(new GelfMessageChunkEncoder(maxChunkSize));
+        channel.pipeline().addLast(new GelfMessageJsonEncoder());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        channel.finishAndReleaseAll();
+        sender.close();
+        receiver.close();
+    }
+
+    @Benchmark
+    public void send(Counters counters) throws IOException {
+        channel.writeOutbound(message);
+
+        DatagramPacket packet;
+        while ((packet = channel.readOutbound()) != null) {
+            try {
+                // Gathering write, so that the chunk header and payload don't have to be merged first.
+                counters.bytes += sender.write(packet.content().nioBuffers());
+                counters.packets++;
+            } finally {
+                packet.release();
+            }
+        }
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2026 Graylog, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graylog2.gelfclient.benchmarks;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.graylog2.gelfclient.Compression;
+import org.graylog2.gelfclient.GelfConfiguration;
+import org.graylog2.gelfclient.benchmarks.GelfMessageFixtures.MessageSize;
+import org.graylog2.gelfclient.compression.GelfCompressionCodecs;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the time per message of the compression codecs.
+ * <p>The compression ratio of every codec and message size is printed once per trial, as JMH has no notion of it.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CompressionBenchmark {
+    @Param({"SMALL", "MEDIUM", "LARGE"})
+    public MessageSize messageSize;
+
+    @Param({"GZIP", "ZLIB", "SNAPPY"})
+    public Compression compression;
+
+    private byte[] json;
+    private EmbeddedChannel channel;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        json = GelfMessageFixtures.toJson(GelfMessageFixtures.createMessage(messageSize, 10));
+        channel = new EmbeddedChannel(GelfCompressionCodecs.forCompression(compression).newEncoder(new GelfConfiguration()));
+
+        channel.writeOutbound(Unpooled.wrappedBuffer(json));
+        final ByteBuf compressed = channel.readOutbound();
+        System.out.printf(Locale.ENGLISH, "%n%s/%s: %d -> %d bytes, ratio %.2f%n", compression, messageSize,
+                json.length, compressed.readableBytes(), (double) json.length / compressed.readableBytes());
+        compressed.release();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        channel.finishAndReleaseAll();
+    }
+
+    @Benchmark
+    public void compress(Blackhole blackhole) {
+        BenchmarkChannels.writeAndRelease(channel, Unpooled.wrappedBuffer(json), blackhole);
+    }
+}
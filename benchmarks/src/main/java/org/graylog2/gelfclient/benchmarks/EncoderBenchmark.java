@@ -0,0 +1,117 @@
+/*
+ * Copyright 2026 Graylog, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graylog2.gelfclient.benchmarks;
+
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.graylog2.gelfclient.GelfMessage;
+import org.graylog2.gelfclient.benchmarks.GelfMessageFixtures.MessageSize;
+import org.graylog2.gelfclient.encoder.GelfCompressionGzipEncoder;
+import org.graylog2.gelfclient.encoder.GelfCompressionZlibEncoder;
+import org.graylog2.gelfclient.encoder.GelfMessageChunkEncoder;
+import org.graylog2.gelfclient.encoder.GelfMessageJsonEncoder;
+import org.graylog2.gelfclient.encoder.GelfTcpFrameDelimiterEncoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures each encoder of the GELF pipelines in isolation.
+ * <p>The compression, chunk and frame delimiter encoders are fed with the JSON payload of the message, just like in
+ * the real pipelines.</p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EncoderBenchmark {
+    @Param({"SMALL", "MEDIUM", "LARGE"})
+    public MessageSize messageSize;
+
+    @Param({"0", "50"})
+    public int additionalFields;
+
+    private GelfMessage message;
+    private byte[] json;
+
+    private EmbeddedChannel jsonChannel;
+    private EmbeddedChannel gzipChannel;
+    private EmbeddedChannel zlibChannel;
+    private EmbeddedChannel chunkChannel;
+    private EmbeddedChannel tcpFrameDelimiterChannel;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        message = GelfMessageFixtures.createMessage(messageSize, additionalFields);
+        json = GelfMessageFixtures.toJson(message);
+
+        jsonChannel = new EmbeddedChannel(new GelfMessageJsonEncoder());
+        gzipChannel = new EmbeddedChannel(new GelfCompressionGzipEncoder());
+        zlibChannel = new EmbeddedChannel(new GelfCompressionZlibEncoder());
+        chunkChannel = new EmbeddedChannel(new GelfMessageChunkEncoder());
+        tcpFrameDelimiterChannel = new EmbeddedChannel(new GelfTcpFrameDelimiterEncoder());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        jsonChannel.finishAndReleaseAll();
+        gzipChannel.finishAndReleaseAll();
+        zlibChannel.finishAndReleaseAll();
+        chunkChannel.finishAndReleaseAll();
+        tcpFrameDelimiterChannel.finishAndReleaseAll();
+    }
+
+    @Benchmark
+    public void json(Blackhole blackhole) {
+        BenchmarkChannels.writeAndRelease(jsonChannel, message, blackhole);
+    }
+
+    @Benchmark
+    public void gzip(Blackhole blackhole) {
+        BenchmarkChannels.writeAndRelease(gzipChannel, Unpooled.wrappedBuffer(json), blackhole);
+    }
+
+    @Benchmark
+    public void zlib(Blackhole blackhole) {
+        BenchmarkChannels.writeAndRelease(zlibChannel, Unpooled.wrappedBuffer(json), blackhole);
+    }
+
+    @Benchmark
+    public void chunk(Blackhole blackhole) {
+        BenchmarkChannels.writeAndRelease(chunkChannel, Unpooled.wrappedBuffer(json), blackhole);
+    }
+
+    @Benchmark
+    public void tcpFrameDelimiter(Blackhole blackhole) {
+        BenchmarkChannels.writeAndRelease(tcpFrameDelimiterChannel, Unpooled.wrappedBuffer(json), blackhole);
+    }
+}
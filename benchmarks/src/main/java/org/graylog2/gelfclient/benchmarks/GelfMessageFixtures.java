@@ -0,0 +1,116 @@
+/*
+ * Copyright 2026 Graylog, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graylog2.gelfclient.benchmarks;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.graylog2.gelfclient.GelfMessage;
+import org.graylog2.gelfclient.GelfMessageBuilder;
+import org.graylog2.gelfclient.GelfMessageLevel;
+import org.graylog2.gelfclient.encoder.GelfMessageJsonEncoder;
+
+import java.util.Random;
+
+/**
+ * Deterministic {@link GelfMessage} fixtures shared by the benchmarks.
+ */
+public final class GelfMessageFixtures {
+    private static final String[] WORDS = {
+            "request", "user", "session", "timeout", "connection", "database", "query", "cache", "miss", "hit",
+            "java.lang.IllegalStateException", "at", "org.example.service.Handler.handle(Handler.java:42)",
+            "retry", "backend", "status", "200", "404", "500", "latency", "ms", "bytes", "payload", "committed"
+    };
+
+    /**
+     * The approximate size of the encoded JSON payload.
+     */
+    public enum MessageSize {
+        SMALL(200),
+        MEDIUM(4 * 1024),
+        // Stays just below GelfMessageChunkEncoder's MAX_MESSAGE_SIZE (128 chunks of 1420 bytes) after JSON encoding.
+        LARGE(170 * 1024);
+
+        private final int bytes;
+
+        MessageSize(int bytes) {
+            this.bytes = bytes;
+        }
+
+        public int getBytes() {
+            return bytes;
+        }
+    }
+
+    private GelfMessageFixtures() {
+    }
+
+    /**
+     * Creates a message whose JSON representation is roughly {@code size} bytes long.
+     *
+     * @param size             the approximate size of the encoded message
+     * @param additionalFields the number of additional fields to add to the message
+     * @return a new {@link GelfMessage}
+     */
+    public static GelfMessage createMessage(MessageSize size, int additionalFields) {
+        final Random random = new Random(42L);
+        final GelfMessageBuilder builder = new GelfMessageBuilder(text(random, 64), "benchmark.example.com")
+                .level(GelfMessageLevel.INFO)
+                .timestamp(1500000000000L);
+
+        int remaining = size.getBytes() - 200;
+        for (int i = 0; i < additionalFields; i++) {
+            final String value = text(random, 24);
+            builder.additionalField("field_" + i, value);
+            remaining -= value.length() + 16;
+        }
+
+        if (remaining > 0) {
+            builder.fullMessage(text(random, remaining));
+        }
+
+        return builder.build();
+    }
+
+    /**
+     * Encodes the given message into its JSON representation.
+     *
+     * @param message the message to encode
+     * @return the UTF-8 encoded JSON bytes
+     */
+    public static byte[] toJson(GelfMessage message) {
+        final EmbeddedChannel channel = new EmbeddedChannel(new GelfMessageJsonEncoder());
+        channel.writeOutbound(message);
+        final ByteBuf buf = (ByteBuf) channel.readOutbound();
+        try {
+            final byte[] bytes = new byte[buf.readableBytes()];
+            buf.getBytes(buf.readerIndex(), bytes);
+            return bytes;
+        } finally {
+            buf.release();
+            channel.finishAndReleaseAll();
+        }
+    }
+
+    private static String text(Random random, int length) {
+        final StringBuilder sb = new StringBuilder(length + 64);
+        while (sb.length() < length) {
+            sb.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+        }
+        sb.setLength(length);
+        return sb.toString();
+    }
+}
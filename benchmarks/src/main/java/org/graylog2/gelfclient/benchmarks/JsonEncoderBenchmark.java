@@ -0,0 +1,78 @@
+/*
+ * Copyright 2026 Graylog, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graylog2.gelfclient.benchmarks;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.graylog2.gelfclient.GelfMessage;
+import org.graylog2.gelfclient.benchmarks.GelfMessageFixtures.MessageSize;
+import org.graylog2.gelfclient.encoder.GelfMessageJsonEncoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the different modes of the {@link GelfMessageJsonEncoder}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class JsonEncoderBenchmark {
+    @Param({"SMALL", "MEDIUM"})
+    public MessageSize messageSize;
+
+    @Param({"0", "50"})
+    public int additionalFields;
+
+    @Param({"false", "true"})
+    public boolean reuseGenerators;
+
+    private GelfMessage message;
+    private EmbeddedChannel channel;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        message = GelfMessageFixtures.createMessage(messageSize, additionalFields);
+        channel = new EmbeddedChannel(new GelfMessageJsonEncoder(new JsonFactory(), false, reuseGenerators));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        channel.finishAndReleaseAll();
+    }
+
+    @Benchmark
+    public void encode(Blackhole blackhole) {
+        BenchmarkChannels.writeAndRelease(channel, message, blackhole);
+    }
+}
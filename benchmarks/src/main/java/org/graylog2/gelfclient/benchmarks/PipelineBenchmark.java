@@ -0,0 +1,130 @@
+/*
+ * Copyright 2026 Graylog, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graylog2.gelfclient.benchmarks;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.graylog2.gelfclient.Compression;
+import org.graylog2.gelfclient.GelfConfiguration;
+import org.graylog2.gelfclient.GelfMessage;
+import org.graylog2.gelfclient.benchmarks.GelfMessageFixtures.MessageSize;
+import org.graylog2.gelfclient.compression.GelfCompressionCodec;
+import org.graylog2.gelfclient.encoder.GelfFieldNameCache;
+import org.graylog2.gelfclient.encoder.GelfMessageChunkEncoder;
+import org.graylog2.gelfclient.encoder.GelfMessageJsonEncoder;
+import org.graylog2.gelfclient.encoder.GelfMessageUdpEncoder;
+import org.graylog2.gelfclient.encoder.GelfTcpFrameDelimiterEncoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the complete encoder chains of the UDP and TCP transports, from a {@link GelfMessage} to the bytes
+ * which are handed to the socket.
+ * <p>The handlers are created from a {@link GelfConfiguration} in the same way as by the transports, so that the
+ * results follow changes of the default settings.</p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PipelineBenchmark {
+    @Param({"SMALL", "MEDIUM", "LARGE"})
+    public MessageSize messageSize;
+
+    @Param({"0", "50"})
+    public int additionalFields;
+
+    private GelfMessage message;
+    private EmbeddedChannel tcpChannel;
+
+    /**
+     * The UDP pipeline, which is additionally parameterized by the compression algorithm.
+     */
+    @State(Scope.Thread)
+    public static class UdpPipeline {
+        @Param({"GZIP", "ZLIB", "NONE"})
+        public Compression compression;
+
+        private EmbeddedChannel channel;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            final GelfConfiguration config = new GelfConfiguration().compression(compression);
+
+            // Same handler order as in GelfUdpTransport.
+            channel = new EmbeddedChannel();
+            channel.pipeline().addLast(new GelfMessageUdpEncoder(InetSocketAddress.createUnresolved("127.0.0.1", 12201)));
+            channel.pipeline().addLast(new GelfMessageChunkEncoder(config.getMaxChunkSize()));
+            final GelfCompressionCodec compressionCodec = config.getCompressionCodec();
+            if (compressionCodec != null) {
+                channel.pipeline().addLast(compressionCodec.newEncoder(config));
+            }
+            channel.pipeline().addLast(newJsonEncoder(config));
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            channel.finishAndReleaseAll();
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        message = GelfMessageFixtures.createMessage(messageSize, additionalFields);
+
+        // Same handler order as in GelfTcpTransport.
+        tcpChannel = new EmbeddedChannel(new GelfTcpFrameDelimiterEncoder(), newJsonEncoder(new GelfConfiguration()));
+    }
+
+    private static GelfMessageJsonEncoder newJsonEncoder(final GelfConfiguration config) {
+        // Same arguments as in AbstractGelfTransport, except for the heap buffers of the embedded channel.
+        return new GelfMessageJsonEncoder(new JsonFactory(), false, config.isReuseJsonGenerators(),
+                new GelfFieldNameCache(config.getFieldNameCacheSize()));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        tcpChannel.finishAndReleaseAll();
+    }
+
+    @Benchmark
+    public void udp(UdpPipeline udpPipeline, Blackhole blackhole) {
+        BenchmarkChannels.writeAndRelease(udpPipeline.channel, message, blackhole);
+    }
+
+    @Benchmark
+    public void tcp(Blackhole blackhole) {
+        BenchmarkChannels.writeAndRelease(tcpChannel, message, blackhole);
+    }
+}
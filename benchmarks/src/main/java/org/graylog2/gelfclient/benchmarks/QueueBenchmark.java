@@ -0,0 +1,101 @@
+/*
+ * Copyright 2026 Graylog, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graylog2.gelfclient.benchmarks;
+
+import org.graylog2.gelfclient.GelfMessage;
+import org.graylog2.gelfclient.QueueType;
+import org.graylog2.gelfclient.benchmarks.GelfMessageFixtures.MessageSize;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the transport queues under contention: several application threads send messages concurrently while a
+ * single sender takes them from the queue, just like in the transports.
+ * <p>The producers use the non-blocking {@code offer()} of {@code trySend()} so that they don't block at the end of
+ * an iteration. The {@code offered} and {@code polled} counters report the messages which actually passed the queue,
+ * the number of producers can be changed with {@code -tg <producers>,1}.</p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Group)
+public class QueueBenchmark {
+    @Param({"LINKED", "RING_BUFFER"})
+    public QueueType queueType;
+
+    @Param({"512"})
+    public int queueSize;
+
+    private BlockingQueue<GelfMessage> queue;
+    private GelfMessage message;
+
+    /**
+     * Counts the messages which passed the queue, per benchmark thread.
+     */
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Counters {
+        public long offered;
+        public long polled;
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        message = GelfMessageFixtures.createMessage(MessageSize.SMALL, 0);
+        queue = BenchmarkQueues.create(queueType, queueSize);
+    }
+
+    @Benchmark
+    @Group("contended")
+    @GroupThreads(4)
+    public boolean offer(Counters counters) {
+        final boolean offered = queue.offer(message);
+        if (offered) {
+            counters.offered++;
+        }
+        return offered;
+    }
+
+    @Benchmark
+    @Group("contended")
+    @GroupThreads(1)
+    public GelfMessage poll(Counters counters) {
+        final GelfMessage polled = queue.poll();
+        if (polled != null) {
+            counters.polled++;
+        }
+        return polled;
+    }
+}
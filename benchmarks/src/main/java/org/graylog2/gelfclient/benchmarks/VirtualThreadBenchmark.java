@@ -0,0 +1,138 @@
+/*
+ * Copyright 2026 Graylog, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graylog2.gelfclient.benchmarks;
+
+import org.graylog2.gelfclient.GelfConfiguration;
+import org.graylog2.gelfclient.GelfMessage;
+import org.graylog2.gelfclient.QueueType;
+import org.graylog2.gelfclient.SenderType;
+import org.graylog2.gelfclient.benchmarks.GelfMessageFixtures.MessageSize;
+import org.graylog2.gelfclient.transport.GelfTransportMetrics;
+import org.graylog2.gelfclient.transport.GelfUdpTransport;
+import org.graylog2.gelfclient.util.VirtualThreads;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.channels.DatagramChannel;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the blocking {@code send()} path with many virtual threads sending messages concurrently, from the first
+ * {@code send()} until the sender thread has written the last message to the channel.
+ * <p>The messages are sent by a {@link GelfUdpTransport} to a local socket. Nobody reads from the receiving socket,
+ * the kernel drops the datagrams once its buffer is full.</p>
+ * <p>Requires Java 21 or later, e.g. {@code $JAVA_21_HOME/bin/java -jar target/benchmarks.jar
+ * VirtualThreadBenchmark}.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class VirtualThreadBenchmark {
+    @Param({"10000"})
+    public int producers;
+
+    @Param({"10"})
+    public int messagesPerProducer;
+
+    @Param({"LINKED", "RING_BUFFER", "PRIORITY_LANES"})
+    public QueueType queueType;
+
+    @Param({"false", "true"})
+    public boolean virtualSenderThread;
+
+    private GelfMessage message;
+    private ThreadFactory producerThreadFactory;
+    private DatagramChannel receiver;
+    private GelfUdpTransport transport;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException, InterruptedException {
+        if (!VirtualThreads.isAvailable()) {
+            throw new IllegalStateException("Virtual threads not available", VirtualThreads.unavailabilityCause());
+        }
+
+        message = GelfMessageFixtures.createMessage(MessageSize.SMALL, 0);
+        producerThreadFactory = VirtualThreads.newThreadFactory();
+        receiver = DatagramChannel.open().bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        final GelfConfiguration config = new GelfConfiguration((InetSocketAddress) receiver.getLocalAddress())
+                .queueType(queueType)
+                .queueSize(512)
+                .maxInflightSends(512)
+                .batchSize(16)
+                .senderType(SenderType.THREAD)
+                .virtualSenderThread(virtualSenderThread);
+        transport = new GelfUdpTransport(config);
+
+        // Wait until the sender thread has been started.
+        transport.send(message);
+        awaitWritten(1L);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        transport.stop();
+        receiver.close();
+    }
+
+    @Benchmark
+    public void send() throws InterruptedException {
+        final long written = transport.getMetrics().getMessagesWritten() + (long) producers * messagesPerProducer;
+
+        final Runnable producer = new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    for (int i = 0; i < messagesPerProducer; i++) {
+                        transport.send(message);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        for (int i = 0; i < producers; i++) {
+            producerThreadFactory.newThread(producer).start();
+        }
+
+        awaitWritten(written);
+    }
+
+    private void awaitWritten(final long written) throws InterruptedException {
+        final GelfTransportMetrics metrics = transport.getMetrics();
+        while (metrics.getMessagesWritten() < written) {
+            Thread.sleep(0L, 100_000);
+        }
+    }
+}
@@ -15,6 +15,15 @@
  */
 package org.graylog2.gelfclient;
 
+/**
+ * The compression algorithms for GELF UDP.
+ *
+ * @see org.graylog2.gelfclient.compression.GelfCompressionCodecs
+ */
 public enum Compression {
-    GZIP, ZLIB, NONE
+    GZIP, ZLIB, NONE,
+    /**
+     * Fast compression for GELF receivers other than Graylog, which doesn't support Snappy compressed messages.
+     */
+    SNAPPY
 }
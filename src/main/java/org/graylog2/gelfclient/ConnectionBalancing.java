@@ -0,0 +1,35 @@
+/*
+ * Copyright 2026 Graylog, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.graylog2.gelfclient;
+
+/**
+ * The strategies for distributing queued GELF messages over the parallel connections of a transport.
+ *
+ * @see GelfConfiguration#connections(int)
+ */
+public enum ConnectionBalancing {
+    /**
+     * Queued messages are handed to the senders of the connections in turn.
+     */
+    ROUND_ROBIN,
+    /**
+     * Queued messages are handed to the sender of the connection with the fewest bytes waiting to be written to the
+     * network.
+     */
+    LEAST_PENDING_BYTES
+}
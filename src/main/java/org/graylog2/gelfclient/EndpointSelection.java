@@ -0,0 +1,40 @@
+/*
+ * Copyright 2026 Graylog, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.graylog2.gelfclient;
+
+/**
+ * The strategies for choosing the GELF server a connection is opened to, if more than one
+ * {@link GelfConfiguration#remoteAddresses(java.util.List) remote address} is configured.
+ * <p>Healthy servers are always preferred over degraded servers and servers which are down, see
+ * {@link org.graylog2.gelfclient.transport.GelfEndpoint.State}.</p>
+ */
+public enum EndpointSelection {
+    /**
+     * All connections are opened to the first healthy server in the order in which the servers have been configured.
+     * The other servers are standby servers which are only used while the preceding servers are unhealthy.
+     */
+    FAILOVER,
+    /**
+     * The connections are opened to the healthy servers in turn.
+     */
+    ROUND_ROBIN,
+    /**
+     * Connections are opened to the healthy server with the fewest writes in flight.
+     */
+    LEAST_OUTSTANDING_WRITES
+}
@@ -16,8 +16,16 @@
 
 package org.graylog2.gelfclient;
 
+import org.graylog2.gelfclient.compression.GelfCompressionCodec;
+import org.graylog2.gelfclient.compression.GelfCompressionCodecs;
+import org.graylog2.gelfclient.encoder.GelfMessageChunkEncoder;
+
 import java.io.File;
 import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.Deflater;
 
 /**
  * The configuration used by a {@link org.graylog2.gelfclient.transport.GelfTransport}.
@@ -27,19 +35,54 @@ public class GelfConfiguration {
     private static final String DEFAULT_HOSTNAME = "127.0.0.1";
     private final String hostname;
     private final int port;
+    private List<InetSocketAddress> remoteAddresses = null;
+    private EndpointSelection endpointSelection = EndpointSelection.FAILOVER;
+    private int endpointLatencyThreshold = 1000;
+    private double endpointErrorRateThreshold = 0.5d;
+    private int endpointRecoveryTime = 30000;
     private GelfTransports transport = GelfTransports.TCP;
     private Compression compression = Compression.GZIP;
+    private GelfCompressionCodec compressionCodec = null;
+    private int compressionLevel = Deflater.DEFAULT_COMPRESSION;
+    private int compressionThreshold = 0;
+    private boolean adaptiveCompression = false;
+    private int maxChunkSize = GelfMessageChunkEncoder.DEFAULT_MAX_CHUNK_SIZE;
     private int queueSize = 512;
+    private QueueType queueType = QueueType.LINKED;
+    private long queueMaxBytes = 0L;
+    private int priorityFairnessRatio = 10;
+    private OverflowPolicy overflowPolicy = OverflowPolicy.BLOCK;
+    private int overflowTimeout = 100;
+    private GelfMessageLevel overflowRetainLevel = GelfMessageLevel.ERROR;
+    private File spoolDirectory = null;
+    private long spoolMaxBytes = 256L * 1024L * 1024L;
+    private int spoolSegmentSize = 16 * 1024 * 1024;
+    private SpoolSyncPolicy spoolSyncPolicy = SpoolSyncPolicy.SEGMENT;
     private boolean tlsEnabled = false;
     private File tlsTrustCertChainFile = null;
     private boolean tlsCertVerificationEnabled = true;
     private int reconnectDelay = 500;
+    private int reconnectMaxDelay = 0;
+    private int circuitBreakerThreshold = 0;
+    private int circuitBreakerCoolDown = 30000;
     private int connectTimeout = 1000;
+    private int shutdownQuietPeriod = 2000;
+    private int connections = 1;
+    private ConnectionBalancing connectionBalancing = ConnectionBalancing.ROUND_ROBIN;
     private boolean tcpNoDelay = false;
     private boolean tcpKeepAlive = false;
     private int sendBufferSize = -1;
     private int maxInflightSends = 512;
+    private int batchSize = 1;
+    private SenderType senderType = SenderType.THREAD;
+    private int writeBufferLowWaterMark = 32 * 1024;
+    private int writeBufferHighWaterMark = 64 * 1024;
     private int threads = 0;
+    private boolean nativeTransport = false;
+    private boolean virtualSenderThread = false;
+    private boolean reuseJsonGenerators = false;
+    private boolean encodeOnSend = false;
+    private int fieldNameCacheSize = 256;
 
     /**
      * Creates a new configuration with the given hostname and port.
@@ -114,6 +157,136 @@ public class GelfConfiguration {
         return new InetSocketAddress(hostname, port);
     }
 
+    /**
+     * Get the remote addresses of the GELF servers.
+     *
+     * @return the remote addresses of the GELF servers, or the {@link #getRemoteAddress() remote address} given to the
+     * constructor if no remote addresses have been set
+     */
+    public List<InetSocketAddress> getRemoteAddresses() {
+        return remoteAddresses != null ? remoteAddresses : Collections.singletonList(getRemoteAddress());
+    }
+
+    /**
+     * Set the remote addresses of several GELF servers, which are used instead of the hostname and port given to the
+     * constructor.
+     * <p>The TCP transport distributes its connections over the servers according to
+     * {@link #getEndpointSelection()}. The UDP transport only sends to the first server.</p>
+     *
+     * @param remoteAddresses the remote addresses of the GELF servers
+     * @return {@code this} instance
+     * @see #connections(int)
+     */
+    public GelfConfiguration remoteAddresses(final List<InetSocketAddress> remoteAddresses) {
+        if (remoteAddresses == null || remoteAddresses.isEmpty()) {
+            throw new IllegalArgumentException("remoteAddresses must not be empty");
+        }
+        for (InetSocketAddress remoteAddress : remoteAddresses) {
+            if (remoteAddress == null) {
+                throw new IllegalArgumentException("remoteAddresses must not contain null");
+            }
+        }
+        this.remoteAddresses = Collections.unmodifiableList(new ArrayList<>(remoteAddresses));
+        return this;
+    }
+
+    /**
+     * Get the strategy for choosing the GELF server a connection is opened to.
+     *
+     * @return the strategy for choosing the GELF server of a connection
+     */
+    public EndpointSelection getEndpointSelection() {
+        return endpointSelection;
+    }
+
+    /**
+     * Set the strategy for choosing the GELF server a connection is opened to, if there are several
+     * {@link #remoteAddresses(List) remote addresses}.
+     *
+     * @param endpointSelection the strategy for choosing the GELF server of a connection
+     * @return {@code this} instance
+     * @see EndpointSelection
+     */
+    public GelfConfiguration endpointSelection(final EndpointSelection endpointSelection) {
+        if (endpointSelection == null) {
+            throw new IllegalArgumentException("endpointSelection must not be null");
+        }
+        this.endpointSelection = endpointSelection;
+        return this;
+    }
+
+    /**
+     * Get the average write latency in milliseconds above which a GELF server is considered degraded.
+     *
+     * @return the write latency threshold in milliseconds
+     */
+    public int getEndpointLatencyThreshold() {
+        return endpointLatencyThreshold;
+    }
+
+    /**
+     * Set the average write latency in milliseconds above which a GELF server is considered degraded. The write
+     * latency is the time it takes until a message has been written to the socket.
+     *
+     * @param endpointLatencyThreshold the write latency threshold in milliseconds, must be larger than {@code 0}
+     * @return {@code this} instance
+     */
+    public GelfConfiguration endpointLatencyThreshold(final int endpointLatencyThreshold) {
+        if (endpointLatencyThreshold <= 0) {
+            throw new IllegalArgumentException("endpointLatencyThreshold must be larger than 0");
+        }
+        this.endpointLatencyThreshold = endpointLatencyThreshold;
+        return this;
+    }
+
+    /**
+     * Get the average rate of failed writes above which a GELF server is considered degraded.
+     *
+     * @return the write error rate threshold
+     */
+    public double getEndpointErrorRateThreshold() {
+        return endpointErrorRateThreshold;
+    }
+
+    /**
+     * Set the average rate of failed writes above which a GELF server is considered degraded.
+     *
+     * @param endpointErrorRateThreshold the write error rate threshold, between {@code 0.0} (exclusive) and
+     *                                   {@code 1.0} (inclusive)
+     * @return {@code this} instance
+     */
+    public GelfConfiguration endpointErrorRateThreshold(final double endpointErrorRateThreshold) {
+        if (!(endpointErrorRateThreshold > 0.0d && endpointErrorRateThreshold <= 1.0d)) {
+            throw new IllegalArgumentException("endpointErrorRateThreshold must be larger than 0.0 and at most 1.0");
+        }
+        this.endpointErrorRateThreshold = endpointErrorRateThreshold;
+        return this;
+    }
+
+    /**
+     * Get the time in milliseconds after which an unhealthy GELF server is considered healthy again.
+     *
+     * @return the recovery time of unhealthy GELF servers in milliseconds
+     */
+    public int getEndpointRecoveryTime() {
+        return endpointRecoveryTime;
+    }
+
+    /**
+     * Set the time in milliseconds after which an unhealthy GELF server is considered healthy again, so that
+     * connections are opened to it again.
+     *
+     * @param endpointRecoveryTime the recovery time of unhealthy GELF servers in milliseconds
+     * @return {@code this} instance
+     */
+    public GelfConfiguration endpointRecoveryTime(final int endpointRecoveryTime) {
+        if (endpointRecoveryTime < 0) {
+            throw new IllegalArgumentException("endpointRecoveryTime must not be negative");
+        }
+        this.endpointRecoveryTime = endpointRecoveryTime;
+        return this;
+    }
+
     /**
      * Get the transport protocol used with the GELF server.
      *
@@ -151,6 +324,141 @@ public class GelfConfiguration {
      */
     public GelfConfiguration compression(final Compression compression) {
         this.compression = compression;
+        this.compressionCodec = null;
+        return this;
+    }
+
+    /**
+     * Get the compression codec used for GELF UDP.
+     *
+     * @return the explicitly set compression codec, the codec for {@link #getCompression()} otherwise,
+     * or {@code null} if messages shouldn't be compressed
+     */
+    public GelfCompressionCodec getCompressionCodec() {
+        return compressionCodec != null ? compressionCodec : GelfCompressionCodecs.forCompression(compression);
+    }
+
+    /**
+     * Set the compression codec used for GELF UDP. This overrides {@link #compression(Compression)}.
+     *
+     * @param compressionCodec the compression codec used for GELF UDP
+     * @return {@code this} instance
+     */
+    public GelfConfiguration compressionCodec(final GelfCompressionCodec compressionCodec) {
+        if (compressionCodec == null) {
+            throw new IllegalArgumentException("compressionCodec must not be null");
+        }
+        this.compressionCodec = compressionCodec;
+        return this;
+    }
+
+    /**
+     * Set the compression codec used for GELF UDP by its name. This overrides {@link #compression(Compression)}.
+     *
+     * @param name the name of a built-in codec or of a codec registered as service provider
+     * @return {@code this} instance
+     * @see GelfCompressionCodecs#forName(String)
+     */
+    public GelfConfiguration compressionCodec(final String name) {
+        return compressionCodec(GelfCompressionCodecs.forName(name));
+    }
+
+    /**
+     * Get the compression level used for GELF UDP.
+     *
+     * @return the compression level used for GELF UDP
+     * @see java.util.zip.Deflater#setLevel(int)
+     */
+    public int getCompressionLevel() {
+        return compressionLevel;
+    }
+
+    /**
+     * Set the compression level used for GELF UDP.
+     *
+     * @param compressionLevel the compression level used for GELF UDP ({@code 0}-{@code 9}).
+     *                         A value of {@code -1} uses the default compression level.
+     * @return {@code this} instance
+     * @see java.util.zip.Deflater#setLevel(int)
+     */
+    public GelfConfiguration compressionLevel(final int compressionLevel) {
+        if (compressionLevel != Deflater.DEFAULT_COMPRESSION && (compressionLevel < 0 || compressionLevel > 9)) {
+            throw new IllegalArgumentException("compressionLevel out of range: " + compressionLevel);
+        }
+        this.compressionLevel = compressionLevel;
+        return this;
+    }
+
+    /**
+     * Get the minimum size of a GELF UDP message in bytes to be compressed.
+     *
+     * @return the minimum size of a GELF UDP message in bytes to be compressed
+     */
+    public int getCompressionThreshold() {
+        return compressionThreshold;
+    }
+
+    /**
+     * Set the minimum size of a GELF UDP message in bytes to be compressed. Smaller messages are sent uncompressed.
+     *
+     * @param compressionThreshold the minimum size of a GELF UDP message in bytes to be compressed.
+     *                             A value of {@code 0} compresses all messages.
+     * @return {@code this} instance
+     */
+    public GelfConfiguration compressionThreshold(final int compressionThreshold) {
+        if (compressionThreshold < 0) {
+            throw new IllegalArgumentException("compressionThreshold must not be negative");
+        }
+        this.compressionThreshold = compressionThreshold;
+        return this;
+    }
+
+    /**
+     * Whether GELF UDP messages are sent uncompressed if compression didn't make them smaller.
+     *
+     * @return {@code true} if adaptive compression is enabled, {@code false} otherwise
+     */
+    public boolean isAdaptiveCompression() {
+        return adaptiveCompression;
+    }
+
+    /**
+     * Whether to send GELF UDP messages uncompressed if compression didn't make them smaller.
+     *
+     * @param adaptiveCompression {@code true} if adaptive compression should be enabled, {@code false} otherwise
+     * @return {@code this} instance
+     */
+    public GelfConfiguration adaptiveCompression(final boolean adaptiveCompression) {
+        this.adaptiveCompression = adaptiveCompression;
+        return this;
+    }
+
+    /**
+     * Get the maximum size of the payload of a GELF UDP chunk.
+     *
+     * @return the maximum size of the payload of a GELF UDP chunk in bytes
+     */
+    public int getMaxChunkSize() {
+        return maxChunkSize;
+    }
+
+    /**
+     * Set the maximum size of the payload of a GELF UDP chunk. Messages which are larger are split into up to 128
+     * chunks, so this also limits the maximum size of a GELF UDP message to 128 times the chunk size.
+     * <p>Each datagram additionally contains a 12 bytes chunk header, an 8 bytes UDP header and a 20 bytes IPv4
+     * (40 bytes IPv6) header. To avoid IP fragmentation, the chunk size should not exceed the MTU of the network path
+     * minus these headers, e. g. 8960 bytes for jumbo frames with an MTU of 9000 bytes.</p>
+     *
+     * @param maxChunkSize the maximum size of the payload of a GELF UDP chunk in bytes
+     *                     (1-{@value GelfMessageChunkEncoder#MAX_CHUNK_SIZE}, default
+     *                     {@value GelfMessageChunkEncoder#DEFAULT_MAX_CHUNK_SIZE})
+     * @return {@code this} instance
+     */
+    public GelfConfiguration maxChunkSize(final int maxChunkSize) {
+        if (maxChunkSize < 1 || maxChunkSize > GelfMessageChunkEncoder.MAX_CHUNK_SIZE) {
+            throw new IllegalArgumentException("maxChunkSize out of range: " + maxChunkSize);
+        }
+        this.maxChunkSize = maxChunkSize;
         return this;
     }
 
@@ -174,6 +482,255 @@ public class GelfConfiguration {
         return this;
     }
 
+    /**
+     * Get the implementation of the internally used {@link java.util.concurrent.BlockingQueue}.
+     *
+     * @return the implementation of the internally used queue
+     */
+    public QueueType getQueueType() {
+        return queueType;
+    }
+
+    /**
+     * Set the implementation of the internally used {@link java.util.concurrent.BlockingQueue}.
+     *
+     * @param queueType the implementation of the internally used queue
+     * @return {@code this} instance
+     * @throws IllegalArgumentException if {@link QueueType#RING_BUFFER} is combined with
+     *                                  {@link OverflowPolicy#DROP_BY_LEVEL}
+     * @see QueueType
+     */
+    public GelfConfiguration queueType(final QueueType queueType) {
+        if (queueType == null) {
+            throw new IllegalArgumentException("queueType must not be null");
+        }
+        checkDropByLevel(queueType, overflowPolicy);
+        this.queueType = queueType;
+        return this;
+    }
+
+    /**
+     * Get the number of messages taken from the most severe lanes of {@link QueueType#PRIORITY_LANES} before one
+     * message is taken from the lanes in round-robin order.
+     *
+     * @return the fairness ratio of the priority lanes, {@code 0} for strict priority order
+     */
+    public int getPriorityFairnessRatio() {
+        return priorityFairnessRatio;
+    }
+
+    /**
+     * Set the number of messages taken from the most severe lanes of {@link QueueType#PRIORITY_LANES} before one
+     * message is taken from the lanes in round-robin order.
+     *
+     * @param priorityFairnessRatio the fairness ratio of the priority lanes, {@code 0} for strict priority order
+     * @return {@code this} instance
+     */
+    public GelfConfiguration priorityFairnessRatio(final int priorityFairnessRatio) {
+        if (priorityFairnessRatio < 0) {
+            throw new IllegalArgumentException("priorityFairnessRatio must not be negative");
+        }
+        this.priorityFairnessRatio = priorityFairnessRatio;
+        return this;
+    }
+
+    /**
+     * Get the maximum total estimated size of the queued messages.
+     *
+     * @return the maximum size of the internally used queue in bytes, or {@code 0} if only the
+     * {@link #getQueueSize() number of messages} is limited
+     */
+    public long getQueueMaxBytes() {
+        return queueMaxBytes;
+    }
+
+    /**
+     * Set the maximum total estimated size of the queued messages.
+     * <p>The heap usage of each message is estimated from its message, full message, host and additional fields.
+     * The {@link #queueSize(int) queue size} remains a limit for the number of queued messages.</p>
+     *
+     * @param queueMaxBytes the maximum size of the internally used queue in bytes, or {@code 0} to only limit the
+     *                      number of messages
+     * @return {@code this} instance
+     * @see org.graylog2.gelfclient.queue.ByteBoundedBlockingQueue
+     */
+    public GelfConfiguration queueMaxBytes(final long queueMaxBytes) {
+        if (queueMaxBytes < 0L) {
+            throw new IllegalArgumentException("queueMaxBytes must not be negative");
+        }
+        this.queueMaxBytes = queueMaxBytes;
+        return this;
+    }
+
+    /**
+     * Get the strategy for handling messages which are sent while the queue is full.
+     *
+     * @return the strategy for handling messages which don't fit into the queue
+     */
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    /**
+     * Set the strategy for handling messages which are sent while the queue is full.
+     *
+     * @param overflowPolicy the strategy for handling messages which don't fit into the queue
+     * @return {@code this} instance
+     * @throws IllegalArgumentException if {@link OverflowPolicy#DROP_BY_LEVEL} is combined with
+     *                                  {@link QueueType#RING_BUFFER}
+     * @see OverflowPolicy
+     */
+    public GelfConfiguration overflowPolicy(final OverflowPolicy overflowPolicy) {
+        if (overflowPolicy == null) {
+            throw new IllegalArgumentException("overflowPolicy must not be null");
+        }
+        checkDropByLevel(queueType, overflowPolicy);
+        this.overflowPolicy = overflowPolicy;
+        return this;
+    }
+
+    /**
+     * Get the time {@link OverflowPolicy#BLOCK_WITH_TIMEOUT} waits for free capacity in the queue.
+     *
+     * @return the overflow timeout in milliseconds
+     */
+    public int getOverflowTimeout() {
+        return overflowTimeout;
+    }
+
+    /**
+     * Set the time {@link OverflowPolicy#BLOCK_WITH_TIMEOUT} waits for free capacity in the queue.
+     *
+     * @param overflowTimeout the overflow timeout in milliseconds
+     * @return {@code this} instance
+     */
+    public GelfConfiguration overflowTimeout(final int overflowTimeout) {
+        if (overflowTimeout < 0) {
+            throw new IllegalArgumentException("overflowTimeout must not be negative");
+        }
+        this.overflowTimeout = overflowTimeout;
+        return this;
+    }
+
+    /**
+     * Get the least severe level of messages which {@link OverflowPolicy#DROP_BY_LEVEL} doesn't drop.
+     *
+     * @return the least severe level of retained messages
+     */
+    public GelfMessageLevel getOverflowRetainLevel() {
+        return overflowRetainLevel;
+    }
+
+    /**
+     * Set the least severe level of messages which {@link OverflowPolicy#DROP_BY_LEVEL} doesn't drop.
+     *
+     * @param overflowRetainLevel the least severe level of retained messages
+     * @return {@code this} instance
+     */
+    public GelfConfiguration overflowRetainLevel(final GelfMessageLevel overflowRetainLevel) {
+        if (overflowRetainLevel == null) {
+            throw new IllegalArgumentException("overflowRetainLevel must not be null");
+        }
+        this.overflowRetainLevel = overflowRetainLevel;
+        return this;
+    }
+
+    /**
+     * Get the directory of the disk spool.
+     *
+     * @return the directory of the disk spool, or {@code null} if messages aren't spooled to disk
+     * @see org.graylog2.gelfclient.spool.GelfSpool
+     */
+    public File getSpoolDirectory() {
+        return spoolDirectory;
+    }
+
+    /**
+     * Set the directory of the disk spool, which takes messages while the transport isn't connected or the queue is
+     * full. The spooled messages are sent in order once the transport is connected again, even after a restart of
+     * the application.
+     * <p>The directory must not be shared with other transports.</p>
+     *
+     * @param spoolDirectory the directory of the disk spool, or {@code null} to disable spooling
+     * @return {@code this} instance
+     * @see org.graylog2.gelfclient.spool.GelfSpool
+     */
+    public GelfConfiguration spoolDirectory(final File spoolDirectory) {
+        this.spoolDirectory = spoolDirectory;
+        return this;
+    }
+
+    /**
+     * Get the maximum size of the disk spool.
+     *
+     * @return the maximum size of the disk spool in bytes
+     */
+    public long getSpoolMaxBytes() {
+        return spoolMaxBytes;
+    }
+
+    /**
+     * Set the maximum size of the disk spool. If the spool is full, messages are handled according to the
+     * {@link #overflowPolicy(OverflowPolicy) overflow policy}.
+     *
+     * @param spoolMaxBytes the maximum size of all segment files of the disk spool in bytes
+     * @return {@code this} instance
+     */
+    public GelfConfiguration spoolMaxBytes(final long spoolMaxBytes) {
+        if (spoolMaxBytes <= 0L) {
+            throw new IllegalArgumentException("spoolMaxBytes must be larger than 0");
+        }
+        this.spoolMaxBytes = spoolMaxBytes;
+        return this;
+    }
+
+    /**
+     * Get the size of each segment file of the disk spool.
+     *
+     * @return the size of each segment file in bytes
+     */
+    public int getSpoolSegmentSize() {
+        return spoolSegmentSize;
+    }
+
+    /**
+     * Set the size of each segment file of the disk spool. A segment file is deleted once all of its messages have
+     * been sent, and messages larger than a segment can't be spooled.
+     *
+     * @param spoolSegmentSize the size of each segment file in bytes
+     * @return {@code this} instance
+     */
+    public GelfConfiguration spoolSegmentSize(final int spoolSegmentSize) {
+        if (spoolSegmentSize < 1024) {
+            throw new IllegalArgumentException("spoolSegmentSize must be at least 1024");
+        }
+        this.spoolSegmentSize = spoolSegmentSize;
+        return this;
+    }
+
+    /**
+     * Get when the disk spool forces its contents to disk.
+     *
+     * @return the sync policy of the disk spool
+     */
+    public SpoolSyncPolicy getSpoolSyncPolicy() {
+        return spoolSyncPolicy;
+    }
+
+    /**
+     * Set when the disk spool forces its contents to disk.
+     *
+     * @param spoolSyncPolicy the sync policy of the disk spool
+     * @return {@code this} instance
+     */
+    public GelfConfiguration spoolSyncPolicy(final SpoolSyncPolicy spoolSyncPolicy) {
+        if (spoolSyncPolicy == null) {
+            throw new IllegalArgumentException("spoolSyncPolicy must not be null");
+        }
+        this.spoolSyncPolicy = spoolSyncPolicy;
+        return this;
+    }
+
     /**
      * Check if TLS option for the transport is enabled.
      *
@@ -272,6 +829,82 @@ public class GelfConfiguration {
         return this;
     }
 
+    /**
+     * Get the maximum time to wait between reconnects in milliseconds.
+     *
+     * @return the maximum time to wait between reconnects in milliseconds, {@code 0} if the reconnect delay is fixed
+     */
+    public int getReconnectMaxDelay() {
+        return reconnectMaxDelay;
+    }
+
+    /**
+     * Set the maximum time to wait between reconnects in milliseconds, which enables exponential backoff.
+     * <p>With exponential backoff, the delay before the n-th consecutive reconnect attempt of a connection is chosen
+     * randomly between {@code 0} and {@code min(reconnectMaxDelay, reconnectDelay * 2^n)} ("full jitter"), so that
+     * many clients don't reconnect to a restarted GELF server at the same time.</p>
+     *
+     * @param reconnectMaxDelay the maximum time to wait between reconnects in milliseconds, {@code 0} for a fixed
+     *                          {@link #reconnectDelay(int) reconnect delay}
+     * @return {@code this} instance
+     */
+    public GelfConfiguration reconnectMaxDelay(final int reconnectMaxDelay) {
+        if (reconnectMaxDelay < 0) {
+            throw new IllegalArgumentException("reconnectMaxDelay must not be negative");
+        }
+        this.reconnectMaxDelay = reconnectMaxDelay;
+        return this;
+    }
+
+    /**
+     * Get the number of consecutive failed connection attempts after which no connection attempts are made for the
+     * {@link #getCircuitBreakerCoolDown() cool-down}.
+     *
+     * @return the failure threshold of the circuit breaker, {@code 0} if the circuit breaker is disabled
+     */
+    public int getCircuitBreakerThreshold() {
+        return circuitBreakerThreshold;
+    }
+
+    /**
+     * Set the number of consecutive failed connection attempts after which no connection attempts are made for the
+     * {@link #circuitBreakerCoolDown(int) cool-down}. Queued messages are kept in the meantime.
+     *
+     * @param circuitBreakerThreshold the failure threshold of the circuit breaker, {@code 0} disables the circuit breaker
+     * @return {@code this} instance
+     * @see org.graylog2.gelfclient.transport.GelfCircuitBreaker
+     */
+    public GelfConfiguration circuitBreakerThreshold(final int circuitBreakerThreshold) {
+        if (circuitBreakerThreshold < 0) {
+            throw new IllegalArgumentException("circuitBreakerThreshold must not be negative");
+        }
+        this.circuitBreakerThreshold = circuitBreakerThreshold;
+        return this;
+    }
+
+    /**
+     * Get the time in milliseconds in which no connection attempts are made once the circuit breaker is open.
+     *
+     * @return the cool-down of the circuit breaker in milliseconds
+     */
+    public int getCircuitBreakerCoolDown() {
+        return circuitBreakerCoolDown;
+    }
+
+    /**
+     * Set the time in milliseconds in which no connection attempts are made once the circuit breaker is open.
+     *
+     * @param circuitBreakerCoolDown the cool-down of the circuit breaker in milliseconds
+     * @return {@code this} instance
+     */
+    public GelfConfiguration circuitBreakerCoolDown(final int circuitBreakerCoolDown) {
+        if (circuitBreakerCoolDown < 0) {
+            throw new IllegalArgumentException("circuitBreakerCoolDown must not be negative");
+        }
+        this.circuitBreakerCoolDown = circuitBreakerCoolDown;
+        return this;
+    }
+
     /**
      * Get the connection timeout for TCP connections in milliseconds.
      *
@@ -294,6 +927,81 @@ public class GelfConfiguration {
         return this;
     }
 
+    /**
+     * Get the time in milliseconds in which no tasks may be submitted to the event loops before a stopped transport
+     * shuts them down.
+     *
+     * @return the quiet period of the shutdown in milliseconds
+     */
+    public int getShutdownQuietPeriod() {
+        return shutdownQuietPeriod;
+    }
+
+    /**
+     * Set the time in milliseconds in which no tasks may be submitted to the event loops before a stopped transport
+     * shuts them down. {@code 0} shuts them down right away.
+     *
+     * @param shutdownQuietPeriod the quiet period of the shutdown in milliseconds
+     * @return {@code this} instance
+     * @see io.netty.util.concurrent.EventExecutorGroup#shutdownGracefully(long, long, java.util.concurrent.TimeUnit)
+     */
+    public GelfConfiguration shutdownQuietPeriod(final int shutdownQuietPeriod) {
+        if (shutdownQuietPeriod < 0) {
+            throw new IllegalArgumentException("shutdownQuietPeriod must not be negative");
+        }
+        this.shutdownQuietPeriod = shutdownQuietPeriod;
+        return this;
+    }
+
+    /**
+     * Get the number of parallel TCP connections to the GELF server.
+     *
+     * @return the number of parallel TCP connections
+     */
+    public int getConnections() {
+        return connections;
+    }
+
+    /**
+     * Set the number of parallel TCP connections to the GELF server.
+     * <p>All connections send messages from the same queue and reconnect independently of each other. With more than
+     * one connection, messages are not guaranteed to arrive in the order in which they were sent.</p>
+     *
+     * @param connections the number of parallel TCP connections, must be at least {@code 1}
+     * @return {@code this} instance
+     */
+    public GelfConfiguration connections(final int connections) {
+        if (connections < 1) {
+            throw new IllegalArgumentException("connections must be at least 1");
+        }
+        this.connections = connections;
+        return this;
+    }
+
+    /**
+     * Get the strategy for distributing queued messages over the parallel TCP connections.
+     *
+     * @return the strategy for distributing queued messages over the connections
+     */
+    public ConnectionBalancing getConnectionBalancing() {
+        return connectionBalancing;
+    }
+
+    /**
+     * Set the strategy for distributing queued messages over the parallel TCP connections.
+     *
+     * @param connectionBalancing the strategy for distributing queued messages over the connections
+     * @return {@code this} instance
+     * @see #connections(int)
+     */
+    public GelfConfiguration connectionBalancing(final ConnectionBalancing connectionBalancing) {
+        if (connectionBalancing == null) {
+            throw new IllegalArgumentException("connectionBalancing must not be null");
+        }
+        this.connectionBalancing = connectionBalancing;
+        return this;
+    }
+
     /**
      * Whether <a href="https://en.wikipedia.org/wiki/Nagle's_algorithm">Nagle's algorithm</a> is enabled for TCP connections.
      *
@@ -368,6 +1076,57 @@ public class GelfConfiguration {
         return this;
     }
 
+    /**
+     * Whether Netty's native epoll transport is used instead of NIO, if it is available.
+     *
+     * @return {@code true} if the native transport is used if available, {@code false} otherwise
+     */
+    public boolean isNativeTransport() {
+        return nativeTransport;
+    }
+
+    /**
+     * Whether to use Netty's native epoll transport instead of NIO, if it is available.
+     * <p>The native transport sends all datagrams which are flushed together with a single {@code sendmmsg} system
+     * call, so it works best together with {@link #batchSize(int)}. It also avoids copying the messages into direct
+     * buffers before writing them.</p>
+     * <p>The native transport is only available on Linux and requires {@code io.netty:netty-transport-native-epoll}
+     * with the classifier of the platform (e. g. {@code linux-x86_64}) on the classpath, which isn't possible with the
+     * shaded JAR of the GELF client. If it isn't available, NIO is used and a warning is logged.</p>
+     *
+     * @param nativeTransport {@code true} if the native transport should be used if available, {@code false} otherwise
+     * @return {@code this} instance
+     */
+    public GelfConfiguration nativeTransport(final boolean nativeTransport) {
+        this.nativeTransport = nativeTransport;
+        return this;
+    }
+
+    /**
+     * Whether {@link SenderType#THREAD} runs on a virtual thread instead of a platform thread, if it is available.
+     *
+     * @return {@code true} if a virtual sender thread is used if available, {@code false} otherwise
+     */
+    public boolean isVirtualSenderThread() {
+        return virtualSenderThread;
+    }
+
+    /**
+     * Whether {@link SenderType#THREAD} runs on a virtual thread instead of a platform thread, if it is available.
+     * <p>Virtual threads require Java 21 or later. If they aren't available, a platform thread is used and a warning
+     * is logged. Neither the sender nor the blocking {@code send()} path hold monitors while waiting, so they don't
+     * pin their carrier threads.</p>
+     *
+     * @param virtualSenderThread {@code true} if a virtual sender thread should be used if available, {@code false}
+     *                            otherwise
+     * @return {@code this} instance
+     * @see org.graylog2.gelfclient.util.VirtualThreads
+     */
+    public GelfConfiguration virtualSenderThread(final boolean virtualSenderThread) {
+        this.virtualSenderThread = virtualSenderThread;
+        return this;
+    }
+
     private String checkHostname(final String hostname) {
         if (hostname == null) {
             throw new IllegalArgumentException("hostname can't be null");
@@ -387,6 +1146,13 @@ public class GelfConfiguration {
         return port;
     }
 
+    private static void checkDropByLevel(final QueueType queueType, final OverflowPolicy overflowPolicy) {
+        // The ring buffer can't remove queued messages, which DROP_BY_LEVEL has to replace.
+        if (queueType == QueueType.RING_BUFFER && overflowPolicy == OverflowPolicy.DROP_BY_LEVEL) {
+            throw new IllegalArgumentException("overflowPolicy DROP_BY_LEVEL isn't supported by queueType RING_BUFFER");
+        }
+    }
+
     /**
      * Get the number of max queued network operations.
      *
@@ -408,4 +1174,165 @@ public class GelfConfiguration {
         this.maxInflightSends = maxInflightSends;
         return this;
     }
+
+    /**
+     * Get the maximum number of messages which are written to the network channel before flushing it.
+     *
+     * @return the maximum number of messages per flush
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Set the maximum number of messages which are written to the network channel before flushing it.
+     * <p>The sender takes as many messages as are immediately available from the queue, up to this number, writes
+     * them and flushes the channel once. This reduces the number of system calls (and TLS records) under load without
+     * delaying single messages. A value of {@code 1} flushes after every message.</p>
+     *
+     * @param batchSize the maximum number of messages per flush
+     * @return {@code this} instance
+     * @see org.graylog2.gelfclient.transport.GelfTransportMetrics#getFlushesPerMessage()
+     */
+    public GelfConfiguration batchSize(final int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be at least 1");
+        }
+        this.batchSize = batchSize;
+        return this;
+    }
+
+    /**
+     * Get the strategy for taking queued messages and writing them to the network channel.
+     *
+     * @return the strategy for sending queued messages
+     */
+    public SenderType getSenderType() {
+        return senderType;
+    }
+
+    /**
+     * Set the strategy for taking queued messages and writing them to the network channel.
+     *
+     * @param senderType the strategy for sending queued messages
+     * @return {@code this} instance
+     * @see SenderType
+     */
+    public GelfConfiguration senderType(final SenderType senderType) {
+        if (senderType == null) {
+            throw new IllegalArgumentException("senderType must not be null");
+        }
+        this.senderType = senderType;
+        return this;
+    }
+
+    /**
+     * Get the number of pending outbound bytes below which the network channel becomes writable again.
+     *
+     * @return the low water mark of the write buffer in bytes
+     */
+    public int getWriteBufferLowWaterMark() {
+        return writeBufferLowWaterMark;
+    }
+
+    /**
+     * Get the number of pending outbound bytes above which the network channel becomes unwritable.
+     *
+     * @return the high water mark of the write buffer in bytes
+     */
+    public int getWriteBufferHighWaterMark() {
+        return writeBufferHighWaterMark;
+    }
+
+    /**
+     * Set the water marks of the write buffer of the network channel.
+     * <p>With {@link SenderType#EVENT_LOOP}, no more messages are taken from the queue while more than
+     * {@code high} bytes are waiting to be written to the network, until less than {@code low} bytes are pending.</p>
+     *
+     * @param low  the low water mark of the write buffer in bytes
+     * @param high the high water mark of the write buffer in bytes
+     * @return {@code this} instance
+     * @see io.netty.channel.ChannelOption#WRITE_BUFFER_WATER_MARK
+     */
+    public GelfConfiguration writeBufferWaterMark(final int low, final int high) {
+        if (low < 0 || high < low) {
+            throw new IllegalArgumentException("write buffer water marks must satisfy 0 <= low <= high");
+        }
+        this.writeBufferLowWaterMark = low;
+        this.writeBufferHighWaterMark = high;
+        return this;
+    }
+
+    /**
+     * Whether one JSON generator per thread is reused for encoding GELF messages.
+     *
+     * @return {@code true} if JSON generators are reused, {@code false} if a new one is created for each message
+     * @see org.graylog2.gelfclient.encoder.GelfMessageJsonEncoder
+     */
+    public boolean isReuseJsonGenerators() {
+        return reuseJsonGenerators;
+    }
+
+    /**
+     * Whether to reuse one JSON generator per thread for encoding GELF messages instead of creating a new one for
+     * each message.
+     *
+     * @param reuseJsonGenerators {@code true} if JSON generators should be reused, {@code false} otherwise
+     * @return {@code this} instance
+     * @see org.graylog2.gelfclient.encoder.GelfMessageJsonEncoder
+     */
+    public GelfConfiguration reuseJsonGenerators(final boolean reuseJsonGenerators) {
+        this.reuseJsonGenerators = reuseJsonGenerators;
+        return this;
+    }
+
+    /**
+     * Whether GELF messages are encoded by the threads sending them instead of the event loop.
+     *
+     * @return {@code true} if messages are encoded by the sending threads, {@code false} if they are encoded by the
+     * event loop
+     */
+    public boolean isEncodeOnSend() {
+        return encodeOnSend;
+    }
+
+    /**
+     * Whether to encode, and for UDP compress, GELF messages on the threads sending them instead of the event loop.
+     * <p>The messages are encoded into pooled buffers before they are queued, which spreads the work over all
+     * sending threads and leaves only the network I/O to the event loop. On the other hand, the sending threads are
+     * slowed down, and each queued message additionally holds its encoded payload.</p>
+     *
+     * @param encodeOnSend {@code true} if messages should be encoded by the sending threads, {@code false} otherwise
+     * @return {@code this} instance
+     */
+    public GelfConfiguration encodeOnSend(final boolean encodeOnSend) {
+        this.encodeOnSend = encodeOnSend;
+        return this;
+    }
+
+    /**
+     * Get the maximum number of cached JSON keys of additional fields.
+     *
+     * @return the maximum number of cached JSON keys of additional fields
+     * @see org.graylog2.gelfclient.encoder.GelfFieldNameCache
+     */
+    public int getFieldNameCacheSize() {
+        return fieldNameCacheSize;
+    }
+
+    /**
+     * Set the maximum number of cached JSON keys of additional fields.
+     *
+     * @param fieldNameCacheSize the maximum number of cached JSON keys of additional fields.
+     *                           A value of {@code 0} disables the cache.
+     * @return {@code this} instance
+     * @see org.graylog2.gelfclient.encoder.GelfFieldNameCache
+     */
+    public GelfConfiguration fieldNameCacheSize(final int fieldNameCacheSize) {
+        if (fieldNameCacheSize < 0) {
+            throw new IllegalArgumentException("fieldNameCacheSize must not be negative");
+        }
+        this.fieldNameCacheSize = fieldNameCacheSize;
+        return this;
+    }
 }
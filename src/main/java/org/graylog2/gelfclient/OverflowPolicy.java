@@ -0,0 +1,56 @@
+/*
+ * Copyright 2026 Graylog, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graylog2.gelfclient;
+
+/**
+ * The strategies for handling messages which are sent while the queue of the transport is full.
+ * <p>Dropped messages are counted per level in {@link org.graylog2.gelfclient.transport.GelfTransportMetrics}.</p>
+ *
+ * @see GelfConfiguration#overflowPolicy(OverflowPolicy)
+ */
+public enum OverflowPolicy {
+    /**
+     * {@link org.graylog2.gelfclient.transport.GelfTransport#send(GelfMessage)} blocks until the message has been
+     * queued, {@link org.graylog2.gelfclient.transport.GelfTransport#trySend(GelfMessage)} drops the new message.
+     */
+    BLOCK,
+    /**
+     * {@link org.graylog2.gelfclient.transport.GelfTransport#send(GelfMessage)} blocks for at most the
+     * {@link GelfConfiguration#overflowTimeout(int) overflow timeout} and then drops the new message,
+     * {@link org.graylog2.gelfclient.transport.GelfTransport#trySend(GelfMessage)} drops the new message right away.
+     */
+    BLOCK_WITH_TIMEOUT,
+    /**
+     * The new message is dropped.
+     */
+    DROP_NEWEST,
+    /**
+     * The oldest queued messages are dropped until the new message fits into the queue, to keep the most recent
+     * context. With {@link QueueType#PRIORITY_LANES}, the oldest messages of the least severe lane are dropped.
+     */
+    DROP_OLDEST,
+    /**
+     * New messages less severe than the {@link GelfConfiguration#overflowRetainLevel(GelfMessageLevel) retain level}
+     * replace the least severe queued message if it is less severe than the new message, otherwise they are dropped.
+     * More severe messages replace a queued message below the retain level. If there is no such message, they are
+     * handled like with {@link #BLOCK}.
+     * <p>With {@link QueueType#PRIORITY_LANES}, the oldest message of the least severe lane is replaced, otherwise the
+     * oldest message below the retain level. Replacing queued messages requires a queue which supports removing
+     * arbitrary elements, so this policy can't be combined with {@link QueueType#RING_BUFFER}.</p>
+     */
+    DROP_BY_LEVEL
+}
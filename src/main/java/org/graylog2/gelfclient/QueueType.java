@@ -0,0 +1,44 @@
+/*
+ * Copyright 2026 Graylog, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graylog2.gelfclient;
+
+/**
+ * The implementations of the queue which buffers GELF messages until they are sent.
+ *
+ * @see GelfConfiguration#queueSize(int)
+ */
+public enum QueueType {
+    /**
+     * A {@link java.util.concurrent.LinkedBlockingQueue}, which takes a lock for every operation and allocates a node
+     * per message.
+     */
+    LINKED,
+    /**
+     * A lock-free ring buffer optimized for many threads sending messages concurrently. The queue size is rounded up
+     * to the next power of two.
+     *
+     * @see org.graylog2.gelfclient.queue.RingBufferBlockingQueue
+     */
+    RING_BUFFER,
+    /**
+     * One lane per {@link GelfMessageLevel}, where more severe messages are sent first. The
+     * {@link GelfConfiguration#priorityFairnessRatio(int) fairness ratio} keeps less severe messages from starving.
+     *
+     * @see org.graylog2.gelfclient.queue.PriorityLaneBlockingQueue
+     */
+    PRIORITY_LANES
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright 2026 Graylog, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graylog2.gelfclient;
+
+/**
+ * The strategies for taking queued GELF messages and writing them to the network channel.
+ *
+ * @see org.graylog2.gelfclient.transport.GelfSender
+ */
+public enum SenderType {
+    /**
+     * A dedicated thread per transport which polls the queue.
+     *
+     * @see org.graylog2.gelfclient.transport.GelfSenderThread
+     */
+    THREAD,
+    /**
+     * The event loop of the network channel drains the queue whenever messages are queued or the channel becomes
+     * writable again, without an additional thread.
+     *
+     * @see org.graylog2.gelfclient.transport.GelfEventLoopSender
+     */
+    EVENT_LOOP
+}
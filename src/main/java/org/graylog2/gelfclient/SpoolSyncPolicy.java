@@ -0,0 +1,41 @@
+/*
+ * Copyright 2026 Graylog, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.graylog2.gelfclient;
+
+/**
+ * When the {@link org.graylog2.gelfclient.spool.GelfSpool spool} forces its memory-mapped segment files to disk.
+ * <p>The contents of the spool survive a crash of the JVM in any case, because they are written to the page cache
+ * of the operating system. Forcing them to disk additionally protects them against a crash of the operating system
+ * or a power failure.</p>
+ *
+ * @see GelfConfiguration#spoolSyncPolicy(SpoolSyncPolicy)
+ */
+public enum SpoolSyncPolicy {
+    /**
+     * Leave it to the operating system when the spooled messages are written to disk.
+     */
+    NEVER,
+    /**
+     * Force a segment file to disk once it is full and when the spool is closed.
+     */
+    SEGMENT,
+    /**
+     * Force the segment file to disk after every spooled message. This is the safest, but by far the slowest option.
+     */
+    ALWAYS
+}
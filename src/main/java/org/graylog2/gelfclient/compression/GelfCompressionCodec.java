@@ -0,0 +1,51 @@
+/*
+ * Copyright 2026 Graylog, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graylog2.gelfclient.compression;
+
+import io.netty.channel.ChannelHandler;
+import org.graylog2.gelfclient.GelfConfiguration;
+
+/**
+ * A compression algorithm for GELF UDP messages.
+ * <p>Additional implementations can be registered as a {@link java.util.ServiceLoader service provider} in
+ * {@code META-INF/services/org.graylog2.gelfclient.compression.GelfCompressionCodec} and selected by name using
+ * {@link GelfConfiguration#compressionCodec(String)}, or passed directly to
+ * {@link GelfConfiguration#compressionCodec(GelfCompressionCodec)}.</p>
+ * <p>Implementations must be thread-safe.</p>
+ *
+ * @see GelfCompressionCodecs
+ */
+public interface GelfCompressionCodec {
+    /**
+     * Get the unique name of this codec.
+     *
+     * @return the name of this codec
+     */
+    String getName();
+
+    /**
+     * Creates a new Netty channel handler which compresses the serialized GELF messages ({@link io.netty.buffer.ByteBuf})
+     * of a single channel.
+     * <p>The handler should honor {@link GelfConfiguration#getCompressionThreshold()} and
+     * {@link GelfConfiguration#isAdaptiveCompression()}, e. g. by extending
+     * {@link org.graylog2.gelfclient.encoder.AbstractGelfCompressionEncoder}.</p>
+     *
+     * @param configuration the GELF client configuration
+     * @return a new channel handler
+     */
+    ChannelHandler newEncoder(GelfConfiguration configuration);
+}
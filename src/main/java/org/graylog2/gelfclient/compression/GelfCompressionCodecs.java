@@ -0,0 +1,128 @@
+/*
+ * Copyright 2026 Graylog, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graylog2.gelfclient.compression;
+
+import io.netty.channel.ChannelHandler;
+import org.graylog2.gelfclient.Compression;
+import org.graylog2.gelfclient.GelfConfiguration;
+import org.graylog2.gelfclient.encoder.GelfCompressionGzipEncoder;
+import org.graylog2.gelfclient.encoder.GelfCompressionSnappyEncoder;
+import org.graylog2.gelfclient.encoder.GelfCompressionZlibEncoder;
+
+import java.util.ServiceLoader;
+
+/**
+ * The built-in {@link GelfCompressionCodec} implementations and the lookup of additional implementations.
+ */
+public final class GelfCompressionCodecs {
+    /**
+     * GZIP compression, supported by Graylog.
+     */
+    public static final GelfCompressionCodec GZIP = new GelfCompressionCodec() {
+        @Override
+        public String getName() {
+            return "gzip";
+        }
+
+        @Override
+        public ChannelHandler newEncoder(GelfConfiguration configuration) {
+            return new GelfCompressionGzipEncoder(configuration.getCompressionLevel(),
+                    configuration.getCompressionThreshold(), configuration.isAdaptiveCompression());
+        }
+    };
+
+    /**
+     * ZLIB compression, supported by Graylog.
+     */
+    public static final GelfCompressionCodec ZLIB = new GelfCompressionCodec() {
+        @Override
+        public String getName() {
+            return "zlib";
+        }
+
+        @Override
+        public ChannelHandler newEncoder(GelfConfiguration configuration) {
+            return new GelfCompressionZlibEncoder(configuration.getCompressionLevel(),
+                    configuration.getCompressionThreshold(), configuration.isAdaptiveCompression());
+        }
+    };
+
+    /**
+     * Snappy compression, <strong>not</strong> supported by Graylog.
+     *
+     * @see GelfCompressionSnappyEncoder
+     */
+    public static final GelfCompressionCodec SNAPPY = new GelfCompressionCodec() {
+        @Override
+        public String getName() {
+            return "snappy";
+        }
+
+        @Override
+        public ChannelHandler newEncoder(GelfConfiguration configuration) {
+            return new GelfCompressionSnappyEncoder(configuration.getCompressionThreshold(),
+                    configuration.isAdaptiveCompression());
+        }
+    };
+
+    private GelfCompressionCodecs() {
+    }
+
+    /**
+     * Get the codec for the given compression setting.
+     *
+     * @param compression the compression setting
+     * @return the codec, or {@code null} for {@link Compression#NONE}
+     */
+    public static GelfCompressionCodec forCompression(final Compression compression) {
+        switch (compression) {
+            case GZIP:
+                return GZIP;
+            case ZLIB:
+                return ZLIB;
+            case SNAPPY:
+                return SNAPPY;
+            case NONE:
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Get the codec with the given name.
+     * <p>The built-in codecs are looked up first, afterwards all codecs registered as service provider.</p>
+     *
+     * @param name the name of the codec (case-insensitive)
+     * @return the codec with the given name
+     * @throws IllegalArgumentException if no codec with the given name exists
+     */
+    public static GelfCompressionCodec forName(final String name) {
+        for (GelfCompressionCodec codec : new GelfCompressionCodec[]{GZIP, ZLIB, SNAPPY}) {
+            if (codec.getName().equalsIgnoreCase(name)) {
+                return codec;
+            }
+        }
+
+        for (GelfCompressionCodec codec : ServiceLoader.load(GelfCompressionCodec.class)) {
+            if (codec.getName().equalsIgnoreCase(name)) {
+                return codec;
+            }
+        }
+
+        throw new IllegalArgumentException("Unknown compression codec: " + name);
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2026 Graylog, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graylog2.gelfclient.encoder;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.MessageToMessageEncoder;
+
+import java.util.List;
+
+/**
+ * An abstract Netty channel handler which compresses each message on its own.
+ * <p>Messages smaller than the configured threshold are passed on uncompressed. In adaptive mode, messages are also
+ * passed on uncompressed if compressing them didn't make them any smaller. GELF receivers detect compressed messages
+ * by their magic bytes, so compressed and uncompressed messages can be mixed freely.</p>
+ * <p>Messages can also be compressed outside of a channel pipeline with {@link #encode(ByteBufAllocator, ByteBuf)}.
+ * Such instances have to be {@link #close() closed} once they aren't used anymore.</p>
+ */
+public abstract class AbstractGelfCompressionEncoder extends MessageToMessageEncoder<ByteBuf> {
+    private final int threshold;
+    private final boolean adaptive;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param threshold the minimum size of a message in bytes to be compressed
+     * @param adaptive  {@code true} if messages should be passed on uncompressed if compression didn't make them smaller
+     */
+    protected AbstractGelfCompressionEncoder(final int threshold, final boolean adaptive) {
+        if (threshold < 0) {
+            throw new IllegalArgumentException("threshold must not be negative");
+        }
+
+        this.threshold = threshold;
+        this.adaptive = adaptive;
+    }
+
+    /**
+     * Compresses the readable bytes of the given message into a new buffer.
+     * <p>Implementations must not modify the reader index of {@code msg}.</p>
+     *
+     * @param alloc the allocator of the compressed message
+     * @param msg   the uncompressed message
+     * @return the compressed message
+     * @throws Exception if the message couldn't be compressed
+     */
+    protected abstract ByteBuf compress(ByteBufAllocator alloc, ByteBuf msg) throws Exception;
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void encode(ChannelHandlerContext ctx, ByteBuf msg, List<Object> out) throws Exception {
+        out.add(encode(ctx.alloc(), msg));
+    }
+
+    /**
+     * Compresses the given message like this handler does in a channel pipeline, e. g. on the thread sending it.
+     * <p>Like the handler itself, an instance can only compress one message at a time.</p>
+     *
+     * @param alloc the allocator of the compressed message
+     * @param msg   the uncompressed message, which is not released by this method
+     * @return the compressed message, or the retained uncompressed message if it isn't compressed
+     * @throws Exception if the message couldn't be compressed
+     */
+    public ByteBuf encode(ByteBufAllocator alloc, ByteBuf msg) throws Exception {
+        final int length = msg.readableBytes();
+        if (length < threshold) {
+            // Need to retain() the buffer here to avoid releasing the buffer too early.
+            return msg.retain();
+        }
+
+        final ByteBuf compressed = compress(alloc, msg);
+        if (adaptive && compressed.readableBytes() >= length) {
+            compressed.release();
+            return msg.retain();
+        }
+        return compressed;
+    }
+
+    /**
+     * Releases the resources of this encoder if it has been used outside of a channel pipeline. Handlers in a channel
+     * pipeline are closed once they are removed from it.
+     * <p>The default implementation does nothing.</p>
+     */
+    public void close() {
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>Closes this encoder.</p>
+     */
+    @Override
+    public void handlerRemoved(ChannelHandlerContext ctx) throws Exception {
+        close();
+        super.handlerRemoved(ctx);
+    }
+}
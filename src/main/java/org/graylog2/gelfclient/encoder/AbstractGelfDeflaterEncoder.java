@@ -0,0 +1,134 @@
+/*
+ * Copyright 2026 Graylog, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graylog2.gelfclient.encoder;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+
+import java.util.zip.Deflater;
+
+/**
+ * An abstract Netty channel handler which compresses each message on its own using a {@link Deflater}.
+ * <p>Every instance owns a single {@link Deflater} which is reset between messages and released once the handler is
+ * removed from the pipeline or {@link #close() closed}, so instances of this class must not be shared between
+ * channels. The compressed data is written into a buffer obtained from the given {@link ByteBufAllocator}.</p>
+ */
+public abstract class AbstractGelfDeflaterEncoder extends AbstractGelfCompressionEncoder {
+    private final Deflater deflater;
+
+    /**
+     * Creates a new instance with the given compression level.
+     *
+     * @param compressionLevel the compression level ({@code 0}-{@code 9}), or {@link Deflater#DEFAULT_COMPRESSION}
+     * @param nowrap           {@code true} to create raw deflate data without ZLIB header and checksum
+     * @param threshold        the minimum size of a message in bytes to be compressed
+     * @param adaptive         {@code true} if messages should be passed on uncompressed if compression didn't make them smaller
+     */
+    protected AbstractGelfDeflaterEncoder(final int compressionLevel, final boolean nowrap, final int threshold,
+                                          final boolean adaptive) {
+        super(threshold, adaptive);
+        if (compressionLevel != Deflater.DEFAULT_COMPRESSION && (compressionLevel < 0 || compressionLevel > 9)) {
+            throw new IllegalArgumentException("compressionLevel must be between 0 and 9 or -1 (default compression)");
+        }
+
+        this.deflater = new Deflater(compressionLevel, nowrap);
+    }
+
+    /**
+     * Writes the header which precedes the deflated data.
+     *
+     * @param out the buffer receiving the compressed message
+     */
+    protected abstract void writeHeader(ByteBuf out);
+
+    /**
+     * Writes the trailer which follows the deflated data.
+     *
+     * @param out    the buffer receiving the compressed message
+     * @param input  the array containing the uncompressed message
+     * @param offset the offset of the uncompressed message in {@code input}
+     * @param length the length of the uncompressed message
+     */
+    protected abstract void writeTrailer(ByteBuf out, byte[] input, int offset, int length);
+
+    /**
+     * Get the maximum number of bytes written by {@link #writeHeader(ByteBuf)} and
+     * {@link #writeTrailer(ByteBuf, byte[], int, int)} together.
+     *
+     * @return the maximum length of header and trailer
+     */
+    protected abstract int getFramingLength();
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected ByteBuf compress(ByteBufAllocator alloc, ByteBuf msg) {
+        final int length = msg.readableBytes();
+
+        // Deflater only accepts arrays, so direct buffers have to be copied into a (pooled) heap buffer first.
+        final boolean copied = !msg.hasArray();
+        final ByteBuf heapMsg = copied ? alloc.heapBuffer(length).writeBytes(msg, msg.readerIndex(), length) : msg;
+        final ByteBuf compressed = alloc.heapBuffer(maxCompressedLength(length));
+
+        boolean success = false;
+        try {
+            final byte[] input = heapMsg.array();
+            final int offset = heapMsg.arrayOffset() + heapMsg.readerIndex();
+
+            writeHeader(compressed);
+            deflate(input, offset, length, compressed);
+            writeTrailer(compressed, input, offset, length);
+
+            success = true;
+            return compressed;
+        } finally {
+            if (copied) {
+                heapMsg.release();
+            }
+            if (!success) {
+                compressed.release();
+            }
+        }
+    }
+
+    private int maxCompressedLength(final int length) {
+        // Same estimate as zlib's deflateBound() plus the framing of the concrete format.
+        return length + (length >> 12) + (length >> 14) + (length >> 25) + 13 + getFramingLength();
+    }
+
+    private void deflate(final byte[] input, final int offset, final int length, final ByteBuf out) {
+        deflater.reset();
+        deflater.setInput(input, offset, length);
+        deflater.finish();
+
+        while (!deflater.finished()) {
+            out.ensureWritable(Math.max(64, length >> 4));
+            final int written = deflater.deflate(out.array(), out.arrayOffset() + out.writerIndex(), out.writableBytes());
+            out.writerIndex(out.writerIndex() + written);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>Releases the native resources of the {@link Deflater}.</p>
+     */
+    @Override
+    public void close() {
+        deflater.end();
+    }
+}
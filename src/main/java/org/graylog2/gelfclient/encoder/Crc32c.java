@@ -0,0 +1,64 @@
+/*
+ * Copyright 2026 Graylog, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graylog2.gelfclient.encoder;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * A table-driven implementation of the CRC-32C (Castagnoli) checksum, which is only part of the JDK since Java 9.
+ */
+final class Crc32c {
+    private static final int POLYNOMIAL = 0x82F63B78;
+    private static final int[] TABLE = new int[256];
+
+    static {
+        for (int i = 0; i < TABLE.length; i++) {
+            int crc = i;
+            for (int bit = 0; bit < 8; bit++) {
+                crc = (crc & 1) != 0 ? (crc >>> 1) ^ POLYNOMIAL : crc >>> 1;
+            }
+            TABLE[i] = crc;
+        }
+    }
+
+    private Crc32c() {
+    }
+
+    /**
+     * Calculates the CRC-32C checksum of the given bytes.
+     *
+     * @param buf    the buffer containing the bytes
+     * @param index  the index of the first byte
+     * @param length the number of bytes
+     * @return the CRC-32C checksum
+     */
+    static int calculate(final ByteBuf buf, final int index, final int length) {
+        int crc = 0xFFFFFFFF;
+        if (buf.hasArray()) {
+            final byte[] array = buf.array();
+            final int offset = buf.arrayOffset() + index;
+            for (int i = offset; i < offset + length; i++) {
+                crc = (crc >>> 8) ^ TABLE[(crc ^ array[i]) & 0xFF];
+            }
+        } else {
+            for (int i = index; i < index + length; i++) {
+                crc = (crc >>> 8) ^ TABLE[(crc ^ buf.getByte(i)) & 0xFF];
+            }
+        }
+        return ~crc;
+    }
+}
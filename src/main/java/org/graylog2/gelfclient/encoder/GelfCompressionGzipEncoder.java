@@ -17,27 +17,65 @@
 package org.graylog2.gelfclient.encoder;
 
 import io.netty.buffer.ByteBuf;
-import io.netty.buffer.Unpooled;
-import io.netty.channel.ChannelHandlerContext;
-import io.netty.handler.codec.MessageToMessageEncoder;
 
-import java.io.ByteArrayOutputStream;
-import java.util.List;
-import java.util.zip.GZIPOutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
 
 /**
- * A Netty channel handler which compresses messages using a {@link GZIPOutputStream}.
+ * A Netty channel handler which compresses messages into the GZIP format.
+ * <p>Instances of this class must not be shared between channels.</p>
  */
-public class GelfCompressionGzipEncoder extends MessageToMessageEncoder<ByteBuf> {
+public class GelfCompressionGzipEncoder extends AbstractGelfDeflaterEncoder {
+    // Magic number, compression method "deflate", no flags, no modification time, no extra flags, OS "FAT"
+    // (same header as written by java.util.zip.GZIPOutputStream).
+    private static final byte[] GZIP_HEADER = new byte[]{0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, 0};
+    private static final int GZIP_TRAILER_LENGTH = 8;
+
+    private final CRC32 crc = new CRC32();
+
+    /**
+     * Creates a new instance with the default compression level.
+     */
+    public GelfCompressionGzipEncoder() {
+        this(Deflater.DEFAULT_COMPRESSION);
+    }
+
+    /**
+     * Creates a new instance with the given compression level.
+     *
+     * @param compressionLevel the compression level ({@code 0}-{@code 9}), or {@link Deflater#DEFAULT_COMPRESSION}
+     */
+    public GelfCompressionGzipEncoder(final int compressionLevel) {
+        this(compressionLevel, 0, false);
+    }
+
+    /**
+     * Creates a new instance with the given compression level which only compresses messages of a certain size.
+     *
+     * @param compressionLevel the compression level ({@code 0}-{@code 9}), or {@link Deflater#DEFAULT_COMPRESSION}
+     * @param threshold        the minimum size of a message in bytes to be compressed
+     * @param adaptive         {@code true} if messages should be passed on uncompressed if compression didn't make them smaller
+     */
+    public GelfCompressionGzipEncoder(final int compressionLevel, final int threshold, final boolean adaptive) {
+        super(compressionLevel, true, threshold, adaptive);
+    }
+
+    @Override
+    protected void writeHeader(ByteBuf out) {
+        out.writeBytes(GZIP_HEADER);
+    }
+
     @Override
-    protected void encode(ChannelHandlerContext ctx, ByteBuf msg, List<Object> out) throws Exception {
-        try (final ByteArrayOutputStream bos = new ByteArrayOutputStream();
-             final GZIPOutputStream stream = new GZIPOutputStream(bos)) {
+    protected void writeTrailer(ByteBuf out, byte[] input, int offset, int length) {
+        crc.reset();
+        crc.update(input, offset, length);
 
-            stream.write(msg.array());
-            stream.finish();
+        out.writeIntLE((int) crc.getValue());
+        out.writeIntLE(length);
+    }
 
-            out.add(Unpooled.wrappedBuffer(bos.toByteArray()));
-        }
+    @Override
+    protected int getFramingLength() {
+        return GZIP_HEADER.length + GZIP_TRAILER_LENGTH;
     }
 }
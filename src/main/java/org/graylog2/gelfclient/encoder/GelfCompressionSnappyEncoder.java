@@ -0,0 +1,114 @@
+/*
+ * Copyright 2026 Graylog, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graylog2.gelfclient.encoder;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.handler.codec.compression.Snappy;
+
+/**
+ * A Netty channel handler which compresses messages into the
+ * <a href="https://github.com/google/snappy/blob/master/framing_format.txt">Snappy framing format</a>.
+ * <p>Snappy compresses considerably faster than deflate at the cost of a lower compression ratio. Every message is a
+ * complete Snappy stream starting with the stream identifier, so that receivers can detect compressed messages by
+ * their magic bytes ({@code 0xff 0x06 0x00 0x00 sNaPpY}).</p>
+ * <p><strong>Note:</strong> Graylog doesn't support Snappy compressed GELF messages. This encoder is only useful
+ * together with GELF receivers which explicitly support it.</p>
+ * <p>Instances of this class must not be shared between channels.</p>
+ */
+public class GelfCompressionSnappyEncoder extends AbstractGelfCompressionEncoder {
+    private static final byte[] STREAM_IDENTIFIER = new byte[]{(byte) 0xff, 0x06, 0x00, 0x00, 's', 'N', 'a', 'P', 'p', 'Y'};
+    private static final int COMPRESSED_DATA = 0x00;
+    // Same chunk size as in io.netty.handler.codec.compression.SnappyFrameEncoder.
+    private static final int MAX_CHUNK_LENGTH = Short.MAX_VALUE;
+    // Chunk type, chunk length and checksum.
+    private static final int CHUNK_HEADER_LENGTH = 8;
+
+    private final Snappy snappy = new Snappy();
+
+    /**
+     * Creates a new instance which compresses all messages.
+     */
+    public GelfCompressionSnappyEncoder() {
+        this(0, false);
+    }
+
+    /**
+     * Creates a new instance which only compresses messages of a certain size.
+     *
+     * @param threshold the minimum size of a message in bytes to be compressed
+     * @param adaptive  {@code true} if messages should be passed on uncompressed if compression didn't make them smaller
+     */
+    public GelfCompressionSnappyEncoder(final int threshold, final boolean adaptive) {
+        super(threshold, adaptive);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected ByteBuf compress(ByteBufAllocator alloc, ByteBuf msg) {
+        final int length = msg.readableBytes();
+        final ByteBuf compressed = alloc.heapBuffer(maxCompressedLength(length));
+
+        boolean success = false;
+        try {
+            compressed.writeBytes(STREAM_IDENTIFIER);
+
+            int index = msg.readerIndex();
+            int remaining = length;
+            do {
+                final int chunkLength = Math.min(remaining, MAX_CHUNK_LENGTH);
+                writeChunk(msg.slice(index, chunkLength), compressed);
+                index += chunkLength;
+                remaining -= chunkLength;
+            } while (remaining > 0);
+
+            success = true;
+            return compressed;
+        } finally {
+            if (!success) {
+                compressed.release();
+            }
+        }
+    }
+
+    private void writeChunk(final ByteBuf chunk, final ByteBuf out) {
+        final int length = chunk.readableBytes();
+
+        out.writeByte(COMPRESSED_DATA);
+        final int lengthIndex = out.writerIndex();
+        out.writeMediumLE(0);
+        out.writeIntLE(maskChecksum(Crc32c.calculate(chunk, chunk.readerIndex(), length)));
+
+        snappy.reset();
+        snappy.encode(chunk, out, length);
+
+        // The chunk length includes the checksum but not the chunk type and the chunk length itself.
+        out.setMediumLE(lengthIndex, out.writerIndex() - lengthIndex - 3);
+    }
+
+    private static int maskChecksum(final int checksum) {
+        return ((checksum >>> 15) | (checksum << 17)) + 0xa282ead8;
+    }
+
+    private static int maxCompressedLength(final int length) {
+        // Worst case of the Snappy block format (32 + n + n / 6) plus the framing of each chunk.
+        final int chunks = Math.max(1, (length + MAX_CHUNK_LENGTH - 1) / MAX_CHUNK_LENGTH);
+        return STREAM_IDENTIFIER.length + chunks * (CHUNK_HEADER_LENGTH + 32) + length + length / 6;
+    }
+}
@@ -17,27 +17,54 @@
 package org.graylog2.gelfclient.encoder;
 
 import io.netty.buffer.ByteBuf;
-import io.netty.buffer.Unpooled;
-import io.netty.channel.ChannelHandlerContext;
-import io.netty.handler.codec.MessageToMessageEncoder;
 
-import java.io.ByteArrayOutputStream;
-import java.util.List;
-import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Deflater;
 
 /**
- * A Netty channel handler which compresses messages using a {@link DeflaterOutputStream}.
+ * A Netty channel handler which compresses messages into the ZLIB format.
+ * <p>Instances of this class must not be shared between channels.</p>
  */
-public class GelfCompressionZlibEncoder extends MessageToMessageEncoder<ByteBuf> {
+public class GelfCompressionZlibEncoder extends AbstractGelfDeflaterEncoder {
+    /**
+     * Creates a new instance with the default compression level.
+     */
+    public GelfCompressionZlibEncoder() {
+        this(Deflater.DEFAULT_COMPRESSION);
+    }
+
+    /**
+     * Creates a new instance with the given compression level.
+     *
+     * @param compressionLevel the compression level ({@code 0}-{@code 9}), or {@link Deflater#DEFAULT_COMPRESSION}
+     */
+    public GelfCompressionZlibEncoder(final int compressionLevel) {
+        this(compressionLevel, 0, false);
+    }
+
+    /**
+     * Creates a new instance with the given compression level which only compresses messages of a certain size.
+     *
+     * @param compressionLevel the compression level ({@code 0}-{@code 9}), or {@link Deflater#DEFAULT_COMPRESSION}
+     * @param threshold        the minimum size of a message in bytes to be compressed
+     * @param adaptive         {@code true} if messages should be passed on uncompressed if compression didn't make them smaller
+     */
+    public GelfCompressionZlibEncoder(final int compressionLevel, final int threshold, final boolean adaptive) {
+        super(compressionLevel, false, threshold, adaptive);
+    }
+
     @Override
-    protected void encode(ChannelHandlerContext ctx, ByteBuf msg, List<Object> out) throws Exception {
-        try (final ByteArrayOutputStream bos = new ByteArrayOutputStream();
-             final DeflaterOutputStream stream = new DeflaterOutputStream(bos)) {
+    protected void writeHeader(ByteBuf out) {
+        // The Deflater writes the ZLIB header itself.
+    }
 
-            stream.write(msg.array());
-            stream.finish();
+    @Override
+    protected void writeTrailer(ByteBuf out, byte[] input, int offset, int length) {
+        // The Deflater writes the ZLIB checksum itself.
+    }
 
-            out.add(Unpooled.wrappedBuffer(bos.toByteArray()));
-        }
+    @Override
+    protected int getFramingLength() {
+        // ZLIB header and Adler-32 checksum.
+        return 6;
     }
 }
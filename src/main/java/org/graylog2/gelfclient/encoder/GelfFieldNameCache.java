@@ -0,0 +1,123 @@
+/*
+ * Copyright 2026 Graylog, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graylog2.gelfclient.encoder;
+
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A size-capped cache of the JSON keys of additional fields, keyed by the field name given by the user.
+ * <p>The cached keys already contain the leading underscore required by the GELF specification and keep their quoted
+ * UTF-8 representation once they have been written, so that Jackson doesn't have to escape and encode the same field
+ * names over and over again. Once the cache is full, no further field names are added to it.</p>
+ * <p>This class is thread-safe.</p>
+ */
+public class GelfFieldNameCache {
+    /**
+     * The default maximum number of cached field names.
+     */
+    public static final int DEFAULT_MAX_SIZE = 256;
+
+    private final int maxSize;
+    private final ConcurrentMap<String, SerializedString> cache;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Creates a new cache with the given maximum size.
+     *
+     * @param maxSize the maximum number of cached field names, {@code 0} disables caching
+     */
+    public GelfFieldNameCache(final int maxSize) {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("maxSize must not be negative");
+        }
+
+        this.maxSize = maxSize;
+        this.cache = new ConcurrentHashMap<>(Math.min(maxSize, DEFAULT_MAX_SIZE));
+    }
+
+    /**
+     * Creates a new cache with the default maximum size.
+     */
+    public GelfFieldNameCache() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * Get the JSON key of the additional field with the given name.
+     *
+     * @param fieldName the name of the additional field, with or without leading underscore
+     * @return the JSON key of the additional field
+     */
+    public SerializableString get(final String fieldName) {
+        final SerializedString cached = cache.get(fieldName);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+
+        misses.increment();
+        final SerializedString key = new SerializedString(fieldName.startsWith("_") ? fieldName : ("_" + fieldName));
+        if (cache.size() < maxSize) {
+            final SerializedString existing = cache.putIfAbsent(fieldName, key);
+            return existing == null ? key : existing;
+        }
+
+        return key;
+    }
+
+    /**
+     * Get the maximum number of cached field names.
+     *
+     * @return the maximum number of cached field names
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Get the number of currently cached field names.
+     *
+     * @return the number of currently cached field names
+     */
+    public int getSize() {
+        return cache.size();
+    }
+
+    /**
+     * Get the number of lookups which have been answered from the cache.
+     *
+     * @return the number of cache hits
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Get the number of lookups which have not been answered from the cache.
+     *
+     * @return the number of cache misses
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+}
@@ -17,11 +17,13 @@
 package org.graylog2.gelfclient.encoder;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.CompositeByteBuf;
 import io.netty.buffer.Unpooled;
 import io.netty.channel.ChannelHandler;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.EncoderException;
 import io.netty.handler.codec.MessageToMessageEncoder;
+import io.netty.util.ReferenceCountUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -31,15 +33,29 @@ import java.util.Random;
 /**
  * A Netty channel handler which splits large GELF messages into
  * <a href="http://graylog2.org/gelf#specs">chunked GELF</a> messages.
+ * <p>The payload of the message isn't copied: every chunk is a {@link CompositeByteBuf} consisting of a pooled 12 byte
+ * chunk header and a retained slice of the original message.</p>
  */
 @ChannelHandler.Sharable
 public class GelfMessageChunkEncoder extends MessageToMessageEncoder<ByteBuf> {
+    /**
+     * The default maximum size of the payload of a chunk in bytes.
+     */
+    public static final int DEFAULT_MAX_CHUNK_SIZE = 1420;
+    /**
+     * The largest possible maximum size of the payload of a chunk in bytes, which is the maximum payload of a UDP
+     * datagram (65535 bytes minus 8 bytes UDP header and 20 bytes IPv4 header) minus the 12 bytes chunk header.
+     */
+    public static final int MAX_CHUNK_SIZE = 65507 - 12;
+
     private static final Logger LOG = LoggerFactory.getLogger(GelfMessageChunkEncoder.class);
     private static final int MAX_CHUNKS = 128;
-    private static final int MAX_CHUNK_SIZE = 1420;
-    private static final int MAX_MESSAGE_SIZE = (MAX_CHUNKS * MAX_CHUNK_SIZE);
-    private static final byte[] CHUNK_MAGIC_BYTES = new byte[]{0x1e, 0x0f};
-    private final byte[] machineIdentifier = new byte[4];
+    private static final short CHUNK_MAGIC_BYTES = 0x1e0f;
+    // Magic bytes, message ID, sequence number and sequence count.
+    private static final int CHUNK_HEADER_SIZE = 2 + 8 + 1 + 1;
+    private final int machineIdentifier;
+    private final int maxChunkSize;
+    private final int maxMessageSize;
 
     /**
      * {@inheritDoc}
@@ -50,45 +66,26 @@ public class GelfMessageChunkEncoder extends MessageToMessageEncoder<ByteBuf> {
         LOG.error("Chunking error", cause);
     }
 
-    private class Chunker {
-        private final byte[] sequenceCount;
-        private int sequenceNumber = 0;
-        private final byte[] messageId = generateMessageId();
-
-        public Chunker(final int messageSize) {
-            int sequenceCount = (messageSize / MAX_CHUNK_SIZE);
-
-            // Check if we have to add another chunk due to integer division.
-            if ((messageSize % MAX_CHUNK_SIZE) != 0) {
-                sequenceCount++;
-            }
-
-            this.sequenceCount = new byte[]{(byte) sequenceCount};
+    /**
+     * Creates a new instance with a given machine identifier used in the generation of the message ID and the given
+     * maximum chunk size.
+     * <p>Usually the hostname of the client makes a good enough machine identifier.</p>
+     * <p>The maximum size of a message is 128 times the maximum chunk size.</p>
+     *
+     * @param machineIdentifier the machine identifier (only the first 4 bytes are being used)
+     * @param maxChunkSize      the maximum size of the payload of a chunk in bytes, excluding the 12 bytes chunk header
+     */
+    public GelfMessageChunkEncoder(final byte[] machineIdentifier, final int maxChunkSize) {
+        if (machineIdentifier.length < 4) {
+            throw new IllegalArgumentException("The machine identifier must at least be 4 bytes long.");
         }
-
-        public ByteBuf nextChunk(final ByteBuf chunk) {
-            final byte[] sequenceNumber = new byte[]{(byte) this.sequenceNumber++};
-            final byte[] data = new byte[chunk.readableBytes()];
-
-            chunk.readBytes(data);
-
-            LOG.debug("nextChunk bytes magicBytes={} messageId={} sequenceNumber={} sequenceCount={} data={}",
-                    CHUNK_MAGIC_BYTES.length, messageId.length, sequenceNumber.length, sequenceCount.length, data.length
-            );
-
-            return Unpooled.copiedBuffer(CHUNK_MAGIC_BYTES, messageId, sequenceNumber, sequenceCount, data);
+        if (maxChunkSize < 1 || maxChunkSize > MAX_CHUNK_SIZE) {
+            throw new IllegalArgumentException("The maximum chunk size must be between 1 and " + MAX_CHUNK_SIZE + " bytes.");
         }
 
-        private byte[] generateMessageId() {
-            // GELF message ID, max 8 bytes
-            final ByteBuf messageId = Unpooled.buffer(8, 8);
-
-            // 4 bytes of current time.
-            messageId.writeInt((int) System.currentTimeMillis());
-            messageId.writeBytes(machineIdentifier, 0, 4);
-
-            return messageId.array();
-        }
+        this.machineIdentifier = Unpooled.wrappedBuffer(machineIdentifier, 0, 4).readInt();
+        this.maxChunkSize = maxChunkSize;
+        this.maxMessageSize = MAX_CHUNKS * maxChunkSize;
     }
 
     /**
@@ -98,18 +95,42 @@ public class GelfMessageChunkEncoder extends MessageToMessageEncoder<ByteBuf> {
      * @param machineIdentifier the machine identifier (only the first 4 bytes are being used)
      */
     public GelfMessageChunkEncoder(final byte[] machineIdentifier) {
-        if (machineIdentifier.length < 4) {
-            throw new IllegalArgumentException("The machine identifier must at least be 4 bytes long.");
-        }
+        this(machineIdentifier, DEFAULT_MAX_CHUNK_SIZE);
+    }
 
-        System.arraycopy(machineIdentifier, 0, this.machineIdentifier, 0, 4);
+    /**
+     * Creates a new instance with a random machine identifier used in the generation of the message ID and the given
+     * maximum chunk size.
+     *
+     * @param maxChunkSize the maximum size of the payload of a chunk in bytes, excluding the 12 bytes chunk header
+     */
+    public GelfMessageChunkEncoder(final int maxChunkSize) {
+        this(randomIdentifier(4), maxChunkSize);
     }
 
     /**
      * Creates a new instance with a random machine identifier used in the generation of the message ID.
      */
     public GelfMessageChunkEncoder() {
-        this(randomIdentifier(4));
+        this(DEFAULT_MAX_CHUNK_SIZE);
+    }
+
+    /**
+     * Get the maximum size of the payload of a chunk.
+     *
+     * @return the maximum size of the payload of a chunk in bytes
+     */
+    public int getMaxChunkSize() {
+        return maxChunkSize;
+    }
+
+    /**
+     * Get the maximum size of a message which can be split into chunks.
+     *
+     * @return the maximum size of a message in bytes
+     */
+    public int getMaxMessageSize() {
+        return maxMessageSize;
     }
 
     private static byte[] randomIdentifier(final int length) {
@@ -124,28 +145,47 @@ public class GelfMessageChunkEncoder extends MessageToMessageEncoder<ByteBuf> {
      */
     @Override
     protected void encode(ChannelHandlerContext ctx, ByteBuf buf, List<Object> out) throws Exception {
-        if (buf.readableBytes() > MAX_MESSAGE_SIZE) {
-            throw new EncoderException("Message too big. " + buf.readableBytes() + " bytes (max " + MAX_MESSAGE_SIZE + ")");
+        final int messageSize = buf.readableBytes();
+        if (messageSize > maxMessageSize) {
+            throw new EncoderException("Message too big. " + messageSize + " bytes (max " + maxMessageSize + ")");
         }
 
-        if (buf.readableBytes() <= MAX_CHUNK_SIZE) {
+        if (messageSize <= maxChunkSize) {
             // Need to retain() the buffer here to avoid releasing the buffer too early.
             out.add(buf.retain());
-        } else {
-            final Chunker chunker = new Chunker(buf.readableBytes());
-
-            try {
-                while (buf.readableBytes() > 0) {
-                    if (buf.readableBytes() >= MAX_CHUNK_SIZE) {
-                        out.add(chunker.nextChunk(buf.readSlice(MAX_CHUNK_SIZE)));
-                    } else {
-                        out.add(chunker.nextChunk(buf.readSlice(buf.readableBytes())));
-                    }
-                }
-            } catch (Exception e) {
-                LOG.error("Chunk encoder error", e);
-                buf.release();
+            return;
+        }
+
+        final int sequenceCount = (messageSize + maxChunkSize - 1) / maxChunkSize;
+        final long messageId = generateMessageId();
+
+        LOG.debug("Splitting message into chunks messageSize={} sequenceCount={}", messageSize, sequenceCount);
+
+        try {
+            for (int sequenceNumber = 0; sequenceNumber < sequenceCount; sequenceNumber++) {
+                final ByteBuf header = ctx.alloc().ioBuffer(CHUNK_HEADER_SIZE, CHUNK_HEADER_SIZE)
+                        .writeShort(CHUNK_MAGIC_BYTES)
+                        .writeLong(messageId)
+                        .writeByte(sequenceNumber)
+                        .writeByte(sequenceCount);
+                final CompositeByteBuf chunk = ctx.alloc().compositeBuffer(2);
+                out.add(chunk);
+
+                // The composite buffer takes over the ownership of both components, even if adding them fails.
+                chunk.addComponents(true, header, buf.readRetainedSlice(Math.min(maxChunkSize, buf.readableBytes())));
             }
+        } catch (Exception e) {
+            // Don't send an incomplete message.
+            for (Object chunk : out) {
+                ReferenceCountUtil.release(chunk);
+            }
+            out.clear();
+            throw e;
         }
     }
+
+    private long generateMessageId() {
+        // GELF message ID, 4 bytes of current time and 4 bytes of the machine identifier.
+        return ((long) (int) System.currentTimeMillis() << 32) | (machineIdentifier & 0xFFFFFFFFL);
+    }
 }
@@ -19,26 +19,51 @@ package org.graylog2.gelfclient.encoder;
 import com.fasterxml.jackson.core.JsonEncoding;
 import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonGenerator;
-import io.netty.buffer.Unpooled;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufOutputStream;
 import io.netty.channel.ChannelHandler;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.MessageToMessageEncoder;
+import io.netty.util.concurrent.FastThreadLocal;
 import org.graylog2.gelfclient.GelfMessage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 import java.util.Map;
 
 /**
  * A Netty channel handler encoding {@link GelfMessage} into valid JSON according to the
  * <a href="http://graylog2.org/gelf#specs">GELF specification</a>.
+ * <p>The JSON payload is written directly into a buffer obtained from the channel's {@link ByteBufAllocator}. The
+ * initial capacity of that buffer is derived from a running average of the sizes of recently encoded messages, so
+ * that the buffer rarely has to be expanded.</p>
+ * <p>Optionally, the encoder can reuse one {@link JsonGenerator} per thread instead of creating a new one for every
+ * message. This avoids setting up the generator state and buffers for each message, which pays off if many messages
+ * are encoded on the same threads, e. g. the event loop threads of a transport.</p>
  */
 @ChannelHandler.Sharable
 public class GelfMessageJsonEncoder extends MessageToMessageEncoder<GelfMessage> {
     private static final Logger LOG = LoggerFactory.getLogger(GelfMessageJsonEncoder.class);
+    private static final int INITIAL_SIZE_ESTIMATE = 512;
+    private static final FastThreadLocal<ReusableGenerator> REUSABLE_GENERATORS = new FastThreadLocal<ReusableGenerator>() {
+        @Override
+        protected ReusableGenerator initialValue() {
+            return new ReusableGenerator();
+        }
+    };
+
     private final JsonFactory jsonFactory;
+    private final boolean directBuffers;
+    private final boolean reuseGenerators;
+    private final GelfFieldNameCache fieldNameCache;
+
+    // Exponential moving average of the encoded message sizes. This instance might be shared between channels, but
+    // a lost update only leads to a slightly less accurate estimate, so there's no need for any synchronization.
+    private int sizeEstimate = INITIAL_SIZE_ESTIMATE;
 
     /**
      * Creates a new instance of this channel handler with the default {@link com.fasterxml.jackson.core.JsonFactory}.
@@ -53,7 +78,55 @@ public class GelfMessageJsonEncoder extends MessageToMessageEncoder<GelfMessage>
      * @param jsonFactory the Jackson {@link com.fasterxml.jackson.core.JsonFactory} to use for constructing a GELF message payload
      */
     public GelfMessageJsonEncoder(final JsonFactory jsonFactory) {
+        this(jsonFactory, false);
+    }
+
+    /**
+     * Creates a new instance of this channel handler with the given {@link com.fasterxml.jackson.core.JsonFactory}.
+     *
+     * @param jsonFactory   the Jackson {@link com.fasterxml.jackson.core.JsonFactory} to use for constructing a GELF message payload
+     * @param directBuffers {@code true} if the JSON payload should be written into direct buffers, {@code false} to use heap buffers
+     */
+    public GelfMessageJsonEncoder(final JsonFactory jsonFactory, final boolean directBuffers) {
+        this(jsonFactory, directBuffers, false);
+    }
+
+    /**
+     * Creates a new instance of this channel handler with the given {@link com.fasterxml.jackson.core.JsonFactory}.
+     *
+     * @param jsonFactory     the Jackson {@link com.fasterxml.jackson.core.JsonFactory} to use for constructing a GELF message payload
+     * @param directBuffers   {@code true} if the JSON payload should be written into direct buffers, {@code false} to use heap buffers
+     * @param reuseGenerators {@code true} if one {@link JsonGenerator} per thread should be reused for all messages,
+     *                        {@code false} to create a new {@link JsonGenerator} for each message
+     */
+    public GelfMessageJsonEncoder(final JsonFactory jsonFactory, final boolean directBuffers, final boolean reuseGenerators) {
+        this(jsonFactory, directBuffers, reuseGenerators, new GelfFieldNameCache());
+    }
+
+    /**
+     * Creates a new instance of this channel handler with the given {@link com.fasterxml.jackson.core.JsonFactory}.
+     *
+     * @param jsonFactory     the Jackson {@link com.fasterxml.jackson.core.JsonFactory} to use for constructing a GELF message payload
+     * @param directBuffers   {@code true} if the JSON payload should be written into direct buffers, {@code false} to use heap buffers
+     * @param reuseGenerators {@code true} if one {@link JsonGenerator} per thread should be reused for all messages,
+     *                        {@code false} to create a new {@link JsonGenerator} for each message
+     * @param fieldNameCache  the cache for the JSON keys of additional fields
+     */
+    public GelfMessageJsonEncoder(final JsonFactory jsonFactory, final boolean directBuffers, final boolean reuseGenerators,
+                                  final GelfFieldNameCache fieldNameCache) {
         this.jsonFactory = jsonFactory;
+        this.directBuffers = directBuffers;
+        this.reuseGenerators = reuseGenerators;
+        this.fieldNameCache = fieldNameCache;
+    }
+
+    /**
+     * Get the cache for the JSON keys of additional fields used by this encoder.
+     *
+     * @return the cache for the JSON keys of additional fields
+     */
+    public GelfFieldNameCache getFieldNameCache() {
+        return fieldNameCache;
     }
 
     /**
@@ -70,43 +143,167 @@ public class GelfMessageJsonEncoder extends MessageToMessageEncoder<GelfMessage>
      */
     @Override
     protected void encode(ChannelHandlerContext ctx, GelfMessage message, List<Object> out) throws Exception {
-        out.add(Unpooled.wrappedBuffer(toJson(message)));
+        out.add(encode(ctx.alloc(), message));
+    }
+
+    /**
+     * Encodes the given message outside of a channel pipeline, e. g. to store it until it can be sent.
+     *
+     * @param alloc   the allocator of the returned buffer
+     * @param message the message to encode
+     * @return a buffer containing the JSON payload, which has to be released by the caller
+     * @throws Exception if the message couldn't be encoded
+     */
+    public ByteBuf encode(final ByteBufAllocator alloc, final GelfMessage message) throws Exception {
+        final ByteBuf buf = allocateBuffer(alloc);
+
+        boolean success = false;
+        try {
+            if (reuseGenerators) {
+                toJsonWithReusableGenerator(message, buf);
+            } else {
+                toJson(message, new ByteBufOutputStream(buf));
+            }
+            updateSizeEstimate(buf.readableBytes());
+            success = true;
+            return buf;
+        } finally {
+            if (!success) {
+                buf.release();
+            }
+        }
     }
 
-    private byte[] toJson(final GelfMessage message) throws Exception {
-        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    private ByteBuf allocateBuffer(final ByteBufAllocator alloc) {
+        // Leave some headroom so that messages which are slightly larger than the average don't need to expand the buffer.
+        final int estimate = sizeEstimate;
+        final int initialCapacity = estimate + (estimate >> 2);
 
+        return directBuffers ? alloc.directBuffer(initialCapacity) : alloc.heapBuffer(initialCapacity);
+    }
+
+    private void updateSizeEstimate(final int size) {
+        final int estimate = sizeEstimate;
+        sizeEstimate = estimate + ((size - estimate) >> 3);
+    }
+
+    private void toJson(final GelfMessage message, final OutputStream out) throws Exception {
         try (final JsonGenerator jg = jsonFactory.createGenerator(out, JsonEncoding.UTF8)) {
-            jg.writeStartObject();
-
-            jg.writeStringField("version", message.getVersion().toString());
-            jg.writeNumberField("timestamp", message.getTimestamp());
-            jg.writeStringField("host", message.getHost());
-            jg.writeStringField("short_message", message.getMessage());
-            if (message.getLevel() != null) {
-                jg.writeNumberField("level", message.getLevel().getNumericLevel());
+            writeMessage(jg, message);
+        }
+    }
+
+    private void toJsonWithReusableGenerator(final GelfMessage message, final ByteBuf buf) throws Exception {
+        final ReusableGenerator reusableGenerator = REUSABLE_GENERATORS.get();
+
+        // The string representation of an additional field might log and thereby end up in this encoder again.
+        if (reusableGenerator.inUse) {
+            toJson(message, new ByteBufOutputStream(buf));
+            return;
+        }
+
+        reusableGenerator.inUse = true;
+        boolean success = false;
+        try {
+            final JsonGenerator jg = reusableGenerator.generator(jsonFactory);
+            reusableGenerator.out.buffer = buf;
+            writeMessage(jg, message);
+            jg.flush();
+            success = true;
+        } finally {
+            reusableGenerator.out.buffer = null;
+            if (!success) {
+                // The generator might be stuck in the middle of an object, so don't use it anymore.
+                reusableGenerator.discard();
             }
+            reusableGenerator.inUse = false;
+        }
+    }
+
+    private void writeMessage(final JsonGenerator jg, final GelfMessage message) throws IOException {
+        jg.writeStartObject();
+
+        jg.writeStringField("version", message.getVersion().toString());
+        jg.writeNumberField("timestamp", message.getTimestamp());
+        jg.writeStringField("host", message.getHost());
+        jg.writeStringField("short_message", message.getMessage());
+        if (message.getLevel() != null) {
+            jg.writeNumberField("level", message.getLevel().getNumericLevel());
+        }
 
-            if(null != message.getFullMessage()) {
-                jg.writeStringField("full_message", message.getFullMessage());
+        if(null != message.getFullMessage()) {
+            jg.writeStringField("full_message", message.getFullMessage());
+        }
+
+        for (Map.Entry<String, Object> field : message.getAdditionalFields().entrySet()) {
+            jg.writeFieldName(fieldNameCache.get(field.getKey()));
+
+            if (field.getValue() instanceof Number) {
+                // Let Jackson figure out how to write Number values.
+                jg.writeObject(field.getValue());
+            } else if (field.getValue() == null) {
+                jg.writeNull();
+            } else {
+                jg.writeString(field.getValue().toString());
             }
+        }
 
-            for (Map.Entry<String, Object> field : message.getAdditionalFields().entrySet()) {
-                final String realKey = field.getKey().startsWith("_") ? field.getKey() : ("_" + field.getKey());
-
-                if (field.getValue() instanceof Number) {
-                    // Let Jackson figure out how to write Number values.
-                    jg.writeObjectField(realKey, field.getValue());
-                } else if (field.getValue() == null) {
-                    jg.writeNullField(realKey);
-                } else {
-                    jg.writeStringField(realKey, field.getValue().toString());
-                }
+        jg.writeEndObject();
+    }
+
+    /**
+     * A {@link JsonGenerator} which stays attached to the same {@link OutputStream}, which in turn writes into the
+     * buffer of the message which is currently being encoded.
+     */
+    private static final class ReusableGenerator {
+        private final BufferTarget out = new BufferTarget();
+        private JsonFactory jsonFactory;
+        private JsonGenerator generator;
+        private boolean inUse;
+
+        private JsonGenerator generator(final JsonFactory jsonFactory) throws IOException {
+            if (generator == null || this.jsonFactory != jsonFactory) {
+                discard();
+                generator = jsonFactory.createGenerator(out, JsonEncoding.UTF8);
+                // Every message is a separate JSON document, so don't separate them with a space.
+                generator.setRootValueSeparator(null);
+                this.jsonFactory = jsonFactory;
             }
 
-            jg.writeEndObject();
+            return generator;
         }
 
-        return out.toByteArray();
+        private void discard() {
+            if (generator == null) {
+                return;
+            }
+
+            try {
+                // Nothing is written anymore because the buffer has already been detached.
+                generator.close();
+            } catch (IOException e) {
+                LOG.debug("Couldn't close discarded JSON generator", e);
+            }
+            generator = null;
+            jsonFactory = null;
+        }
+    }
+
+    private static final class BufferTarget extends OutputStream {
+        private ByteBuf buffer;
+
+        @Override
+        public void write(int b) {
+            if (buffer != null) {
+                buffer.writeByte(b);
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            if (buffer != null) {
+                buffer.writeBytes(b, off, len);
+            }
+        }
     }
 }
@@ -0,0 +1,36 @@
+/*
+ * Copyright 2026 Graylog, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graylog2.gelfclient.queue;
+
+import java.util.Collection;
+
+/**
+ * A queue which can insert multiple elements at the cost of a single insertion.
+ *
+ * @param <E> the type of elements held in this queue
+ * @see Queues#offerAll(java.util.Queue, Collection)
+ */
+public interface BulkOfferQueue<E> {
+    /**
+     * Inserts as many of the given elements as possible without blocking, in iteration order.
+     *
+     * @param elements the elements to insert
+     * @return the number of inserted elements, which are the first elements of {@code elements}
+     * @throws NullPointerException if one of the elements is {@code null}
+     */
+    int offerAll(Collection<? extends E> elements);
+}
@@ -0,0 +1,374 @@
+/*
+ * Copyright 2026 Graylog, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graylog2.gelfclient.queue;
+
+import org.graylog2.gelfclient.GelfMessage;
+
+import java.util.AbstractQueue;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+
+/**
+ * A {@link BlockingQueue} of GELF messages which is bounded by the estimated heap usage of the queued messages.
+ * <p>The elements are stored in a delegate queue whose capacity remains a secondary limit for the number of messages.
+ * A message is only accepted if the total size of all queued messages stays within the byte limit. A single message
+ * larger than the limit is accepted if the queue is empty, so that it doesn't block the producer forever.</p>
+ * <p>The size of a message is requested when it is queued and again when it is removed, so it must not change while
+ * the message is queued. Elements which may still be modified, like {@link GelfMessage}s, should be queued in a
+ * holder caching their size. Producers only take a lock if they have to wait for free capacity. The iterator of this
+ * queue doesn't support {@link Iterator#remove()}.</p>
+ *
+ * @param <E> the type of the queued messages
+ */
+public class ByteBoundedBlockingQueue<E> extends AbstractQueue<E>
+        implements BlockingQueue<E>, BulkOfferQueue<E>, EvictionOrderedQueue<E> {
+    // Rough sizes of the objects retained by a message on a 64-bit JVM with compressed oops.
+    private static final long MESSAGE_OVERHEAD = 48L + 48L + 16L;
+    private static final long STRING_OVERHEAD = 24L + 16L;
+    private static final long FIELD_OVERHEAD = 32L + 8L;
+    private static final long BOXED_VALUE_SIZE = 24L;
+
+    private final BlockingQueue<E> delegate;
+    private final long maxBytes;
+    private final ToLongFunction<? super E> sizeFunction;
+    private final AtomicLong bytes = new AtomicLong();
+    private final AtomicInteger waitingProducers = new AtomicInteger();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notFull = lock.newCondition();
+
+    /**
+     * Creates a new queue storing its elements in the given delegate queue.
+     *
+     * @param delegate     the queue storing the messages, which must not be used directly anymore
+     * @param maxBytes     the maximum total size of the queued messages in bytes
+     * @param sizeFunction the function returning the size of a message in bytes, which must not change while the
+     *                     message is queued, e. g. based on {@link #estimateSize(GelfMessage)}
+     */
+    public ByteBoundedBlockingQueue(final BlockingQueue<E> delegate, final long maxBytes,
+                                    final ToLongFunction<? super E> sizeFunction) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("delegate must not be null");
+        }
+        if (maxBytes < 1L) {
+            throw new IllegalArgumentException("maxBytes must be larger than 0");
+        }
+        if (sizeFunction == null) {
+            throw new IllegalArgumentException("sizeFunction must not be null");
+        }
+
+        this.delegate = delegate;
+        this.maxBytes = maxBytes;
+        this.sizeFunction = sizeFunction;
+    }
+
+    /**
+     * Estimates the heap usage of the given message, including its message, full message, host and additional fields.
+     *
+     * @param message the message
+     * @return the estimated size of the message in bytes
+     */
+    public static long estimateSize(final GelfMessage message) {
+        long size = MESSAGE_OVERHEAD + estimateSize(message.getHost()) + estimateSize(message.getMessage())
+                + estimateSize(message.getFullMessage());
+        for (Map.Entry<String, Object> field : message.getAdditionalFields().entrySet()) {
+            size += FIELD_OVERHEAD + estimateSize(field.getKey());
+            final Object value = field.getValue();
+            size += value instanceof String ? estimateSize((String) value) : BOXED_VALUE_SIZE;
+        }
+        return size;
+    }
+
+    private static long estimateSize(final String s) {
+        return s == null ? 0L : STRING_OVERHEAD + 2L * s.length();
+    }
+
+    /**
+     * Get the maximum total size of the queued messages.
+     *
+     * @return the maximum total size of the queued messages in bytes
+     */
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * Get the total size of the currently queued messages.
+     *
+     * @return the total size of the queued messages in bytes
+     */
+    public long getBytes() {
+        return bytes.get();
+    }
+
+    @Override
+    public boolean offer(final E message) {
+        if (message == null) {
+            throw new NullPointerException();
+        }
+
+        final long size = sizeFunction.applyAsLong(message);
+        if (!reserve(size)) {
+            return false;
+        }
+        if (!delegate.offer(message)) {
+            release(size);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>The size of the longest prefix of {@code messages} which fits into the queue is reserved at once, and the
+     * messages are inserted into the delegate queue with {@link Queues#offerAll(java.util.Queue, Collection)}.</p>
+     */
+    @Override
+    public int offerAll(final Collection<? extends E> messages) {
+        final List<E> snapshot = new ArrayList<>(messages);
+        final long[] sizes = new long[snapshot.size()];
+        for (int i = 0; i < sizes.length; i++) {
+            final E message = snapshot.get(i);
+            if (message == null) {
+                throw new NullPointerException();
+            }
+            sizes[i] = sizeFunction.applyAsLong(message);
+        }
+
+        int reserved;
+        long reservedSize;
+        for (;;) {
+            final long current = bytes.get();
+            reserved = 0;
+            reservedSize = 0L;
+            while (reserved < sizes.length
+                    && ((current == 0L && reserved == 0) || current + reservedSize + sizes[reserved] <= maxBytes)) {
+                reservedSize += sizes[reserved];
+                reserved++;
+            }
+            if (reserved == 0) {
+                return 0;
+            }
+            if (bytes.compareAndSet(current, current + reservedSize)) {
+                break;
+            }
+        }
+
+        final int offered = Queues.offerAll(delegate, snapshot.subList(0, reserved));
+        long unused = 0L;
+        for (int i = offered; i < reserved; i++) {
+            unused += sizes[i];
+        }
+        if (unused > 0L) {
+            release(unused);
+        }
+        return offered;
+    }
+
+    private boolean reserve(final long size) {
+        for (;;) {
+            final long current = bytes.get();
+            if (current > 0L && current + size > maxBytes) {
+                return false;
+            }
+            if (bytes.compareAndSet(current, current + size)) {
+                return true;
+            }
+        }
+    }
+
+    private void release(final long size) {
+        bytes.addAndGet(-size);
+        if (waitingProducers.get() > 0) {
+            lock.lock();
+            try {
+                notFull.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private E released(final E message) {
+        if (message != null) {
+            release(sizeFunction.applyAsLong(message));
+        }
+        return message;
+    }
+
+    @Override
+    public void put(final E message) throws InterruptedException {
+        // Practically waits forever.
+        offer(message, Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public boolean offer(final E message, final long timeout, final TimeUnit unit) throws InterruptedException {
+        if (offer(message)) {
+            return true;
+        }
+
+        long remaining = unit.toNanos(timeout);
+        // Register before retrying, so that consumers don't miss to signal us.
+        waitingProducers.incrementAndGet();
+        try {
+            lock.lockInterruptibly();
+            try {
+                while (!offer(message)) {
+                    if (remaining <= 0L) {
+                        return false;
+                    }
+                    remaining = notFull.awaitNanos(remaining);
+                }
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        } finally {
+            waitingProducers.decrementAndGet();
+        }
+    }
+
+    @Override
+    public E poll() {
+        return released(delegate.poll());
+    }
+
+    @Override
+    public E take() throws InterruptedException {
+        return released(delegate.take());
+    }
+
+    @Override
+    public E poll(final long timeout, final TimeUnit unit) throws InterruptedException {
+        return released(delegate.poll(timeout, unit));
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>Uses the eviction order of the delegate queue if it has one, otherwise removes the head of the queue.</p>
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public E evict() {
+        return released(delegate instanceof EvictionOrderedQueue
+                ? ((EvictionOrderedQueue<E>) delegate).evict() : delegate.poll());
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>Uses the eviction order of the delegate queue if it has one, otherwise removes the oldest matching message.</p>
+     *
+     * @see Queues#evictIf(java.util.Queue, Predicate)
+     */
+    @Override
+    public E evictIf(final Predicate<? super E> predicate) {
+        return released(Queues.evictIf(delegate, predicate));
+    }
+
+    @Override
+    public E peek() {
+        return delegate.peek();
+    }
+
+    @Override
+    public boolean remove(final Object o) {
+        if (o == null) {
+            return false;
+        }
+
+        for (E message : delegate) {
+            // Release the size of the queued message, which is only equal to the given object.
+            // Another consumer might have taken the message in the meantime, so look for the next equal one then.
+            if (o.equals(message) && delegate.remove(message)) {
+                release(sizeFunction.applyAsLong(message));
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public int remainingCapacity() {
+        return bytes.get() >= maxBytes ? 0 : delegate.remainingCapacity();
+    }
+
+    @Override
+    public int drainTo(final Collection<? super E> c) {
+        return drainTo(c, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public int drainTo(final Collection<? super E> c, final int maxElements) {
+        if (c == this) {
+            throw new IllegalArgumentException();
+        }
+
+        final List<E> drained = new ArrayList<>();
+        delegate.drainTo(drained, maxElements);
+        long size = 0L;
+        for (E message : drained) {
+            size += sizeFunction.applyAsLong(message);
+        }
+        if (size > 0L) {
+            release(size);
+        }
+        c.addAll(drained);
+        return drained.size();
+    }
+
+    @Override
+    public int size() {
+        return delegate.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return delegate.isEmpty();
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        final Iterator<E> iterator = delegate.iterator();
+        return new Iterator<E>() {
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public E next() {
+                return iterator.next();
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException("remove");
+            }
+        };
+    }
+}
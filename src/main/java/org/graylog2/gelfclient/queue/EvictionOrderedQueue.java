@@ -0,0 +1,44 @@
+/*
+ * Copyright 2026 Graylog, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graylog2.gelfclient.queue;
+
+import java.util.function.Predicate;
+
+/**
+ * A queue of GELF messages which doesn't send its messages in the order in which they should be dropped if the
+ * queue overflows.
+ *
+ * @param <E> the type of the queued messages
+ * @see org.graylog2.gelfclient.OverflowPolicy#DROP_OLDEST
+ */
+public interface EvictionOrderedQueue<E> {
+    /**
+     * Removes the queued message which should be dropped first if the queue overflows.
+     *
+     * @return the removed message, or {@code null} if the queue is empty
+     */
+    E evict();
+
+    /**
+     * Removes the queued message which should be dropped first if the queue overflows, but only if it matches the
+     * given predicate.
+     *
+     * @param predicate the predicate the message has to match
+     * @return the removed message, or {@code null} if the queue is empty or the message didn't match
+     */
+    E evictIf(Predicate<? super E> predicate);
+}
@@ -0,0 +1,418 @@
+/*
+ * Copyright 2026 Graylog, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graylog2.gelfclient.queue;
+
+import org.graylog2.gelfclient.GelfMessageLevel;
+
+import java.util.AbstractQueue;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * A bounded {@link BlockingQueue} of GELF messages with one FIFO lane per {@link GelfMessageLevel}, so that
+ * severe messages don't wait behind a backlog of less severe messages.
+ * <p>Messages are taken from the most severe non-empty lane. To keep less severe lanes from starving, every message
+ * after {@code fairnessRatio} messages taken in priority order is taken from the lanes in round-robin order
+ * instead. A fairness ratio of {@code 0} always takes messages in strict priority order.</p>
+ * <p>All lanes share the capacity of the queue. Like {@link java.util.concurrent.ArrayBlockingQueue}, all operations
+ * are guarded by a single lock. {@link #peek()} returns the most severe message, regardless of the fairness ratio,
+ * and the iterator returns a snapshot of the queued messages in priority order without support for
+ * {@link Iterator#remove()}.</p>
+ *
+ * @param <E> the type of the queued messages
+ */
+public class PriorityLaneBlockingQueue<E> extends AbstractQueue<E>
+        implements BlockingQueue<E>, BulkOfferQueue<E>, EvictionOrderedQueue<E> {
+    private static final int LANES = GelfMessageLevel.values().length;
+
+    private final int capacity;
+    private final int fairnessRatio;
+    private final Function<? super E, GelfMessageLevel> levelFunction;
+    private final ArrayDeque<E>[] lanes;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    private int count;
+    private int prioritizedTakes;
+    private int fairLane = LANES - 1;
+
+    /**
+     * Creates a new queue with the given capacity and fairness ratio.
+     *
+     * @param capacity      the maximum number of messages in all lanes
+     * @param fairnessRatio the number of messages taken in priority order before one message is taken in round-robin
+     *                      order, or {@code 0} for strict priority order
+     * @param levelFunction the function returning the level of a message, e. g. {@code GelfMessage::getLevel}
+     */
+    @SuppressWarnings("unchecked")
+    public PriorityLaneBlockingQueue(final int capacity, final int fairnessRatio,
+                                     final Function<? super E, GelfMessageLevel> levelFunction) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be larger than 0");
+        }
+        if (fairnessRatio < 0) {
+            throw new IllegalArgumentException("fairnessRatio must not be negative");
+        }
+
+        if (levelFunction == null) {
+            throw new IllegalArgumentException("levelFunction must not be null");
+        }
+
+        this.capacity = capacity;
+        this.fairnessRatio = fairnessRatio;
+        this.levelFunction = levelFunction;
+        this.lanes = (ArrayDeque<E>[]) new ArrayDeque<?>[LANES];
+        for (int i = 0; i < LANES; i++) {
+            lanes[i] = new ArrayDeque<>();
+        }
+    }
+
+    private int laneOf(final E message) {
+        final GelfMessageLevel level = levelFunction.apply(message);
+        // Lanes are ordered by severity, the most severe level has the lowest ordinal.
+        return level == null ? LANES - 1 : level.ordinal();
+    }
+
+    /**
+     * Get the fairness ratio of this queue.
+     *
+     * @return the number of messages taken in priority order before one message is taken in round-robin order
+     */
+    public int getFairnessRatio() {
+        return fairnessRatio;
+    }
+
+    /**
+     * Get the number of queued messages with the given level.
+     *
+     * @param level the level of the messages
+     * @return the number of queued messages with the given level
+     */
+    public int size(final GelfMessageLevel level) {
+        lock.lock();
+        try {
+            return lanes[level.ordinal()].size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void enqueue(final E message) {
+        lanes[laneOf(message)].addLast(message);
+        count++;
+        notEmpty.signal();
+    }
+
+    private E dequeue() {
+        int lane = -1;
+        if (fairnessRatio > 0 && ++prioritizedTakes > fairnessRatio) {
+            prioritizedTakes = 0;
+            for (int i = 1; i <= LANES; i++) {
+                final int candidate = (fairLane + i) % LANES;
+                if (!lanes[candidate].isEmpty()) {
+                    lane = fairLane = candidate;
+                    break;
+                }
+            }
+        } else {
+            lane = mostSevereLane();
+        }
+
+        return removeFrom(lane);
+    }
+
+    private int mostSevereLane() {
+        for (int i = 0; i < LANES; i++) {
+            if (!lanes[i].isEmpty()) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private int leastSevereLane() {
+        for (int i = LANES - 1; i >= 0; i--) {
+            if (!lanes[i].isEmpty()) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private E removeFrom(final int lane) {
+        if (lane < 0) {
+            return null;
+        }
+        final E message = lanes[lane].pollFirst();
+        count--;
+        notFull.signal();
+        return message;
+    }
+
+    @Override
+    public boolean offer(final E message) {
+        if (message == null) {
+            throw new NullPointerException();
+        }
+
+        lock.lock();
+        try {
+            if (count == capacity) {
+                return false;
+            }
+            enqueue(message);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>The lock is only taken once for all inserted messages.</p>
+     */
+    @Override
+    public int offerAll(final Collection<? extends E> messages) {
+        lock.lock();
+        try {
+            int offered = 0;
+            for (E message : messages) {
+                if (count == capacity) {
+                    break;
+                }
+                if (message == null) {
+                    throw new NullPointerException();
+                }
+                // Signals a waiting consumer for every message, so that all of them can take one.
+                enqueue(message);
+                offered++;
+            }
+            return offered;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void put(final E message) throws InterruptedException {
+        if (message == null) {
+            throw new NullPointerException();
+        }
+
+        lock.lockInterruptibly();
+        try {
+            while (count == capacity) {
+                notFull.await();
+            }
+            enqueue(message);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean offer(final E message, final long timeout, final TimeUnit unit) throws InterruptedException {
+        if (message == null) {
+            throw new NullPointerException();
+        }
+
+        long remaining = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (count == capacity) {
+                if (remaining <= 0L) {
+                    return false;
+                }
+                remaining = notFull.awaitNanos(remaining);
+            }
+            enqueue(message);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public E poll() {
+        lock.lock();
+        try {
+            return count == 0 ? null : dequeue();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public E take() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (count == 0) {
+                notEmpty.await();
+            }
+            return dequeue();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public E poll(final long timeout, final TimeUnit unit) throws InterruptedException {
+        long remaining = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (count == 0) {
+                if (remaining <= 0L) {
+                    return null;
+                }
+                remaining = notEmpty.awaitNanos(remaining);
+            }
+            return dequeue();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public E peek() {
+        lock.lock();
+        try {
+            final int lane = mostSevereLane();
+            return lane < 0 ? null : lanes[lane].peekFirst();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>Removes the oldest message of the least severe non-empty lane.</p>
+     */
+    @Override
+    public E evict() {
+        lock.lock();
+        try {
+            return removeFrom(leastSevereLane());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>Only the oldest message of the least severe non-empty lane is checked.</p>
+     */
+    @Override
+    public E evictIf(final Predicate<? super E> predicate) {
+        lock.lock();
+        try {
+            final int lane = leastSevereLane();
+            return lane >= 0 && predicate.test(lanes[lane].peekFirst()) ? removeFrom(lane) : null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean remove(final Object o) {
+        if (o == null) {
+            return false;
+        }
+
+        lock.lock();
+        try {
+            // The lane of an arbitrary object is unknown, so look through all of them.
+            for (ArrayDeque<E> lane : lanes) {
+                if (lane.remove(o)) {
+                    count--;
+                    notFull.signal();
+                    return true;
+                }
+            }
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int remainingCapacity() {
+        lock.lock();
+        try {
+            return capacity - count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int drainTo(final Collection<? super E> c) {
+        return drainTo(c, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public int drainTo(final Collection<? super E> c, final int maxElements) {
+        if (c == this) {
+            throw new IllegalArgumentException();
+        }
+
+        lock.lock();
+        try {
+            int drained = 0;
+            while (drained < maxElements && count > 0) {
+                c.add(dequeue());
+                drained++;
+            }
+            return drained;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        lock.lock();
+        try {
+            return count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        lock.lock();
+        try {
+            final List<E> snapshot = new ArrayList<>(count);
+            for (ArrayDeque<E> lane : lanes) {
+                snapshot.addAll(lane);
+            }
+            return Collections.unmodifiableList(snapshot).iterator();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2026 Graylog, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graylog2.gelfclient.queue;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.function.Predicate;
+
+/**
+ * Helper methods for the queues of the GELF transports.
+ */
+public final class Queues {
+    private Queues() {
+    }
+
+    /**
+     * Inserts as many of the given elements into the queue as possible without blocking, in iteration order.
+     * <p>Queues implementing {@link BulkOfferQueue} insert the elements at once, other queues one by one until the
+     * first element is rejected.</p>
+     *
+     * @param queue    the queue
+     * @param elements the elements to insert
+     * @param <E>      the type of elements held in the queue
+     * @return the number of inserted elements, which are the first elements of {@code elements}
+     */
+    @SuppressWarnings("unchecked")
+    public static <E> int offerAll(final Queue<E> queue, final Collection<? extends E> elements) {
+        if (queue instanceof BulkOfferQueue) {
+            return ((BulkOfferQueue<E>) queue).offerAll(elements);
+        }
+
+        int offered = 0;
+        for (E e : elements) {
+            if (!queue.offer(e)) {
+                break;
+            }
+            offered++;
+        }
+        return offered;
+    }
+
+    /**
+     * Removes the queued element which should be dropped first if the queue overflows, but only if it matches the
+     * given predicate.
+     * <p>Queues implementing {@link EvictionOrderedQueue} only check the element they would evict next. Other queues
+     * are looked through from their head and the oldest matching element is removed.</p>
+     *
+     * @param queue     the queue
+     * @param predicate the predicate the element has to match
+     * @param <E>       the type of elements held in the queue
+     * @return the removed element, or {@code null} if no element was removed
+     */
+    @SuppressWarnings("unchecked")
+    public static <E> E evictIf(final Queue<E> queue, final Predicate<? super E> predicate) {
+        if (queue instanceof EvictionOrderedQueue) {
+            return ((EvictionOrderedQueue<E>) queue).evictIf(predicate);
+        }
+
+        // The iterators of the concurrent queues are weakly consistent, so the queue may be modified while iterating.
+        final Iterator<E> iterator = queue.iterator();
+        while (iterator.hasNext()) {
+            final E e = iterator.next();
+            // Another consumer might have taken the element in the meantime, so look for the next one then.
+            if (predicate.test(e) && queue.remove(e)) {
+                return e;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,356 @@
+/*
+ * Copyright 2026 Graylog, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graylog2.gelfclient.queue;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A bounded, lock-free {@link BlockingQueue} backed by a ring buffer, optimized for many producer threads.
+ * <p>Producers and consumers claim slots of the ring buffer with a single compare-and-set on their respective index,
+ * which is padded against false sharing. Every slot carries a sequence number telling whether it is ready to be
+ * written or read (see Dmitry Vyukov's bounded MPMC queue), so unlike a {@link java.util.concurrent.LinkedBlockingQueue}
+ * no locks are taken and no nodes are allocated per element. The queue can be drained by any number of consumers.</p>
+ * <p>Blocking operations don't use locks either: consumers waiting for an element register themselves, park and are
+ * all unparked by the next producer, so that they compete for the new elements right away. Producers only have to read
+ * the number of waiting consumers as long as nobody waits. Producers waiting for free capacity park with an increasing
+ * timeout of up to {@value #MAX_PRODUCER_PARK_NANOS} nanoseconds.</p>
+ * <p>The capacity is rounded up to the next power of two, but is at least two. The iterator, {@link #size()} and {@link #toString()} are
+ * only weakly consistent. This class doesn't support {@code null} elements and removing elements other than the head
+ * of the queue.</p>
+ *
+ * @param <E> the type of elements held in this queue
+ */
+public class RingBufferBlockingQueue<E> extends RingBufferPad2<E> implements BlockingQueue<E>, BulkOfferQueue<E> {
+    static final long MAX_PRODUCER_PARK_NANOS = 1_000_000L;
+
+    private final int capacity;
+    private final int mask;
+    private final AtomicReferenceArray<E> elements;
+    private final AtomicLongArray sequences;
+    private final AtomicInteger waitingConsumers = new AtomicInteger();
+    private final Queue<Thread> waitingConsumerThreads = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Creates a new queue with at least the given capacity.
+     *
+     * @param capacity the minimum capacity of the queue, rounded up to the next power of two
+     */
+    public RingBufferBlockingQueue(final int capacity) {
+        if (capacity < 1 || capacity > (1 << 30)) {
+            throw new IllegalArgumentException("capacity must be between 1 and 2^30");
+        }
+
+        // The sequence numbers of a full and of a free slot can only be told apart with at least two slots.
+        this.capacity = capacity <= 2 ? 2 : Integer.highestOneBit(capacity - 1) << 1;
+        this.mask = this.capacity - 1;
+        this.elements = new AtomicReferenceArray<>(this.capacity);
+        this.sequences = new AtomicLongArray(this.capacity);
+        for (int i = 0; i < this.capacity; i++) {
+            sequences.lazySet(i, i);
+        }
+    }
+
+    /**
+     * Get the capacity of this queue.
+     *
+     * @return the capacity of this queue
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    @Override
+    public boolean offer(final E e) {
+        if (e == null) {
+            throw new NullPointerException();
+        }
+
+        long index = producerIndex;
+        int offset;
+        for (;;) {
+            offset = (int) index & mask;
+            final long difference = sequences.get(offset) - index;
+            if (difference == 0L) {
+                if (casProducerIndex(index, index + 1)) {
+                    break;
+                }
+                index = producerIndex;
+            } else if (difference < 0L) {
+                // The slot hasn't been consumed in the previous round yet, the queue is full.
+                return false;
+            } else {
+                index = producerIndex;
+            }
+        }
+
+        elements.lazySet(offset, e);
+        // Volatile write, so that it can't be reordered with reading the number of waiting consumers.
+        sequences.set(offset, index + 1);
+
+        unparkWaitingConsumers();
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>All slots for the inserted elements are claimed with a single compare-and-set.</p>
+     */
+    @Override
+    public int offerAll(final Collection<? extends E> c) {
+        // Take a snapshot and check it before claiming any slots, claimed slots must be filled.
+        final Object[] snapshot = c.toArray();
+        for (Object e : snapshot) {
+            if (e == null) {
+                throw new NullPointerException();
+            }
+        }
+        if (snapshot.length == 0) {
+            return 0;
+        }
+
+        long index;
+        int claimed;
+        for (;;) {
+            index = producerIndex;
+            final long free = capacity - (index - consumerIndex);
+            if (free <= 0L) {
+                return 0;
+            }
+            claimed = (int) Math.min(snapshot.length, free);
+            if (casProducerIndex(index, index + claimed)) {
+                break;
+            }
+        }
+
+        for (int i = 0; i < claimed; i++) {
+            final long slotIndex = index + i;
+            final int offset = (int) slotIndex & mask;
+            // The consumer of the previous round might not have released the slot yet.
+            while (sequences.get(offset) != slotIndex) {
+                Thread.yield();
+            }
+            @SuppressWarnings("unchecked")
+            final E e = (E) snapshot[i];
+            elements.lazySet(offset, e);
+            sequences.set(offset, slotIndex + 1);
+        }
+
+        unparkWaitingConsumers();
+        return claimed;
+    }
+
+    private void unparkWaitingConsumers() {
+        if (waitingConsumers.get() == 0) {
+            return;
+        }
+        for (Thread consumer : waitingConsumerThreads) {
+            LockSupport.unpark(consumer);
+        }
+    }
+
+    @Override
+    public E poll() {
+        long index = consumerIndex;
+        int offset;
+        for (;;) {
+            offset = (int) index & mask;
+            final long difference = sequences.get(offset) - (index + 1);
+            if (difference == 0L) {
+                if (casConsumerIndex(index, index + 1)) {
+                    break;
+                }
+                index = consumerIndex;
+            } else if (difference < 0L) {
+                // The slot hasn't been produced in this round yet, the queue is empty.
+                return null;
+            } else {
+                index = consumerIndex;
+            }
+        }
+
+        final E e = elements.get(offset);
+        elements.lazySet(offset, null);
+        // Release the slot for the producers of the next round.
+        sequences.lazySet(offset, index + capacity);
+        return e;
+    }
+
+    @Override
+    public E peek() {
+        for (;;) {
+            final long index = consumerIndex;
+            final int offset = (int) index & mask;
+            if (sequences.get(offset) != index + 1) {
+                return null;
+            }
+            final E e = elements.get(offset);
+            if (e != null && consumerIndex == index) {
+                return e;
+            }
+        }
+    }
+
+    @Override
+    public void put(final E e) throws InterruptedException {
+        if (!offer(e, Long.MAX_VALUE, TimeUnit.NANOSECONDS)) {
+            throw new IllegalStateException("Timed out waiting for free capacity");
+        }
+    }
+
+    @Override
+    public boolean offer(final E e, final long timeout, final TimeUnit unit) throws InterruptedException {
+        if (offer(e)) {
+            return true;
+        }
+
+        final long timeoutNanos = unit.toNanos(timeout);
+        final long start = System.nanoTime();
+        long parkNanos = 1_000L;
+        for (;;) {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            final long remaining = timeoutNanos - (System.nanoTime() - start);
+            if (remaining <= 0L) {
+                return false;
+            }
+
+            LockSupport.parkNanos(this, Math.min(remaining, parkNanos));
+            if (offer(e)) {
+                return true;
+            }
+            parkNanos = Math.min(parkNanos << 1, MAX_PRODUCER_PARK_NANOS);
+        }
+    }
+
+    @Override
+    public E take() throws InterruptedException {
+        final E e = poll(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        if (e == null) {
+            throw new IllegalStateException("Timed out waiting for an element");
+        }
+        return e;
+    }
+
+    @Override
+    public E poll(final long timeout, final TimeUnit unit) throws InterruptedException {
+        E e = poll();
+        if (e != null) {
+            return e;
+        }
+
+        final long timeoutNanos = unit.toNanos(timeout);
+        final long start = System.nanoTime();
+        final Thread current = Thread.currentThread();
+        // Register the thread before it is counted, so that producers seeing the count can also unpark it.
+        waitingConsumerThreads.add(current);
+        waitingConsumers.incrementAndGet();
+        try {
+            for (;;) {
+                // Check again after registering as waiting consumer, producers unpark us from now on.
+                e = poll();
+                if (e != null) {
+                    return e;
+                }
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+                final long remaining = timeoutNanos - (System.nanoTime() - start);
+                if (remaining <= 0L) {
+                    return null;
+                }
+
+                LockSupport.parkNanos(this, remaining);
+            }
+        } finally {
+            waitingConsumers.decrementAndGet();
+            waitingConsumerThreads.remove(current);
+        }
+    }
+
+    @Override
+    public int remainingCapacity() {
+        return capacity - size();
+    }
+
+    @Override
+    public int drainTo(final Collection<? super E> c) {
+        return drainTo(c, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public int drainTo(final Collection<? super E> c, final int maxElements) {
+        if (c == this) {
+            throw new IllegalArgumentException();
+        }
+
+        int drained = 0;
+        E e;
+        while (drained < maxElements && (e = poll()) != null) {
+            c.add(e);
+            drained++;
+        }
+        return drained;
+    }
+
+    @Override
+    public int size() {
+        for (;;) {
+            final long before = consumerIndex;
+            final long producer = producerIndex;
+            final long after = consumerIndex;
+            if (before == after) {
+                return (int) Math.max(0L, Math.min(capacity, producer - after));
+            }
+        }
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return consumerIndex >= producerIndex;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>The iterator returns a snapshot of the elements in the queue and doesn't support {@link Iterator#remove()}.</p>
+     */
+    @Override
+    public Iterator<E> iterator() {
+        final long consumer = consumerIndex;
+        final long producer = producerIndex;
+        final List<E> snapshot = new ArrayList<>((int) Math.max(0L, Math.min(capacity, producer - consumer)));
+        for (long index = consumer; index < producer; index++) {
+            final E e = elements.get((int) index & mask);
+            if (e != null) {
+                snapshot.add(e);
+            }
+        }
+        return Collections.unmodifiableList(snapshot).iterator();
+    }
+}
@@ -0,0 +1,30 @@
+/*
+ * Copyright 2026 Graylog, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graylog2.gelfclient.queue;
+
+import java.util.AbstractQueue;
+
+/**
+ * Padding in front of the producer index of {@link RingBufferBlockingQueue}. HotSpot lays out the fields of a
+ * superclass before the fields of its subclasses, so the producer and consumer index each end up on their own cache
+ * line (assuming 64 byte lines).
+ *
+ * @param <E> the type of elements held in the queue
+ */
+abstract class RingBufferPad0<E> extends AbstractQueue<E> {
+    long p00, p01, p02, p03, p04, p05, p06, p07;
+}
@@ -0,0 +1,26 @@
+/*
+ * Copyright 2026 Graylog, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graylog2.gelfclient.queue;
+
+/**
+ * Padding behind the consumer index of {@link RingBufferBlockingQueue}.
+ *
+ * @param <E> the type of elements held in the queue
+ */
+abstract class RingBufferPad2<E> extends RingBufferConsumerIndex<E> {
+    long p20, p21, p22, p23, p24, p25, p26, p27;
+}
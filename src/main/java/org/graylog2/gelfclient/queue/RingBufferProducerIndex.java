@@ -0,0 +1,37 @@
+/*
+ * Copyright 2026 Graylog, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graylog2.gelfclient.queue;
+
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+/**
+ * The producer index of {@link RingBufferBlockingQueue}, padded by {@link RingBufferPad0} and {@link RingBufferPad1}.
+ *
+ * @param <E> the type of elements held in the queue
+ */
+abstract class RingBufferProducerIndex<E> extends RingBufferPad0<E> {
+    @SuppressWarnings("unchecked")
+    private static final AtomicLongFieldUpdater<RingBufferProducerIndex<?>> PRODUCER_INDEX =
+            (AtomicLongFieldUpdater<RingBufferProducerIndex<?>>) (AtomicLongFieldUpdater<?>)
+                    AtomicLongFieldUpdater.newUpdater(RingBufferProducerIndex.class, "producerIndex");
+
+    volatile long producerIndex;
+
+    final boolean casProducerIndex(final long expect, final long update) {
+        return PRODUCER_INDEX.compareAndSet(this, expect, update);
+    }
+}
@@ -0,0 +1,439 @@
+/*
+ * Copyright 2026 Graylog, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.graylog2.gelfclient.spool;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.util.internal.PlatformDependent;
+import org.graylog2.gelfclient.SpoolSyncPolicy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * A persistent, append-only spool of encoded GELF messages which keeps messages across outages of the GELF server
+ * and restarts of the application.
+ * <p>The spool consists of segment files of a fixed size, which are memory-mapped while the spool is open. Messages
+ * are appended to the last segment and read in order from the first segment. A segment is deleted once all of its
+ * messages have been read, and no more segments are created once the {@code maxBytes} limit has been reached.</p>
+ * <p>Each segment starts with a header containing a magic number and the offset of the first unread message, which
+ * is followed by frames consisting of the length of the message, the CRC32 checksum of the message and the message
+ * itself. When a spool is opened, the existing segments are read from the directory and their frames are validated,
+ * so that a frame which was only partially written when the application crashed is discarded.</p>
+ * <p>A message is removed from the spool once it has been read, so messages which have been read but not written to
+ * the network before a crash are lost, just like queued messages.</p>
+ * <p>This class is thread-safe.</p>
+ */
+public class GelfSpool implements Closeable {
+    private static final Logger LOG = LoggerFactory.getLogger(GelfSpool.class);
+    // "GELF" in ASCII.
+    private static final int MAGIC = 0x47454c46;
+    private static final int READ_OFFSET_POSITION = 4;
+    private static final int HEADER_SIZE = 8;
+    private static final int FRAME_HEADER_SIZE = 8;
+    private static final String SEGMENT_PREFIX = "gelf-spool-";
+    private static final String SEGMENT_SUFFIX = ".seg";
+
+    private final File directory;
+    private final long maxBytes;
+    private final int segmentSize;
+    private final SpoolSyncPolicy syncPolicy;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final CRC32 crc = new CRC32();
+    private final ArrayDeque<Segment> segments = new ArrayDeque<>();
+    private final AtomicLong frames = new AtomicLong();
+    private final AtomicLong bytes = new AtomicLong();
+    private long segmentBytes = 0L;
+    private long nextSequence = 0L;
+    private boolean closed = false;
+
+    /**
+     * Opens the spool in the given directory and recovers the messages which have been spooled before.
+     *
+     * @param directory   the directory of the segment files, which is created if it doesn't exist
+     * @param maxBytes    the maximum size of all segment files in bytes
+     * @param segmentSize the size of each segment file in bytes
+     * @param syncPolicy  when the segment files are forced to disk
+     * @throws IOException if the directory or the segment files couldn't be read
+     */
+    public GelfSpool(final File directory, final long maxBytes, final int segmentSize,
+                     final SpoolSyncPolicy syncPolicy) throws IOException {
+        if (segmentSize <= HEADER_SIZE + FRAME_HEADER_SIZE) {
+            throw new IllegalArgumentException("segmentSize must be larger than " + (HEADER_SIZE + FRAME_HEADER_SIZE));
+        }
+        if (maxBytes < segmentSize) {
+            throw new IllegalArgumentException("maxBytes must not be smaller than segmentSize");
+        }
+        if (syncPolicy == null) {
+            throw new IllegalArgumentException("syncPolicy must not be null");
+        }
+
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+        this.segmentSize = segmentSize;
+        this.syncPolicy = syncPolicy;
+
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Couldn't create spool directory " + directory);
+        }
+        recover();
+    }
+
+    private void recover() throws IOException {
+        final File[] files = directory.listFiles(new FilenameFilter() {
+            @Override
+            public boolean accept(File dir, String name) {
+                return sequence(name) >= 0L;
+            }
+        });
+        if (files == null) {
+            throw new IOException("Couldn't list spool directory " + directory);
+        }
+        Arrays.sort(files, new Comparator<File>() {
+            @Override
+            public int compare(File f1, File f2) {
+                return Long.compare(sequence(f1.getName()), sequence(f2.getName()));
+            }
+        });
+
+        for (File file : files) {
+            final long sequence = sequence(file.getName());
+            nextSequence = Math.max(nextSequence, sequence + 1L);
+
+            final Segment segment = recoverSegment(file);
+            if (segment == null) {
+                LOG.warn("Deleting invalid spool segment {}.", file);
+                delete(file);
+                continue;
+            }
+
+            segments.addLast(segment);
+            segmentBytes += segment.buffer.capacity();
+        }
+        removeConsumedSegments();
+
+        if (frames.get() > 0L) {
+            LOG.info("Recovered {} spooled messages from {}.", frames.get(), directory);
+        }
+    }
+
+    private Segment recoverSegment(final File file) throws IOException {
+        final MappedByteBuffer buffer;
+        try (final RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            if (raf.length() < HEADER_SIZE || raf.length() > Integer.MAX_VALUE) {
+                return null;
+            }
+            buffer = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0L, raf.length());
+        }
+
+        final int capacity = buffer.capacity();
+        final int readOffset = buffer.getInt(READ_OFFSET_POSITION);
+        if (buffer.getInt(0) != MAGIC || readOffset < HEADER_SIZE || readOffset > capacity) {
+            PlatformDependent.freeDirectBuffer(buffer);
+            return null;
+        }
+
+        int position = readOffset;
+        while (position <= capacity - FRAME_HEADER_SIZE) {
+            final int length = buffer.getInt(position);
+            if (length == 0 && buffer.getInt(position + 4) == 0) {
+                break;
+            }
+            if (length <= 0 || length > capacity - position - FRAME_HEADER_SIZE
+                    || checksum(buffer, position + FRAME_HEADER_SIZE, length) != buffer.getInt(position + 4)) {
+                // The application crashed while this frame was written, so no other frames can follow.
+                LOG.warn("Discarding incomplete message at offset {} of spool segment {}.", position, file);
+                for (int i = position; i < capacity; i++) {
+                    buffer.put(i, (byte) 0);
+                }
+                break;
+            }
+
+            position += FRAME_HEADER_SIZE + length;
+            frames.incrementAndGet();
+            bytes.addAndGet(FRAME_HEADER_SIZE + length);
+        }
+
+        return new Segment(file, buffer, readOffset, position);
+    }
+
+    private int checksum(final ByteBuffer buffer, final int offset, final int length) {
+        final ByteBuffer payload = buffer.duplicate();
+        payload.limit(offset + length).position(offset);
+        crc.reset();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Appends the given message to the spool.
+     *
+     * @param payload the encoded message, which is neither consumed nor released
+     * @return {@code true} if the message has been spooled, {@code false} if the spool is full, the message is larger
+     * than a segment, the segment file couldn't be created or the spool has been closed
+     */
+    public boolean append(final ByteBuf payload) {
+        final int length = payload.readableBytes();
+        if (length == 0) {
+            throw new IllegalArgumentException("payload must not be empty");
+        }
+        if (length > segmentSize - HEADER_SIZE - FRAME_HEADER_SIZE) {
+            return false;
+        }
+
+        lock.lock();
+        try {
+            if (closed) {
+                return false;
+            }
+
+            Segment segment = segments.peekLast();
+            if (segment == null || segment.writeOffset + FRAME_HEADER_SIZE + length > segment.buffer.capacity()) {
+                if (segmentBytes + segmentSize > maxBytes) {
+                    return false;
+                }
+                if (segment != null && syncPolicy == SpoolSyncPolicy.SEGMENT) {
+                    segment.buffer.force();
+                }
+                segment = newSegment();
+                segments.addLast(segment);
+                segmentBytes += segmentSize;
+            }
+
+            final int position = segment.writeOffset;
+            final ByteBuffer frame = segment.buffer.duplicate();
+            frame.limit(position + FRAME_HEADER_SIZE + length).position(position + FRAME_HEADER_SIZE);
+            payload.getBytes(payload.readerIndex(), frame);
+            segment.buffer.putInt(position + 4, checksum(segment.buffer, position + FRAME_HEADER_SIZE, length));
+            // The length is written last, so that a partially written frame is never mistaken for a complete one.
+            segment.buffer.putInt(position, length);
+            if (syncPolicy == SpoolSyncPolicy.ALWAYS) {
+                segment.buffer.force();
+            }
+
+            segment.writeOffset = position + FRAME_HEADER_SIZE + length;
+            frames.incrementAndGet();
+            bytes.addAndGet(FRAME_HEADER_SIZE + length);
+            return true;
+        } catch (IOException e) {
+            LOG.error("Couldn't create spool segment in " + directory, e);
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Segment newSegment() throws IOException {
+        final File file = new File(directory, String.format("%s%020d%s", SEGMENT_PREFIX, nextSequence++, SEGMENT_SUFFIX));
+        final MappedByteBuffer buffer;
+        try (final RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(segmentSize);
+            buffer = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0L, segmentSize);
+        }
+
+        buffer.putInt(READ_OFFSET_POSITION, HEADER_SIZE);
+        buffer.putInt(0, MAGIC);
+        return new Segment(file, buffer, HEADER_SIZE, HEADER_SIZE);
+    }
+
+    /**
+     * Removes the oldest message from the spool.
+     *
+     * @param alloc the allocator of the returned buffer
+     * @return a buffer containing the oldest encoded message, or {@code null} if the spool is empty or closed
+     */
+    public ByteBuf poll(final ByteBufAllocator alloc) {
+        lock.lock();
+        try {
+            if (closed) {
+                return null;
+            }
+
+            removeConsumedSegments();
+            final Segment segment = segments.peekFirst();
+            if (segment == null || segment.readOffset == segment.writeOffset) {
+                return null;
+            }
+
+            final int position = segment.readOffset;
+            final int length = segment.buffer.getInt(position);
+            final ByteBuffer frame = segment.buffer.duplicate();
+            frame.limit(position + FRAME_HEADER_SIZE + length).position(position + FRAME_HEADER_SIZE);
+            final ByteBuf payload = alloc.buffer(length);
+            payload.writeBytes(frame);
+
+            segment.readOffset = position + FRAME_HEADER_SIZE + length;
+            segment.buffer.putInt(READ_OFFSET_POSITION, segment.readOffset);
+            frames.decrementAndGet();
+            bytes.addAndGet(-(FRAME_HEADER_SIZE + length));
+            removeConsumedSegments();
+            return payload;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // The last segment is kept even if all of its messages have been read, because new messages are appended to it.
+    private void removeConsumedSegments() {
+        Segment segment;
+        while (segments.size() > 1 && (segment = segments.peekFirst()).readOffset == segment.writeOffset) {
+            segments.removeFirst();
+            segmentBytes -= segment.buffer.capacity();
+            PlatformDependent.freeDirectBuffer(segment.buffer);
+            delete(segment.file);
+        }
+    }
+
+    private static void delete(final File file) {
+        if (!file.delete()) {
+            LOG.warn("Couldn't delete spool segment {}.", file);
+        }
+    }
+
+    private static long sequence(final String fileName) {
+        if (!fileName.startsWith(SEGMENT_PREFIX) || !fileName.endsWith(SEGMENT_SUFFIX)) {
+            return -1L;
+        }
+
+        try {
+            return Long.parseLong(fileName.substring(SEGMENT_PREFIX.length(), fileName.length() - SEGMENT_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1L;
+        }
+    }
+
+    /**
+     * Checks whether the spool contains unread messages.
+     *
+     * @return {@code true} if there are no unread messages, {@code false} otherwise
+     */
+    public boolean isEmpty() {
+        return frames.get() == 0L;
+    }
+
+    /**
+     * Get the number of unread messages.
+     *
+     * @return the number of unread messages
+     */
+    public long getMessageCount() {
+        return frames.get();
+    }
+
+    /**
+     * Get the size of the unread messages including their framing.
+     *
+     * @return the size of the unread messages in bytes
+     */
+    public long getSize() {
+        return bytes.get();
+    }
+
+    /**
+     * Get the number of segment files.
+     *
+     * @return the number of segment files
+     */
+    public int getSegmentCount() {
+        lock.lock();
+        try {
+            return segments.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Get the directory of the segment files.
+     *
+     * @return the directory of the segment files
+     */
+    public File getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Closes the spool, forces the segment files to disk according to the sync policy and deletes the segments
+     * without unread messages. The unread messages are recovered when the spool is opened again, a closed spool is
+     * empty.
+     */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+
+            closed = true;
+            for (Segment segment : segments) {
+                final boolean consumed = segment.readOffset == segment.writeOffset;
+                if (!consumed && syncPolicy != SpoolSyncPolicy.NEVER) {
+                    segment.buffer.force();
+                }
+                PlatformDependent.freeDirectBuffer(segment.buffer);
+                if (consumed) {
+                    delete(segment.file);
+                }
+            }
+            segments.clear();
+            segmentBytes = 0L;
+            frames.set(0L);
+            bytes.set(0L);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "GelfSpool{" +
+                "directory=" + directory +
+                ", messages=" + frames.get() +
+                ", size=" + bytes.get() +
+                '}';
+    }
+
+    private static final class Segment {
+        private final File file;
+        private final MappedByteBuffer buffer;
+        private int readOffset;
+        private int writeOffset;
+
+        private Segment(final File file, final MappedByteBuffer buffer, final int readOffset, final int writeOffset) {
+            this.file = file;
+            this.buffer = buffer;
+            this.readOffset = readOffset;
+            this.writeOffset = writeOffset;
+        }
+    }
+}
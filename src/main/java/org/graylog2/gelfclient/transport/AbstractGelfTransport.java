@@ -16,18 +16,49 @@
 
 package org.graylog2.gelfclient.transport;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
 import io.netty.channel.EventLoopGroup;
 import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.util.concurrent.DefaultEventExecutor;
 import io.netty.util.concurrent.DefaultThreadFactory;
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.ScheduledFuture;
+import org.graylog2.gelfclient.EndpointSelection;
 import org.graylog2.gelfclient.GelfConfiguration;
 import org.graylog2.gelfclient.GelfMessage;
+import org.graylog2.gelfclient.GelfMessageLevel;
+import org.graylog2.gelfclient.SenderType;
+import org.graylog2.gelfclient.encoder.GelfFieldNameCache;
+import org.graylog2.gelfclient.encoder.GelfMessageJsonEncoder;
+import org.graylog2.gelfclient.queue.ByteBoundedBlockingQueue;
+import org.graylog2.gelfclient.queue.EvictionOrderedQueue;
+import org.graylog2.gelfclient.queue.PriorityLaneBlockingQueue;
+import org.graylog2.gelfclient.queue.Queues;
+import org.graylog2.gelfclient.queue.RingBufferBlockingQueue;
+import org.graylog2.gelfclient.spool.GelfSpool;
+import org.graylog2.gelfclient.util.VirtualThreads;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
  * An abstract {@link GelfTransport} implementation serving as parent for the concrete implementations.
@@ -35,28 +66,69 @@ import java.util.concurrent.atomic.AtomicReference;
  */
 public abstract class AbstractGelfTransport implements GelfTransport {
     private static final Logger LOG = LoggerFactory.getLogger(AbstractGelfTransport.class);
+    // Interval of moving connections away from unhealthy endpoints, if there is more than one endpoint.
+    private static final long ENDPOINT_CHECK_INTERVAL_MILLIS = 1000L;
+    // Netty's default timeout for shutting down an event loop group.
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 15000L;
 
     protected final GelfConfiguration config;
     protected final BlockingQueue<GelfMessage> queue;
 
+    // The envelopes of the queued messages, which are stored in the queue supplied by the user, if there is one.
+    final BlockingQueue<GelfMessageEnvelope> envelopeQueue;
+
+    // The JSON encoder is sharable, so use the same instance for all channels of this transport.
+    protected final GelfMessageJsonEncoder jsonEncoder;
+
+    protected final GelfTransportMetrics metrics;
+
+    // Whether Netty's native epoll transport is used instead of NIO.
+    protected final boolean nativeTransport;
+
     private final EventLoopGroup workerGroup;
 
-    // Use an AtomicReference to manage thread safe access to the senderThread.
-    // A new senderThread instance is set each time a reconnect is attempted.
-    final AtomicReference<GelfSenderThread> senderThreadReference;
+    // Creates the threads of SenderType.THREAD.
+    private final ThreadFactory senderThreadFactory;
+
+    // The GELF servers of this transport, see GelfConfiguration#getRemoteAddresses().
+    protected final List<GelfEndpoint> endpoints;
+
+    // The position of the next endpoint for EndpointSelection.ROUND_ROBIN.
+    private final AtomicInteger nextEndpoint = new AtomicInteger();
+
+    // The senders of the connections of this transport, indexed by connection.
+    // A new sender instance is set each time a reconnect of the connection is attempted.
+    final AtomicReferenceArray<GelfSender> senders;
+
+    // The position of the next sender for ConnectionBalancing.ROUND_ROBIN.
+    private final AtomicInteger nextSender = new AtomicInteger();
+
+    // The pending reconnect of each connection, or null.
+    private final AtomicReferenceArray<Reconnect> reconnects;
+
+    // The periodic check of the endpoint health, or null if there is only one endpoint.
+    private final ScheduledFuture<?> endpointCheck;
+
+    // The number of consecutive failed connection attempts of each connection, for the exponential backoff.
+    private final AtomicIntegerArray failedAttempts;
+
+    protected final GelfCircuitBreaker circuitBreaker;
+
+    // The disk spool taking messages while the transport isn't connected or the queue is full, or null.
+    protected final GelfSpool spool;
+
+    // Reads the spool for SenderType.EVENT_LOOP, so that the file I/O doesn't block the event loops, or null.
+    private final EventExecutor replayExecutor;
 
     /**
      * Creates a new GELF transport with the given configuration and {@link java.util.concurrent.BlockingQueue}.
+     * <p>The queue type and the byte limit of the configuration don't apply to the given queue.</p>
      *
      * @param config the client configuration
      * @param queue  the {@link BlockingQueue} used to buffer GELF messages
      */
     public AbstractGelfTransport(final GelfConfiguration config, final BlockingQueue<GelfMessage> queue) {
-        this.config = config;
-        this.queue = queue;
-        this.workerGroup = new NioEventLoopGroup(config.getThreads(), new DefaultThreadFactory(getClass(), true));
-        this.senderThreadReference = new AtomicReference<>();
-        createBootstrap(workerGroup);
+        this(config, queue, new GelfMessageQueueAdapter(queue));
     }
 
     /**
@@ -65,20 +137,461 @@ public abstract class AbstractGelfTransport implements GelfTransport {
      * @param config the client configuration
      */
     public AbstractGelfTransport(final GelfConfiguration config) {
-        this(config, new LinkedBlockingQueue<GelfMessage>(config.getQueueSize()));
+        this(config, null, createQueue(config));
+    }
+
+    private AbstractGelfTransport(final GelfConfiguration config, final BlockingQueue<GelfMessage> queue,
+                                  final BlockingQueue<GelfMessageEnvelope> envelopeQueue) {
+        this.config = config;
+        this.envelopeQueue = envelopeQueue;
+        this.queue = queue != null ? queue : new GelfMessageQueueView(envelopeQueue, this::signalSender);
+        this.nativeTransport = config.isNativeTransport() && isNativeTransportAvailable();
+        // The native transport can write direct buffers without copying them first.
+        this.jsonEncoder = new GelfMessageJsonEncoder(new JsonFactory(), nativeTransport, config.isReuseJsonGenerators(),
+                new GelfFieldNameCache(config.getFieldNameCacheSize()));
+        this.metrics = new GelfTransportMetrics();
+        final DefaultThreadFactory threadFactory = new DefaultThreadFactory(getClass(), true);
+        this.workerGroup = nativeTransport
+                ? NativeTransport.newEventLoopGroup(config.getThreads(), threadFactory)
+                : new NioEventLoopGroup(config.getThreads(), threadFactory);
+        this.senderThreadFactory = config.isVirtualSenderThread() && isVirtualThreadsAvailable()
+                ? VirtualThreads.newThreadFactory() : GelfSenderThread.PLATFORM_THREAD_FACTORY;
+        final List<GelfEndpoint> endpoints = new ArrayList<>();
+        for (InetSocketAddress remoteAddress : config.getRemoteAddresses()) {
+            endpoints.add(new GelfEndpoint(remoteAddress, config));
+        }
+        this.endpoints = Collections.unmodifiableList(endpoints);
+        this.senders = new AtomicReferenceArray<>(getConnectionCount());
+        this.failedAttempts = new AtomicIntegerArray(senders.length());
+        this.reconnects = new AtomicReferenceArray<>(senders.length());
+        this.circuitBreaker = new GelfCircuitBreaker(config);
+        this.spool = config.getSpoolDirectory() != null ? openSpool(config) : null;
+        this.replayExecutor = spool != null && config.getSenderType() == SenderType.EVENT_LOOP
+                ? new DefaultEventExecutor(new DefaultThreadFactory("gelfSpoolReplay", true)) : null;
+        for (int connection = 0; connection < senders.length(); connection++) {
+            createBootstrap(workerGroup, connection);
+        }
+
+        if (endpoints.size() > 1) {
+            this.endpointCheck = workerGroup.scheduleAtFixedRate(new Runnable() {
+                @Override
+                public void run() {
+                    checkEndpoints();
+                }
+            }, ENDPOINT_CHECK_INTERVAL_MILLIS, ENDPOINT_CHECK_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        } else {
+            this.endpointCheck = null;
+        }
+    }
+
+    private static BlockingQueue<GelfMessageEnvelope> createQueue(final GelfConfiguration config) {
+        final BlockingQueue<GelfMessageEnvelope> queue;
+        switch (config.getQueueType()) {
+            case RING_BUFFER:
+                queue = new RingBufferBlockingQueue<>(config.getQueueSize());
+                break;
+            case PRIORITY_LANES:
+                queue = new PriorityLaneBlockingQueue<>(config.getQueueSize(), config.getPriorityFairnessRatio(),
+                        GelfMessageEnvelope::getLevel);
+                break;
+            case LINKED:
+            default:
+                queue = new LinkedBlockingQueue<>(config.getQueueSize());
+        }
+        if (config.getQueueMaxBytes() <= 0L) {
+            return queue;
+        }
+        // The envelopes keep the size of the messages stable while they're queued.
+        return new ByteBoundedBlockingQueue<>(queue, config.getQueueMaxBytes(), GelfMessageEnvelope::size);
+    }
+
+    private static GelfSpool openSpool(final GelfConfiguration config) {
+        try {
+            return new GelfSpool(config.getSpoolDirectory(), config.getSpoolMaxBytes(), config.getSpoolSegmentSize(),
+                    config.getSpoolSyncPolicy());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Couldn't open spool in " + config.getSpoolDirectory(), e);
+        }
+    }
+
+    /**
+     * Get the disk spool of this transport.
+     *
+     * @return the disk spool, or {@code null} if messages aren't spooled to disk
+     * @see GelfConfiguration#spoolDirectory(java.io.File)
+     */
+    public GelfSpool getSpool() {
+        return spool;
+    }
+
+    /**
+     * Get the cache for the JSON keys of additional fields used by this transport.
+     * <p>The hit and miss counters of the cache can be used to choose a suitable
+     * {@link GelfConfiguration#fieldNameCacheSize(int) cache size}.</p>
+     *
+     * @return the cache for the JSON keys of additional fields
+     */
+    public GelfFieldNameCache getFieldNameCache() {
+        return jsonEncoder.getFieldNameCache();
+    }
+
+    private static boolean isNativeTransportAvailable() {
+        if (NativeTransport.isAvailable()) {
+            return true;
+        }
+
+        LOG.warn("Native transport not available, falling back to NIO.", NativeTransport.unavailabilityCause());
+        return false;
+    }
+
+    private static boolean isVirtualThreadsAvailable() {
+        if (VirtualThreads.isAvailable()) {
+            return true;
+        }
+
+        LOG.warn("Virtual threads not available, falling back to platform threads.", VirtualThreads.unavailabilityCause());
+        return false;
+    }
+
+    /**
+     * Get the GELF servers of this transport together with their health.
+     *
+     * @return the GELF servers of this transport
+     * @see GelfConfiguration#remoteAddresses(List)
+     */
+    public List<GelfEndpoint> getEndpoints() {
+        return endpoints;
+    }
+
+    /**
+     * Selects the GELF server for a connection attempt according to {@link GelfConfiguration#getEndpointSelection()}.
+     * <p>Healthy servers are preferred over degraded servers. If all servers are down, they are tried in turn.</p>
+     *
+     * @return the selected GELF server
+     */
+    protected GelfEndpoint selectEndpoint() {
+        if (endpoints.size() == 1) {
+            return endpoints.get(0);
+        }
+
+        final GelfEndpoint.State[] states = endpointStates();
+        for (GelfEndpoint.State state : new GelfEndpoint.State[]{GelfEndpoint.State.HEALTHY, GelfEndpoint.State.DEGRADED}) {
+            final List<GelfEndpoint> candidates = new ArrayList<>(endpoints.size());
+            for (int i = 0; i < states.length; i++) {
+                if (states[i] == state) {
+                    candidates.add(endpoints.get(i));
+                }
+            }
+            if (candidates.isEmpty()) {
+                continue;
+            }
+
+            switch (config.getEndpointSelection()) {
+                case ROUND_ROBIN:
+                    return candidates.get(Math.floorMod(nextEndpoint.getAndIncrement(), candidates.size()));
+                case LEAST_OUTSTANDING_WRITES:
+                    GelfEndpoint leastOutstanding = candidates.get(0);
+                    for (GelfEndpoint candidate : candidates) {
+                        if (candidate.getOutstandingWrites() < leastOutstanding.getOutstandingWrites()
+                                || (candidate.getOutstandingWrites() == leastOutstanding.getOutstandingWrites()
+                                && candidate.getConnections() < leastOutstanding.getConnections())) {
+                            leastOutstanding = candidate;
+                        }
+                    }
+                    return leastOutstanding;
+                case FAILOVER:
+                default:
+                    return candidates.get(0);
+            }
+        }
+
+        return endpoints.get(Math.floorMod(nextEndpoint.getAndIncrement(), endpoints.size()));
+    }
+
+    private GelfEndpoint.State[] endpointStates() {
+        final GelfEndpoint.State[] states = new GelfEndpoint.State[endpoints.size()];
+        for (int i = 0; i < states.length; i++) {
+            states[i] = endpoints.get(i).getState();
+        }
+        return states;
+    }
+
+    /**
+     * Closes the connections which should be moved to another GELF server, so that they reconnect according to
+     * {@link #selectEndpoint()}: connections to degraded servers if there is a healthy server, and with
+     * {@link org.graylog2.gelfclient.EndpointSelection#FAILOVER} connections to standby servers once a preceding
+     * server is healthy again.
+     */
+    void checkEndpoints() {
+        final GelfEndpoint.State[] states = endpointStates();
+        int firstHealthy = -1;
+        for (int i = 0; i < states.length && firstHealthy < 0; i++) {
+            if (states[i] == GelfEndpoint.State.HEALTHY) {
+                firstHealthy = i;
+            }
+        }
+        if (firstHealthy < 0) {
+            return;
+        }
+
+        final boolean failover = config.getEndpointSelection() == EndpointSelection.FAILOVER;
+        for (int i = 0; i < states.length; i++) {
+            final GelfEndpoint endpoint = endpoints.get(i);
+            if (endpoint.getConnections() > 0
+                    && (states[i] == GelfEndpoint.State.DEGRADED || (failover && i > firstHealthy))) {
+                LOG.info("Moving connections away from GELF server {} ({}).", endpoint.getAddress(), states[i]);
+                endpoint.closeConnections();
+            }
+        }
+    }
 
+    /**
+     * Get the circuit breaker which suspends the connection attempts of this transport.
+     *
+     * @return the circuit breaker of this transport
+     * @see GelfConfiguration#circuitBreakerThreshold(int)
+     */
+    public GelfCircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    /**
+     * Get the metrics of this transport.
+     *
+     * @return the metrics of this transport
+     */
+    public GelfTransportMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Get the number of parallel connections of this transport, each of which has its own sender.
+     * <p>Transports with more than one connection have to override {@link #createBootstrap(EventLoopGroup, int)}.</p>
+     *
+     * @return the number of connections, {@code 1} by default
+     */
+    protected int getConnectionCount() {
+        return 1;
+    }
+
+    /**
+     * Creates a new sender for a connection attempt according to {@link GelfConfiguration#getSenderType()} and makes it
+     * the current sender of this transport.
+     *
+     * @return the new sender
+     */
+    protected GelfSender createSender() {
+        return createSender(0);
+    }
+
+    /**
+     * Creates a new sender for a connection attempt of the given connection according to
+     * {@link GelfConfiguration#getSenderType()} and makes it the current sender of that connection.
+     *
+     * @param connection the index of the connection, between {@code 0} and {@link #getConnectionCount()} (exclusive)
+     * @return the new sender
+     */
+    protected GelfSender createSender(final int connection) {
+        final GelfSender sender;
+        switch (config.getSenderType()) {
+            case EVENT_LOOP:
+                sender = new GelfEventLoopSender(envelopeQueue, config.getBatchSize(), metrics, spool,
+                        replayExecutor);
+                break;
+            case THREAD:
+            default:
+                sender = new GelfSenderThread(envelopeQueue, config.getMaxInflightSends(), config.getBatchSize(),
+                        metrics, senderThreadFactory, spool);
+        }
+
+        senders.set(connection, sender);
+        return sender;
+    }
+
+    private void signalSender() {
+        final GelfSender sender = selectSender();
+        if (sender != null) {
+            sender.signal();
+        }
+    }
+
+    /**
+     * Selects the sender which is notified about queued messages according to
+     * {@link GelfConfiguration#getConnectionBalancing()}.
+     *
+     * @return the selected sender, or {@code null} if there is none yet
+     */
+    private GelfSender selectSender() {
+        final int connections = senders.length();
+        if (connections == 1) {
+            return senders.get(0);
+        }
+
+        switch (config.getConnectionBalancing()) {
+            case LEAST_PENDING_BYTES:
+                GelfSender leastPending = null;
+                long leastPendingBytes = Long.MAX_VALUE;
+                for (int i = 0; i < connections; i++) {
+                    final GelfSender sender = senders.get(i);
+                    if (sender != null) {
+                        final long pendingBytes = sender.getPendingBytes();
+                        if (leastPending == null || pendingBytes < leastPendingBytes) {
+                            leastPending = sender;
+                            leastPendingBytes = pendingBytes;
+                        }
+                    }
+                }
+                return leastPending;
+            case ROUND_ROBIN:
+            default:
+                // Skip disconnected senders, unless none is connected.
+                final int start = nextSender.getAndIncrement();
+                GelfSender fallback = null;
+                for (int i = 0; i < connections; i++) {
+                    final GelfSender sender = senders.get(Math.floorMod(start + i, connections));
+                    if (sender != null) {
+                        if (sender.getPendingBytes() != Long.MAX_VALUE) {
+                            return sender;
+                        }
+                        if (fallback == null) {
+                            fallback = sender;
+                        }
+                    }
+                }
+                return fallback;
+        }
     }
 
     protected abstract void createBootstrap(final EventLoopGroup workerGroup);
 
+    /**
+     * Creates the channel of the given connection and connects it.
+     * <p>The default implementation only supports a single connection and calls
+     * {@link #createBootstrap(EventLoopGroup)}.</p>
+     *
+     * @param workerGroup the event loop group of the channel
+     * @param connection  the index of the connection, between {@code 0} and {@link #getConnectionCount()} (exclusive)
+     */
+    protected void createBootstrap(final EventLoopGroup workerGroup, final int connection) {
+        createBootstrap(workerGroup);
+    }
+
     protected void scheduleReconnect(final EventLoopGroup workerGroup) {
-        workerGroup.schedule(new Runnable() {
-            @Override
-            public void run() {
-                LOG.debug("Starting reconnect!");
-                createBootstrap(workerGroup);
+        scheduleReconnect(workerGroup, 0);
+    }
+
+    /**
+     * Reconnects the given connection after the {@link #reconnectDelay(int) reconnect delay}, unless the
+     * {@link #getCircuitBreaker() circuit breaker} is open. The other connections of this transport are not affected.
+     *
+     * @param workerGroup the event loop group of the new channel
+     * @param connection  the index of the connection, between {@code 0} and {@link #getConnectionCount()} (exclusive)
+     */
+    protected void scheduleReconnect(final EventLoopGroup workerGroup, final int connection) {
+        new Reconnect(workerGroup, connection).schedule(reconnectDelay(failedAttempts.get(connection)));
+    }
+
+    /**
+     * Postpones the pending reconnects of all connections until the cool-down of the opened circuit breaker has
+     * passed, instead of letting each of them wake up only to be postponed.
+     */
+    private void postponeReconnects() {
+        final long coolDown = circuitBreaker.getRemainingCoolDown(TimeUnit.MILLISECONDS);
+        for (int connection = 0; connection < reconnects.length(); connection++) {
+            final Reconnect reconnect = reconnects.get(connection);
+            if (reconnect != null && reconnect.cancel()) {
+                reconnect.schedule(Math.max(coolDown, reconnectDelay(failedAttempts.get(connection))));
             }
-        }, config.getReconnectDelay(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * The reconnect of a single connection. Its scheduled future is kept, so that it can be cancelled when the
+     * transport is stopped or postponed when the circuit breaker opens.
+     */
+    private final class Reconnect implements Runnable {
+        private final EventLoopGroup workerGroup;
+        private final int connection;
+        private volatile ScheduledFuture<?> future;
+
+        Reconnect(final EventLoopGroup workerGroup, final int connection) {
+            this.workerGroup = workerGroup;
+            this.connection = connection;
+        }
+
+        void schedule(final long delayMillis) {
+            final Reconnect previous = reconnects.getAndSet(connection, this);
+            if (previous != null && previous != this) {
+                previous.cancel();
+            }
+            future = workerGroup.schedule(this, delayMillis, TimeUnit.MILLISECONDS);
+        }
+
+        boolean cancel() {
+            final ScheduledFuture<?> scheduled = future;
+            return scheduled != null && scheduled.cancel(false);
+        }
+
+        @Override
+        public void run() {
+            if (!circuitBreaker.tryAcquire()) {
+                // Try again once the cool-down has passed, messages stay queued in the meantime.
+                final long coolDown = circuitBreaker.getRemainingCoolDown(TimeUnit.MILLISECONDS);
+                LOG.debug("Circuit breaker is {}, postponing reconnect of connection {}.",
+                        circuitBreaker.getState(), connection);
+                schedule(Math.max(coolDown, reconnectDelay(failedAttempts.get(connection))));
+                return;
+            }
+
+            reconnects.compareAndSet(connection, this, null);
+            LOG.debug("Starting reconnect of connection {}!", connection);
+            metrics.reconnectAttempted();
+            createBootstrap(workerGroup, connection);
+        }
+    }
+
+    /**
+     * Computes the delay before the next reconnect attempt.
+     * <p>With a {@link GelfConfiguration#getReconnectMaxDelay() maximum delay}, the delay is chosen randomly between
+     * {@code 0} and the exponentially growing, capped delay ("full jitter"), otherwise it's the fixed
+     * {@link GelfConfiguration#getReconnectDelay() reconnect delay}.</p>
+     *
+     * @param failedAttempts the number of consecutive failed connection attempts of the connection
+     * @return the delay before the next reconnect attempt in milliseconds
+     */
+    long reconnectDelay(final int failedAttempts) {
+        final int maxDelay = config.getReconnectMaxDelay();
+        if (maxDelay <= 0) {
+            return config.getReconnectDelay();
+        }
+
+        final long delay = Math.min(maxDelay, (long) config.getReconnectDelay() << Math.min(failedAttempts, 30));
+        return ThreadLocalRandom.current().nextLong(delay + 1L);
+    }
+
+    /**
+     * Records a successful connection attempt of the given connection, which resets its reconnect backoff and closes
+     * the circuit breaker.
+     *
+     * @param connection the index of the connection
+     */
+    protected void connectSucceeded(final int connection) {
+        failedAttempts.set(connection, 0);
+        circuitBreaker.succeeded();
+    }
+
+    /**
+     * Records a failed connection attempt of the given connection, which increases its reconnect backoff and might
+     * open the circuit breaker.
+     *
+     * @param connection the index of the connection
+     */
+    protected void connectFailed(final int connection) {
+        failedAttempts.incrementAndGet(connection);
+        metrics.connectFailed();
+        if (circuitBreaker.failed()) {
+            postponeReconnects();
+        }
     }
 
     /**
@@ -86,13 +599,20 @@ public abstract class AbstractGelfTransport implements GelfTransport {
      * <p>This implementation is backed by a {@link java.util.concurrent.BlockingQueue}. When this method returns the
      * message has been added to the {@link java.util.concurrent.BlockingQueue} but has not been sent to the remote
      * host yet.</p>
+     * <p>If the envelopeQueue is full, the message is handled according to the configured
+     * {@link GelfConfiguration#getOverflowPolicy() overflow policy}, which might drop it instead of blocking.</p>
+     * <p>With a {@link GelfConfiguration#spoolDirectory(java.io.File) disk spool}, the message is written to the
+     * spool instead while the transport isn't connected, the envelopeQueue is full, or earlier messages are still spooled.
+     * The overflow policy only applies once the spool is full as well.</p>
      *
      * @param message message to send to the remote host
      */
     @Override
     public void send(final GelfMessage message) throws InterruptedException {
         LOG.debug("Sending message: {}", message);
-        queue.put(message);
+        if (enqueue(new GelfMessageEnvelope(message), true)) {
+            signalSender();
+        }
     }
 
     /**
@@ -100,6 +620,8 @@ public abstract class AbstractGelfTransport implements GelfTransport {
      * <p>This implementation is backed by a {@link java.util.concurrent.BlockingQueue}. When this method returns the
      * message has been added to the {@link java.util.concurrent.BlockingQueue} but has not been sent to the remote
      * host yet.</p>
+     * <p>If the envelopeQueue is full, the message is handled according to the configured
+     * {@link GelfConfiguration#getOverflowPolicy() overflow policy} without blocking.</p>
      *
      * @param message message to send to the remote host
      * @return true if the message could be dispatched, false otherwise
@@ -107,7 +629,318 @@ public abstract class AbstractGelfTransport implements GelfTransport {
     @Override
     public boolean trySend(final GelfMessage message) {
         LOG.debug("Trying to send message: {}", message);
-        return queue.offer(message);
+        return trySend(new GelfMessageEnvelope(message));
+    }
+
+    private boolean trySend(final GelfMessageEnvelope envelope) {
+        final boolean enqueued;
+        try {
+            enqueued = enqueue(envelope, false);
+        } catch (InterruptedException e) {
+            // Can't happen, nothing blocks.
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        if (enqueued) {
+            signalSender();
+        }
+        return enqueued;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>The message is queued like with {@link #trySend(GelfMessage)}, wrapped in an envelope carrying the future,
+     * so the same message can be sent again at any time.</p>
+     *
+     * @param message message to send to the remote host
+     * @return a stage which is completed once the message has been written to the network or to the disk spool
+     */
+    @Override
+    public CompletionStage<Void> sendAsync(final GelfMessage message) {
+        final CompletableFuture<Void> sendFuture = new CompletableFuture<>();
+        // Completes the future exceptionally if the message is dropped.
+        trySend(new GelfMessageEnvelope(message, sendFuture));
+        return sendFuture;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>The messages are added to the envelopeQueue at once, if the envelopeQueue supports it (see
+     * {@link org.graylog2.gelfclient.queue.BulkOfferQueue}). Messages which don't fit into the envelopeQueue are sent one by
+     * one according to the configured {@link GelfConfiguration#getOverflowPolicy() overflow policy}.</p>
+     *
+     * @param messages messages to send to the remote host
+     * @return the number of dispatched messages
+     */
+    @Override
+    public int sendAll(final Collection<? extends GelfMessage> messages) throws InterruptedException {
+        LOG.debug("Sending {} messages", messages.size());
+        final boolean spooling = isSpooling();
+        final List<GelfMessageEnvelope> queued = envelop(messages, !spooling);
+        final int offered = spooling ? 0 : Queues.offerAll(envelopeQueue, queued);
+        if (offered > 0) {
+            signalSender();
+        }
+        return offered + enqueueRemaining(queued, offered, true);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>The messages are added to the envelopeQueue at once, if the envelopeQueue supports it (see
+     * {@link org.graylog2.gelfclient.queue.BulkOfferQueue}). Messages which don't fit into the envelopeQueue are handled one
+     * by one according to the configured {@link GelfConfiguration#getOverflowPolicy() overflow policy} without
+     * blocking.</p>
+     *
+     * @param messages messages to send to the remote host
+     * @return the number of dispatched messages
+     */
+    @Override
+    public int trySendAll(final Collection<? extends GelfMessage> messages) {
+        LOG.debug("Trying to send {} messages", messages.size());
+        final boolean spooling = isSpooling();
+        final List<GelfMessageEnvelope> queued = envelop(messages, !spooling);
+        final int offered = spooling ? 0 : Queues.offerAll(envelopeQueue, queued);
+        if (offered > 0) {
+            signalSender();
+        }
+        try {
+            return offered + enqueueRemaining(queued, offered, false);
+        } catch (InterruptedException e) {
+            // Can't happen, nothing blocks.
+            Thread.currentThread().interrupt();
+            return offered;
+        }
+    }
+
+    private int enqueueRemaining(final List<GelfMessageEnvelope> envelopes, final int offered,
+                                 final boolean blocking) throws InterruptedException {
+        int enqueued = 0;
+        for (GelfMessageEnvelope envelope : envelopes.subList(offered, envelopes.size())) {
+            if (enqueue(envelope, blocking)) {
+                enqueued++;
+                signalSender();
+            }
+        }
+        return enqueued;
+    }
+
+    private boolean enqueue(final GelfMessageEnvelope message, final boolean blocking) throws InterruptedException {
+        final boolean spooling = isSpooling();
+        if (spooling && spool(message)) {
+            return true;
+        }
+        encodeOnSend(message);
+        if (envelopeQueue.offer(message)) {
+            return true;
+        }
+        if (!spooling && spool != null && spool(message)) {
+            return true;
+        }
+
+        switch (config.getOverflowPolicy()) {
+            case BLOCK_WITH_TIMEOUT:
+                if (blocking && envelopeQueue.offer(message, config.getOverflowTimeout(), TimeUnit.MILLISECONDS)) {
+                    return true;
+                }
+                break;
+            case DROP_NEWEST:
+                break;
+            case DROP_OLDEST:
+                do {
+                    final GelfMessageEnvelope oldest = evictOldest();
+                    if (oldest != null) {
+                        dropped(oldest);
+                    }
+                } while (!envelopeQueue.offer(message));
+                return true;
+            case DROP_BY_LEVEL:
+                GelfMessageEnvelope evicted;
+                if (isDroppable(message)) {
+                    // Only a less severe message makes room for a message below the retain level.
+                    while ((evicted = evictLessSevere(message.getLevel())) != null) {
+                        dropped(evicted);
+                        if (envelopeQueue.offer(message)) {
+                            return true;
+                        }
+                    }
+                    break;
+                }
+                while ((evicted = evictDroppable()) != null) {
+                    dropped(evicted);
+                    if (envelopeQueue.offer(message)) {
+                        return true;
+                    }
+                }
+                if (blocking) {
+                    envelopeQueue.put(message);
+                    return true;
+                }
+                break;
+            case BLOCK:
+            default:
+                if (blocking) {
+                    envelopeQueue.put(message);
+                    return true;
+                }
+        }
+
+        dropped(message);
+        return false;
+    }
+
+    @SuppressWarnings("unchecked")
+    private GelfMessageEnvelope evictOldest() {
+        return envelopeQueue instanceof EvictionOrderedQueue
+                ? ((EvictionOrderedQueue<GelfMessageEnvelope>) envelopeQueue).evict() : envelopeQueue.poll();
+    }
+
+    /**
+     * Encodes the given message on the calling thread, if {@link GelfConfiguration#isEncodeOnSend()} is enabled.
+     * The encoded payload is carried by the {@link GelfMessageEnvelope envelope}, so the message itself isn't changed.
+     * If encoding fails, the message is queued as it is and the error is reported by the channel pipeline.
+     */
+    private void encodeOnSend(final GelfMessageEnvelope envelope) {
+        if (!config.isEncodeOnSend() || envelope.getEncodedPayload() != null) {
+            return;
+        }
+
+        try {
+            final ByteBuf payload = jsonEncoder.encode(ByteBufAllocator.DEFAULT, envelope.getMessage());
+            if (compressesOnSend()) {
+                envelope.setEncodedPayload(compress(payload), true);
+            } else {
+                envelope.setEncodedPayload(payload, false);
+            }
+        } catch (Exception e) {
+            LOG.debug("Couldn't encode message on the sending thread", e);
+        }
+    }
+
+    /**
+     * Wraps the given messages in envelopes and {@link #encodeOnSend(GelfMessageEnvelope) encodes} them, if they are
+     * going to be queued.
+     */
+    private List<GelfMessageEnvelope> envelop(final Collection<? extends GelfMessage> messages, final boolean encode) {
+        final List<GelfMessageEnvelope> envelopes = new ArrayList<>(messages.size());
+        for (GelfMessage message : messages) {
+            final GelfMessageEnvelope envelope = new GelfMessageEnvelope(message);
+            if (encode) {
+                encodeOnSend(envelope);
+            }
+            envelopes.add(envelope);
+        }
+        return envelopes;
+    }
+
+    /**
+     * Checks whether messages which have been {@link GelfConfiguration#encodeOnSend(boolean) encoded on the sending
+     * thread} are also {@link #compress(ByteBuf) compressed} there. The channel pipeline passes such payloads on
+     * without compressing them again.
+     * <p>The default implementation returns {@code false}.</p>
+     *
+     * @return {@code true} if encoded messages are compressed on the sending thread
+     */
+    protected boolean compressesOnSend() {
+        return false;
+    }
+
+    /**
+     * Compresses a message which has been {@link GelfConfiguration#encodeOnSend(boolean) encoded on the sending
+     * thread}. Only called if {@link #compressesOnSend()} returns {@code true}.
+     * <p>The default implementation doesn't compress messages.</p>
+     *
+     * @param payload the JSON payload of the message, which is released by this method unless it is returned
+     * @return the compressed payload
+     * @throws Exception if the payload couldn't be compressed
+     */
+    protected ByteBuf compress(final ByteBuf payload) throws Exception {
+        return payload;
+    }
+
+    /**
+     * Checks whether new messages have to be spooled instead of queued, because the transport isn't connected or
+     * earlier messages have been spooled which haven't been sent yet.
+     */
+    private boolean isSpooling() {
+        return spool != null && (!spool.isEmpty() || !isConnected());
+    }
+
+    private boolean isConnected() {
+        for (int connection = 0; connection < senders.length(); connection++) {
+            final GelfSender sender = senders.get(connection);
+            if (sender != null && sender.getPendingBytes() != Long.MAX_VALUE) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Encodes the given message and appends it to the spool.
+     *
+     * @return {@code true} if the message has been spooled, {@code false} if the spool is full
+     */
+    private boolean spool(final GelfMessageEnvelope envelope) {
+        final ByteBuf payload;
+        try {
+            payload = jsonEncoder.encode(ByteBufAllocator.DEFAULT, envelope.getMessage());
+        } catch (Exception e) {
+            LOG.error("Couldn't encode message for the spool", e);
+            return false;
+        }
+
+        try {
+            if (!spool.append(payload)) {
+                return false;
+            }
+        } finally {
+            payload.release();
+        }
+
+        // The spool always contains the uncompressed JSON payload, regardless of the encoding on send.
+        envelope.release();
+        metrics.messageSpooled();
+        SendFutures.spooled(envelope);
+        return true;
+    }
+
+    private void dropped(final GelfMessageEnvelope envelope) {
+        envelope.release();
+        metrics.messageDropped(envelope.getLevel());
+        SendFutures.dropped(envelope);
+    }
+
+    private boolean isDroppable(final GelfMessageEnvelope message) {
+        return message.getLevel().getNumericLevel() > config.getOverflowRetainLevel().getNumericLevel();
+    }
+
+    /**
+     * Removes the queued message which should be dropped first, if it may be dropped according to
+     * {@link GelfConfiguration#getOverflowRetainLevel()}.
+     *
+     * @return the removed message, or {@code null} if there was none
+     */
+    private GelfMessageEnvelope evictDroppable() {
+        return Queues.evictIf(envelopeQueue, this::isDroppable);
+    }
+
+    /**
+     * Removes the least severe queued message, if it is less severe than the given level.
+     *
+     * @param level the level of the message which needs room in the queue
+     * @return the removed message, or {@code null} if there was none
+     */
+    private GelfMessageEnvelope evictLessSevere(final GelfMessageLevel level) {
+        for (int numericLevel = GelfMessageLevel.DEBUG.getNumericLevel();
+             numericLevel > level.getNumericLevel(); numericLevel--) {
+            final int evictedLevel = numericLevel;
+            final GelfMessageEnvelope evicted = Queues.evictIf(envelopeQueue,
+                    envelope -> envelope.getLevel().getNumericLevel() == evictedLevel);
+            if (evicted != null) {
+                return evicted;
+            }
+        }
+        return null;
     }
 
     /**
@@ -115,7 +948,32 @@ public abstract class AbstractGelfTransport implements GelfTransport {
      */
     @Override
     public void stop() {
-        workerGroup.shutdownGracefully().syncUninterruptibly();
+        if (endpointCheck != null) {
+            endpointCheck.cancel(false);
+        }
+        for (int connection = 0; connection < reconnects.length(); connection++) {
+            final Reconnect reconnect = reconnects.getAndSet(connection, null);
+            if (reconnect != null) {
+                reconnect.cancel();
+            }
+        }
+        workerGroup.shutdownGracefully(config.getShutdownQuietPeriod(), SHUTDOWN_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)
+                .syncUninterruptibly();
+        if (replayExecutor != null) {
+            // The channels are closed, so no replay is scheduled anymore and a running one stops before the spool
+            // is closed.
+            replayExecutor.shutdownGracefully(0L, SHUTDOWN_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS).syncUninterruptibly();
+        }
+        if (spool != null) {
+            spool.close();
+        }
+        if (config.isEncodeOnSend()) {
+            // The messages won't be sent anymore, so release their encoded payload.
+            GelfMessageEnvelope envelope;
+            while ((envelope = envelopeQueue.poll()) != null) {
+                envelope.release();
+            }
+        }
     }
 
     /**
@@ -124,8 +982,11 @@ public abstract class AbstractGelfTransport implements GelfTransport {
     @Override
     public void flushAndStopSynchronously(int waitDuration, TimeUnit timeUnit, int retries) {
 
-        if (senderThreadReference.get() != null) {
-            senderThreadReference.get().flushSynchronously(waitDuration, timeUnit, retries);
+        for (int connection = 0; connection < senders.length(); connection++) {
+            final GelfSender sender = senders.get(connection);
+            if (sender != null) {
+                sender.flushSynchronously(waitDuration, timeUnit, retries);
+            }
         }
         stop();
     }
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2026 Graylog, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graylog2.gelfclient.transport;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.DefaultByteBufHolder;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.MessageToMessageEncoder;
+
+import java.util.List;
+
+/**
+ * A payload which has already passed the compression encoder on the sending thread. The compression encoder of the
+ * channel pipeline only handles {@link ByteBuf}s, so it passes this payload on as it is, and {@link #UNWRAPPER}
+ * hands the payload itself on to the handlers in front of it.
+ */
+final class CompressedPayload extends DefaultByteBufHolder {
+    /**
+     * The channel handler passing on the payload of a {@link CompressedPayload}, which has to be added between the
+     * compression encoder and the handlers in front of it.
+     */
+    static final ChannelHandler UNWRAPPER = new Unwrapper();
+
+    /**
+     * Creates a new compressed payload.
+     *
+     * @param payload the compressed payload, which belongs to this instance from now on
+     */
+    CompressedPayload(final ByteBuf payload) {
+        super(payload);
+    }
+
+    @ChannelHandler.Sharable
+    private static final class Unwrapper extends MessageToMessageEncoder<CompressedPayload> {
+        @Override
+        protected void encode(ChannelHandlerContext ctx, CompressedPayload msg, List<Object> out) throws Exception {
+            // The holder is released after encoding, the payload is passed on.
+            out.add(msg.content().retain());
+        }
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright 2026 Graylog, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.graylog2.gelfclient.transport;
+
+import org.graylog2.gelfclient.GelfConfiguration;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stops the connection attempts of a {@link GelfTransport} for a cool-down period after too many consecutive
+ * connection attempts failed. Queued messages are kept while the circuit breaker is open.
+ * <p>After the cool-down, the circuit breaker is half-open and lets a single connection attempt through. If it
+ * succeeds, the circuit breaker closes again, otherwise it opens for another cool-down.</p>
+ * <p>This class is thread-safe.</p>
+ *
+ * @see GelfConfiguration#circuitBreakerThreshold(int)
+ * @see AbstractGelfTransport#getCircuitBreaker()
+ */
+public class GelfCircuitBreaker {
+    /**
+     * The states of a circuit breaker.
+     */
+    public enum State {
+        /**
+         * Connection attempts are allowed.
+         */
+        CLOSED,
+        /**
+         * Connection attempts are suspended until the cool-down has passed.
+         */
+        OPEN,
+        /**
+         * The cool-down has passed and a single connection attempt is allowed to check whether the GELF server is
+         * reachable again.
+         */
+        HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final long coolDownNanos;
+
+    // Guarded by this.
+    private State state = State.CLOSED;
+    private int consecutiveFailures = 0;
+    private long openedAt;
+    private boolean trialInProgress = false;
+    private long openCount = 0L;
+
+    GelfCircuitBreaker(final GelfConfiguration config) {
+        this.failureThreshold = config.getCircuitBreakerThreshold();
+        this.coolDownNanos = TimeUnit.MILLISECONDS.toNanos(config.getCircuitBreakerCoolDown());
+    }
+
+    /**
+     * Checks whether a connection attempt may be made now. In the half-open state, only the first caller gets the
+     * permission until the outcome of its attempt has been reported.
+     *
+     * @return {@code true} if a connection attempt may be made
+     */
+    synchronized boolean tryAcquire() {
+        switch (getState()) {
+            case OPEN:
+                return false;
+            case HALF_OPEN:
+                if (trialInProgress) {
+                    return false;
+                }
+                trialInProgress = true;
+                return true;
+            case CLOSED:
+            default:
+                return true;
+        }
+    }
+
+    synchronized void succeeded() {
+        consecutiveFailures = 0;
+        trialInProgress = false;
+        state = State.CLOSED;
+    }
+
+    /**
+     * Records a failed connection attempt, which might open the circuit breaker.
+     *
+     * @return {@code true} if the circuit breaker has been opened by this failure
+     */
+    synchronized boolean failed() {
+        consecutiveFailures++;
+        trialInProgress = false;
+        if (failureThreshold > 0 && state != State.OPEN
+                && (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold)) {
+            state = State.OPEN;
+            openedAt = System.nanoTime();
+            openCount++;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Get the current state of the circuit breaker.
+     *
+     * @return the state of the circuit breaker
+     */
+    public synchronized State getState() {
+        if (state == State.OPEN && System.nanoTime() - openedAt >= coolDownNanos) {
+            state = State.HALF_OPEN;
+        }
+        return state;
+    }
+
+    /**
+     * Get the remaining time until the circuit breaker becomes half-open.
+     *
+     * @param unit the time unit of the returned value
+     * @return the remaining cool-down, or {@code 0} if the circuit breaker isn't open
+     */
+    public synchronized long getRemainingCoolDown(final TimeUnit unit) {
+        if (getState() != State.OPEN) {
+            return 0L;
+        }
+        return unit.convert(coolDownNanos - (System.nanoTime() - openedAt), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Get the number of connection attempts which failed since the last successful connection.
+     *
+     * @return the number of consecutive failed connection attempts
+     */
+    public synchronized int getConsecutiveFailures() {
+        return consecutiveFailures;
+    }
+
+    /**
+     * Get the number of times the circuit breaker has been opened.
+     *
+     * @return the number of times the circuit breaker has been opened
+     */
+    public synchronized long getOpenCount() {
+        return openCount;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "GelfCircuitBreaker{" +
+                "state=" + getState() +
+                ", consecutiveFailures=" + consecutiveFailures +
+                ", openCount=" + openCount +
+                '}';
+    }
+}
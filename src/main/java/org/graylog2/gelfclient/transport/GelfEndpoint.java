@@ -0,0 +1,302 @@
+/*
+ * Copyright 2026 Graylog, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.graylog2.gelfclient.transport;
+
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelFutureListener;
+import org.graylog2.gelfclient.GelfConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.InetSocketAddress;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A GELF server a {@link GelfTransport} connects to, together with its health.
+ * <p>The health is derived from the moving averages of the write latency and the write error rate of all connections
+ * to the server, and from failed connection attempts. An unhealthy server is considered healthy again after the
+ * {@link GelfConfiguration#getEndpointRecoveryTime() recovery time}.</p>
+ * <p>The writes are only tracked by TCP transports with more than one server, because the health is only used to
+ * choose between servers.</p>
+ * <p>This class is thread-safe.</p>
+ *
+ * @see AbstractGelfTransport#getEndpoints()
+ */
+public class GelfEndpoint {
+    private static final Logger LOG = LoggerFactory.getLogger(GelfEndpoint.class);
+
+    /**
+     * The health states of a GELF server.
+     */
+    public enum State {
+        /**
+         * Connections can be opened to the server and writes complete normally.
+         */
+        HEALTHY,
+        /**
+         * The average write latency or the write error rate exceeds its threshold.
+         *
+         * @see GelfConfiguration#endpointLatencyThreshold(int)
+         * @see GelfConfiguration#endpointErrorRateThreshold(double)
+         */
+        DEGRADED,
+        /**
+         * The last connection attempt failed and there is no open connection to the server.
+         */
+        DOWN
+    }
+
+    // Weight of the latest write in the moving averages of the write latency and the write error rate.
+    private static final double SMOOTHING = 0.1d;
+
+    private final InetSocketAddress address;
+    private final double latencyThresholdNanos;
+    private final double errorRateThreshold;
+    private final long recoveryNanos;
+    private final Set<Channel> channels = Collections.newSetFromMap(new ConcurrentHashMap<Channel, Boolean>());
+    private final AtomicInteger outstandingWrites = new AtomicInteger();
+    private final LongAdder writes = new LongAdder();
+    private final LongAdder writeErrors = new LongAdder();
+    private final AtomicLong connectFailures = new AtomicLong();
+    // The moving averages as raw long bits of doubles, so that writes update them without taking the lock.
+    private final AtomicLong writeLatencyNanos = new AtomicLong(Double.doubleToRawLongBits(0.0d));
+    private final AtomicLong errorRate = new AtomicLong(Double.doubleToRawLongBits(0.0d));
+
+    // Written while holding the lock, read without it by the writes.
+    private volatile State state = State.HEALTHY;
+
+    // Guarded by this.
+    private boolean down = false;
+    private long unhealthySince;
+
+    GelfEndpoint(final InetSocketAddress address, final GelfConfiguration config) {
+        this.address = address;
+        this.latencyThresholdNanos = TimeUnit.MILLISECONDS.toNanos(config.getEndpointLatencyThreshold());
+        this.errorRateThreshold = config.getEndpointErrorRateThreshold();
+        this.recoveryNanos = TimeUnit.MILLISECONDS.toNanos(config.getEndpointRecoveryTime());
+    }
+
+    /**
+     * Creates the address for a new connection to the GELF server, which resolves the hostname of the server again.
+     *
+     * @return the address for a new connection
+     */
+    InetSocketAddress newRemoteAddress() {
+        return new InetSocketAddress(address.getHostString(), address.getPort());
+    }
+
+    void connected(final Channel channel) {
+        channels.add(channel);
+        synchronized (this) {
+            down = false;
+            updateState();
+        }
+    }
+
+    void disconnected(final Channel channel) {
+        channels.remove(channel);
+    }
+
+    void connectFailed() {
+        connectFailures.incrementAndGet();
+        synchronized (this) {
+            if (channels.isEmpty()) {
+                down = true;
+                updateState();
+            }
+        }
+    }
+
+    void writeStarted() {
+        outstandingWrites.incrementAndGet();
+    }
+
+    void writeCompleted(final long latencyNanos, final boolean success) {
+        outstandingWrites.decrementAndGet();
+        writes.increment();
+        if (!success) {
+            writeErrors.increment();
+        }
+        final double latency = updateAverage(writeLatencyNanos, (double) latencyNanos);
+        final double rate = updateAverage(errorRate, success ? 0.0d : 1.0d);
+
+        // Only take the lock if the write changes the state.
+        final State current = state;
+        final boolean degraded = latency > latencyThresholdNanos || rate > errorRateThreshold;
+        if (current != State.DOWN && degraded != (current == State.DEGRADED)) {
+            synchronized (this) {
+                updateState();
+            }
+        }
+    }
+
+    private static double updateAverage(final AtomicLong average, final double value) {
+        while (true) {
+            final long bits = average.get();
+            final double current = Double.longBitsToDouble(bits);
+            final double updated = current + SMOOTHING * (value - current);
+            if (average.compareAndSet(bits, Double.doubleToRawLongBits(updated))) {
+                return updated;
+            }
+        }
+    }
+
+    /**
+     * Closes all connections to the GELF server, so that they reconnect to another server.
+     */
+    void closeConnections() {
+        for (Channel channel : channels) {
+            channel.close().addListener(new ChannelFutureListener() {
+                @Override
+                public void operationComplete(ChannelFuture future) throws Exception {
+                    if (!future.isSuccess()) {
+                        LOG.warn("Couldn't close connection to GELF server {}.", address, future.cause());
+                    }
+                }
+            });
+        }
+    }
+
+    private void updateState() {
+        final State newState;
+        if (down) {
+            newState = State.DOWN;
+        } else if (Double.longBitsToDouble(writeLatencyNanos.get()) > latencyThresholdNanos
+                || Double.longBitsToDouble(errorRate.get()) > errorRateThreshold) {
+            newState = State.DEGRADED;
+        } else {
+            newState = State.HEALTHY;
+        }
+
+        if (state == State.HEALTHY && newState != State.HEALTHY) {
+            unhealthySince = System.nanoTime();
+        }
+        state = newState;
+    }
+
+    /**
+     * Get the address of the GELF server.
+     *
+     * @return the address of the GELF server
+     */
+    public InetSocketAddress getAddress() {
+        return address;
+    }
+
+    /**
+     * Get the current health state of the GELF server.
+     *
+     * @return the health state of the GELF server
+     */
+    public synchronized State getState() {
+        if (state != State.HEALTHY && System.nanoTime() - unhealthySince >= recoveryNanos) {
+            // Give the server another chance.
+            writeLatencyNanos.set(Double.doubleToRawLongBits(0.0d));
+            errorRate.set(Double.doubleToRawLongBits(0.0d));
+            down = false;
+            state = State.HEALTHY;
+        }
+        return state;
+    }
+
+    /**
+     * Get the number of open connections to the GELF server.
+     *
+     * @return the number of open connections
+     */
+    public int getConnections() {
+        return channels.size();
+    }
+
+    /**
+     * Get the number of writes to the GELF server which haven't completed yet.
+     *
+     * @return the number of outstanding writes
+     */
+    public int getOutstandingWrites() {
+        return outstandingWrites.get();
+    }
+
+    /**
+     * Get the number of completed writes to the GELF server, including failed writes.
+     *
+     * @return the number of completed writes
+     */
+    public long getWrites() {
+        return writes.sum();
+    }
+
+    /**
+     * Get the number of failed writes to the GELF server.
+     *
+     * @return the number of failed writes
+     */
+    public long getWriteErrors() {
+        return writeErrors.sum();
+    }
+
+    /**
+     * Get the number of failed connection attempts to the GELF server.
+     *
+     * @return the number of failed connection attempts
+     */
+    public long getConnectFailures() {
+        return connectFailures.get();
+    }
+
+    /**
+     * Get the moving average of the write latency.
+     *
+     * @param unit the time unit of the returned value
+     * @return the average write latency
+     */
+    public long getWriteLatency(final TimeUnit unit) {
+        return unit.convert((long) Double.longBitsToDouble(writeLatencyNanos.get()), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Get the moving average of the rate of failed writes.
+     *
+     * @return the average write error rate, between {@code 0.0} and {@code 1.0}
+     */
+    public double getErrorRate() {
+        return Double.longBitsToDouble(errorRate.get());
+    }
+
+    @Override
+    public String toString() {
+        return "GelfEndpoint{" +
+                "address=" + address +
+                ", state=" + getState() +
+                ", connections=" + getConnections() +
+                ", outstandingWrites=" + outstandingWrites +
+                ", writes=" + writes +
+                ", writeErrors=" + writeErrors +
+                ", connectFailures=" + connectFailures +
+                ", writeLatencyMillis=" + getWriteLatency(TimeUnit.MILLISECONDS) +
+                ", errorRate=" + getErrorRate() +
+                '}';
+    }
+}
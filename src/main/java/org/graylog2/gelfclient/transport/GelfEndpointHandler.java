@@ -0,0 +1,49 @@
+/*
+ * Copyright 2026 Graylog, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.graylog2.gelfclient.transport;
+
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelOutboundHandlerAdapter;
+import io.netty.channel.ChannelPromise;
+
+/**
+ * Updates the write statistics of a {@link GelfEndpoint}. Must be the first handler of the pipeline, so that the write
+ * latency covers the time until the encoded message has been written to the socket.
+ * <p>Only installed if a transport has more than one GELF server to choose from.</p>
+ */
+class GelfEndpointHandler extends ChannelOutboundHandlerAdapter {
+    private final GelfEndpoint endpoint;
+
+    GelfEndpointHandler(final GelfEndpoint endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    @Override
+    public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception {
+        final long writeStart = System.nanoTime();
+        endpoint.writeStarted();
+        super.write(ctx, msg, promise.unvoid().addListener(new ChannelFutureListener() {
+            @Override
+            public void operationComplete(ChannelFuture future) throws Exception {
+                endpoint.writeCompleted(System.nanoTime() - writeStart, future.isSuccess());
+            }
+        }));
+    }
+}
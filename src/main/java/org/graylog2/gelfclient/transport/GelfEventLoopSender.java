@@ -0,0 +1,285 @@
+/*
+ * Copyright 2026 Graylog, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graylog2.gelfclient.transport;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelOutboundBuffer;
+import org.graylog2.gelfclient.spool.GelfSpool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A {@link GelfSender} which drains the queue on the {@link io.netty.channel.EventLoop} of the channel instead of a
+ * dedicated thread.
+ * <p>Draining is triggered by producers queueing messages and by changes of the channel's writability. The sender
+ * writes messages as long as the channel is writable, so backpressure is handled by Netty's
+ * {@link io.netty.channel.ChannelOption#WRITE_BUFFER_WATER_MARK write buffer water marks} instead of polling and
+ * sleeping.</p>
+ * <p>Once the queue is empty, the messages of the {@link GelfSpool disk spool} are written, if there is one. The spool
+ * is read by a separate replay executor, so that its file I/O doesn't block the event loop.</p>
+ * <p>This class is thread-safe.</p>
+ */
+public class GelfEventLoopSender implements GelfSender {
+    private static final Logger LOG = LoggerFactory.getLogger(GelfEventLoopSender.class);
+    // Maximum number of messages written in one run of the drain task, so that other channels of the same
+    // event loop aren't starved.
+    private static final int MAX_MESSAGES_PER_RUN = 1024;
+
+    private final BlockingQueue<GelfMessageEnvelope> queue;
+    private final int batchSize;
+    private final GelfTransportMetrics metrics;
+    private final GelfSpool spool;
+    private final Executor replayExecutor;
+    private final AtomicBoolean drainScheduled = new AtomicBoolean(false);
+    private final AtomicBoolean replayScheduled = new AtomicBoolean(false);
+    private final AtomicInteger inflightSends = new AtomicInteger(0);
+    private final ChannelFutureListener inflightListener = new ChannelFutureListener() {
+        @Override
+        public void operationComplete(ChannelFuture future) throws Exception {
+            inflightSends.decrementAndGet();
+        }
+    };
+    private final Runnable drainTask = new Runnable() {
+        @Override
+        public void run() {
+            drain();
+        }
+    };
+    private final Runnable replayTask = new Runnable() {
+        @Override
+        public void run() {
+            replay();
+        }
+    };
+    private volatile Channel channel;
+
+    /**
+     * Creates a new sender with the given {@link BlockingQueue} as source of messages which writes up to
+     * {@code batchSize} messages before flushing the channel.
+     *
+     * @param queue     the {@link BlockingQueue} used as source of the queued messages
+     * @param batchSize the maximum number of messages written before flushing the channel
+     * @param metrics   the metrics updated by this sender
+     */
+    GelfEventLoopSender(final BlockingQueue<GelfMessageEnvelope> queue, final int batchSize,
+                               final GelfTransportMetrics metrics) {
+        this(queue, batchSize, metrics, null, null);
+    }
+
+    /**
+     * Creates a new sender with the given {@link BlockingQueue} and {@link GelfSpool} as sources of messages which
+     * writes up to {@code batchSize} messages before flushing the channel.
+     *
+     * @param queue     the {@link BlockingQueue} used as source of the queued messages
+     * @param batchSize the maximum number of messages written before flushing the channel
+     * @param metrics        the metrics updated by this sender
+     * @param spool          the disk spool whose messages are written once the queue is empty, or {@code null}
+     * @param replayExecutor the executor reading the messages of the spool, or {@code null} without a spool
+     */
+    GelfEventLoopSender(final BlockingQueue<GelfMessageEnvelope> queue, final int batchSize,
+                               final GelfTransportMetrics metrics, final GelfSpool spool,
+                               final Executor replayExecutor) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize must be larger than 0");
+        }
+        if (spool != null && replayExecutor == null) {
+            throw new IllegalArgumentException("replayExecutor must not be null if there is a spool");
+        }
+
+        this.queue = queue;
+        this.batchSize = batchSize;
+        this.metrics = metrics;
+        this.spool = spool;
+        this.replayExecutor = replayExecutor;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void start(Channel channel) {
+        this.channel = channel;
+        signal();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void stop() {
+        this.channel = null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void signal() {
+        final Channel channel = this.channel;
+        if (channel != null && drainScheduled.compareAndSet(false, true)) {
+            channel.eventLoop().execute(drainTask);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getPendingBytes() {
+        final Channel channel = this.channel;
+        if (channel == null || !channel.isActive()) {
+            return Long.MAX_VALUE;
+        }
+        final ChannelOutboundBuffer outboundBuffer = channel.unsafe().outboundBuffer();
+        return outboundBuffer == null ? Long.MAX_VALUE : outboundBuffer.totalPendingWriteBytes();
+    }
+
+    private void drain() {
+        // Reset the flag before polling, so that messages queued from now on trigger another run.
+        drainScheduled.set(false);
+
+        final Channel channel = this.channel;
+        if (channel == null || !channel.isActive()) {
+            return;
+        }
+
+        int written = 0;
+        int unflushed = 0;
+        GelfMessageEnvelope message;
+        while (channel.isWritable() && written < MAX_MESSAGES_PER_RUN && (message = queue.poll()) != null) {
+            inflightSends.incrementAndGet();
+            final ChannelFuture writeFuture = channel.write(message.writable()).addListener(inflightListener);
+            SendFutures.completeOnWrite(message, writeFuture);
+            metrics.messageWritten();
+            written++;
+
+            if (++unflushed == batchSize) {
+                flush(channel);
+                unflushed = 0;
+            }
+        }
+
+        if (unflushed > 0) {
+            flush(channel);
+        }
+
+        // If the channel isn't writable anymore, channelWritabilityChanged() will signal once it is again.
+        if (written == MAX_MESSAGES_PER_RUN && channel.isWritable()) {
+            signal();
+        } else if (channel.isWritable()) {
+            scheduleReplay();
+        }
+    }
+
+    /**
+     * Replays the spool once the queue is empty. New messages are spooled while the spool isn't empty, so this keeps
+     * the order of the messages.
+     */
+    private void scheduleReplay() {
+        if (spool == null || spool.isEmpty() || !queue.isEmpty() || !replayScheduled.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            replayExecutor.execute(replayTask);
+        } catch (RejectedExecutionException e) {
+            LOG.debug("Not replaying the spool, the transport is stopping.");
+            replayScheduled.set(false);
+        }
+    }
+
+    private void replay() {
+        // Reset the flag before reading the spool, so that a drain from now on triggers another run.
+        replayScheduled.set(false);
+
+        final Channel channel = this.channel;
+        if (channel == null || !channel.isActive()) {
+            return;
+        }
+
+        int written = 0;
+        int unflushed = 0;
+        ByteBuf spooled;
+        // Writes from outside the event loop count towards the pending bytes, so the writability is still respected.
+        while (channel.isWritable() && written < MAX_MESSAGES_PER_RUN && queue.isEmpty()
+                && (spooled = spool.poll(channel.alloc())) != null) {
+            inflightSends.incrementAndGet();
+            channel.write(spooled).addListener(inflightListener);
+            metrics.messageReplayed();
+            metrics.messageWritten();
+            written++;
+
+            if (++unflushed == batchSize) {
+                flush(channel);
+                unflushed = 0;
+            }
+        }
+
+        if (unflushed > 0) {
+            flush(channel);
+        }
+
+        if (written == MAX_MESSAGES_PER_RUN && channel.isWritable()) {
+            scheduleReplay();
+        }
+    }
+
+    private void flush(final Channel channel) {
+        channel.flush();
+        metrics.flushed();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void flushSynchronously(int waitDuration, TimeUnit timeUnit, int retries) {
+        LOG.debug("Attempting to flush messages in [{}/{}] with [{}] retries", waitDuration, timeUnit, retries);
+
+        for (int i = 0; i <= retries; i++) {
+            if (inflightSends.get() == 0 && queue.isEmpty()) {
+                LOG.debug("Successfully flushed messages. Shutting down now.");
+                return;
+            }
+
+            LOG.debug("Flushing in progress. [{}] messages are still enqueued, and [{}] messages are still in-flight.",
+                    queue.size(), inflightSends.get());
+
+            // Messages might have been queued before the channel became active.
+            signal();
+
+            try {
+                timeUnit.sleep(waitDuration);
+            } catch (InterruptedException e) {
+                LOG.error("Interrupted message flushing during shutdown after [{}] attempts.", i);
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        LOG.error("Failed to flush messages in [{}] attempts. Shutting down anyway.", retries);
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2026 Graylog, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graylog2.gelfclient.transport;
+
+import io.netty.buffer.ByteBuf;
+import org.graylog2.gelfclient.GelfMessage;
+import org.graylog2.gelfclient.GelfMessageLevel;
+import org.graylog2.gelfclient.queue.ByteBoundedBlockingQueue;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A message queued by a transport together with the state of this particular send operation, so that the state
+ * doesn't have to be stored in the {@link GelfMessage} which might be sent several times, even concurrently.
+ * <p>Every queued message is wrapped in an envelope of its own, so the queue only contains envelopes.</p>
+ * <p>An envelope is only used by one thread at a time: the sending thread until it has been queued, the thread which
+ * took it from the queue afterwards.</p>
+ */
+final class GelfMessageEnvelope {
+    private final GelfMessage message;
+    private final CompletableFuture<Void> sendFuture;
+    // The payload encoded on the sending thread, owned by the envelope until it's handed over to the channel.
+    private ByteBuf encodedPayload;
+    // Whether the encoded payload has already passed the compression encoder of the transport.
+    private boolean compressed;
+    // The size counted against the byte limit of the queue, or -1 if it hasn't been computed yet.
+    private long size = -1L;
+
+    /**
+     * Creates a new envelope for the given message without a future.
+     *
+     * @param message the sent message
+     */
+    GelfMessageEnvelope(final GelfMessage message) {
+        this(message, null);
+    }
+
+    /**
+     * Creates a new envelope for the given message.
+     *
+     * @param message    the sent message
+     * @param sendFuture the future completed once the message has been written, or {@code null}
+     */
+    GelfMessageEnvelope(final GelfMessage message, final CompletableFuture<Void> sendFuture) {
+        this.message = message;
+        this.sendFuture = sendFuture;
+    }
+
+    /**
+     * Get the sent message.
+     *
+     * @return the sent message
+     */
+    GelfMessage getMessage() {
+        return message;
+    }
+
+    /**
+     * Get the level of the sent message.
+     *
+     * @return the level of the sent message
+     */
+    GelfMessageLevel getLevel() {
+        return message.getLevel();
+    }
+
+    /**
+     * Get the future of the send operation, if the message has been sent with
+     * {@link GelfTransport#sendAsync(GelfMessage)}.
+     *
+     * @return the future of the send operation, or {@code null} if there is none
+     */
+    CompletableFuture<Void> getSendFuture() {
+        return sendFuture;
+    }
+
+    /**
+     * Get the payload of the queued message which has been encoded on the sending thread.
+     *
+     * @return the encoded payload, or {@code null} if the message hasn't been encoded yet
+     */
+    ByteBuf getEncodedPayload() {
+        return encodedPayload;
+    }
+
+    /**
+     * Set the payload of the queued message which has been encoded on the sending thread.
+     *
+     * @param encodedPayload the encoded payload, which belongs to the envelope from now on
+     * @param compressed     {@code true} if the payload has already passed the compression encoder of the transport,
+     *                       so that the channel pipeline mustn't compress it again
+     */
+    void setEncodedPayload(final ByteBuf encodedPayload, final boolean compressed) {
+        this.encodedPayload = encodedPayload;
+        this.compressed = compressed;
+    }
+
+    /**
+     * Get the size of the queued message which is counted against the byte limit of the queue: the
+     * {@link ByteBoundedBlockingQueue#estimateSize(GelfMessage) estimated heap usage} of the message and the
+     * encoded payload. The size is computed once when the message is queued, so the same size is released again
+     * even if the message has been modified in the meantime.
+     *
+     * @return the size of the queued message in bytes
+     */
+    long size() {
+        if (size < 0L) {
+            size = ByteBoundedBlockingQueue.estimateSize(message)
+                    + (encodedPayload == null ? 0 : encodedPayload.readableBytes());
+        }
+        return size;
+    }
+
+    /**
+     * Get the object which has to be written to the channel: the payload which has already been encoded, which
+     * belongs to the channel from now on, or the sent message itself. A compressed payload is wrapped in a
+     * {@link CompressedPayload}, so that the channel pipeline doesn't compress it again.
+     *
+     * @return the encoded payload or the sent message
+     */
+    Object writable() {
+        final ByteBuf encodedPayload = this.encodedPayload;
+        if (encodedPayload == null) {
+            return message;
+        }
+        this.encodedPayload = null;
+        return compressed ? new CompressedPayload(encodedPayload) : encodedPayload;
+    }
+
+    /**
+     * Releases the encoded payload, because the message won't be written anymore.
+     */
+    void release() {
+        final ByteBuf encodedPayload = this.encodedPayload;
+        if (encodedPayload != null) {
+            this.encodedPayload = null;
+            encodedPayload.release();
+        }
+    }
+}
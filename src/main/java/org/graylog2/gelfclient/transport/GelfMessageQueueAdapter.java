@@ -0,0 +1,229 @@
+/*
+ * Copyright 2026 Graylog, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graylog2.gelfclient.transport;
+
+import org.graylog2.gelfclient.GelfMessage;
+
+import java.util.AbstractQueue;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Adapts a {@link BlockingQueue} of GELF messages supplied by the user, so that the transport can queue
+ * {@link GelfMessageEnvelope envelopes} in it.
+ * <p>The queue only stores the messages. The envelopes carrying a send future or an encoded payload are kept aside by
+ * the identity of their message until the message is taken from the queue again. Messages added to the queue
+ * directly are taken in a new envelope. If the same message instance is queued several times, its envelopes are
+ * handed out in the order they have been queued.</p>
+ */
+final class GelfMessageQueueAdapter extends AbstractQueue<GelfMessageEnvelope>
+        implements BlockingQueue<GelfMessageEnvelope> {
+    private final BlockingQueue<GelfMessage> queue;
+    // The envelopes carrying state of the queued messages, guarded by itself.
+    private final IdentityHashMap<GelfMessage, Deque<GelfMessageEnvelope>> envelopes = new IdentityHashMap<>();
+
+    /**
+     * Creates a new adapter of the given queue.
+     *
+     * @param queue the queue storing the messages
+     */
+    GelfMessageQueueAdapter(final BlockingQueue<GelfMessage> queue) {
+        if (queue == null) {
+            throw new IllegalArgumentException("queue must not be null");
+        }
+        this.queue = queue;
+    }
+
+    @Override
+    public boolean offer(final GelfMessageEnvelope envelope) {
+        final boolean tracked = track(envelope);
+        if (queue.offer(envelope.getMessage())) {
+            return true;
+        }
+        if (tracked) {
+            untrack(envelope);
+        }
+        return false;
+    }
+
+    @Override
+    public void put(final GelfMessageEnvelope envelope) throws InterruptedException {
+        final boolean tracked = track(envelope);
+        try {
+            queue.put(envelope.getMessage());
+        } catch (InterruptedException e) {
+            if (tracked) {
+                untrack(envelope);
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean offer(final GelfMessageEnvelope envelope, final long timeout, final TimeUnit unit)
+            throws InterruptedException {
+        final boolean tracked = track(envelope);
+        boolean offered = false;
+        try {
+            offered = queue.offer(envelope.getMessage(), timeout, unit);
+            return offered;
+        } finally {
+            if (tracked && !offered) {
+                untrack(envelope);
+            }
+        }
+    }
+
+    @Override
+    public GelfMessageEnvelope poll() {
+        return take(queue.poll());
+    }
+
+    @Override
+    public GelfMessageEnvelope take() throws InterruptedException {
+        return take(queue.take());
+    }
+
+    @Override
+    public GelfMessageEnvelope poll(final long timeout, final TimeUnit unit) throws InterruptedException {
+        return take(queue.poll(timeout, unit));
+    }
+
+    @Override
+    public GelfMessageEnvelope peek() {
+        return envelopeOf(queue.peek());
+    }
+
+    @Override
+    public boolean remove(final Object o) {
+        if (!(o instanceof GelfMessageEnvelope)) {
+            return false;
+        }
+        final GelfMessageEnvelope envelope = (GelfMessageEnvelope) o;
+        if (!queue.remove(envelope.getMessage())) {
+            return false;
+        }
+        untrack(envelope);
+        return true;
+    }
+
+    @Override
+    public int size() {
+        return queue.size();
+    }
+
+    @Override
+    public int remainingCapacity() {
+        return queue.remainingCapacity();
+    }
+
+    @Override
+    public int drainTo(final Collection<? super GelfMessageEnvelope> c) {
+        return drainTo(c, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public int drainTo(final Collection<? super GelfMessageEnvelope> c, final int maxElements) {
+        final List<GelfMessage> messages = new ArrayList<>();
+        final int drained = queue.drainTo(messages, maxElements);
+        for (GelfMessage message : messages) {
+            c.add(take(message));
+        }
+        return drained;
+    }
+
+    @Override
+    public Iterator<GelfMessageEnvelope> iterator() {
+        final Iterator<GelfMessage> iterator = queue.iterator();
+        return new Iterator<GelfMessageEnvelope>() {
+            private GelfMessageEnvelope last;
+
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public GelfMessageEnvelope next() {
+                last = envelopeOf(iterator.next());
+                return last;
+            }
+
+            @Override
+            public void remove() {
+                iterator.remove();
+                untrack(last);
+            }
+        };
+    }
+
+    private boolean track(final GelfMessageEnvelope envelope) {
+        if (envelope.getSendFuture() == null && envelope.getEncodedPayload() == null) {
+            return false;
+        }
+        synchronized (envelopes) {
+            envelopes.computeIfAbsent(envelope.getMessage(), message -> new ArrayDeque<>(1)).add(envelope);
+        }
+        return true;
+    }
+
+    private void untrack(final GelfMessageEnvelope envelope) {
+        synchronized (envelopes) {
+            final Deque<GelfMessageEnvelope> queued = envelopes.get(envelope.getMessage());
+            if (queued != null && queued.removeLastOccurrence(envelope) && queued.isEmpty()) {
+                envelopes.remove(envelope.getMessage());
+            }
+        }
+    }
+
+    private GelfMessageEnvelope take(final GelfMessage message) {
+        if (message == null) {
+            return null;
+        }
+        synchronized (envelopes) {
+            final Deque<GelfMessageEnvelope> queued = envelopes.get(message);
+            if (queued != null) {
+                final GelfMessageEnvelope envelope = queued.poll();
+                if (queued.isEmpty()) {
+                    envelopes.remove(message);
+                }
+                return envelope;
+            }
+        }
+        return new GelfMessageEnvelope(message);
+    }
+
+    private GelfMessageEnvelope envelopeOf(final GelfMessage message) {
+        if (message == null) {
+            return null;
+        }
+        synchronized (envelopes) {
+            final Deque<GelfMessageEnvelope> queued = envelopes.get(message);
+            if (queued != null) {
+                return queued.peek();
+            }
+        }
+        return new GelfMessageEnvelope(message);
+    }
+}
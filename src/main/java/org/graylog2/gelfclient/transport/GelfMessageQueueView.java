@@ -0,0 +1,155 @@
+/*
+ * Copyright 2026 Graylog, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graylog2.gelfclient.transport;
+
+import org.graylog2.gelfclient.GelfMessage;
+
+import java.util.AbstractQueue;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A view of the {@link GelfMessageEnvelope envelopes} queued by a transport as a {@link BlockingQueue} of GELF
+ * messages.
+ * <p>Messages added to the view are queued in a new envelope, bypassing the overflow policy and the encoding on the
+ * sending thread. Messages taken from the view are handed over to the caller: the payload encoded on the sending
+ * thread is released and the send future is completed, because the transport won't track them any further.</p>
+ */
+final class GelfMessageQueueView extends AbstractQueue<GelfMessage> implements BlockingQueue<GelfMessage> {
+    private final BlockingQueue<GelfMessageEnvelope> envelopes;
+    private final Runnable onQueued;
+
+    /**
+     * Creates a new view of the given queue.
+     *
+     * @param envelopes the queue of envelopes
+     * @param onQueued  called after a message has been added to the view, e. g. to signal a sender
+     */
+    GelfMessageQueueView(final BlockingQueue<GelfMessageEnvelope> envelopes, final Runnable onQueued) {
+        this.envelopes = envelopes;
+        this.onQueued = onQueued;
+    }
+
+    @Override
+    public boolean offer(final GelfMessage message) {
+        if (!envelopes.offer(new GelfMessageEnvelope(message))) {
+            return false;
+        }
+        onQueued.run();
+        return true;
+    }
+
+    @Override
+    public void put(final GelfMessage message) throws InterruptedException {
+        envelopes.put(new GelfMessageEnvelope(message));
+        onQueued.run();
+    }
+
+    @Override
+    public boolean offer(final GelfMessage message, final long timeout, final TimeUnit unit)
+            throws InterruptedException {
+        if (!envelopes.offer(new GelfMessageEnvelope(message), timeout, unit)) {
+            return false;
+        }
+        onQueued.run();
+        return true;
+    }
+
+    @Override
+    public GelfMessage poll() {
+        return handOver(envelopes.poll());
+    }
+
+    @Override
+    public GelfMessage take() throws InterruptedException {
+        return handOver(envelopes.take());
+    }
+
+    @Override
+    public GelfMessage poll(final long timeout, final TimeUnit unit) throws InterruptedException {
+        return handOver(envelopes.poll(timeout, unit));
+    }
+
+    @Override
+    public GelfMessage peek() {
+        final GelfMessageEnvelope envelope = envelopes.peek();
+        return envelope == null ? null : envelope.getMessage();
+    }
+
+    @Override
+    public int size() {
+        return envelopes.size();
+    }
+
+    @Override
+    public int remainingCapacity() {
+        return envelopes.remainingCapacity();
+    }
+
+    @Override
+    public int drainTo(final Collection<? super GelfMessage> c) {
+        return drainTo(c, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public int drainTo(final Collection<? super GelfMessage> c, final int maxElements) {
+        final List<GelfMessageEnvelope> drained = new ArrayList<>();
+        final int count = envelopes.drainTo(drained, maxElements);
+        for (GelfMessageEnvelope envelope : drained) {
+            c.add(handOver(envelope));
+        }
+        return count;
+    }
+
+    @Override
+    public Iterator<GelfMessage> iterator() {
+        final Iterator<GelfMessageEnvelope> iterator = envelopes.iterator();
+        return new Iterator<GelfMessage>() {
+            private GelfMessageEnvelope last;
+
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public GelfMessage next() {
+                last = iterator.next();
+                return last.getMessage();
+            }
+
+            @Override
+            public void remove() {
+                iterator.remove();
+                handOver(last);
+            }
+        };
+    }
+
+    private static GelfMessage handOver(final GelfMessageEnvelope envelope) {
+        if (envelope == null) {
+            return null;
+        }
+        envelope.release();
+        SendFutures.handedOver(envelope);
+        return envelope.getMessage();
+    }
+}
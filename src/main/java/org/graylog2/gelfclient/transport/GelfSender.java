@@ -0,0 +1,65 @@
+/*
+ * Copyright 2026 Graylog, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graylog2.gelfclient.transport;
+
+import io.netty.channel.Channel;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Takes the queued GELF messages of a {@link GelfTransport} and writes them to a connected {@link Channel}.
+ * <p>A new sender is created for every connection attempt of a transport.</p>
+ *
+ * @see AbstractGelfTransport#createSender()
+ */
+public interface GelfSender {
+    /**
+     * Starts sending queued messages to the given channel.
+     *
+     * @param channel the connected channel
+     */
+    void start(Channel channel);
+
+    /**
+     * Stops sending messages. Messages which are still queued are left in the queue.
+     */
+    void stop();
+
+    /**
+     * Notifies the sender that it might be able to send messages now, because a message has been queued or the
+     * writability of the channel has changed.
+     * <p>This method is called from producer threads and the event loop and must be cheap.</p>
+     */
+    void signal();
+
+    /**
+     * Get the number of bytes which have been written to the channel but not to the network yet.
+     *
+     * @return the number of pending bytes, or {@link Long#MAX_VALUE} if the sender isn't connected
+     */
+    long getPendingBytes();
+
+    /**
+     * Block and wait for all messages in the queue to send until the indicated {@code waitDuration}, {@code timeUnit} and
+     * {@code retries} have elapsed. Each retry waits for the indicated {@code waitDuration} and {@code timeUnit} again.
+     *
+     * @param waitDuration the wait duration.
+     * @param timeUnit     the time unit for the {@code waitDuration}.
+     * @param retries      the number of times to retry and wait for messages to flush.
+     */
+    void flushSynchronously(int waitDuration, TimeUnit timeUnit, int retries);
+}
@@ -16,63 +16,129 @@
 
 package org.graylog2.gelfclient.transport;
 
+import io.netty.buffer.ByteBuf;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelOutboundBuffer;
 import org.graylog2.gelfclient.GelfMessage;
-import org.graylog2.gelfclient.util.Uninterruptibles;
+import org.graylog2.gelfclient.spool.GelfSpool;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.ReentrantLock;
 
-import static java.util.concurrent.TimeUnit.MICROSECONDS;
-
 /**
  * The main event thread used by the {@link org.graylog2.gelfclient.transport.GelfTransport}s.
  */
-public class GelfSenderThread {
+public class GelfSenderThread implements GelfSender {
     private static final Logger LOG = LoggerFactory.getLogger(GelfSenderThread.class);
+    static final ThreadFactory PLATFORM_THREAD_FACTORY = new ThreadFactory() {
+        @Override
+        public Thread newThread(Runnable r) {
+            return new Thread(r);
+        }
+    };
 
     private final ReentrantLock lock;
     private final Condition connectedCond;
     private final AtomicBoolean keepRunning = new AtomicBoolean(true);
     private final Thread senderThread;
-    private Channel channel;
+    private volatile Channel channel;
     private final int maxInflightSends;
-    private final BlockingQueue<GelfMessage> queue;
-    private final AtomicInteger inflightSends;
+    private final BlockingQueue<GelfMessageEnvelope> queue;
+    private final Semaphore inflightPermits;
+    private final int batchSize;
+    private final GelfTransportMetrics metrics;
+    private final GelfSpool spool;
 
     /**
      * Creates a new sender thread with the given {@link BlockingQueue} as source of messages.
      *
      * @param queue            the {@link BlockingQueue} used as source of {@link GelfMessage}s
-     * @param maxInflightSends the maximum number of outstanding network writes/flushes before the sender spins
+     * @param maxInflightSends the maximum number of outstanding network writes/flushes before the sender waits
      */
     public GelfSenderThread(final BlockingQueue<GelfMessage> queue, int maxInflightSends) {
+        this(new GelfMessageQueueAdapter(queue), maxInflightSends, 1, new GelfTransportMetrics());
+    }
+
+    /**
+     * Creates a new sender thread with the given {@link BlockingQueue} as source of messages which writes up to
+     * {@code batchSize} messages before flushing the channel.
+     *
+     * @param queue            the {@link BlockingQueue} used as source of the queued messages
+     * @param maxInflightSends the maximum number of outstanding network writes/flushes before the sender waits
+     * @param batchSize        the maximum number of messages written before flushing the channel
+     * @param metrics          the metrics updated by this sender thread
+     */
+    GelfSenderThread(final BlockingQueue<GelfMessageEnvelope> queue, int maxInflightSends, int batchSize,
+                            final GelfTransportMetrics metrics) {
+        this(queue, maxInflightSends, batchSize, metrics, PLATFORM_THREAD_FACTORY);
+    }
+
+    /**
+     * Creates a new sender thread with the given {@link BlockingQueue} as source of messages which writes up to
+     * {@code batchSize} messages before flushing the channel, running on a thread created by the given factory.
+     *
+     * @param queue            the {@link BlockingQueue} used as source of the queued messages
+     * @param maxInflightSends the maximum number of outstanding network writes/flushes before the sender waits
+     * @param batchSize        the maximum number of messages written before flushing the channel
+     * @param metrics          the metrics updated by this sender thread
+     * @param threadFactory    the factory creating the thread, e. g. for
+     *                         {@link org.graylog2.gelfclient.util.VirtualThreads#newThreadFactory() virtual threads}
+     */
+    GelfSenderThread(final BlockingQueue<GelfMessageEnvelope> queue, int maxInflightSends, int batchSize,
+                            final GelfTransportMetrics metrics, final ThreadFactory threadFactory) {
+        this(queue, maxInflightSends, batchSize, metrics, threadFactory, null);
+    }
+
+    /**
+     * Creates a new sender thread with the given {@link BlockingQueue} and {@link GelfSpool} as sources of messages
+     * which writes up to {@code batchSize} messages before flushing the channel, running on a thread created by the
+     * given factory.
+     * <p>The messages of the spool are written once the queue is empty.</p>
+     *
+     * @param queue            the {@link BlockingQueue} used as source of the queued messages
+     * @param maxInflightSends the maximum number of outstanding network writes/flushes before the sender waits
+     * @param batchSize        the maximum number of messages written before flushing the channel
+     * @param metrics          the metrics updated by this sender thread
+     * @param threadFactory    the factory creating the thread, e. g. for
+     *                         {@link org.graylog2.gelfclient.util.VirtualThreads#newThreadFactory() virtual threads}
+     * @param spool            the disk spool whose messages are written once the queue is empty, or {@code null}
+     */
+    GelfSenderThread(final BlockingQueue<GelfMessageEnvelope> queue, int maxInflightSends, int batchSize,
+                            final GelfTransportMetrics metrics, final ThreadFactory threadFactory,
+                            final GelfSpool spool) {
         this.maxInflightSends = maxInflightSends;
         this.lock = new ReentrantLock();
         this.connectedCond = lock.newCondition();
-        this.inflightSends = new AtomicInteger(0);
         this.queue = queue;
+        this.batchSize = batchSize;
+        this.metrics = metrics;
+        this.spool = spool;
 
         if (maxInflightSends <= 0) {
             throw new IllegalArgumentException("maxInflightSends must be larger than 0");
         }
+        this.inflightPermits = new Semaphore(maxInflightSends);
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize must be larger than 0");
+        }
 
-        this.senderThread = new Thread(new Runnable() {
+        this.senderThread = threadFactory.newThread(new Runnable() {
             @Override
             public void run() {
-                GelfMessage gelfMessage = null;
+                GelfMessageEnvelope gelfMessage = null;
                 final ChannelFutureListener inflightListener = new ChannelFutureListener() {
                     @Override
                     public void operationComplete(ChannelFuture future) throws Exception {
-                        inflightSends.decrementAndGet();
+                        inflightPermits.release();
                     }
                 };
 
@@ -90,27 +156,55 @@ public class GelfSenderThread {
                                 }
                             }
                         }
+                        if (!keepRunning.get()) {
+                            // don't take any more messages from the queue which is shared with the next sender
+                            break;
+                        }
                         // we are connected, let's start sending logs
                         try {
                             // if we have a lingering event already, try to send that instead of polling a new one.
                             if (gelfMessage == null) {
-                                gelfMessage = queue.poll(100, TimeUnit.MILLISECONDS);
+                                // New messages are spooled while the spool isn't empty, so the spooled messages
+                                // are sent once all queued messages have been sent.
+                                if (spool != null && !spool.isEmpty() && (gelfMessage = queue.poll()) == null) {
+                                    replaySpool(inflightListener);
+                                    continue;
+                                }
+                                if (gelfMessage == null) {
+                                    gelfMessage = queue.poll(100, TimeUnit.MILLISECONDS);
+                                }
                             }
                             // if we are still connected, convert LoggingEvent to GELF and send it
                             // but if we aren't connected anymore, we'll have already pulled an event from the queue,
                             // which we keep hanging around in this thread and in the next loop iteration will block until we are connected again.
                             if (gelfMessage != null && channel != null && channel.isActive()) {
-                                // Do not allow more than "maxInflightSends" concurrent writes in netty, to avoid having netty buffer
-                                // excessively when faced with slower consumers
-                                while (inflightSends.get() > GelfSenderThread.this.maxInflightSends) {
-                                    Uninterruptibles.sleepUninterruptibly(1, MICROSECONDS);
-                                }
-                                inflightSends.incrementAndGet();
+                                // Write as many messages as are immediately available (up to "batchSize")
+                                // and flush the channel only once for all of them.
+                                int unflushed = 0;
+                                do {
+                                    // Do not allow more than "maxInflightSends" concurrent writes in netty, to avoid having netty buffer
+                                    // excessively when faced with slower consumers
+                                    if (!inflightPermits.tryAcquire()) {
+                                        if (unflushed > 0) {
+                                            // The pending writes can't complete without being flushed.
+                                            flush();
+                                            unflushed = 0;
+                                        }
+                                        // Block until a write completes, the message is kept if we get interrupted.
+                                        acquireInflightPermit();
+                                    }
 
-                                // Write the GELF message to the pipeline. The protocol specific channel handler
-                                // will take care of encoding.
-                                channel.writeAndFlush(gelfMessage).addListener(inflightListener);
-                                gelfMessage = null;
+                                    // Write the GELF message to the pipeline. The protocol specific channel handler
+                                    // will take care of encoding, unless it has already been encoded on send.
+                                    final ChannelFuture writeFuture = channel.write(gelfMessage.writable())
+                                            .addListener(inflightListener);
+                                    SendFutures.completeOnWrite(gelfMessage, writeFuture);
+                                    metrics.messageWritten();
+                                    unflushed++;
+                                    gelfMessage = null;
+                                } while (unflushed < GelfSenderThread.this.batchSize && (gelfMessage = queue.poll()) != null);
+
+                                flush();
                             }
                         } catch (InterruptedException e) {
                             // ignore, when stopping keepRunning will be set to false outside
@@ -120,6 +214,13 @@ public class GelfSenderThread {
                     }
                 }
 
+                // Hand a message which couldn't be written back to the queue, so that it's sent by the sender of the
+                // next connection attempt or another connection of the transport.
+                if (gelfMessage != null && !requeue(gelfMessage)) {
+                    gelfMessage.release();
+                    SendFutures.dropped(gelfMessage);
+                }
+
                 LOG.debug("GelfSenderThread exiting!");
             }
         });
@@ -128,6 +229,69 @@ public class GelfSenderThread {
         this.senderThread.setName("GelfSenderThread-" + senderThread.getId());
     }
 
+    private boolean requeue(final GelfMessageEnvelope gelfMessage) {
+        final Channel channel = this.channel;
+        if (channel != null && channel.eventLoop().isShuttingDown()) {
+            LOG.debug("Not requeueing unsent message, the transport is stopping.");
+            return false;
+        }
+        if (!queue.offer(gelfMessage)) {
+            LOG.debug("Couldn't requeue unsent message, queue is full.");
+            return false;
+        }
+        return true;
+    }
+
+    private void acquireInflightPermit() throws InterruptedException {
+        final long waitStart = System.nanoTime();
+        try {
+            inflightPermits.acquire();
+        } finally {
+            metrics.inflightWaited(System.nanoTime() - waitStart);
+        }
+    }
+
+    /**
+     * Writes up to {@code batchSize} messages from the spool and flushes the channel.
+     */
+    private void replaySpool(final ChannelFutureListener inflightListener) throws InterruptedException {
+        int unflushed = 0;
+        while (unflushed < batchSize) {
+            if (!inflightPermits.tryAcquire()) {
+                if (unflushed > 0) {
+                    flush();
+                    unflushed = 0;
+                }
+                // Only take a message from the spool once it can be written.
+                acquireInflightPermit();
+            }
+
+            final ByteBuf spooled = spool.poll(channel.alloc());
+            if (spooled == null) {
+                inflightPermits.release();
+                break;
+            }
+
+            channel.write(spooled).addListener(inflightListener);
+            metrics.messageWritten();
+            metrics.messageReplayed();
+            unflushed++;
+        }
+
+        if (unflushed > 0) {
+            flush();
+        }
+    }
+
+    private void flush() {
+        channel.flush();
+        metrics.flushed();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
     public void start(Channel channel) {
         lock.lock();
         try {
@@ -139,19 +303,41 @@ public class GelfSenderThread {
         senderThread.start();
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
     public void stop() {
         keepRunning.set(false);
         senderThread.interrupt();
     }
 
-    /***
-     * Block and wait for all messages in the queue to send until the indicated {@code waitDuration}, {@code timeUnit} and
-     * {@code retries} have elapsed. Each retry waits for the indicated {@code waitDuration} and {@code timeUnit} again.
-     * @param waitDuration the wait duration.
-     * @param timeUnit the time unit for the {@code waitDuration}.
-     * @param retries the number of times to retry and wait for messages to flush.
+    /**
+     * {@inheritDoc}
+     * <p>The sender thread polls the queue on its own, so there is nothing to do.</p>
+     */
+    @Override
+    public void signal() {
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getPendingBytes() {
+        final Channel channel = this.channel;
+        if (channel == null || !channel.isActive()) {
+            return Long.MAX_VALUE;
+        }
+        final ChannelOutboundBuffer outboundBuffer = channel.unsafe().outboundBuffer();
+        return outboundBuffer == null ? Long.MAX_VALUE : outboundBuffer.totalPendingWriteBytes();
+    }
+
+    /**
+     * {@inheritDoc}
      */
-    void flushSynchronously(int waitDuration, TimeUnit timeUnit, int retries) {
+    @Override
+    public void flushSynchronously(int waitDuration, TimeUnit timeUnit, int retries) {
 
         LOG.debug("Attempting to flush messages in [{}/{}] with [{}] retries", waitDuration, timeUnit, retries);
 
@@ -162,7 +348,7 @@ public class GelfSenderThread {
             }
 
             LOG.debug("Flushing in progress. [{}] messages are still enqueued, and [{}] messages are still in-flight.",
-                      queue.size(), inflightSends.get());
+                      queue.size(), inflightSends());
 
             try {
                 timeUnit.sleep(waitDuration);
@@ -180,6 +366,10 @@ public class GelfSenderThread {
      */
     private boolean flushingInProgress() {
 
-        return (inflightSends != null && inflightSends.get() != 0) || !queue.isEmpty();
+        return inflightSends() != 0 || !queue.isEmpty();
+    }
+
+    private int inflightSends() {
+        return maxInflightSends - inflightPermits.availablePermits();
     }
 }
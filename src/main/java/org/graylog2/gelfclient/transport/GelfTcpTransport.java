@@ -18,6 +18,7 @@ package org.graylog2.gelfclient.transport;
 
 import io.netty.bootstrap.Bootstrap;
 import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelHandlerContext;
@@ -25,13 +26,13 @@ import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.EventLoopGroup;
 import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.channel.WriteBufferWaterMark;
 import io.netty.channel.socket.SocketChannel;
 import io.netty.channel.socket.nio.NioSocketChannel;
 import io.netty.handler.ssl.SslContext;
 import io.netty.handler.ssl.SslContextBuilder;
 import io.netty.handler.ssl.util.InsecureTrustManagerFactory;
 import org.graylog2.gelfclient.GelfConfiguration;
-import org.graylog2.gelfclient.encoder.GelfMessageJsonEncoder;
 import org.graylog2.gelfclient.encoder.GelfTcpFrameDelimiterEncoder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -52,25 +53,45 @@ public class GelfTcpTransport extends AbstractGelfTransport {
         super(config);
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * @see GelfConfiguration#getConnections()
+     */
+    @Override
+    protected int getConnectionCount() {
+        return config.getConnections();
+    }
+
     @Override
     protected void createBootstrap(final EventLoopGroup workerGroup) {
+        createBootstrap(workerGroup, 0);
+    }
+
+    @Override
+    protected void createBootstrap(final EventLoopGroup workerGroup, final int connection) {
         final Bootstrap bootstrap = new Bootstrap();
 
-        // Use local senderThread variable within this method to ensure that the same thread is always returned.
+        // Use local sender variable within this method to ensure that the same sender is always returned.
         // Even if the reference is updated by another thread, the channelActive channelInactive callbacks
-        // will still reference the original thread.
-        final GelfSenderThread senderThread = new GelfSenderThread(queue, config.getMaxInflightSends());
-        senderThreadReference.set(senderThread);
+        // will still reference the original sender.
+        final GelfSender sender = createSender(connection);
+        final GelfEndpoint endpoint = selectEndpoint();
 
         bootstrap.group(workerGroup)
-                .channel(NioSocketChannel.class)
+                .channel(nativeTransport ? NativeTransport.socketChannelClass() : NioSocketChannel.class)
                 .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, config.getConnectTimeout())
                 .option(ChannelOption.TCP_NODELAY, config.isTcpNoDelay())
                 .option(ChannelOption.SO_KEEPALIVE, config.isTcpKeepAlive())
-                .remoteAddress(config.getRemoteAddress())
+                .remoteAddress(endpoint.newRemoteAddress())
                 .handler(new ChannelInitializer<SocketChannel>() {
                     @Override
                     protected void initChannel(SocketChannel ch) throws Exception {
+                        if (endpoints.size() > 1) {
+                            // Tracks the health of the GELF server, has to see the bytes written to the socket.
+                            ch.pipeline().addLast(new GelfEndpointHandler(endpoint));
+                        }
+
                         if (config.isTlsEnabled()) {
                             LOG.debug("TLS enabled.");
                             final SslContext sslContext;
@@ -98,7 +119,7 @@ public class GelfTcpTransport extends AbstractGelfTransport {
                         // The graylog2-server uses '\0'-bytes as delimiter for TCP frames.
                         ch.pipeline().addLast(new GelfTcpFrameDelimiterEncoder());
                         // We cannot use GZIP encoding for TCP because the headers contain '\0'-bytes then.
-                        ch.pipeline().addLast(new GelfMessageJsonEncoder());
+                        ch.pipeline().addLast(jsonEncoder);
                         ch.pipeline().addLast(new SimpleChannelInboundHandler<ByteBuf>() {
                             @Override
                             protected void channelRead0(ChannelHandlerContext ctx, ByteBuf msg) throws Exception {
@@ -107,14 +128,20 @@ public class GelfTcpTransport extends AbstractGelfTransport {
 
                             @Override
                             public void channelActive(ChannelHandlerContext ctx) throws Exception {
-                                senderThread.start(ctx.channel());
+                                sender.start(ctx.channel());
                             }
 
                             @Override
                             public void channelInactive(ChannelHandlerContext ctx) throws Exception {
-                                LOG.info("Channel disconnected!");
-                                senderThread.stop();
-                                scheduleReconnect(ctx.channel().eventLoop());
+                                LOG.info("Channel {} disconnected!", connection);
+                                sender.stop();
+                                scheduleReconnect(ctx.channel().eventLoop(), connection);
+                            }
+
+                            @Override
+                            public void channelWritabilityChanged(ChannelHandlerContext ctx) throws Exception {
+                                sender.signal();
+                                super.channelWritabilityChanged(ctx);
                             }
 
                             @Override
@@ -125,6 +152,9 @@ public class GelfTcpTransport extends AbstractGelfTransport {
                     }
                 });
 
+        bootstrap.option(ChannelOption.WRITE_BUFFER_WATER_MARK,
+                new WriteBufferWaterMark(config.getWriteBufferLowWaterMark(), config.getWriteBufferHighWaterMark()));
+
         if (config.getSendBufferSize() != -1) {
             bootstrap.option(ChannelOption.SO_SNDBUF, config.getSendBufferSize());
         }
@@ -133,10 +163,24 @@ public class GelfTcpTransport extends AbstractGelfTransport {
             @Override
             public void operationComplete(ChannelFuture future) throws Exception {
                 if (future.isSuccess()) {
-                    LOG.debug("Connected!");
+                    LOG.debug("Connection {} connected to {}!", connection, endpoint.getAddress());
+                    final Channel channel = future.channel();
+                    endpoint.connected(channel);
+                    channel.closeFuture().addListener(new ChannelFutureListener() {
+                        @Override
+                        public void operationComplete(ChannelFuture future) throws Exception {
+                            endpoint.disconnected(channel);
+                        }
+                    });
+                    connectSucceeded(connection);
+                } else if (future.channel().eventLoop().isShuttingDown()) {
+                    // The transport has been stopped while connecting.
+                    LOG.debug("Connection {} to {} aborted.", connection, endpoint.getAddress());
                 } else {
-                    LOG.error("Connection failed: {}", future.cause().getMessage());
-                    scheduleReconnect(future.channel().eventLoop());
+                    LOG.error("Connection {} to {} failed: {}", connection, endpoint.getAddress(), future.cause().getMessage());
+                    endpoint.connectFailed();
+                    connectFailed(connection);
+                    scheduleReconnect(future.channel().eventLoop(), connection);
                 }
             }
         });
@@ -18,6 +18,9 @@ package org.graylog2.gelfclient.transport;
 
 import org.graylog2.gelfclient.GelfMessage;
 
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -43,6 +46,61 @@ public interface GelfTransport {
      */
     boolean trySend(GelfMessage message);
 
+    /**
+     * Sends the given message to the remote host asynchronously. It does <strong>not block</strong> if there is not
+     * enough capacity to process the message.
+     * <p>The returned stage is completed once the message has been written to the network, or completed exceptionally
+     * if it couldn't be queued, was dropped from the queue or couldn't be encoded or written. It isn't completed if
+     * the transport is stopped before the message has been written.</p>
+     *
+     * <p>The default implementation can't track the message any further than {@link #trySend(GelfMessage)}, so the
+     * returned stage is already completed once this method returns.</p>
+     *
+     * @param message message to send to the remote host
+     * @return a stage which is completed once the message has been written to the network
+     */
+    default CompletionStage<Void> sendAsync(GelfMessage message) {
+        final CompletableFuture<Void> sendFuture = new CompletableFuture<>();
+        if (trySend(message)) {
+            sendFuture.complete(null);
+        } else {
+            sendFuture.completeExceptionally(new IllegalStateException("Message couldn't be dispatched"));
+        }
+        return sendFuture;
+    }
+
+    /**
+     * Sends the given messages to the remote host. Like {@link #send(GelfMessage)}, this <strong>blocks</strong> until
+     * there is sufficient capacity to process the messages.
+     *
+     * @param messages messages to send to the remote host
+     * @return the number of dispatched messages, which might be less than the number of given messages if messages
+     * are dropped
+     */
+    default int sendAll(Collection<? extends GelfMessage> messages) throws InterruptedException {
+        for (GelfMessage message : messages) {
+            send(message);
+        }
+        return messages.size();
+    }
+
+    /**
+     * Tries to send the given messages to the remote host. Like {@link #trySend(GelfMessage)}, this does
+     * <strong>not block</strong> if there is not enough capacity to process the messages.
+     *
+     * @param messages messages to send to the remote host
+     * @return the number of dispatched messages
+     */
+    default int trySendAll(Collection<? extends GelfMessage> messages) {
+        int sent = 0;
+        for (GelfMessage message : messages) {
+            if (trySend(message)) {
+                sent++;
+            }
+        }
+        return sent;
+    }
+
     /**
      * Stops the transport. Can be used to gracefully shutdown the backend.
      */
@@ -0,0 +1,202 @@
+/*
+ * Copyright 2026 Graylog, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graylog2.gelfclient.transport;
+
+import org.graylog2.gelfclient.GelfMessageLevel;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counters describing the work done by a {@link GelfTransport}.
+ * <p>This class is thread-safe.</p>
+ */
+public class GelfTransportMetrics {
+    private final AtomicLong messagesWritten = new AtomicLong();
+    private final AtomicLong flushes = new AtomicLong();
+    private final AtomicLong inflightWaits = new AtomicLong();
+    private final AtomicLong inflightWaitNanos = new AtomicLong();
+    private final AtomicLong reconnectAttempts = new AtomicLong();
+    private final AtomicLong connectFailures = new AtomicLong();
+    private final AtomicLong messagesSpooled = new AtomicLong();
+    private final AtomicLong messagesReplayed = new AtomicLong();
+    private final AtomicLongArray messagesDropped = new AtomicLongArray(GelfMessageLevel.values().length);
+
+    void messageWritten() {
+        messagesWritten.incrementAndGet();
+    }
+
+    void flushed() {
+        flushes.incrementAndGet();
+    }
+
+    void inflightWaited(final long nanos) {
+        inflightWaits.incrementAndGet();
+        inflightWaitNanos.addAndGet(nanos);
+    }
+
+    void messageDropped(final GelfMessageLevel level) {
+        messagesDropped.incrementAndGet(level.ordinal());
+    }
+
+    void reconnectAttempted() {
+        reconnectAttempts.incrementAndGet();
+    }
+
+    void connectFailed() {
+        connectFailures.incrementAndGet();
+    }
+
+    void messageSpooled() {
+        messagesSpooled.incrementAndGet();
+    }
+
+    void messageReplayed() {
+        messagesReplayed.incrementAndGet();
+    }
+
+    /**
+     * Get the number of messages which have been written to the network channel.
+     *
+     * @return the number of written messages
+     */
+    public long getMessagesWritten() {
+        return messagesWritten.get();
+    }
+
+    /**
+     * Get the number of times the network channel has been flushed.
+     *
+     * @return the number of flushes
+     */
+    public long getFlushes() {
+        return flushes.get();
+    }
+
+    /**
+     * Get the average number of flushes per written message.
+     * <p>Without batching this is {@code 1.0}, with batching it approaches {@code 1 / batchSize} under load.</p>
+     *
+     * @return the number of flushes per written message, or {@code 0.0} if no message has been written yet
+     * @see org.graylog2.gelfclient.GelfConfiguration#batchSize(int)
+     */
+    public double getFlushesPerMessage() {
+        final long messages = messagesWritten.get();
+        return messages == 0L ? 0.0d : (double) flushes.get() / messages;
+    }
+
+    /**
+     * Get the number of times a message couldn't be written right away because
+     * {@link org.graylog2.gelfclient.GelfConfiguration#maxInflightSends(int) too many writes} were in flight.
+     *
+     * @return the number of waits for in-flight writes
+     */
+    public long getInflightWaits() {
+        return inflightWaits.get();
+    }
+
+    /**
+     * Get the total time spent waiting for in-flight writes to complete.
+     * <p>A steadily increasing wait time means that the transport is bound by the GELF receiver or the network.</p>
+     *
+     * @param unit the time unit of the returned value
+     * @return the total time spent waiting for in-flight writes
+     */
+    public long getInflightWaitTime(final TimeUnit unit) {
+        return unit.convert(inflightWaitNanos.get(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Get the number of messages which have been dropped because the queue was full.
+     *
+     * @return the number of dropped messages
+     * @see org.graylog2.gelfclient.GelfConfiguration#overflowPolicy(org.graylog2.gelfclient.OverflowPolicy)
+     */
+    public long getMessagesDropped() {
+        long dropped = 0L;
+        for (int i = 0; i < messagesDropped.length(); i++) {
+            dropped += messagesDropped.get(i);
+        }
+        return dropped;
+    }
+
+    /**
+     * Get the number of messages with the given level which have been dropped because the queue was full.
+     *
+     * @param level the level of the dropped messages
+     * @return the number of dropped messages with the given level
+     * @see org.graylog2.gelfclient.GelfConfiguration#overflowPolicy(org.graylog2.gelfclient.OverflowPolicy)
+     */
+    public long getMessagesDropped(final GelfMessageLevel level) {
+        return messagesDropped.get(level.ordinal());
+    }
+
+    /**
+     * Get the number of reconnect attempts of all connections.
+     *
+     * @return the number of reconnect attempts
+     */
+    public long getReconnectAttempts() {
+        return reconnectAttempts.get();
+    }
+
+    /**
+     * Get the number of failed connection attempts of all connections.
+     *
+     * @return the number of failed connection attempts
+     */
+    public long getConnectFailures() {
+        return connectFailures.get();
+    }
+
+    /**
+     * Get the number of messages which have been written to the disk spool.
+     *
+     * @return the number of spooled messages
+     * @see org.graylog2.gelfclient.GelfConfiguration#spoolDirectory(java.io.File)
+     */
+    public long getMessagesSpooled() {
+        return messagesSpooled.get();
+    }
+
+    /**
+     * Get the number of messages which have been read from the disk spool and written to the network channel. These
+     * messages are included in {@link #getMessagesWritten()}.
+     *
+     * @return the number of replayed messages
+     * @see org.graylog2.gelfclient.GelfConfiguration#spoolDirectory(java.io.File)
+     */
+    public long getMessagesReplayed() {
+        return messagesReplayed.get();
+    }
+
+    @Override
+    public String toString() {
+        return "GelfTransportMetrics{" +
+                "messagesWritten=" + messagesWritten +
+                ", flushes=" + flushes +
+                ", inflightWaits=" + inflightWaits +
+                ", inflightWaitNanos=" + inflightWaitNanos +
+                ", messagesDropped=" + messagesDropped +
+                ", reconnectAttempts=" + reconnectAttempts +
+                ", connectFailures=" + connectFailures +
+                ", messagesSpooled=" + messagesSpooled +
+                ", messagesReplayed=" + messagesReplayed +
+                '}';
+    }
+}
@@ -17,23 +17,28 @@
 package org.graylog2.gelfclient.transport;
 
 import io.netty.bootstrap.Bootstrap;
+import io.netty.buffer.ByteBuf;
 import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandler;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.EventLoopGroup;
 import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.channel.WriteBufferWaterMark;
 import io.netty.channel.socket.DatagramPacket;
 import io.netty.channel.socket.nio.NioDatagramChannel;
 import org.graylog2.gelfclient.GelfConfiguration;
-import org.graylog2.gelfclient.encoder.GelfCompressionGzipEncoder;
-import org.graylog2.gelfclient.encoder.GelfCompressionZlibEncoder;
+import org.graylog2.gelfclient.compression.GelfCompressionCodec;
+import org.graylog2.gelfclient.encoder.AbstractGelfCompressionEncoder;
 import org.graylog2.gelfclient.encoder.GelfMessageChunkEncoder;
-import org.graylog2.gelfclient.encoder.GelfMessageJsonEncoder;
 import org.graylog2.gelfclient.encoder.GelfMessageUdpEncoder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
 /**
  * A {@link GelfTransport} implementation that uses UDP to send GELF messages.
  * <p>This class is thread-safe.</p>
@@ -41,6 +46,14 @@ import org.slf4j.LoggerFactory;
 public class GelfUdpTransport extends AbstractGelfTransport {
     private static final Logger LOG = LoggerFactory.getLogger(GelfUdpTransport.class);
 
+    // Idle compression encoders for the messages encoded on the sending threads, each of which can only compress one
+    // message at a time. The pool grows up to the number of threads sending concurrently.
+    final Queue<AbstractGelfCompressionEncoder> compressors = new ConcurrentLinkedQueue<>();
+    private volatile boolean stopped;
+    // Whether encoded messages are compressed on the sending threads, decided by createBootstrap(). It's assigned
+    // while the constructor of the superclass runs, so it mustn't have an initializer.
+    private volatile boolean compressesOnSend;
+
     /**
      * Creates a new UDP GELF transport.
      *
@@ -54,30 +67,31 @@ public class GelfUdpTransport extends AbstractGelfTransport {
     protected void createBootstrap(final EventLoopGroup workerGroup) {
         final Bootstrap bootstrap = new Bootstrap();
 
-        // Use local senderThread variable within this method to ensure that the same thread is always returned.
+        // Use local sender variable within this method to ensure that the same sender is always returned.
         // Even if the reference is updated by another thread, the channelActive channelInactive callbacks
-        // will still reference the original thread.
-        final GelfSenderThread senderThread = new GelfSenderThread(queue, config.getMaxInflightSends());
-        senderThreadReference.set(senderThread);
+        // will still reference the original sender.
+        final GelfSender sender = createSender();
+        // UDP only sends to the first GELF server.
+        final GelfEndpoint endpoint = endpoints.get(0);
+        final GelfCompressionCodec compressionCodec = config.getCompressionCodec();
+        final ChannelHandler compressionEncoder = compressionCodec != null ? compressionCodec.newEncoder(config) : null;
+        // Only subclasses of AbstractGelfCompressionEncoder can compress messages outside of a channel pipeline.
+        compressesOnSend = config.isEncodeOnSend() && compressionEncoder instanceof AbstractGelfCompressionEncoder;
 
         bootstrap.group(workerGroup)
-                .channel(NioDatagramChannel.class)
+                .channel(nativeTransport ? NativeTransport.datagramChannelClass() : NioDatagramChannel.class)
                 .handler(new ChannelInitializer<Channel>() {
                     @Override
                     protected void initChannel(Channel ch) throws Exception {
-                        ch.pipeline().addLast(new GelfMessageUdpEncoder(config.getRemoteAddress()));
-                        ch.pipeline().addLast(new GelfMessageChunkEncoder());
-                        switch (config.getCompression()) {
-                            case GZIP:
-                                ch.pipeline().addLast(new GelfCompressionGzipEncoder());
-                                break;
-                            case ZLIB:
-                                ch.pipeline().addLast(new GelfCompressionZlibEncoder());
-                                break;
-                            case NONE:
-                            default:
+                        ch.pipeline().addLast(new GelfMessageUdpEncoder(endpoint.newRemoteAddress()));
+                        ch.pipeline().addLast(new GelfMessageChunkEncoder(config.getMaxChunkSize()));
+                        if (compressionEncoder != null) {
+                            // Messages compressed on the sending threads bypass the compression encoder, which still
+                            // compresses the other messages, e. g. the replayed messages of the spool.
+                            ch.pipeline().addLast(CompressedPayload.UNWRAPPER);
+                            ch.pipeline().addLast(compressionEncoder);
                         }
-                        ch.pipeline().addLast(new GelfMessageJsonEncoder());
+                        ch.pipeline().addLast(jsonEncoder);
                         ch.pipeline().addLast(new SimpleChannelInboundHandler<DatagramPacket>() {
                             @Override
                             protected void channelRead0(ChannelHandlerContext ctx, DatagramPacket msg) throws Exception {
@@ -86,12 +100,18 @@ public class GelfUdpTransport extends AbstractGelfTransport {
 
                             @Override
                             public void channelActive(ChannelHandlerContext ctx) throws Exception {
-                                senderThread.start(ctx.channel());
+                                sender.start(ctx.channel());
                             }
 
                             @Override
                             public void channelInactive(ChannelHandlerContext ctx) throws Exception {
-                                senderThread.stop();
+                                sender.stop();
+                            }
+
+                            @Override
+                            public void channelWritabilityChanged(ChannelHandlerContext ctx) throws Exception {
+                                sender.signal();
+                                super.channelWritabilityChanged(ctx);
                             }
 
                             @Override
@@ -102,10 +122,76 @@ public class GelfUdpTransport extends AbstractGelfTransport {
                     }
                 });
 
+        bootstrap.option(ChannelOption.WRITE_BUFFER_WATER_MARK,
+                new WriteBufferWaterMark(config.getWriteBufferLowWaterMark(), config.getWriteBufferHighWaterMark()));
+
         if (config.getSendBufferSize() != -1) {
             bootstrap.option(ChannelOption.SO_SNDBUF, config.getSendBufferSize());
         }
 
         bootstrap.bind(0);
     }
+
+    /**
+     * {@inheritDoc}
+     * <p>Messages are compressed on the sending threads if the encoder of the configured
+     * {@link GelfConfiguration#getCompressionCodec() compression codec} supports compressing messages outside of a
+     * channel pipeline.</p>
+     */
+    @Override
+    protected boolean compressesOnSend() {
+        return compressesOnSend;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>The payload is compressed with an idle encoder of the configured
+     * {@link GelfConfiguration#getCompressionCodec() compression codec}, or a new one if all of them are in use.</p>
+     */
+    @Override
+    protected ByteBuf compress(final ByteBuf payload) throws Exception {
+        AbstractGelfCompressionEncoder compressor = compressors.poll();
+        if (compressor == null) {
+            compressor = (AbstractGelfCompressionEncoder) config.getCompressionCodec().newEncoder(config);
+        }
+
+        final ByteBuf compressed;
+        try {
+            compressed = compressor.encode(payload.alloc(), payload);
+        } catch (Exception e) {
+            // The state of the compressor is unknown after a failure, so don't use it again.
+            compressor.close();
+            throw e;
+        } finally {
+            payload.release();
+        }
+        recycle(compressor);
+        return compressed;
+    }
+
+    private void recycle(final AbstractGelfCompressionEncoder compressor) {
+        compressors.offer(compressor);
+        // The pool might have been closed by stop() in the meantime.
+        if (stopped) {
+            closeCompressors();
+        }
+    }
+
+    private void closeCompressors() {
+        AbstractGelfCompressionEncoder compressor;
+        while ((compressor = compressors.poll()) != null) {
+            compressor.close();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>Compressors which are still in use by sending threads are closed once they have been returned.</p>
+     */
+    @Override
+    public void stop() {
+        super.stop();
+        stopped = true;
+        closeCompressors();
+    }
 }
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2026 Graylog, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graylog2.gelfclient.transport;
+
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollDatagramChannel;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollSocketChannel;
+import io.netty.channel.socket.DatagramChannel;
+import io.netty.channel.socket.SocketChannel;
+
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Access to Netty's native epoll transport, which is an optional dependency.
+ * <p>This class must only be used after {@link #isAvailable()} returned {@code true}, otherwise loading the epoll
+ * classes fails.</p>
+ */
+final class NativeTransport {
+    private NativeTransport() {
+    }
+
+    /**
+     * Whether the native transport can be used, i. e. the {@code netty-transport-native-epoll} library is on the
+     * classpath and supports the current platform.
+     *
+     * @return {@code true} if the native transport can be used, {@code false} otherwise
+     */
+    static boolean isAvailable() {
+        try {
+            return Epoll.isAvailable();
+        } catch (LinkageError e) {
+            return false;
+        }
+    }
+
+    /**
+     * Get the reason why the native transport can't be used.
+     *
+     * @return the reason why the native transport can't be used
+     */
+    static Throwable unavailabilityCause() {
+        try {
+            return Epoll.unavailabilityCause();
+        } catch (LinkageError e) {
+            return e;
+        }
+    }
+
+    static EventLoopGroup newEventLoopGroup(final int threads, final ThreadFactory threadFactory) {
+        return new EpollEventLoopGroup(threads, threadFactory);
+    }
+
+    static Class<? extends SocketChannel> socketChannelClass() {
+        return EpollSocketChannel.class;
+    }
+
+    static Class<? extends DatagramChannel> datagramChannelClass() {
+        return EpollDatagramChannel.class;
+    }
+}
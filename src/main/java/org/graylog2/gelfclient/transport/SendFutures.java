@@ -0,0 +1,96 @@
+/*
+ * Copyright 2026 Graylog, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graylog2.gelfclient.transport;
+
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelFutureListener;
+import org.graylog2.gelfclient.GelfMessage;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Completes the futures of messages sent with {@link GelfTransport#sendAsync(GelfMessage)}.
+ * <p>The futures are carried by the {@link GelfMessageEnvelope envelopes} of the queued messages. Messages sent with
+ * {@link GelfTransport#send(GelfMessage)} or {@link GelfTransport#trySend(GelfMessage)} have no future, so nothing is
+ * done for them.</p>
+ */
+final class SendFutures {
+    private SendFutures() {
+    }
+
+    /**
+     * Completes the future of the given message once it has been written.
+     *
+     * @param envelope    the written message
+     * @param writeFuture the future of the write operation
+     */
+    static void completeOnWrite(final GelfMessageEnvelope envelope, final ChannelFuture writeFuture) {
+        final CompletableFuture<Void> sendFuture = envelope.getSendFuture();
+        if (sendFuture == null) {
+            return;
+        }
+
+        writeFuture.addListener(new ChannelFutureListener() {
+            @Override
+            public void operationComplete(ChannelFuture future) throws Exception {
+                if (future.isSuccess()) {
+                    sendFuture.complete(null);
+                } else {
+                    sendFuture.completeExceptionally(future.cause());
+                }
+            }
+        });
+    }
+
+    /**
+     * Completes the future of the given message, because it has been written to the disk spool and won't be
+     * tracked any further.
+     *
+     * @param envelope the spooled message
+     */
+    static void spooled(final GelfMessageEnvelope envelope) {
+        final CompletableFuture<Void> sendFuture = envelope.getSendFuture();
+        if (sendFuture != null) {
+            sendFuture.complete(null);
+        }
+    }
+
+    /**
+     * Completes the future of the given message, because it has been taken from the queue by the transport
+     * implementation and won't be tracked any further.
+     *
+     * @param envelope the message taken from the queue
+     */
+    static void handedOver(final GelfMessageEnvelope envelope) {
+        final CompletableFuture<Void> sendFuture = envelope.getSendFuture();
+        if (sendFuture != null) {
+            sendFuture.complete(null);
+        }
+    }
+
+    /**
+     * Completes the future of the given message exceptionally, because it has been dropped.
+     *
+     * @param envelope the dropped message
+     */
+    static void dropped(final GelfMessageEnvelope envelope) {
+        final CompletableFuture<Void> sendFuture = envelope.getSendFuture();
+        if (sendFuture != null) {
+            sendFuture.completeExceptionally(new IllegalStateException("Message dropped because the queue is full"));
+        }
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2026 Graylog, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graylog2.gelfclient.util;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Access to the virtual threads of Java 21 and later while the GELF client is compiled for older Java versions.
+ * <p>The virtual thread API is looked up once via reflection. On older Java versions, or on Java 19 and 20 without
+ * preview features enabled, virtual threads aren't available.</p>
+ */
+public final class VirtualThreads {
+    private static final Method OF_VIRTUAL;
+    private static final Method FACTORY;
+    private static final Throwable UNAVAILABILITY_CAUSE;
+
+    static {
+        Method ofVirtual = null;
+        Method factory = null;
+        Throwable cause = null;
+        try {
+            ofVirtual = Thread.class.getMethod("ofVirtual");
+            factory = Class.forName("java.lang.Thread$Builder").getMethod("factory");
+            // Fails with an UnsupportedOperationException if virtual threads are a disabled preview feature.
+            factory.invoke(ofVirtual.invoke(null));
+        } catch (InvocationTargetException e) {
+            cause = e.getCause();
+        } catch (Exception e) {
+            cause = e;
+        }
+
+        OF_VIRTUAL = cause == null ? ofVirtual : null;
+        FACTORY = cause == null ? factory : null;
+        UNAVAILABILITY_CAUSE = cause;
+    }
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * Whether virtual threads can be used in the current JVM.
+     *
+     * @return {@code true} if virtual threads can be used, {@code false} otherwise
+     */
+    public static boolean isAvailable() {
+        return UNAVAILABILITY_CAUSE == null;
+    }
+
+    /**
+     * Get the reason why virtual threads can't be used.
+     *
+     * @return the reason why virtual threads can't be used, or {@code null} if they can be used
+     */
+    public static Throwable unavailabilityCause() {
+        return UNAVAILABILITY_CAUSE;
+    }
+
+    /**
+     * Creates a {@link ThreadFactory} which creates unstarted virtual threads.
+     *
+     * @return a new {@link ThreadFactory} creating virtual threads
+     * @throws UnsupportedOperationException if virtual threads are not {@link #isAvailable() available}
+     */
+    public static ThreadFactory newThreadFactory() {
+        if (!isAvailable()) {
+            throw new UnsupportedOperationException("Virtual threads are not available", UNAVAILABILITY_CAUSE);
+        }
+
+        try {
+            return (ThreadFactory) FACTORY.invoke(OF_VIRTUAL.invoke(null));
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new UnsupportedOperationException("Couldn't create virtual thread factory", e);
+        }
+    }
+}
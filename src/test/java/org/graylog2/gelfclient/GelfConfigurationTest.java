@@ -16,14 +16,19 @@
 
 package org.graylog2.gelfclient;
 
+import org.graylog2.gelfclient.compression.GelfCompressionCodecs;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
 import java.io.File;
 import java.net.InetSocketAddress;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
 import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
 import static org.testng.Assert.assertTrue;
 import static org.testng.AssertJUnit.assertEquals;
 
@@ -210,4 +215,431 @@ public class GelfConfigurationTest {
 
         assertEquals(Compression.NONE, config.getCompression());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testCompressionLevel() {
+        // Check default value.
+        assertEquals(-1, config.getCompressionLevel());
+
+        config.compressionLevel(9);
+
+        assertEquals(9, config.getCompressionLevel());
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testInvalidCompressionLevel() {
+        config.compressionLevel(10);
+    }
+
+    @Test
+    public void testCompressionCodec() {
+        // Check default value.
+        assertSame(GelfCompressionCodecs.GZIP, config.getCompressionCodec());
+
+        config.compression(Compression.NONE);
+        assertNull(config.getCompressionCodec());
+
+        config.compressionCodec("snappy");
+        assertSame(GelfCompressionCodecs.SNAPPY, config.getCompressionCodec());
+
+        // Setting the compression algorithm afterwards overrides the codec.
+        config.compression(Compression.ZLIB);
+        assertSame(GelfCompressionCodecs.ZLIB, config.getCompressionCodec());
+    }
+
+    @Test
+    public void testCompressionThreshold() {
+        // Check default value.
+        assertEquals(0, config.getCompressionThreshold());
+
+        config.compressionThreshold(512);
+
+        assertEquals(512, config.getCompressionThreshold());
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testInvalidCompressionThreshold() {
+        config.compressionThreshold(-1);
+    }
+
+    @Test
+    public void testMaxChunkSize() {
+        // Check default value.
+        assertEquals(1420, config.getMaxChunkSize());
+
+        config.maxChunkSize(8960);
+
+        assertEquals(8960, config.getMaxChunkSize());
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testInvalidMaxChunkSize() {
+        config.maxChunkSize(65496);
+    }
+
+    @Test
+    public void testAdaptiveCompression() {
+        // Check default value.
+        assertFalse(config.isAdaptiveCompression());
+
+        config.adaptiveCompression(true);
+
+        assertTrue(config.isAdaptiveCompression());
+    }
+
+    @Test
+    public void testBatchSize() {
+        // Check default value.
+        assertEquals(1, config.getBatchSize());
+
+        config.batchSize(64);
+
+        assertEquals(64, config.getBatchSize());
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testInvalidBatchSize() {
+        config.batchSize(0);
+    }
+
+    @Test
+    public void testSenderType() {
+        // Check default value.
+        assertEquals(SenderType.THREAD, config.getSenderType());
+
+        config.senderType(SenderType.EVENT_LOOP);
+
+        assertEquals(SenderType.EVENT_LOOP, config.getSenderType());
+    }
+
+    @Test
+    public void testConnections() {
+        // Check default value.
+        assertEquals(1, config.getConnections());
+
+        config.connections(4);
+
+        assertEquals(4, config.getConnections());
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testInvalidConnections() {
+        config.connections(0);
+    }
+
+    @Test
+    public void testConnectionBalancing() {
+        // Check default value.
+        assertEquals(ConnectionBalancing.ROUND_ROBIN, config.getConnectionBalancing());
+
+        config.connectionBalancing(ConnectionBalancing.LEAST_PENDING_BYTES);
+
+        assertEquals(ConnectionBalancing.LEAST_PENDING_BYTES, config.getConnectionBalancing());
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testInvalidConnectionBalancing() {
+        config.connectionBalancing(null);
+    }
+
+    @Test
+    public void testRemoteAddresses() {
+        // Check default value.
+        assertEquals(Collections.singletonList(config.getRemoteAddress()), config.getRemoteAddresses());
+
+        final List<InetSocketAddress> remoteAddresses = Arrays.asList(
+                new InetSocketAddress("10.0.0.1", 12201), new InetSocketAddress("10.0.0.2", 12202));
+        config.remoteAddresses(remoteAddresses);
+
+        assertEquals(remoteAddresses, config.getRemoteAddresses());
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testEmptyRemoteAddresses() {
+        config.remoteAddresses(Collections.<InetSocketAddress>emptyList());
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testNullRemoteAddress() {
+        config.remoteAddresses(Arrays.asList(new InetSocketAddress("10.0.0.1", 12201), null));
+    }
+
+    @Test
+    public void testEndpointSelection() {
+        // Check default value.
+        assertEquals(EndpointSelection.FAILOVER, config.getEndpointSelection());
+
+        config.endpointSelection(EndpointSelection.LEAST_OUTSTANDING_WRITES);
+
+        assertEquals(EndpointSelection.LEAST_OUTSTANDING_WRITES, config.getEndpointSelection());
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testInvalidEndpointSelection() {
+        config.endpointSelection(null);
+    }
+
+    @Test
+    public void testEndpointHealthThresholds() {
+        // Check default values.
+        assertEquals(1000, config.getEndpointLatencyThreshold());
+        assertEquals(0.5d, config.getEndpointErrorRateThreshold(), 0.0d);
+        assertEquals(30000, config.getEndpointRecoveryTime());
+
+        config.endpointLatencyThreshold(200).endpointErrorRateThreshold(1.0d).endpointRecoveryTime(0);
+
+        assertEquals(200, config.getEndpointLatencyThreshold());
+        assertEquals(1.0d, config.getEndpointErrorRateThreshold(), 0.0d);
+        assertEquals(0, config.getEndpointRecoveryTime());
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testInvalidEndpointLatencyThreshold() {
+        config.endpointLatencyThreshold(0);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testInvalidEndpointErrorRateThreshold() {
+        config.endpointErrorRateThreshold(0.0d);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testInvalidEndpointRecoveryTime() {
+        config.endpointRecoveryTime(-1);
+    }
+
+    @Test
+    public void testReconnectMaxDelay() {
+        // Check default value.
+        assertEquals(0, config.getReconnectMaxDelay());
+
+        config.reconnectMaxDelay(60000);
+
+        assertEquals(60000, config.getReconnectMaxDelay());
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testInvalidReconnectMaxDelay() {
+        config.reconnectMaxDelay(-1);
+    }
+
+    @Test
+    public void testCircuitBreaker() {
+        // Check default values.
+        assertEquals(0, config.getCircuitBreakerThreshold());
+        assertEquals(30000, config.getCircuitBreakerCoolDown());
+
+        config.circuitBreakerThreshold(5).circuitBreakerCoolDown(10000);
+
+        assertEquals(5, config.getCircuitBreakerThreshold());
+        assertEquals(10000, config.getCircuitBreakerCoolDown());
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testInvalidCircuitBreakerThreshold() {
+        config.circuitBreakerThreshold(-1);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testInvalidCircuitBreakerCoolDown() {
+        config.circuitBreakerCoolDown(-1);
+    }
+
+    @Test
+    public void testShutdownQuietPeriod() {
+        // Check default value.
+        assertEquals(2000, config.getShutdownQuietPeriod());
+
+        config.shutdownQuietPeriod(0);
+
+        assertEquals(0, config.getShutdownQuietPeriod());
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testInvalidShutdownQuietPeriod() {
+        config.shutdownQuietPeriod(-1);
+    }
+
+    @Test
+    public void testSpool() {
+        // Check default values.
+        assertNull(config.getSpoolDirectory());
+        assertEquals(256L * 1024L * 1024L, config.getSpoolMaxBytes());
+        assertEquals(16 * 1024 * 1024, config.getSpoolSegmentSize());
+        assertEquals(SpoolSyncPolicy.SEGMENT, config.getSpoolSyncPolicy());
+
+        final File spoolDirectory = new File("/var/spool/gelf");
+        config.spoolDirectory(spoolDirectory)
+                .spoolMaxBytes(1024L * 1024L)
+                .spoolSegmentSize(64 * 1024)
+                .spoolSyncPolicy(SpoolSyncPolicy.ALWAYS);
+
+        assertEquals(spoolDirectory, config.getSpoolDirectory());
+        assertEquals(1024L * 1024L, config.getSpoolMaxBytes());
+        assertEquals(64 * 1024, config.getSpoolSegmentSize());
+        assertEquals(SpoolSyncPolicy.ALWAYS, config.getSpoolSyncPolicy());
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testInvalidSpoolMaxBytes() {
+        config.spoolMaxBytes(0L);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testInvalidSpoolSegmentSize() {
+        config.spoolSegmentSize(1023);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testInvalidSpoolSyncPolicy() {
+        config.spoolSyncPolicy(null);
+    }
+
+    @Test
+    public void testQueueType() {
+        // Check default value.
+        assertEquals(QueueType.LINKED, config.getQueueType());
+
+        config.queueType(QueueType.RING_BUFFER);
+
+        assertEquals(QueueType.RING_BUFFER, config.getQueueType());
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testInvalidQueueType() {
+        config.queueType(null);
+    }
+
+    @Test
+    public void testPriorityFairnessRatio() {
+        // Check default value.
+        assertEquals(10, config.getPriorityFairnessRatio());
+
+        config.priorityFairnessRatio(0);
+
+        assertEquals(0, config.getPriorityFairnessRatio());
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testInvalidPriorityFairnessRatio() {
+        config.priorityFairnessRatio(-1);
+    }
+
+    @Test
+    public void testQueueMaxBytes() {
+        // Check default value.
+        assertEquals(0L, config.getQueueMaxBytes());
+
+        config.queueMaxBytes(1024L * 1024L);
+
+        assertEquals(1024L * 1024L, config.getQueueMaxBytes());
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testInvalidQueueMaxBytes() {
+        config.queueMaxBytes(-1L);
+    }
+
+    @Test
+    public void testOverflowPolicy() {
+        // Check default values.
+        assertEquals(OverflowPolicy.BLOCK, config.getOverflowPolicy());
+        assertEquals(100, config.getOverflowTimeout());
+        assertEquals(GelfMessageLevel.ERROR, config.getOverflowRetainLevel());
+
+        config.overflowPolicy(OverflowPolicy.DROP_BY_LEVEL)
+                .overflowTimeout(500)
+                .overflowRetainLevel(GelfMessageLevel.WARNING);
+
+        assertEquals(OverflowPolicy.DROP_BY_LEVEL, config.getOverflowPolicy());
+        assertEquals(500, config.getOverflowTimeout());
+        assertEquals(GelfMessageLevel.WARNING, config.getOverflowRetainLevel());
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testInvalidOverflowPolicy() {
+        config.overflowPolicy(null);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testDropByLevelWithRingBuffer() {
+        config.queueType(QueueType.RING_BUFFER).overflowPolicy(OverflowPolicy.DROP_BY_LEVEL);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testRingBufferWithDropByLevel() {
+        config.overflowPolicy(OverflowPolicy.DROP_BY_LEVEL).queueType(QueueType.RING_BUFFER);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testInvalidOverflowTimeout() {
+        config.overflowTimeout(-1);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testInvalidOverflowRetainLevel() {
+        config.overflowRetainLevel(null);
+    }
+
+    @Test
+    public void testVirtualSenderThread() {
+        // Check default value.
+        assertFalse(config.isVirtualSenderThread());
+
+        config.virtualSenderThread(true);
+
+        assertTrue(config.isVirtualSenderThread());
+    }
+
+    @Test
+    public void testWriteBufferWaterMark() {
+        // Check default values.
+        assertEquals(32 * 1024, config.getWriteBufferLowWaterMark());
+        assertEquals(64 * 1024, config.getWriteBufferHighWaterMark());
+
+        config.writeBufferWaterMark(1024, 4096);
+
+        assertEquals(1024, config.getWriteBufferLowWaterMark());
+        assertEquals(4096, config.getWriteBufferHighWaterMark());
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testInvalidWriteBufferWaterMark() {
+        config.writeBufferWaterMark(4096, 1024);
+    }
+
+    @Test
+    public void testReuseJsonGenerators() {
+        // Check default value.
+        assertFalse(config.isReuseJsonGenerators());
+
+        config.reuseJsonGenerators(true);
+
+        assertTrue(config.isReuseJsonGenerators());
+    }
+
+    @Test
+    public void testEncodeOnSend() {
+        // Check default value.
+        assertFalse(config.isEncodeOnSend());
+
+        config.encodeOnSend(true);
+
+        assertTrue(config.isEncodeOnSend());
+    }
+
+    @Test
+    public void testFieldNameCacheSize() {
+        // Check default value.
+        assertEquals(256, config.getFieldNameCacheSize());
+
+        config.fieldNameCacheSize(64);
+
+        assertEquals(64, config.getFieldNameCacheSize());
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testNegativeFieldNameCacheSize() {
+        config.fieldNameCacheSize(-1);
+    }
+}
@@ -19,21 +19,33 @@ package org.graylog2.gelfclient;
 import org.graylog2.gelfclient.transport.GelfTcpTransport;
 import org.graylog2.gelfclient.transport.GelfTransport;
 import org.graylog2.gelfclient.transport.GelfUdpTransport;
+import org.testng.annotations.AfterMethod;
 import org.testng.annotations.Test;
 
 import static org.testng.AssertJUnit.assertEquals;
 
 public class GelfTransportsTest {
+    private GelfTransport transport;
+
+    @AfterMethod
+    public void tearDown() {
+        // The TCP transport keeps reconnecting to the default address otherwise.
+        if (transport != null) {
+            transport.stop();
+            transport = null;
+        }
+    }
+
     @Test
     public void testCreateUdp() throws Exception {
-        final GelfTransport transport = GelfTransports.create(GelfTransports.UDP, new GelfConfiguration());
+        transport = GelfTransports.create(GelfTransports.UDP, new GelfConfiguration().shutdownQuietPeriod(0));
 
         assertEquals(GelfUdpTransport.class, transport.getClass());
     }
 
     @Test
     public void testCreateTcp() throws Exception {
-        final GelfTransport transport = GelfTransports.create(GelfTransports.TCP, new GelfConfiguration());
+        transport = GelfTransports.create(GelfTransports.TCP, new GelfConfiguration().shutdownQuietPeriod(0));
 
         assertEquals(GelfTcpTransport.class, transport.getClass());
     }
@@ -41,9 +53,10 @@ public class GelfTransportsTest {
     @Test
     public void testCreateTransportFromGelfConfiguration() throws Exception {
         final GelfConfiguration gelfConfiguration = new GelfConfiguration()
-                .transport(GelfTransports.UDP);
+                .transport(GelfTransports.UDP)
+                .shutdownQuietPeriod(0);
 
-        final GelfTransport transport = GelfTransports.create(gelfConfiguration);
+        transport = GelfTransports.create(gelfConfiguration);
 
         assertEquals(GelfUdpTransport.class, transport.getClass());
     }
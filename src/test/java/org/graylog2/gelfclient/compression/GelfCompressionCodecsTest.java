@@ -0,0 +1,65 @@
+/*
+ * Copyright 2026 Graylog, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graylog2.gelfclient.compression;
+
+import io.netty.channel.ChannelHandler;
+import org.graylog2.gelfclient.Compression;
+import org.graylog2.gelfclient.GelfConfiguration;
+import org.graylog2.gelfclient.encoder.GelfCompressionGzipEncoder;
+import org.graylog2.gelfclient.encoder.GelfCompressionSnappyEncoder;
+import org.graylog2.gelfclient.encoder.GelfCompressionZlibEncoder;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+public class GelfCompressionCodecsTest {
+    @Test
+    public void testForCompression() {
+        assertSame(GelfCompressionCodecs.forCompression(Compression.GZIP), GelfCompressionCodecs.GZIP);
+        assertSame(GelfCompressionCodecs.forCompression(Compression.ZLIB), GelfCompressionCodecs.ZLIB);
+        assertSame(GelfCompressionCodecs.forCompression(Compression.SNAPPY), GelfCompressionCodecs.SNAPPY);
+        assertNull(GelfCompressionCodecs.forCompression(Compression.NONE));
+    }
+
+    @Test
+    public void testForName() {
+        assertSame(GelfCompressionCodecs.forName("gzip"), GelfCompressionCodecs.GZIP);
+        assertSame(GelfCompressionCodecs.forName("ZLIB"), GelfCompressionCodecs.ZLIB);
+        assertSame(GelfCompressionCodecs.forName("Snappy"), GelfCompressionCodecs.SNAPPY);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testForUnknownName() {
+        GelfCompressionCodecs.forName("unknown");
+    }
+
+    @Test
+    public void testNewEncoder() {
+        final GelfConfiguration config = new GelfConfiguration();
+
+        assertTrue(GelfCompressionCodecs.GZIP.newEncoder(config) instanceof GelfCompressionGzipEncoder);
+        assertTrue(GelfCompressionCodecs.ZLIB.newEncoder(config) instanceof GelfCompressionZlibEncoder);
+        assertTrue(GelfCompressionCodecs.SNAPPY.newEncoder(config) instanceof GelfCompressionSnappyEncoder);
+
+        // The encoders hold per-channel state and must not be shared.
+        final ChannelHandler first = GelfCompressionCodecs.GZIP.newEncoder(config);
+        assertNotSame(GelfCompressionCodecs.GZIP.newEncoder(config), first);
+    }
+}
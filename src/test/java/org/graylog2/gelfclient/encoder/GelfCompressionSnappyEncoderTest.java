@@ -0,0 +1,111 @@
+/*
+ * Copyright 2026 Graylog, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graylog2.gelfclient.encoder;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.compression.SnappyFrameDecoder;
+import org.testng.annotations.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class GelfCompressionSnappyEncoderTest {
+
+    @Test
+    public void testEncode() throws Exception {
+        final EmbeddedChannel channel = new EmbeddedChannel(new GelfCompressionSnappyEncoder());
+        final String message = "Test string";
+
+        assertTrue(channel.writeOutbound(Unpooled.wrappedBuffer(message.getBytes(StandardCharsets.UTF_8))));
+        assertTrue(channel.finish());
+
+        final ByteBuf compressed = channel.readOutbound();
+        assertEquals(compressed.getByte(0), (byte) 0xff);
+        assertEquals(compressed.toString(4, 6, StandardCharsets.US_ASCII), "sNaPpY");
+        assertEquals(decompress(compressed), message);
+    }
+
+    @Test
+    public void testEncodeMultipleMessages() throws Exception {
+        final EmbeddedChannel channel = new EmbeddedChannel(new GelfCompressionSnappyEncoder());
+        final StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 10000; i++) {
+            sb.append("Test string ").append(i).append(' ');
+        }
+        final String largeMessage = sb.toString();
+
+        assertTrue(channel.writeOutbound(Unpooled.wrappedBuffer("first".getBytes(StandardCharsets.UTF_8))));
+        assertTrue(channel.writeOutbound(Unpooled.wrappedBuffer(largeMessage.getBytes(StandardCharsets.UTF_8))));
+        assertTrue(channel.writeOutbound(Unpooled.wrappedBuffer("third".getBytes(StandardCharsets.UTF_8))));
+        assertTrue(channel.finish());
+
+        // Every message must be a complete Snappy stream on its own.
+        assertEquals(decompress((ByteBuf) channel.readOutbound()), "first");
+        final ByteBuf compressed = channel.readOutbound();
+        assertTrue(compressed.readableBytes() < largeMessage.length());
+        assertEquals(decompress(compressed), largeMessage);
+        assertEquals(decompress((ByteBuf) channel.readOutbound()), "third");
+    }
+
+    @Test
+    public void testEncodeDirectBuffer() throws Exception {
+        final EmbeddedChannel channel = new EmbeddedChannel(new GelfCompressionSnappyEncoder());
+        final String message = "Test string";
+        final ByteBuf buf = Unpooled.directBuffer();
+        buf.writeCharSequence(message, StandardCharsets.UTF_8);
+
+        assertTrue(channel.writeOutbound(buf));
+        assertTrue(channel.finish());
+
+        assertEquals(decompress((ByteBuf) channel.readOutbound()), message);
+    }
+
+    @Test
+    public void testAdaptive() throws Exception {
+        final EmbeddedChannel channel = new EmbeddedChannel(new GelfCompressionSnappyEncoder(0, true));
+        final String message = "Test string";
+
+        assertTrue(channel.writeOutbound(Unpooled.wrappedBuffer(message.getBytes(StandardCharsets.UTF_8))));
+        assertTrue(channel.finish());
+
+        final ByteBuf uncompressed = channel.readOutbound();
+        try {
+            assertEquals(uncompressed.toString(StandardCharsets.UTF_8), message);
+        } finally {
+            uncompressed.release();
+        }
+    }
+
+    private String decompress(ByteBuf buf) {
+        // Validate the checksums of all chunks.
+        final EmbeddedChannel channel = new EmbeddedChannel(new SnappyFrameDecoder(true));
+        assertTrue(channel.writeInbound(buf));
+        assertTrue(channel.finish());
+
+        final StringBuilder sb = new StringBuilder();
+        ByteBuf decompressed;
+        while ((decompressed = channel.readInbound()) != null) {
+            sb.append(decompressed.toString(StandardCharsets.UTF_8));
+            decompressed.release();
+        }
+        return sb.toString();
+    }
+}
@@ -22,6 +22,7 @@ import io.netty.buffer.Unpooled;
 import io.netty.channel.embedded.EmbeddedChannel;
 import org.testng.annotations.Test;
 
+import java.io.ByteArrayOutputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.zip.InflaterInputStream;
 
@@ -38,12 +39,124 @@ public class GelfCompressionZlibEncoderTest {
         assertTrue(channel.writeOutbound(Unpooled.wrappedBuffer(message.getBytes(StandardCharsets.UTF_8))));
         assertTrue(channel.finish());
 
-        final ByteBufInputStream byteBufInputStream = new ByteBufInputStream((ByteBuf) channel.readOutbound());
+        final ByteBufInputStream byteBufInputStream = new ByteBufInputStream((ByteBuf) channel.readOutbound(), true);
         final InflaterInputStream zlibInputStream = new InflaterInputStream(byteBufInputStream);
 
         byte[] bytes = new byte[message.length()];
 
         assertEquals(message.length(), zlibInputStream.read(bytes, 0, message.length()));
         assertEquals(message, new String(bytes, StandardCharsets.UTF_8));
+
+        zlibInputStream.close();
+    }
+
+    @Test
+    public void testEncodeSlice() throws Exception {
+        final EmbeddedChannel channel = new EmbeddedChannel(new GelfCompressionZlibEncoder());
+        final String message = "Test string";
+        final ByteBuf buf = Unpooled.wrappedBuffer(("prefix" + message + "suffix").getBytes(StandardCharsets.UTF_8));
+
+        assertTrue(channel.writeOutbound(buf.slice(6, message.length())));
+        assertTrue(channel.finish());
+
+        assertEquals(decompress((ByteBuf) channel.readOutbound()), message);
+    }
+
+    @Test
+    public void testEncodeDirectBuffer() throws Exception {
+        final EmbeddedChannel channel = new EmbeddedChannel(new GelfCompressionZlibEncoder());
+        final String message = "Test string";
+        final ByteBuf buf = Unpooled.directBuffer();
+        buf.writeCharSequence(message, StandardCharsets.UTF_8);
+
+        assertTrue(channel.writeOutbound(buf));
+        assertTrue(channel.finish());
+
+        assertEquals(decompress((ByteBuf) channel.readOutbound()), message);
+    }
+
+    @Test
+    public void testEncodeMultipleMessages() throws Exception {
+        final EmbeddedChannel channel = new EmbeddedChannel(new GelfCompressionZlibEncoder(9));
+        final StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 10000; i++) {
+            sb.append("Test string ").append(i).append(' ');
+        }
+        final String largeMessage = sb.toString();
+
+        assertTrue(channel.writeOutbound(Unpooled.wrappedBuffer("first".getBytes(StandardCharsets.UTF_8))));
+        assertTrue(channel.writeOutbound(Unpooled.wrappedBuffer(largeMessage.getBytes(StandardCharsets.UTF_8))));
+        assertTrue(channel.writeOutbound(Unpooled.wrappedBuffer("third".getBytes(StandardCharsets.UTF_8))));
+        assertTrue(channel.finish());
+
+        // The deflater is reused, so every message must still be compressed on its own.
+        assertEquals(decompress((ByteBuf) channel.readOutbound()), "first");
+        assertEquals(decompress((ByteBuf) channel.readOutbound()), largeMessage);
+        assertEquals(decompress((ByteBuf) channel.readOutbound()), "third");
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testInvalidCompressionLevel() throws Exception {
+        new GelfCompressionZlibEncoder(10);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testInvalidThreshold() throws Exception {
+        new GelfCompressionZlibEncoder(-1, -1, false);
+    }
+
+    @Test
+    public void testThreshold() throws Exception {
+        final EmbeddedChannel channel = new EmbeddedChannel(new GelfCompressionZlibEncoder(-1, 16, false));
+        final String smallMessage = "Test string";
+        final String largeMessage = "Test string which is larger than the threshold";
+
+        assertTrue(channel.writeOutbound(Unpooled.wrappedBuffer(smallMessage.getBytes(StandardCharsets.UTF_8))));
+        assertTrue(channel.writeOutbound(Unpooled.wrappedBuffer(largeMessage.getBytes(StandardCharsets.UTF_8))));
+        assertTrue(channel.finish());
+
+        final ByteBuf uncompressed = channel.readOutbound();
+        try {
+            assertEquals(uncompressed.toString(StandardCharsets.UTF_8), smallMessage);
+        } finally {
+            uncompressed.release();
+        }
+        assertEquals(decompress((ByteBuf) channel.readOutbound()), largeMessage);
+    }
+
+    @Test
+    public void testAdaptive() throws Exception {
+        final EmbeddedChannel channel = new EmbeddedChannel(new GelfCompressionZlibEncoder(-1, 0, true));
+        final StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            sb.append("Test string ");
+        }
+        final String compressibleMessage = sb.toString();
+        final String incompressibleMessage = "Test string";
+
+        assertTrue(channel.writeOutbound(Unpooled.wrappedBuffer(incompressibleMessage.getBytes(StandardCharsets.UTF_8))));
+        assertTrue(channel.writeOutbound(Unpooled.wrappedBuffer(compressibleMessage.getBytes(StandardCharsets.UTF_8))));
+        assertTrue(channel.finish());
+
+        // Compressing the short message would only add the framing overhead.
+        final ByteBuf uncompressed = channel.readOutbound();
+        try {
+            assertEquals(uncompressed.toString(StandardCharsets.UTF_8), incompressibleMessage);
+        } finally {
+            uncompressed.release();
+        }
+        assertEquals(decompress((ByteBuf) channel.readOutbound()), compressibleMessage);
+    }
+
+    private String decompress(ByteBuf buf) throws Exception {
+        try (final InflaterInputStream zlibInputStream = new InflaterInputStream(new ByteBufInputStream(buf, true))) {
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            final byte[] bytes = new byte[1024];
+            int read;
+            while ((read = zlibInputStream.read(bytes)) != -1) {
+                out.write(bytes, 0, read);
+            }
+            return new String(out.toByteArray(), StandardCharsets.UTF_8);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2026 Graylog, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graylog2.gelfclient.encoder;
+
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+
+public class GelfFieldNameCacheTest {
+    @Test
+    public void testAddsUnderscorePrefix() {
+        final GelfFieldNameCache cache = new GelfFieldNameCache();
+
+        assertEquals(cache.get("foo").getValue(), "_foo");
+        assertEquals(cache.get("_bar").getValue(), "_bar");
+    }
+
+    @Test
+    public void testHitsAndMisses() {
+        final GelfFieldNameCache cache = new GelfFieldNameCache();
+
+        assertSame(cache.get("foo"), cache.get("foo"));
+        cache.get("bar");
+
+        assertEquals(cache.getHitCount(), 1L);
+        assertEquals(cache.getMissCount(), 2L);
+        assertEquals(cache.getSize(), 2);
+    }
+
+    @Test
+    public void testMaxSize() {
+        final GelfFieldNameCache cache = new GelfFieldNameCache(2);
+
+        cache.get("foo");
+        cache.get("bar");
+        assertEquals(cache.get("baz").getValue(), "_baz");
+        assertEquals(cache.get("baz").getValue(), "_baz");
+
+        assertEquals(cache.getSize(), 2);
+        assertEquals(cache.getHitCount(), 0L);
+        assertEquals(cache.getMissCount(), 4L);
+    }
+
+    @Test
+    public void testDisabled() {
+        final GelfFieldNameCache cache = new GelfFieldNameCache(0);
+
+        assertEquals(cache.get("foo").getValue(), "_foo");
+        assertEquals(cache.getSize(), 0);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testNegativeMaxSize() {
+        new GelfFieldNameCache(-1);
+    }
+}
@@ -49,8 +49,8 @@ public class GelfMessageChunkEncoderTest {
         assertEquals((byte) 0x0f, chunk2.readByte());
 
         // 8 bytes for the message ID
-        assertEquals(8, chunk1.readBytes(8).readableBytes());
-        assertEquals(8, chunk2.readBytes(8).readableBytes());
+        assertEquals(8, chunk1.readSlice(8).readableBytes());
+        assertEquals(8, chunk2.readSlice(8).readableBytes());
 
         // 1 byte sequence number
         assertEquals((byte) 0, chunk1.readByte());
@@ -63,6 +63,9 @@ public class GelfMessageChunkEncoderTest {
         // data bytes
         assertEquals(1420, chunk1.readableBytes());
         assertEquals(largeMessage.length() - 1420, chunk2.readableBytes());
+
+        chunk1.release();
+        chunk2.release();
     }
 
     @Test
@@ -85,8 +88,8 @@ public class GelfMessageChunkEncoderTest {
         assertEquals((byte) 0x0f, chunk2.readByte());
 
         // 8 bytes for the message ID
-        assertEquals(8, chunk1.readBytes(8).readableBytes());
-        assertEquals(8, chunk2.readBytes(8).readableBytes());
+        assertEquals(8, chunk1.readSlice(8).readableBytes());
+        assertEquals(8, chunk2.readSlice(8).readableBytes());
 
         // 1 byte sequence number
         assertEquals((byte) 0, chunk1.readByte());
@@ -99,6 +102,77 @@ public class GelfMessageChunkEncoderTest {
         // data bytes
         assertEquals(1420, chunk1.readableBytes());
         assertEquals(largeMessage.length - 1420, chunk2.readableBytes());
+
+        chunk1.release();
+        chunk2.release();
+    }
+
+    @Test
+    public void testChunkedEncodeReassemble() throws Exception {
+        final EmbeddedChannel channel = new EmbeddedChannel(new GelfMessageChunkEncoder(new byte[]{1, 2, 3, 4}));
+        final byte[] largeMessage = new byte[1420 * 3 + 100];
+        new Random().nextBytes(largeMessage);
+        final ByteBuf buf = Unpooled.directBuffer(largeMessage.length).writeBytes(largeMessage);
+
+        channel.writeOutbound(buf);
+
+        final ByteBuf reassembled = Unpooled.buffer(largeMessage.length);
+        long messageId = 0L;
+        for (int i = 0; i < 4; i++) {
+            final ByteBuf chunk = (ByteBuf) channel.readOutbound();
+            try {
+                assertEquals((short) 0x1e0f, chunk.readShort());
+                if (i == 0) {
+                    messageId = chunk.readLong();
+                } else {
+                    assertEquals(messageId, chunk.readLong());
+                }
+                assertEquals((byte) i, chunk.readByte());
+                assertEquals((byte) 4, chunk.readByte());
+                reassembled.writeBytes(chunk);
+            } finally {
+                chunk.release();
+            }
+        }
+        assertNull(channel.readOutbound());
+
+        // 4 bytes of the machine identifier are the last part of the message ID
+        assertEquals(0x01020304, (int) messageId);
+        assertEquals(Unpooled.wrappedBuffer(largeMessage), reassembled);
+
+        // All chunks have been released, so the original buffer must have been released as well
+        assertEquals(0, buf.refCnt());
+    }
+
+    @Test
+    public void testChunkedEncodeMaxChunkSize() throws Exception {
+        final GelfMessageChunkEncoder encoder = new GelfMessageChunkEncoder(8960);
+        final EmbeddedChannel channel = new EmbeddedChannel(encoder);
+
+        assertEquals(8960 * 128, encoder.getMaxMessageSize());
+
+        // Fits into a single datagram
+        channel.writeOutbound(Unpooled.wrappedBuffer(new byte[8960]));
+        final ByteBuf message = (ByteBuf) channel.readOutbound();
+        assertEquals(8960, message.readableBytes());
+        assertNull(channel.readOutbound());
+        message.release();
+
+        channel.writeOutbound(Unpooled.wrappedBuffer(new byte[8961]));
+        final ByteBuf chunk1 = (ByteBuf) channel.readOutbound();
+        final ByteBuf chunk2 = (ByteBuf) channel.readOutbound();
+        assertNull(channel.readOutbound());
+
+        assertEquals(12 + 8960, chunk1.readableBytes());
+        assertEquals(12 + 1, chunk2.readableBytes());
+
+        chunk1.release();
+        chunk2.release();
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testInvalidMaxChunkSize() throws Exception {
+        new GelfMessageChunkEncoder(0);
     }
 
     @Test(expectedExceptions = IllegalArgumentException.class)
@@ -113,6 +187,13 @@ public class GelfMessageChunkEncoderTest {
         channel.writeOutbound(Unpooled.wrappedBuffer(new byte[1420 * 128 + 1]));
     }
 
+    @Test(expectedExceptions = EncoderException.class)
+    public void testTooLargeMessageMaxChunkSize() throws Exception {
+        final EmbeddedChannel channel = new EmbeddedChannel(new GelfMessageChunkEncoder(512));
+
+        channel.writeOutbound(Unpooled.wrappedBuffer(new byte[512 * 128 + 1]));
+    }
+
     private String largeMessage(int limit) {
         Random r = new Random();
         String largeMessage = "";
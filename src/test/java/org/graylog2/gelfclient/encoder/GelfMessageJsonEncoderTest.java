@@ -21,16 +21,21 @@ import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonToken;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufInputStream;
 import io.netty.channel.embedded.EmbeddedChannel;
 import io.netty.handler.codec.EncoderException;
 import org.graylog2.gelfclient.GelfMessage;
 import org.graylog2.gelfclient.GelfMessageBuilder;
 import org.graylog2.gelfclient.GelfMessageLevel;
+import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
@@ -59,6 +64,11 @@ public class GelfMessageJsonEncoderTest {
         assertTrue(channel.finish());
     }
 
+    @AfterMethod
+    public void tearDown() {
+        channel.releaseOutbound();
+    }
+
     private byte[] readBytes() {
         ByteBuf buf = (ByteBuf) channel.readOutbound();
         byte[] bytes = new byte[buf.readableBytes()];
@@ -77,13 +87,25 @@ public class GelfMessageJsonEncoderTest {
         assertTrue(channel.writeOutbound(new GelfMessage("test")));
     }
 
+    @Test
+    public void testEncodeWithAllocator() throws Exception {
+        final GelfMessageJsonEncoder encoder = new GelfMessageJsonEncoder();
+        final ByteBuf byteBuf = encoder.encode(ByteBufAllocator.DEFAULT, new GelfMessage("test"));
+        try {
+            assertTrue(byteBuf.toString(StandardCharsets.UTF_8).contains("\"short_message\":\"test\""));
+        } finally {
+            byteBuf.release();
+        }
+    }
+
     @Test
     public void testNullValue() throws Exception {
-        channel = new EmbeddedChannel(new GelfMessageJsonEncoder());
-        message = new GelfMessage("test");
+        final EmbeddedChannel channel = new EmbeddedChannel(new GelfMessageJsonEncoder());
+        final GelfMessage message = new GelfMessage("test");
         message.addAdditionalField("_null", null);
 
         assertTrue(channel.writeOutbound(message));
+        assertTrue(channel.finishAndReleaseAll());
     }
 
     @Test
@@ -280,4 +302,130 @@ public class GelfMessageJsonEncoderTest {
         assertNull(full_message);
         assertNull(level);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testDirectBuffers() throws Exception {
+        final EmbeddedChannel channel = new EmbeddedChannel(new GelfMessageJsonEncoder(new JsonFactory(), true));
+        final GelfMessage message = new GelfMessageBuilder("test").additionalField("_foo", "bar").build();
+
+        assertTrue(channel.writeOutbound(message));
+        assertTrue(channel.finish());
+
+        final ByteBuf byteBuf = (ByteBuf) channel.readOutbound();
+        assertTrue(byteBuf.isDirect());
+
+        final byte[] bytes = new byte[byteBuf.readableBytes()];
+        byteBuf.getBytes(byteBuf.readerIndex(), bytes);
+        byteBuf.release();
+
+        final JsonParser parser = new JsonFactory().createParser(bytes);
+        String shortMessage = null;
+        String foo = null;
+        while (parser.nextToken() != JsonToken.END_OBJECT) {
+            final String key = parser.getCurrentName();
+            if (key == null) {
+                continue;
+            }
+
+            parser.nextToken();
+            if ("short_message".equals(key)) {
+                shortMessage = parser.getText();
+            } else if ("_foo".equals(key)) {
+                foo = parser.getText();
+            }
+        }
+
+        assertEquals("test", shortMessage);
+        assertEquals("bar", foo);
+    }
+
+    @Test
+    public void testReuseGenerators() throws Exception {
+        final EmbeddedChannel channel = new EmbeddedChannel(new GelfMessageJsonEncoder(new JsonFactory(), false, true));
+
+        assertTrue(channel.writeOutbound(new GelfMessage("first")));
+        assertTrue(channel.writeOutbound(new GelfMessage("second")));
+        assertTrue(channel.finish());
+
+        // Every message must be a complete JSON document on its own.
+        assertEquals("first", readShortMessage((ByteBuf) channel.readOutbound()));
+        assertEquals("second", readShortMessage((ByteBuf) channel.readOutbound()));
+        assertNull(channel.readOutbound());
+    }
+
+    @Test
+    public void testReuseGeneratorsAfterError() throws Exception {
+        final EmbeddedChannel channel = new EmbeddedChannel(new GelfMessageJsonEncoder(new JsonFactory(), false, true));
+        final GelfMessage brokenMessage = new GelfMessage("broken");
+        brokenMessage.addAdditionalField("_broken", new Object() {
+            @Override
+            public String toString() {
+                throw new IllegalStateException("broken");
+            }
+        });
+
+        try {
+            channel.writeOutbound(brokenMessage);
+        } catch (EncoderException e) {
+            // expected
+        }
+
+        assertTrue(channel.writeOutbound(new GelfMessage("test")));
+        assertTrue(channel.finish());
+
+        assertEquals("test", readShortMessage((ByteBuf) channel.readOutbound()));
+    }
+
+    @Test
+    public void testFieldNameCache() throws Exception {
+        final GelfFieldNameCache fieldNameCache = new GelfFieldNameCache();
+        final EmbeddedChannel channel = new EmbeddedChannel(
+                new GelfMessageJsonEncoder(new JsonFactory(), false, false, fieldNameCache));
+        final GelfMessage message = new GelfMessageBuilder("test").additionalField("foo", "bar").build();
+
+        assertTrue(channel.writeOutbound(message));
+        assertTrue(channel.writeOutbound(message));
+        assertTrue(channel.finish());
+
+        assertEquals(1L, fieldNameCache.getMissCount());
+        assertEquals(1L, fieldNameCache.getHitCount());
+
+        final ByteBuf byteBuf = (ByteBuf) channel.readOutbound();
+        final JsonParser parser = new JsonFactory().createParser((InputStream) new ByteBufInputStream(byteBuf, true));
+        String foo = null;
+        while (parser.nextToken() != JsonToken.END_OBJECT) {
+            if ("_foo".equals(parser.getCurrentName())) {
+                parser.nextToken();
+                foo = parser.getText();
+            }
+        }
+        parser.close();
+        channel.releaseOutbound();
+
+        assertEquals("bar", foo);
+    }
+
+    private String readShortMessage(ByteBuf byteBuf) throws Exception {
+        final byte[] bytes = new byte[byteBuf.readableBytes()];
+        byteBuf.getBytes(byteBuf.readerIndex(), bytes);
+        byteBuf.release();
+
+        final JsonParser parser = new JsonFactory().createParser(bytes);
+        String shortMessage = null;
+        while (parser.nextToken() != JsonToken.END_OBJECT) {
+            final String key = parser.getCurrentName();
+            if (key == null) {
+                continue;
+            }
+
+            parser.nextToken();
+            if ("short_message".equals(key)) {
+                shortMessage = parser.getText();
+            }
+        }
+
+        // Nothing may follow the JSON object.
+        assertNull(parser.nextToken());
+        return shortMessage;
+    }
+}
@@ -0,0 +1,233 @@
+/*
+ * Copyright 2026 Graylog, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graylog2.gelfclient.queue;
+
+import org.graylog2.gelfclient.GelfMessage;
+import org.graylog2.gelfclient.GelfMessageLevel;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+public class ByteBoundedBlockingQueueTest {
+    private static ByteBoundedBlockingQueue<GelfMessage> newQueue(final BlockingQueue<GelfMessage> delegate,
+                                                                  final long maxBytes) {
+        return new ByteBoundedBlockingQueue<>(delegate, maxBytes, ByteBoundedBlockingQueue::estimateSize);
+    }
+
+    @Test
+    public void testEstimateSize() throws Exception {
+        final GelfMessage message = new GelfMessage("Test", "host");
+        final long size = ByteBoundedBlockingQueue.estimateSize(message);
+        assertTrue(size > 2L * ("Test".length() + "host".length()));
+
+        message.setFullMessage(new String(new char[10000]));
+        final long sizeWithFullMessage = ByteBoundedBlockingQueue.estimateSize(message);
+        assertTrue(sizeWithFullMessage >= size + 20000L);
+
+        message.addAdditionalField("string", "value");
+        message.addAdditionalField("number", 42);
+        assertTrue(ByteBoundedBlockingQueue.estimateSize(message) > sizeWithFullMessage + 2L * "stringvaluenumber".length());
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testInvalidMaxBytes() throws Exception {
+        newQueue(new LinkedBlockingQueue<GelfMessage>(), 0L);
+    }
+
+    @Test
+    public void testByteLimit() throws Exception {
+        final GelfMessage message = new GelfMessage("Test");
+        final long size = ByteBoundedBlockingQueue.estimateSize(message);
+        final ByteBoundedBlockingQueue<GelfMessage> queue = newQueue(new LinkedBlockingQueue<GelfMessage>(), 3 * size);
+
+        for (int i = 0; i < 3; i++) {
+            assertTrue(queue.offer(message));
+        }
+        assertFalse(queue.offer(message));
+        assertFalse(queue.offer(message, 10, TimeUnit.MILLISECONDS));
+        assertEquals(queue.size(), 3);
+        assertEquals(queue.getBytes(), 3 * size);
+        assertEquals(queue.remainingCapacity(), 0);
+
+        assertSame(queue.poll(), message);
+        assertEquals(queue.getBytes(), 2 * size);
+        assertTrue(queue.offer(message));
+
+        final List<GelfMessage> drained = new ArrayList<>();
+        assertEquals(queue.drainTo(drained), 3);
+        assertEquals(queue.getBytes(), 0L);
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public void testCountLimit() throws Exception {
+        final ByteBoundedBlockingQueue<GelfMessage> queue = newQueue(new LinkedBlockingQueue<GelfMessage>(2), Long.MAX_VALUE);
+
+        assertTrue(queue.offer(new GelfMessage("Test 1")));
+        assertTrue(queue.offer(new GelfMessage("Test 2")));
+        assertFalse(queue.offer(new GelfMessage("Test 3")));
+        // The rejected message must not be accounted.
+        assertEquals(queue.getBytes(), 2 * ByteBoundedBlockingQueue.estimateSize(new GelfMessage("Test 1")));
+    }
+
+    @Test
+    public void testOversizedMessage() throws Exception {
+        final ByteBoundedBlockingQueue<GelfMessage> queue = newQueue(new LinkedBlockingQueue<GelfMessage>(), 1L);
+
+        // Accepted if the queue is empty, otherwise it could never be sent.
+        assertTrue(queue.offer(new GelfMessage("Test 1")));
+        assertFalse(queue.offer(new GelfMessage("Test 2")));
+    }
+
+    @Test
+    public void testOfferAll() throws Exception {
+        final GelfMessage message = new GelfMessage("Test");
+        final long size = ByteBoundedBlockingQueue.estimateSize(message);
+        final ByteBoundedBlockingQueue<GelfMessage> queue = newQueue(new RingBufferBlockingQueue<GelfMessage>(4), 3 * size);
+
+        // Limited by the byte budget.
+        assertEquals(queue.offerAll(Arrays.asList(message, message, message, message)), 3);
+        assertEquals(queue.getBytes(), 3 * size);
+
+        assertSame(queue.poll(), message);
+        assertSame(queue.poll(), message);
+        assertEquals(queue.offerAll(Arrays.asList(message, message)), 2);
+        assertEquals(queue.size(), 3);
+        assertEquals(queue.getBytes(), 3 * size);
+    }
+
+    @Test
+    public void testOfferAllCountLimit() throws Exception {
+        final ByteBoundedBlockingQueue<GelfMessage> queue = newQueue(new LinkedBlockingQueue<GelfMessage>(2), Long.MAX_VALUE);
+        final GelfMessage message = new GelfMessage("Test");
+
+        // Limited by the delegate, the reservation of the rejected message is released.
+        assertEquals(queue.offerAll(Arrays.asList(message, message, message)), 2);
+        assertEquals(queue.getBytes(), 2 * ByteBoundedBlockingQueue.estimateSize(message));
+    }
+
+    @Test
+    public void testMessageModifiedAfterOffer() throws Exception {
+        final SizedMessage message = new SizedMessage(new GelfMessage("Test"));
+        final SizedMessage other = new SizedMessage(new GelfMessage("Other"));
+        final ByteBoundedBlockingQueue<SizedMessage> queue = new ByteBoundedBlockingQueue<>(
+                new PriorityLaneBlockingQueue<SizedMessage>(4, 0, SizedMessage::getLevel), Long.MAX_VALUE,
+                SizedMessage::getSize);
+
+        assertTrue(queue.offer(message));
+        assertTrue(queue.offer(other));
+        message.message.setFullMessage(new String(new char[10000]));
+        other.message.addAdditionalField("field", "value");
+
+        // Exactly the size recorded when the messages were queued is released again.
+        assertSame(queue.poll(), message);
+        assertEquals(queue.getBytes(), ByteBoundedBlockingQueue.estimateSize(new GelfMessage("Other")));
+        assertTrue(queue.remove(other));
+        assertEquals(queue.getBytes(), 0L);
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public void testSizeFunction() throws Exception {
+        final ByteBoundedBlockingQueue<GelfMessage> queue = new ByteBoundedBlockingQueue<>(
+                new LinkedBlockingQueue<GelfMessage>(), 250L, message -> 100L);
+        final GelfMessage message = new GelfMessage("Test");
+
+        assertEquals(queue.offerAll(Arrays.asList(message, message, message)), 2);
+        assertEquals(queue.getBytes(), 200L);
+        for (GelfMessage queued : queue) {
+            assertSame(queued, message);
+        }
+        assertSame(queue.peek(), message);
+        assertSame(queue.evict(), message);
+        assertEquals(queue.getBytes(), 100L);
+    }
+
+    @Test
+    public void testEvictIf() throws Exception {
+        final ByteBoundedBlockingQueue<GelfMessage> queue = new ByteBoundedBlockingQueue<>(
+                new LinkedBlockingQueue<GelfMessage>(), 1000L, message -> 100L);
+        final GelfMessage first = new GelfMessage("First");
+        final GelfMessage second = new GelfMessage("Second");
+        queue.put(first);
+        queue.put(second);
+
+        assertNull(queue.evictIf(message -> message.getMessage().equals("Third")));
+        assertSame(queue.evictIf(message -> message.getMessage().equals("Second")), second);
+        assertEquals(queue.getBytes(), 100L);
+        assertSame(queue.peek(), first);
+    }
+
+    @Test(timeOut = 10000)
+    public void testBlockingPut() throws Exception {
+        final GelfMessage first = new GelfMessage("First");
+        final GelfMessage second = new GelfMessage("Second");
+        final ByteBoundedBlockingQueue<GelfMessage> queue = newQueue(new LinkedBlockingQueue<GelfMessage>(),
+                ByteBoundedBlockingQueue.estimateSize(second));
+        queue.put(first);
+
+        final Thread producer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    // Blocks until the first message has been taken.
+                    queue.put(second);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        producer.start();
+
+        Thread.sleep(20L);
+        assertEquals(queue.size(), 1);
+        assertSame(queue.take(), first);
+        assertSame(queue.take(), second);
+        producer.join();
+        assertEquals(queue.getBytes(), 0L);
+    }
+
+    // A queued message which caches its size when it is queued, like the envelopes of the transports.
+    private static final class SizedMessage {
+        private final GelfMessage message;
+        private final long size;
+
+        SizedMessage(final GelfMessage message) {
+            this.message = message;
+            this.size = ByteBoundedBlockingQueue.estimateSize(message);
+        }
+
+        GelfMessageLevel getLevel() {
+            return message.getLevel();
+        }
+
+        long getSize() {
+            return size;
+        }
+    }
+}
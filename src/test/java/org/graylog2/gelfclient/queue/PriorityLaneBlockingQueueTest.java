@@ -0,0 +1,231 @@
+/*
+ * Copyright 2026 Graylog, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graylog2.gelfclient.queue;
+
+import org.graylog2.gelfclient.GelfMessage;
+import org.graylog2.gelfclient.GelfMessageLevel;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+public class PriorityLaneBlockingQueueTest {
+    private static PriorityLaneBlockingQueue<GelfMessage> newQueue(final int capacity, final int fairnessRatio) {
+        return new PriorityLaneBlockingQueue<>(capacity, fairnessRatio, GelfMessage::getLevel);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testInvalidCapacity() throws Exception {
+        newQueue(0, 0);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testInvalidFairnessRatio() throws Exception {
+        newQueue(1, -1);
+    }
+
+    @Test
+    public void testStrictPriority() throws Exception {
+        final PriorityLaneBlockingQueue<GelfMessage> queue = newQueue(10, 0);
+        queue.put(newMessage("Debug 1", GelfMessageLevel.DEBUG));
+        queue.put(newMessage("Debug 2", GelfMessageLevel.DEBUG));
+        queue.put(newMessage("Error", GelfMessageLevel.ERROR));
+        queue.put(newMessage("Emergency", GelfMessageLevel.EMERGENCY));
+
+        assertEquals(queue.size(), 4);
+        assertEquals(queue.size(GelfMessageLevel.DEBUG), 2);
+        assertEquals(queue.peek().getMessage(), "Emergency");
+        assertEquals(messages(queue), Arrays.asList("Emergency", "Error", "Debug 1", "Debug 2"));
+        assertEquals(take(queue, 4), Arrays.asList("Emergency", "Error", "Debug 1", "Debug 2"));
+        assertNull(queue.poll());
+        assertNull(queue.poll(10, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testFairnessRatio() throws Exception {
+        final PriorityLaneBlockingQueue<GelfMessage> queue = newQueue(10, 2);
+        for (int i = 0; i < 4; i++) {
+            queue.put(newMessage("Error " + i, GelfMessageLevel.ERROR));
+        }
+        queue.put(newMessage("Debug", GelfMessageLevel.DEBUG));
+        queue.put(newMessage("Info", GelfMessageLevel.INFO));
+
+        // Every third message is taken from the lanes in round-robin order, starting with the most severe lane.
+        assertEquals(take(queue, 6), Arrays.asList("Error 0", "Error 1", "Error 2", "Error 3", "Info", "Debug"));
+    }
+
+    @Test
+    public void testFairnessRatioStarvation() throws Exception {
+        final PriorityLaneBlockingQueue<GelfMessage> queue = newQueue(10, 2);
+        queue.put(newMessage("Debug", GelfMessageLevel.DEBUG));
+        for (int i = 0; i < 5; i++) {
+            queue.put(newMessage("Error " + i, GelfMessageLevel.ERROR));
+        }
+        // Take the round-robin turn past the error lane.
+        take(queue, 3);
+        queue.put(newMessage("Alert", GelfMessageLevel.ALERT));
+
+        assertEquals(take(queue, 4), Arrays.asList("Alert", "Error 3", "Debug", "Error 4"));
+    }
+
+    @Test
+    public void testCapacity() throws Exception {
+        final PriorityLaneBlockingQueue<GelfMessage> queue = newQueue(2, 0);
+        assertTrue(queue.offer(newMessage("Debug", GelfMessageLevel.DEBUG)));
+        assertTrue(queue.offer(newMessage("Info", GelfMessageLevel.INFO)));
+
+        // All lanes share the capacity.
+        assertFalse(queue.offer(newMessage("Emergency", GelfMessageLevel.EMERGENCY)));
+        assertFalse(queue.offer(newMessage("Emergency", GelfMessageLevel.EMERGENCY), 10, TimeUnit.MILLISECONDS));
+        assertEquals(queue.remainingCapacity(), 0);
+    }
+
+    @Test
+    public void testOfferAll() throws Exception {
+        final PriorityLaneBlockingQueue<GelfMessage> queue = newQueue(2, 0);
+        assertEquals(queue.offerAll(Arrays.asList(
+                newMessage("Debug", GelfMessageLevel.DEBUG),
+                newMessage("Error", GelfMessageLevel.ERROR),
+                newMessage("Emergency", GelfMessageLevel.EMERGENCY))), 2);
+
+        assertEquals(messages(queue), Arrays.asList("Error", "Debug"));
+        assertEquals(queue.offerAll(Arrays.asList(newMessage("Info", GelfMessageLevel.INFO))), 0);
+    }
+
+    @Test
+    public void testEvictAndRemove() throws Exception {
+        final PriorityLaneBlockingQueue<GelfMessage> queue = newQueue(10, 0);
+        final GelfMessage info = newMessage("Info", GelfMessageLevel.INFO);
+        queue.put(newMessage("Error", GelfMessageLevel.ERROR));
+        queue.put(newMessage("Debug 1", GelfMessageLevel.DEBUG));
+        queue.put(newMessage("Debug 2", GelfMessageLevel.DEBUG));
+        queue.put(info);
+
+        assertEquals(queue.evict().getMessage(), "Debug 1");
+        assertTrue(queue.remove(info));
+        assertFalse(queue.remove(info));
+        assertEquals(queue.size(), 2);
+
+        final List<GelfMessage> drained = new ArrayList<>();
+        assertEquals(queue.drainTo(drained), 2);
+        assertEquals(drained.get(0).getMessage(), "Error");
+        assertNull(queue.evict());
+    }
+
+    @Test
+    public void testEvictIf() throws Exception {
+        final PriorityLaneBlockingQueue<GelfMessage> queue = newQueue(10, 0);
+        queue.put(newMessage("Error", GelfMessageLevel.ERROR));
+        queue.put(newMessage("Info 1", GelfMessageLevel.INFO));
+        queue.put(newMessage("Info 2", GelfMessageLevel.INFO));
+
+        assertNull(queue.evictIf(message -> message.getMessage().equals("Info 2")));
+        assertEquals(queue.evictIf(message -> message.getLevel() == GelfMessageLevel.INFO).getMessage(), "Info 1");
+        assertEquals(queue.evictIf(message -> message.getLevel() == GelfMessageLevel.INFO).getMessage(), "Info 2");
+        assertNull(queue.evictIf(message -> message.getLevel() == GelfMessageLevel.INFO));
+        assertEquals(messages(queue), Arrays.asList("Error"));
+    }
+
+    @Test(timeOut = 10000)
+    public void testBlockingTake() throws Exception {
+        final PriorityLaneBlockingQueue<GelfMessage> queue = newQueue(1, 0);
+        final GelfMessage message = newMessage("Test", GelfMessageLevel.INFO);
+
+        final Thread producer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    Thread.sleep(20L);
+                    queue.put(message);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        producer.start();
+
+        assertSame(queue.take(), message);
+        producer.join();
+    }
+
+    @Test(timeOut = 10000)
+    public void testOfferAllWakesAllConsumers() throws Exception {
+        final PriorityLaneBlockingQueue<GelfMessage> queue = newQueue(10, 0);
+        final List<String> taken = Collections.synchronizedList(new ArrayList<String>());
+        final List<Thread> consumers = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            final Thread consumer = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        taken.add(queue.take().getMessage());
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            });
+            consumer.start();
+            consumers.add(consumer);
+        }
+        for (Thread consumer : consumers) {
+            while (consumer.getState() != Thread.State.WAITING) {
+                Thread.sleep(1L);
+            }
+        }
+
+        // Every consumer waiting for a message must be woken up, not just one per batch.
+        assertEquals(queue.offerAll(Arrays.asList(
+                newMessage("Error", GelfMessageLevel.ERROR),
+                newMessage("Info", GelfMessageLevel.INFO))), 2);
+        for (Thread consumer : consumers) {
+            consumer.join();
+        }
+        assertEquals(taken.size(), 2);
+        assertTrue(taken.containsAll(Arrays.asList("Error", "Info")));
+    }
+
+    private static List<String> take(PriorityLaneBlockingQueue<GelfMessage> queue, int count) throws InterruptedException {
+        final List<String> messages = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            messages.add(queue.take().getMessage());
+        }
+        return messages;
+    }
+
+    private static List<String> messages(PriorityLaneBlockingQueue<GelfMessage> queue) {
+        final List<String> messages = new ArrayList<>();
+        for (GelfMessage message : queue) {
+            messages.add(message.getMessage());
+        }
+        return messages;
+    }
+
+    private static GelfMessage newMessage(String text, GelfMessageLevel level) {
+        final GelfMessage message = new GelfMessage(text);
+        message.setLevel(level);
+        return message;
+    }
+}
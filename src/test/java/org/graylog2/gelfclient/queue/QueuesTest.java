@@ -0,0 +1,78 @@
+/*
+ * Copyright 2026 Graylog, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.graylog2.gelfclient.queue;
+
+import org.graylog2.gelfclient.GelfMessage;
+import org.graylog2.gelfclient.GelfMessageLevel;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+
+public class QueuesTest {
+    @Test
+    public void testOfferAll() throws Exception {
+        final BlockingQueue<String> queue = new ArrayBlockingQueue<>(2);
+
+        assertEquals(Queues.offerAll(queue, Arrays.asList("Test 1", "Test 2", "Test 3")), 2);
+        assertEquals(queue.poll(), "Test 1");
+        assertEquals(queue.poll(), "Test 2");
+    }
+
+    @Test
+    public void testOfferAllBulkOfferQueue() throws Exception {
+        final RingBufferBlockingQueue<String> queue = new RingBufferBlockingQueue<>(2);
+
+        assertEquals(Queues.offerAll(queue, Arrays.asList("Test 1", "Test 2", "Test 3")), 2);
+        assertEquals(queue.poll(), "Test 1");
+        assertEquals(queue.poll(), "Test 2");
+    }
+
+    @Test
+    public void testEvictIf() throws Exception {
+        final BlockingQueue<String> queue = new LinkedBlockingQueue<>(Arrays.asList("Test 1", "Debug 1", "Debug 2"));
+
+        assertEquals(Queues.evictIf(queue, s -> s.startsWith("Debug")), "Debug 1");
+        assertNull(Queues.evictIf(queue, s -> s.startsWith("Info")));
+        assertEquals(queue.size(), 2);
+        assertEquals(queue.poll(), "Test 1");
+        assertEquals(queue.poll(), "Debug 2");
+    }
+
+    @Test
+    public void testEvictIfEvictionOrderedQueue() throws Exception {
+        final PriorityLaneBlockingQueue<GelfMessage> queue = new PriorityLaneBlockingQueue<>(10, 0,
+                GelfMessage::getLevel);
+        final GelfMessage info = new GelfMessage("Info");
+        info.setLevel(GelfMessageLevel.INFO);
+        final GelfMessage error = new GelfMessage("Error");
+        error.setLevel(GelfMessageLevel.ERROR);
+        queue.put(error);
+        queue.put(info);
+
+        // Only the message which would be evicted next is checked.
+        assertNull(Queues.evictIf(queue, message -> message.getLevel() == GelfMessageLevel.ERROR));
+        assertEquals(Queues.evictIf(queue, message -> message.getLevel() == GelfMessageLevel.INFO), info);
+        assertEquals(queue.size(), 1);
+    }
+}
@@ -0,0 +1,265 @@
+/*
+ * Copyright 2026 Graylog, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graylog2.gelfclient.queue;
+
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+public class RingBufferBlockingQueueTest {
+    @Test
+    public void testCapacity() throws Exception {
+        assertEquals(new RingBufferBlockingQueue<String>(1).capacity(), 2);
+        assertEquals(new RingBufferBlockingQueue<String>(4).capacity(), 4);
+        assertEquals(new RingBufferBlockingQueue<String>(5).capacity(), 8);
+        assertEquals(new RingBufferBlockingQueue<String>(512).capacity(), 512);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testInvalidCapacity() throws Exception {
+        new RingBufferBlockingQueue<String>(0);
+    }
+
+    @Test(expectedExceptions = NullPointerException.class)
+    public void testNullElement() throws Exception {
+        new RingBufferBlockingQueue<String>(4).offer(null);
+    }
+
+    @Test
+    public void testOfferAndPoll() throws Exception {
+        final RingBufferBlockingQueue<String> queue = new RingBufferBlockingQueue<>(4);
+        assertTrue(queue.isEmpty());
+        assertNull(queue.poll());
+        assertNull(queue.peek());
+
+        // Wrap around the ring buffer a couple of times.
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < 4; i++) {
+                assertTrue(queue.offer("Test " + i));
+            }
+            assertFalse(queue.offer("Too much"));
+            assertEquals(queue.size(), 4);
+            assertEquals(queue.remainingCapacity(), 0);
+            assertEquals(queue.peek(), "Test 0");
+
+            for (int i = 0; i < 4; i++) {
+                assertEquals(queue.poll(), "Test " + i);
+            }
+            assertNull(queue.poll());
+            assertTrue(queue.isEmpty());
+        }
+    }
+
+    @Test
+    public void testIteratorAndDrainTo() throws Exception {
+        final RingBufferBlockingQueue<String> queue = new RingBufferBlockingQueue<>(4);
+        queue.addAll(Arrays.asList("a", "b", "c"));
+
+        final List<String> iterated = new ArrayList<>();
+        for (String s : queue) {
+            iterated.add(s);
+        }
+        assertEquals(iterated, Arrays.asList("a", "b", "c"));
+
+        final List<String> drained = new ArrayList<>();
+        assertEquals(queue.drainTo(drained, 2), 2);
+        assertEquals(queue.drainTo(drained), 1);
+        assertEquals(drained, Arrays.asList("a", "b", "c"));
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public void testTimeouts() throws Exception {
+        final RingBufferBlockingQueue<String> queue = new RingBufferBlockingQueue<>(2);
+
+        assertNull(queue.poll(10, TimeUnit.MILLISECONDS));
+        assertTrue(queue.offer("Test 1", 10, TimeUnit.MILLISECONDS));
+        assertTrue(queue.offer("Test 2", 10, TimeUnit.MILLISECONDS));
+        assertFalse(queue.offer("Too much", 10, TimeUnit.MILLISECONDS));
+        assertEquals(queue.poll(10, TimeUnit.MILLISECONDS), "Test 1");
+    }
+
+    @Test
+    public void testOfferAll() throws Exception {
+        final RingBufferBlockingQueue<String> queue = new RingBufferBlockingQueue<>(4);
+        assertTrue(queue.offer("Test 0"));
+        assertEquals(queue.poll(), "Test 0");
+
+        // Wraps around the end of the buffer and only accepts as many elements as there is space for.
+        assertEquals(queue.offerAll(Arrays.asList("Test 1", "Test 2", "Test 3", "Test 4", "Test 5")), 4);
+        assertEquals(queue.offerAll(Collections.singletonList("Test 6")), 0);
+        assertEquals(queue.size(), 4);
+
+        assertEquals(queue.poll(), "Test 1");
+        assertEquals(queue.offerAll(Arrays.asList("Test 5", "Test 6")), 1);
+        assertEquals(queue.offerAll(Collections.<String>emptyList()), 0);
+
+        final List<String> drained = new ArrayList<>();
+        queue.drainTo(drained);
+        assertEquals(drained, Arrays.asList("Test 2", "Test 3", "Test 4", "Test 5"));
+    }
+
+    @Test(expectedExceptions = NullPointerException.class)
+    public void testOfferAllNullElement() throws Exception {
+        final RingBufferBlockingQueue<String> queue = new RingBufferBlockingQueue<>(4);
+        try {
+            queue.offerAll(Arrays.asList("Test 1", null));
+        } finally {
+            // Nothing is claimed if the batch contains null.
+            assertTrue(queue.isEmpty());
+        }
+    }
+
+    @Test(timeOut = 10000)
+    public void testBlockingPutAndTake() throws Exception {
+        final RingBufferBlockingQueue<String> queue = new RingBufferBlockingQueue<>(2);
+        queue.put("First");
+        queue.put("Second");
+
+        final Thread producer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    // Blocks until the consumer has taken the first element.
+                    queue.put("Third");
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        producer.start();
+
+        assertEquals(queue.take(), "First");
+        assertEquals(queue.take(), "Second");
+        assertEquals(queue.take(), "Third");
+        producer.join();
+    }
+
+    @Test(timeOut = 10000, expectedExceptions = InterruptedException.class)
+    public void testInterruptedTake() throws Exception {
+        final RingBufferBlockingQueue<String> queue = new RingBufferBlockingQueue<>(1);
+        Thread.currentThread().interrupt();
+        queue.take();
+    }
+
+    @Test(timeOut = 30000)
+    public void testConcurrentConsumers() throws Exception {
+        final int consumers = 4;
+        final RingBufferBlockingQueue<String> queue = new RingBufferBlockingQueue<>(16);
+        final CountDownLatch received = new CountDownLatch(consumers);
+
+        final List<Thread> threads = new ArrayList<>();
+        for (int c = 0; c < consumers; c++) {
+            final Thread thread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        // Way longer than the test waits, so every consumer has to be woken up by a producer.
+                        if (queue.poll(20, TimeUnit.SECONDS) != null) {
+                            received.countDown();
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+
+        // Wait until all consumers are parked.
+        for (Thread thread : threads) {
+            while (thread.getState() != Thread.State.TIMED_WAITING) {
+                Thread.sleep(1L);
+            }
+        }
+
+        final long start = System.nanoTime();
+        for (int i = 0; i < consumers; i++) {
+            assertTrue(queue.offer("Test " + i));
+        }
+
+        assertTrue(received.await(1, TimeUnit.SECONDS));
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1));
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test(timeOut = 30000)
+    public void testConcurrentProducers() throws Exception {
+        final int producers = 4;
+        final int elementsPerProducer = 10000;
+        final RingBufferBlockingQueue<String> queue = new RingBufferBlockingQueue<>(16);
+        final CountDownLatch start = new CountDownLatch(1);
+
+        final List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            final int producer = p;
+            final Thread thread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                        for (int i = 0; i < elementsPerProducer; i++) {
+                            queue.put(producer + "-" + i);
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+
+        start.countDown();
+        final Set<String> received = new HashSet<>();
+        final int[] lastReceived = new int[producers];
+        Arrays.fill(lastReceived, -1);
+        for (int i = 0; i < producers * elementsPerProducer; i++) {
+            final String element = queue.take();
+            assertTrue(received.add(element), "Duplicate element " + element);
+
+            // Elements of the same producer keep their order.
+            final int separator = element.indexOf('-');
+            final int producer = Integer.parseInt(element.substring(0, separator));
+            final int sequence = Integer.parseInt(element.substring(separator + 1));
+            assertTrue(sequence > lastReceived[producer]);
+            lastReceived[producer] = sequence;
+        }
+
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(received.size(), producers * elementsPerProducer);
+        assertTrue(queue.isEmpty());
+    }
+}
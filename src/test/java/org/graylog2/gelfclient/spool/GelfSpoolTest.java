@@ -0,0 +1,237 @@
+/*
+ * Copyright 2026 Graylog, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.graylog2.gelfclient.spool;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.Unpooled;
+import org.graylog2.gelfclient.SpoolSyncPolicy;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+public class GelfSpoolTest {
+    private File directory;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        directory = Files.createTempDirectory("gelf-spool").toFile();
+    }
+
+    @AfterMethod
+    public void tearDown() throws Exception {
+        final File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                assertTrue(file.delete());
+            }
+        }
+        assertTrue(directory.delete());
+    }
+
+    @Test
+    public void testAppendAndPoll() throws Exception {
+        final GelfSpool spool = newSpool(SpoolSyncPolicy.NEVER);
+        try {
+            assertTrue(spool.isEmpty());
+            assertNull(spool.poll(ByteBufAllocator.DEFAULT));
+
+            assertTrue(append(spool, "Test 1"));
+            assertTrue(append(spool, "Test 2"));
+            assertTrue(append(spool, "Test 3"));
+
+            assertFalse(spool.isEmpty());
+            assertEquals(spool.getMessageCount(), 3L);
+            assertEquals(spool.getSize(), 3L * (8L + 6L));
+
+            assertEquals(poll(spool), "Test 1");
+            assertEquals(poll(spool), "Test 2");
+            assertEquals(poll(spool), "Test 3");
+            assertNull(spool.poll(ByteBufAllocator.DEFAULT));
+            assertTrue(spool.isEmpty());
+            assertEquals(spool.getSize(), 0L);
+        } finally {
+            spool.close();
+        }
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testAppendEmpty() throws Exception {
+        final GelfSpool spool = newSpool(SpoolSyncPolicy.NEVER);
+        try {
+            spool.append(Unpooled.EMPTY_BUFFER);
+        } finally {
+            spool.close();
+        }
+    }
+
+    @Test
+    public void testSegments() throws Exception {
+        final GelfSpool spool = newSpool(SpoolSyncPolicy.SEGMENT);
+        try {
+            // 9 frames of 108 bytes fit into each segment of 1024 bytes, and there are 4 segments at most.
+            final String message = repeat('x', 100);
+            int appended = 0;
+            while (append(spool, message)) {
+                appended++;
+            }
+            assertEquals(appended, 36);
+            assertEquals(spool.getSegmentCount(), 4);
+            assertEquals(directory.listFiles().length, 4);
+
+            // Messages larger than a segment are never spooled.
+            assertFalse(append(spool, repeat('x', 1024 - 16 + 1)));
+
+            // Consumed segments are deleted, the last one is kept for new messages.
+            for (int segment = 0; segment < 4; segment++) {
+                for (int i = 0; i < 9; i++) {
+                    assertEquals(poll(spool), message);
+                }
+                assertEquals(spool.getSegmentCount(), Math.max(1, 3 - segment));
+            }
+            assertEquals(directory.listFiles().length, 1);
+            assertTrue(append(spool, message));
+            assertEquals(spool.getSegmentCount(), 2);
+        } finally {
+            spool.close();
+        }
+    }
+
+    @Test
+    public void testRecovery() throws Exception {
+        final GelfSpool spool = newSpool(SpoolSyncPolicy.ALWAYS);
+        for (int i = 0; i < 20; i++) {
+            assertTrue(append(spool, "Test " + i + " " + repeat('x', 100)));
+        }
+        for (int i = 0; i < 12; i++) {
+            poll(spool);
+        }
+        spool.close();
+        assertTrue(spool.isEmpty());
+        assertFalse(append(spool, "Test"));
+        assertNull(spool.poll(ByteBufAllocator.DEFAULT));
+
+        final GelfSpool recovered = newSpool(SpoolSyncPolicy.ALWAYS);
+        try {
+            assertEquals(recovered.getMessageCount(), 8L);
+            assertTrue(append(recovered, "Test 20 " + repeat('x', 100)));
+            for (int i = 12; i <= 20; i++) {
+                assertEquals(poll(recovered), "Test " + i + " " + repeat('x', 100));
+            }
+            assertTrue(recovered.isEmpty());
+        } finally {
+            recovered.close();
+        }
+
+        // Segments without unread messages are deleted when the spool is closed.
+        assertEquals(directory.listFiles().length, 0);
+    }
+
+    @Test
+    public void testRecoverIncompleteMessage() throws Exception {
+        final GelfSpool spool = newSpool(SpoolSyncPolicy.NEVER);
+        assertTrue(append(spool, "Test 1"));
+        assertTrue(append(spool, "Test 2"));
+        spool.close();
+
+        // Simulate a crash while the third message was written: the checksum doesn't match the message.
+        final File segment = directory.listFiles()[0];
+        try (RandomAccessFile raf = new RandomAccessFile(segment, "rw")) {
+            raf.seek(8L + 2L * (8L + 6L));
+            raf.writeInt(6);
+            raf.writeInt(42);
+            raf.write("Test 3".getBytes(StandardCharsets.UTF_8));
+        }
+
+        final GelfSpool recovered = newSpool(SpoolSyncPolicy.NEVER);
+        try {
+            assertEquals(recovered.getMessageCount(), 2L);
+            assertTrue(append(recovered, "Test 4"));
+            assertEquals(poll(recovered), "Test 1");
+            assertEquals(poll(recovered), "Test 2");
+            assertEquals(poll(recovered), "Test 4");
+            assertTrue(recovered.isEmpty());
+        } finally {
+            recovered.close();
+        }
+    }
+
+    @Test
+    public void testRecoverInvalidSegment() throws Exception {
+        final File invalid = new File(directory, "gelf-spool-00000000000000000005.seg");
+        Files.write(invalid.toPath(), "invalid".getBytes(StandardCharsets.UTF_8));
+        final File unrelated = new File(directory, "unrelated.txt");
+        Files.write(unrelated.toPath(), "unrelated".getBytes(StandardCharsets.UTF_8));
+
+        final GelfSpool spool = newSpool(SpoolSyncPolicy.NEVER);
+        try {
+            assertFalse(invalid.exists());
+            assertTrue(unrelated.exists());
+            assertTrue(spool.isEmpty());
+
+            assertTrue(append(spool, "Test"));
+            assertTrue(new File(directory, "gelf-spool-00000000000000000006.seg").exists());
+        } finally {
+            spool.close();
+        }
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testInvalidMaxBytes() throws Exception {
+        new GelfSpool(directory, 512L, 1024, SpoolSyncPolicy.NEVER);
+    }
+
+    private GelfSpool newSpool(SpoolSyncPolicy syncPolicy) throws Exception {
+        return new GelfSpool(directory, 4096L, 1024, syncPolicy);
+    }
+
+    private static boolean append(GelfSpool spool, String message) {
+        final ByteBuf payload = Unpooled.copiedBuffer(message, StandardCharsets.UTF_8);
+        try {
+            return spool.append(payload);
+        } finally {
+            payload.release();
+        }
+    }
+
+    private static String poll(GelfSpool spool) {
+        final ByteBuf payload = spool.poll(ByteBufAllocator.DEFAULT);
+        try {
+            return payload.toString(StandardCharsets.UTF_8);
+        } finally {
+            payload.release();
+        }
+    }
+
+    private static String repeat(char c, int count) {
+        final char[] chars = new char[count];
+        Arrays.fill(chars, c);
+        return new String(chars);
+    }
+}
@@ -15,14 +15,45 @@
  */
 package org.graylog2.gelfclient.transport;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
 import io.netty.channel.EventLoopGroup;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollEventLoopGroup;
 import io.netty.channel.nio.NioEventLoopGroup;
+import org.graylog2.gelfclient.EndpointSelection;
 import org.graylog2.gelfclient.GelfConfiguration;
+import org.graylog2.gelfclient.GelfMessage;
+import org.graylog2.gelfclient.GelfMessageLevel;
+import org.graylog2.gelfclient.OverflowPolicy;
+import org.graylog2.gelfclient.QueueType;
+import org.graylog2.gelfclient.queue.ByteBoundedBlockingQueue;
+import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
+import java.io.File;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
 
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
 
 public class AbstractGelfTransportTest {
 
@@ -44,4 +75,644 @@ public class AbstractGelfTransportTest {
         };
         transport.stop();
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testNativeTransport() throws Exception {
+        final GelfConfiguration configuration = new GelfConfiguration().nativeTransport(true);
+        final AbstractGelfTransport transport = new AbstractGelfTransport(configuration) {
+            @Override
+            protected void createBootstrap(EventLoopGroup workerGroup) {
+                assertEquals(nativeTransport, Epoll.isAvailable());
+                assertEquals(workerGroup instanceof EpollEventLoopGroup, Epoll.isAvailable());
+            }
+        };
+        transport.stop();
+    }
+
+    @Test
+    public void testOverflowBlock() throws Exception {
+        final AbstractGelfTransport transport = newTransport(new GelfConfiguration().queueSize(2));
+        try {
+            transport.send(new GelfMessage("Test 1"));
+            assertTrue(transport.trySend(new GelfMessage("Test 2")));
+            assertFalse(transport.trySend(newMessage("Test 3", GelfMessageLevel.INFO)));
+
+            assertEquals(transport.getMetrics().getMessagesDropped(), 1L);
+            assertEquals(transport.getMetrics().getMessagesDropped(GelfMessageLevel.INFO), 1L);
+        } finally {
+            transport.stop();
+        }
+    }
+
+    @Test
+    public void testOverflowBlockWithTimeout() throws Exception {
+        final AbstractGelfTransport transport = newTransport(new GelfConfiguration()
+                .queueSize(1)
+                .overflowPolicy(OverflowPolicy.BLOCK_WITH_TIMEOUT)
+                .overflowTimeout(20));
+        try {
+            transport.send(new GelfMessage("Test 1"));
+            final long start = System.nanoTime();
+            transport.send(new GelfMessage("Test 2"));
+
+            assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(20L));
+            assertEquals(transport.envelopeQueue.size(), 1);
+            assertEquals(transport.getMetrics().getMessagesDropped(), 1L);
+        } finally {
+            transport.stop();
+        }
+    }
+
+    @Test
+    public void testOverflowDropNewest() throws Exception {
+        final AbstractGelfTransport transport = newTransport(new GelfConfiguration()
+                .queueSize(1)
+                .overflowPolicy(OverflowPolicy.DROP_NEWEST));
+        try {
+            transport.send(new GelfMessage("Test 1"));
+            transport.send(new GelfMessage("Test 2"));
+
+            assertEquals(transport.envelopeQueue.peek().getMessage().getMessage(), "Test 1");
+            assertEquals(transport.getMetrics().getMessagesDropped(), 1L);
+        } finally {
+            transport.stop();
+        }
+    }
+
+    @Test
+    public void testOverflowDropOldest() throws Exception {
+        final AbstractGelfTransport transport = newTransport(new GelfConfiguration()
+                .queueSize(2)
+                .overflowPolicy(OverflowPolicy.DROP_OLDEST));
+        try {
+            transport.send(newMessage("Test 1", GelfMessageLevel.DEBUG));
+            transport.send(newMessage("Test 2", GelfMessageLevel.INFO));
+            transport.send(newMessage("Test 3", GelfMessageLevel.INFO));
+            assertTrue(transport.trySend(newMessage("Test 4", GelfMessageLevel.INFO)));
+
+            assertEquals(transport.envelopeQueue.poll().getMessage().getMessage(), "Test 3");
+            assertEquals(transport.envelopeQueue.poll().getMessage().getMessage(), "Test 4");
+            assertEquals(transport.getMetrics().getMessagesDropped(GelfMessageLevel.DEBUG), 1L);
+            assertEquals(transport.getMetrics().getMessagesDropped(GelfMessageLevel.INFO), 1L);
+        } finally {
+            transport.stop();
+        }
+    }
+
+    @Test
+    public void testOverflowDropOldestPriorityLanes() throws Exception {
+        final AbstractGelfTransport transport = newTransport(new GelfConfiguration()
+                .queueSize(2)
+                .queueType(QueueType.PRIORITY_LANES)
+                .queueMaxBytes(1024L * 1024L)
+                .overflowPolicy(OverflowPolicy.DROP_OLDEST));
+        try {
+            transport.send(newMessage("Error", GelfMessageLevel.ERROR));
+            transport.send(newMessage("Debug", GelfMessageLevel.DEBUG));
+            transport.send(newMessage("Info", GelfMessageLevel.INFO));
+
+            // The oldest message of the least severe lane is dropped, not the next one to be sent.
+            assertEquals(transport.envelopeQueue.poll().getMessage().getMessage(), "Error");
+            assertEquals(transport.envelopeQueue.poll().getMessage().getMessage(), "Info");
+            assertEquals(transport.getMetrics().getMessagesDropped(GelfMessageLevel.DEBUG), 1L);
+        } finally {
+            transport.stop();
+        }
+    }
+
+    @Test
+    public void testSendAsyncDropped() throws Exception {
+        final AbstractGelfTransport transport = newTransport(new GelfConfiguration()
+                .queueSize(1)
+                .overflowPolicy(OverflowPolicy.DROP_OLDEST));
+        try {
+            final CompletableFuture<Void> first = transport.sendAsync(new GelfMessage("Test 1")).toCompletableFuture();
+            final CompletableFuture<Void> second = transport.sendAsync(new GelfMessage("Test 2")).toCompletableFuture();
+
+            // The first message has been evicted, the second one is still queued.
+            assertTrue(first.isCompletedExceptionally());
+            assertFalse(second.isDone());
+            assertSame(transport.envelopeQueue.peek().getSendFuture(), second);
+        } finally {
+            transport.stop();
+        }
+    }
+
+    @Test
+    public void testSendAsyncSameMessage() throws Exception {
+        final AbstractGelfTransport transport = newTransport(new GelfConfiguration().queueSize(2));
+        try {
+            final GelfMessage message = new GelfMessage("Test");
+            final CompletableFuture<Void> first = transport.sendAsync(message).toCompletableFuture();
+            final CompletableFuture<Void> second = transport.sendAsync(message).toCompletableFuture();
+
+            // Every send operation carries its own future, the message itself isn't changed.
+            final GelfMessageEnvelope firstEnvelope = transport.envelopeQueue.poll();
+            final GelfMessageEnvelope secondEnvelope = transport.envelopeQueue.poll();
+            assertSame(firstEnvelope.getMessage(), message);
+            assertSame(firstEnvelope.getSendFuture(), first);
+            assertSame(secondEnvelope.getMessage(), message);
+            assertSame(secondEnvelope.getSendFuture(), second);
+        } finally {
+            transport.stop();
+        }
+    }
+
+    @Test
+    public void testSendAsyncQueueFull() throws Exception {
+        final AbstractGelfTransport transport = newTransport(new GelfConfiguration().queueSize(1));
+        try {
+            transport.send(new GelfMessage("Test 1"));
+            final CompletableFuture<Void> future = transport.sendAsync(new GelfMessage("Test 2")).toCompletableFuture();
+
+            assertTrue(future.isCompletedExceptionally());
+            try {
+                future.getNow(null);
+                fail("Dropped message must not complete normally");
+            } catch (CompletionException e) {
+                assertTrue(e.getCause() instanceof IllegalStateException);
+            }
+        } finally {
+            transport.stop();
+        }
+    }
+
+    @Test(dataProvider = "queueTypes")
+    public void testSendAll(QueueType queueType) throws Exception {
+        final AbstractGelfTransport transport = newTransport(new GelfConfiguration()
+                .queueType(queueType)
+                .queueSize(2)
+                .overflowPolicy(OverflowPolicy.DROP_OLDEST));
+        try {
+            assertEquals(transport.sendAll(Arrays.asList(
+                    new GelfMessage("Test 1"), new GelfMessage("Test 2"), new GelfMessage("Test 3"))), 3);
+
+            assertEquals(transport.envelopeQueue.poll().getMessage().getMessage(), "Test 2");
+            assertEquals(transport.envelopeQueue.poll().getMessage().getMessage(), "Test 3");
+            assertEquals(transport.getMetrics().getMessagesDropped(), 1L);
+        } finally {
+            transport.stop();
+        }
+    }
+
+    @Test(dataProvider = "queueTypes")
+    public void testTrySendAll(QueueType queueType) throws Exception {
+        final AbstractGelfTransport transport = newTransport(new GelfConfiguration()
+                .queueType(queueType)
+                .queueSize(2));
+        try {
+            final List<GelfMessage> messages = Arrays.asList(
+                    new GelfMessage("Test 1"), new GelfMessage("Test 2"), new GelfMessage("Test 3"));
+            assertEquals(transport.trySendAll(messages), 2);
+            assertEquals(transport.trySendAll(messages), 0);
+
+            assertEquals(transport.envelopeQueue.poll().getMessage().getMessage(), "Test 1");
+            assertEquals(transport.envelopeQueue.poll().getMessage().getMessage(), "Test 2");
+            assertEquals(transport.getMetrics().getMessagesDropped(), 4L);
+        } finally {
+            transport.stop();
+        }
+    }
+
+    @Test
+    public void testOverflowDropByLevel() throws Exception {
+        final AbstractGelfTransport transport = newTransport(new GelfConfiguration()
+                .queueSize(4)
+                .overflowPolicy(OverflowPolicy.DROP_BY_LEVEL)
+                .overflowRetainLevel(GelfMessageLevel.ERROR));
+        try {
+            transport.send(newMessage("Info 1", GelfMessageLevel.INFO));
+            transport.send(newMessage("Debug", GelfMessageLevel.DEBUG));
+            transport.send(newMessage("Info 2", GelfMessageLevel.INFO));
+            transport.send(newMessage("Error 1", GelfMessageLevel.ERROR));
+
+            // Less severe messages replace the least severe queued message, if it's even less severe.
+            transport.send(newMessage("Warning", GelfMessageLevel.WARNING));
+            assertEquals(transport.getMetrics().getMessagesDropped(GelfMessageLevel.DEBUG), 1L);
+            assertEquals(queued(transport), Arrays.asList("Info 1", "Info 2", "Error 1", "Warning"));
+
+            // Otherwise they are dropped right away.
+            assertFalse(transport.trySend(newMessage("Info 3", GelfMessageLevel.INFO)));
+            assertEquals(transport.getMetrics().getMessagesDropped(GelfMessageLevel.INFO), 1L);
+
+            // More severe messages replace the oldest queued messages below the retain level.
+            transport.send(newMessage("Error 2", GelfMessageLevel.ERROR));
+            assertTrue(transport.trySend(newMessage("Emergency", GelfMessageLevel.EMERGENCY)));
+            assertEquals(transport.getMetrics().getMessagesDropped(GelfMessageLevel.INFO), 3L);
+            assertEquals(queued(transport), Arrays.asList("Error 1", "Warning", "Error 2", "Emergency"));
+
+            // Without queued messages below the retain level, new messages are dropped by trySend().
+            transport.envelopeQueue.poll();
+            assertTrue(transport.trySend(newMessage("Error 3", GelfMessageLevel.ERROR)));
+            assertTrue(transport.trySend(newMessage("Error 4", GelfMessageLevel.ERROR)));
+            assertEquals(transport.getMetrics().getMessagesDropped(GelfMessageLevel.WARNING), 1L);
+            assertFalse(transport.trySend(newMessage("Error 5", GelfMessageLevel.ERROR)));
+            assertEquals(transport.getMetrics().getMessagesDropped(GelfMessageLevel.ERROR), 1L);
+            assertEquals(transport.envelopeQueue.size(), 4);
+        } finally {
+            transport.stop();
+        }
+    }
+
+    @Test
+    public void testOverflowDropByLevelLessSevere() throws Exception {
+        for (QueueType queueType : Arrays.asList(QueueType.LINKED, QueueType.PRIORITY_LANES)) {
+            final AbstractGelfTransport transport = newTransport(new GelfConfiguration()
+                    .queueSize(3)
+                    .queueType(queueType)
+                    .overflowPolicy(OverflowPolicy.DROP_BY_LEVEL)
+                    .overflowRetainLevel(GelfMessageLevel.ERROR));
+            try {
+                transport.send(newMessage("Debug 1", GelfMessageLevel.DEBUG));
+                transport.send(newMessage("Debug 2", GelfMessageLevel.DEBUG));
+                transport.send(newMessage("Debug 3", GelfMessageLevel.DEBUG));
+
+                // A droppable message still replaces a less severe one.
+                assertTrue(transport.trySend(newMessage("Warning", GelfMessageLevel.WARNING)), queueType.name());
+                assertEquals(transport.getMetrics().getMessagesDropped(GelfMessageLevel.DEBUG), 1L);
+                assertEquals(transport.getMetrics().getMessagesDropped(GelfMessageLevel.WARNING), 0L);
+                assertTrue(queued(transport).contains("Warning"), queueType.name());
+                assertEquals(transport.envelopeQueue.size(), 3);
+            } finally {
+                transport.stop();
+            }
+        }
+    }
+
+    @Test
+    public void testOverflowDropByLevelPriorityLanes() throws Exception {
+        final AbstractGelfTransport transport = newTransport(new GelfConfiguration()
+                .queueSize(4)
+                .queueType(QueueType.PRIORITY_LANES)
+                .overflowPolicy(OverflowPolicy.DROP_BY_LEVEL)
+                .overflowRetainLevel(GelfMessageLevel.ERROR));
+        try {
+            transport.send(newMessage("Info 1", GelfMessageLevel.INFO));
+            transport.send(newMessage("Debug", GelfMessageLevel.DEBUG));
+            transport.send(newMessage("Info 2", GelfMessageLevel.INFO));
+            transport.send(newMessage("Error 1", GelfMessageLevel.ERROR));
+
+            // More severe messages replace the oldest messages of the least severe lane.
+            transport.send(newMessage("Error 2", GelfMessageLevel.ERROR));
+            assertEquals(transport.getMetrics().getMessagesDropped(GelfMessageLevel.DEBUG), 1L);
+            assertTrue(transport.trySend(newMessage("Emergency", GelfMessageLevel.EMERGENCY)));
+            assertEquals(transport.getMetrics().getMessagesDropped(GelfMessageLevel.INFO), 1L);
+            assertEquals(queued(transport), Arrays.asList("Emergency", "Error 1", "Error 2", "Info 2"));
+        } finally {
+            transport.stop();
+        }
+    }
+
+    private static List<String> queued(AbstractGelfTransport transport) {
+        final List<String> queued = new ArrayList<>();
+        for (GelfMessageEnvelope envelope : transport.envelopeQueue) {
+            queued.add(envelope.getMessage().getMessage());
+        }
+        return queued;
+    }
+
+    @Test
+    public void testSelectEndpointFailover() throws Exception {
+        final AbstractGelfTransport transport = newTransport(new GelfConfiguration()
+                .remoteAddresses(addresses(3))
+                .endpointSelection(EndpointSelection.FAILOVER));
+        try {
+            final List<GelfEndpoint> endpoints = transport.getEndpoints();
+            assertSame(transport.selectEndpoint(), endpoints.get(0));
+
+            endpoints.get(0).connectFailed();
+            assertSame(transport.selectEndpoint(), endpoints.get(1));
+            assertSame(transport.selectEndpoint(), endpoints.get(1));
+
+            // Degraded endpoints are preferred over endpoints which are down.
+            endpoints.get(1).connectFailed();
+            degrade(endpoints.get(2));
+            assertSame(transport.selectEndpoint(), endpoints.get(2));
+
+            // All endpoints are tried in turn if all are down.
+            endpoints.get(2).connectFailed();
+            final Set<GelfEndpoint> selected = new HashSet<>();
+            for (int i = 0; i < 3; i++) {
+                selected.add(transport.selectEndpoint());
+            }
+            assertEquals(selected.size(), 3);
+        } finally {
+            transport.stop();
+        }
+    }
+
+    @Test
+    public void testSelectEndpointRoundRobin() throws Exception {
+        final AbstractGelfTransport transport = newTransport(new GelfConfiguration()
+                .remoteAddresses(addresses(3))
+                .endpointSelection(EndpointSelection.ROUND_ROBIN));
+        try {
+            final List<GelfEndpoint> endpoints = transport.getEndpoints();
+            endpoints.get(1).connectFailed();
+
+            final List<GelfEndpoint> selected = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                selected.add(transport.selectEndpoint());
+            }
+            assertEquals(selected, Arrays.asList(endpoints.get(0), endpoints.get(2), endpoints.get(0), endpoints.get(2)));
+        } finally {
+            transport.stop();
+        }
+    }
+
+    @Test
+    public void testSelectEndpointLeastOutstandingWrites() throws Exception {
+        final AbstractGelfTransport transport = newTransport(new GelfConfiguration()
+                .remoteAddresses(addresses(3))
+                .endpointSelection(EndpointSelection.LEAST_OUTSTANDING_WRITES));
+        try {
+            final List<GelfEndpoint> endpoints = transport.getEndpoints();
+            endpoints.get(0).writeStarted();
+            endpoints.get(1).connected(new EmbeddedChannel());
+
+            assertSame(transport.selectEndpoint(), endpoints.get(2));
+            endpoints.get(2).writeStarted();
+            endpoints.get(2).writeStarted();
+            assertSame(transport.selectEndpoint(), endpoints.get(1));
+        } finally {
+            transport.stop();
+        }
+    }
+
+    @Test
+    public void testCheckEndpoints() throws Exception {
+        final AbstractGelfTransport transport = newTransport(new GelfConfiguration()
+                .remoteAddresses(addresses(3))
+                .endpointSelection(EndpointSelection.FAILOVER));
+        try {
+            final List<GelfEndpoint> endpoints = transport.getEndpoints();
+            final EmbeddedChannel[] channels = new EmbeddedChannel[3];
+            for (int i = 0; i < 3; i++) {
+                channels[i] = new EmbeddedChannel();
+                endpoints.get(i).connected(channels[i]);
+            }
+            degrade(endpoints.get(0));
+
+            // Connections to the degraded endpoint and to the standby endpoint are moved to the first healthy one.
+            transport.checkEndpoints();
+            assertFalse(channels[0].isOpen());
+            assertTrue(channels[1].isOpen());
+            assertFalse(channels[2].isOpen());
+        } finally {
+            transport.stop();
+        }
+    }
+
+    @Test
+    public void testReconnectDelay() throws Exception {
+        final AbstractGelfTransport transport = newTransport(new GelfConfiguration().reconnectDelay(100));
+        try {
+            assertEquals(transport.reconnectDelay(0), 100L);
+            assertEquals(transport.reconnectDelay(10), 100L);
+        } finally {
+            transport.stop();
+        }
+    }
+
+    @Test
+    public void testReconnectBackoff() throws Exception {
+        final AbstractGelfTransport transport = newTransport(new GelfConfiguration()
+                .reconnectDelay(100)
+                .reconnectMaxDelay(1000));
+        try {
+            long maxDelay = 0L;
+            for (int i = 0; i < 1000; i++) {
+                final long delay = transport.reconnectDelay(2);
+                assertTrue(delay >= 0L && delay <= 400L, Long.toString(delay));
+                maxDelay = Math.max(maxDelay, delay);
+            }
+            // Full jitter spreads the delays over the whole range.
+            assertTrue(maxDelay > 200L, Long.toString(maxDelay));
+
+            for (int i = 0; i < 1000; i++) {
+                final long delay = transport.reconnectDelay(Integer.MAX_VALUE);
+                assertTrue(delay >= 0L && delay <= 1000L, Long.toString(delay));
+            }
+        } finally {
+            transport.stop();
+        }
+    }
+
+    @Test
+    public void testConnectFailed() throws Exception {
+        final AbstractGelfTransport transport = newTransport(new GelfConfiguration()
+                .circuitBreakerThreshold(2));
+        try {
+            transport.connectFailed(0);
+            transport.connectFailed(0);
+
+            assertEquals(transport.getMetrics().getConnectFailures(), 2L);
+            assertEquals(transport.getCircuitBreaker().getState(), GelfCircuitBreaker.State.OPEN);
+
+            transport.connectSucceeded(0);
+            assertEquals(transport.getCircuitBreaker().getState(), GelfCircuitBreaker.State.CLOSED);
+        } finally {
+            transport.stop();
+        }
+    }
+
+    @Test
+    public void testEncodeOnSend() throws Exception {
+        final AbstractGelfTransport transport = newTransport(new GelfConfiguration()
+                .queueSize(2)
+                .overflowPolicy(OverflowPolicy.DROP_OLDEST)
+                .encodeOnSend(true));
+        final List<ByteBuf> payloads = new ArrayList<>();
+        try {
+            transport.send(new GelfMessage("Test 1"));
+            final ByteBuf evicted = transport.envelopeQueue.peek().getEncodedPayload();
+            final GelfMessage message = new GelfMessage("Test 2");
+            assertEquals(transport.sendAll(Arrays.asList(message, message)), 2);
+
+            // The evicted message's payload has been released.
+            assertEquals(evicted.refCnt(), 0);
+            assertEquals(transport.envelopeQueue.size(), 2);
+            for (GelfMessageEnvelope queued : transport.envelopeQueue) {
+                // Every send operation has a payload of its own, the message itself isn't changed.
+                final ByteBuf payload = queued.getEncodedPayload();
+                assertTrue(payload.toString(StandardCharsets.UTF_8).contains("\"short_message\":\"Test 2\""));
+                payloads.add(payload);
+            }
+            assertNotSame(payloads.get(0), payloads.get(1));
+        } finally {
+            transport.stop();
+        }
+
+        // The payloads of the messages which haven't been sent are released when the transport is stopped.
+        for (ByteBuf payload : payloads) {
+            assertEquals(payload.refCnt(), 0);
+        }
+    }
+
+    @Test
+    public void testEncodeOnSendQueueMaxBytes() throws Exception {
+        final AbstractGelfTransport transport = newTransport(new GelfConfiguration()
+                .queueMaxBytes(Long.MAX_VALUE)
+                .encodeOnSend(true));
+        try {
+            final GelfMessage message = new GelfMessage("Test");
+            transport.send(message);
+
+            // The encoded payload is retained by the queue as well.
+            final ByteBuf payload = transport.envelopeQueue.peek().getEncodedPayload();
+            assertEquals(((ByteBoundedBlockingQueue<?>) transport.envelopeQueue).getBytes(),
+                    ByteBoundedBlockingQueue.estimateSize(message) + payload.readableBytes());
+        } finally {
+            transport.stop();
+        }
+    }
+
+    @Test
+    public void testSpoolWhileDisconnected() throws Exception {
+        final File spoolDirectory = Files.createTempDirectory("gelf-spool").toFile();
+        final GelfConfiguration configuration = new GelfConfiguration().spoolDirectory(spoolDirectory);
+        final AbstractGelfTransport transport = newTransport(configuration);
+        try {
+            transport.send(new GelfMessage("Test 1"));
+            assertTrue(transport.trySend(new GelfMessage("Test 2")));
+            assertEquals(transport.sendAll(Arrays.asList(new GelfMessage("Test 3"), new GelfMessage("Test 4"))), 2);
+            transport.sendAsync(new GelfMessage("Test 5")).toCompletableFuture().get(1L, TimeUnit.SECONDS);
+
+            assertTrue(transport.envelopeQueue.isEmpty());
+            assertEquals(transport.getSpool().getMessageCount(), 5L);
+            assertEquals(transport.getMetrics().getMessagesSpooled(), 5L);
+        } finally {
+            transport.stop();
+        }
+
+        // The spooled messages are recovered by the next transport.
+        final AbstractGelfTransport recovered = newTransport(configuration);
+        try {
+            assertEquals(recovered.getSpool().getMessageCount(), 5L);
+            for (int i = 1; i <= 5; i++) {
+                final ByteBuf payload = recovered.getSpool().poll(ByteBufAllocator.DEFAULT);
+                try {
+                    assertTrue(payload.toString(StandardCharsets.UTF_8).contains("\"short_message\":\"Test " + i + "\""));
+                } finally {
+                    payload.release();
+                }
+            }
+        } finally {
+            recovered.stop();
+            assertTrue(spoolDirectory.delete());
+        }
+    }
+
+    @Test
+    public void testSpoolFull() throws Exception {
+        final File spoolDirectory = Files.createTempDirectory("gelf-spool").toFile();
+        final AbstractGelfTransport transport = newTransport(new GelfConfiguration()
+                .queueSize(1)
+                .spoolDirectory(spoolDirectory)
+                .spoolMaxBytes(1024L)
+                .spoolSegmentSize(1024));
+        try {
+            int sent = 0;
+            while (transport.trySend(new GelfMessage("Test"))) {
+                sent++;
+            }
+
+            // Once the spool is full, messages are queued and then handled by the overflow policy.
+            assertEquals(transport.envelopeQueue.size(), 1);
+            assertTrue(transport.getSpool().getMessageCount() > 0L);
+            assertEquals(transport.getMetrics().getMessagesSpooled(), sent - 1L);
+            assertEquals(transport.getMetrics().getMessagesDropped(), 1L);
+        } finally {
+            transport.stop();
+            final File[] files = spoolDirectory.listFiles();
+            for (File file : files) {
+                assertTrue(file.delete());
+            }
+            assertTrue(spoolDirectory.delete());
+        }
+    }
+
+    @Test
+    public void testSuppliedQueue() throws Exception {
+        final BlockingQueue<GelfMessage> queue = new LinkedBlockingQueue<>(2);
+        final GelfConfiguration configuration = new GelfConfiguration().shutdownQuietPeriod(0);
+        final AbstractGelfTransport transport = new AbstractGelfTransport(configuration, queue) {
+            @Override
+            protected void createBootstrap(EventLoopGroup workerGroup) {
+            }
+        };
+        try {
+            final GelfMessage message = new GelfMessage("Test");
+            final CompletableFuture<Void> future = transport.sendAsync(message).toCompletableFuture();
+            transport.send(message);
+            assertSame(transport.queue, queue);
+            assertEquals(queue.size(), 2);
+            assertFalse(transport.trySend(new GelfMessage("Test 2")));
+
+            // The queue only holds the message, the envelope with the future is handed out in queueing order.
+            final GelfMessageEnvelope first = transport.envelopeQueue.poll();
+            final GelfMessageEnvelope second = transport.envelopeQueue.poll();
+            assertSame(first.getMessage(), message);
+            assertSame(first.getSendFuture(), future);
+            assertSame(second.getMessage(), message);
+            assertNull(second.getSendFuture());
+            assertTrue(queue.isEmpty());
+        } finally {
+            transport.stop();
+        }
+    }
+
+    @Test
+    public void testQueueView() throws Exception {
+        final AbstractGelfTransport transport = newTransport(new GelfConfiguration().queueSize(2));
+        try {
+            final CompletableFuture<Void> future = transport.sendAsync(new GelfMessage("Test 1")).toCompletableFuture();
+            assertTrue(transport.queue.offer(new GelfMessage("Test 2")));
+            assertEquals(transport.queue.size(), 2);
+            assertEquals(transport.envelopeQueue.size(), 2);
+
+            // Messages taken from the view are handed over, so their futures complete.
+            assertEquals(transport.queue.poll().getMessage(), "Test 1");
+            assertTrue(future.isDone());
+            assertFalse(future.isCompletedExceptionally());
+            assertEquals(transport.envelopeQueue.poll().getMessage().getMessage(), "Test 2");
+        } finally {
+            transport.stop();
+        }
+    }
+
+    @DataProvider(name = "queueTypes")
+    public Object[][] queueTypes() {
+        return new Object[][]{{QueueType.LINKED}, {QueueType.RING_BUFFER}};
+    }
+
+    private static List<InetSocketAddress> addresses(int count) {
+        final List<InetSocketAddress> addresses = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            addresses.add(InetSocketAddress.createUnresolved("graylog-" + i, 12201));
+        }
+        return addresses;
+    }
+
+    private static void degrade(GelfEndpoint endpoint) {
+        for (int i = 0; i < 20; i++) {
+            endpoint.writeStarted();
+            endpoint.writeCompleted(0L, false);
+        }
+    }
+
+    private static GelfMessage newMessage(String text, GelfMessageLevel level) {
+        final GelfMessage message = new GelfMessage(text);
+        message.setLevel(level);
+        return message;
+    }
+
+    private static AbstractGelfTransport newTransport(GelfConfiguration configuration) {
+        // Never connects, so queued messages stay in the queue.
+        return new AbstractGelfTransport(configuration.shutdownQuietPeriod(0)) {
+            @Override
+            protected void createBootstrap(EventLoopGroup workerGroup) {
+            }
+        };
+    }
+}
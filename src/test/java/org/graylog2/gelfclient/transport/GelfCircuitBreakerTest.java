@@ -0,0 +1,88 @@
+/*
+ * Copyright 2026 Graylog, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.graylog2.gelfclient.transport;
+
+import org.graylog2.gelfclient.GelfConfiguration;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class GelfCircuitBreakerTest {
+    @Test
+    public void testDisabled() throws Exception {
+        final GelfCircuitBreaker circuitBreaker = new GelfCircuitBreaker(new GelfConfiguration());
+
+        for (int i = 0; i < 100; i++) {
+            circuitBreaker.failed();
+        }
+        assertEquals(circuitBreaker.getState(), GelfCircuitBreaker.State.CLOSED);
+        assertEquals(circuitBreaker.getConsecutiveFailures(), 100);
+        assertTrue(circuitBreaker.tryAcquire());
+    }
+
+    @Test
+    public void testOpen() throws Exception {
+        final GelfCircuitBreaker circuitBreaker = new GelfCircuitBreaker(new GelfConfiguration()
+                .circuitBreakerThreshold(2)
+                .circuitBreakerCoolDown(60000));
+
+        assertFalse(circuitBreaker.failed());
+        assertEquals(circuitBreaker.getState(), GelfCircuitBreaker.State.CLOSED);
+        assertTrue(circuitBreaker.failed());
+        assertEquals(circuitBreaker.getState(), GelfCircuitBreaker.State.OPEN);
+        assertEquals(circuitBreaker.getOpenCount(), 1L);
+        assertFalse(circuitBreaker.tryAcquire());
+        assertTrue(circuitBreaker.getRemainingCoolDown(TimeUnit.MILLISECONDS) > 0L);
+
+        // Failures of attempts started before the circuit breaker opened don't extend the cool-down.
+        assertFalse(circuitBreaker.failed());
+        assertEquals(circuitBreaker.getOpenCount(), 1L);
+
+        circuitBreaker.succeeded();
+        assertEquals(circuitBreaker.getState(), GelfCircuitBreaker.State.CLOSED);
+        assertEquals(circuitBreaker.getConsecutiveFailures(), 0);
+        assertEquals(circuitBreaker.getRemainingCoolDown(TimeUnit.MILLISECONDS), 0L);
+    }
+
+    @Test
+    public void testHalfOpen() throws Exception {
+        final GelfCircuitBreaker circuitBreaker = new GelfCircuitBreaker(new GelfConfiguration()
+                .circuitBreakerThreshold(1)
+                .circuitBreakerCoolDown(0));
+
+        circuitBreaker.failed();
+        assertEquals(circuitBreaker.getState(), GelfCircuitBreaker.State.HALF_OPEN);
+
+        // Only a single trial attempt.
+        assertTrue(circuitBreaker.tryAcquire());
+        assertFalse(circuitBreaker.tryAcquire());
+
+        // A failed trial opens the circuit breaker again.
+        circuitBreaker.failed();
+        assertEquals(circuitBreaker.getOpenCount(), 2L);
+        assertTrue(circuitBreaker.tryAcquire());
+        circuitBreaker.succeeded();
+        assertEquals(circuitBreaker.getState(), GelfCircuitBreaker.State.CLOSED);
+        assertTrue(circuitBreaker.tryAcquire());
+        assertTrue(circuitBreaker.tryAcquire());
+    }
+}
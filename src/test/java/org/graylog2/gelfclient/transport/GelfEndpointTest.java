@@ -0,0 +1,121 @@
+/*
+ * Copyright 2026 Graylog, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.graylog2.gelfclient.transport;
+
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.graylog2.gelfclient.GelfConfiguration;
+import org.testng.annotations.Test;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class GelfEndpointTest {
+    private static final InetSocketAddress ADDRESS = InetSocketAddress.createUnresolved("example.com", 12201);
+
+    @Test
+    public void testHealthy() throws Exception {
+        final GelfEndpoint endpoint = new GelfEndpoint(ADDRESS, new GelfConfiguration());
+        assertEquals(endpoint.getState(), GelfEndpoint.State.HEALTHY);
+        assertEquals(endpoint.getAddress(), ADDRESS);
+
+        endpoint.writeStarted();
+        assertEquals(endpoint.getOutstandingWrites(), 1);
+        endpoint.writeCompleted(TimeUnit.MILLISECONDS.toNanos(10L), true);
+
+        assertEquals(endpoint.getOutstandingWrites(), 0);
+        assertEquals(endpoint.getWrites(), 1L);
+        assertEquals(endpoint.getWriteErrors(), 0L);
+        assertEquals(endpoint.getWriteLatency(TimeUnit.MILLISECONDS), 1L);
+        assertEquals(endpoint.getState(), GelfEndpoint.State.HEALTHY);
+    }
+
+    @Test
+    public void testWriteLatency() throws Exception {
+        final GelfEndpoint endpoint = new GelfEndpoint(ADDRESS, new GelfConfiguration().endpointLatencyThreshold(100));
+
+        // A single slow write doesn't degrade the endpoint.
+        write(endpoint, 500L, true);
+        assertEquals(endpoint.getState(), GelfEndpoint.State.HEALTHY);
+
+        for (int i = 0; i < 10; i++) {
+            write(endpoint, 500L, true);
+        }
+        assertEquals(endpoint.getState(), GelfEndpoint.State.DEGRADED);
+        assertTrue(endpoint.getWriteLatency(TimeUnit.MILLISECONDS) > 100L);
+    }
+
+    @Test
+    public void testErrorRate() throws Exception {
+        final GelfEndpoint endpoint = new GelfEndpoint(ADDRESS, new GelfConfiguration().endpointErrorRateThreshold(0.25d));
+
+        for (int i = 0; i < 3; i++) {
+            write(endpoint, 1L, false);
+        }
+        assertEquals(endpoint.getWriteErrors(), 3L);
+        assertTrue(endpoint.getErrorRate() > 0.25d);
+        assertEquals(endpoint.getState(), GelfEndpoint.State.DEGRADED);
+
+        for (int i = 0; i < 10; i++) {
+            write(endpoint, 1L, true);
+        }
+        assertEquals(endpoint.getState(), GelfEndpoint.State.HEALTHY);
+    }
+
+    @Test
+    public void testConnectFailed() throws Exception {
+        final GelfEndpoint endpoint = new GelfEndpoint(ADDRESS, new GelfConfiguration());
+        final EmbeddedChannel channel = new EmbeddedChannel();
+
+        endpoint.connectFailed();
+        assertEquals(endpoint.getConnectFailures(), 1L);
+        assertEquals(endpoint.getState(), GelfEndpoint.State.DOWN);
+
+        endpoint.connected(channel);
+        assertEquals(endpoint.getConnections(), 1);
+        assertEquals(endpoint.getState(), GelfEndpoint.State.HEALTHY);
+
+        // Not down while there are open connections.
+        endpoint.connectFailed();
+        assertEquals(endpoint.getState(), GelfEndpoint.State.HEALTHY);
+
+        endpoint.closeConnections();
+        assertFalse(channel.isOpen());
+        endpoint.disconnected(channel);
+        assertEquals(endpoint.getConnections(), 0);
+    }
+
+    @Test
+    public void testRecovery() throws Exception {
+        final GelfEndpoint endpoint = new GelfEndpoint(ADDRESS, new GelfConfiguration().endpointRecoveryTime(50));
+
+        endpoint.connectFailed();
+        assertEquals(endpoint.getState(), GelfEndpoint.State.DOWN);
+
+        Thread.sleep(100L);
+        assertEquals(endpoint.getState(), GelfEndpoint.State.HEALTHY);
+    }
+
+    private static void write(GelfEndpoint endpoint, long latencyMillis, boolean success) {
+        endpoint.writeStarted();
+        endpoint.writeCompleted(TimeUnit.MILLISECONDS.toNanos(latencyMillis), success);
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2026 Graylog, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graylog2.gelfclient.transport;
+
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.WriteBufferWaterMark;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.graylog2.gelfclient.GelfMessage;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+public class GelfEventLoopSenderTest {
+    private BlockingQueue<GelfMessageEnvelope> queue;
+    private GelfTransportMetrics metrics;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        queue = new ArrayBlockingQueue<>(100);
+        metrics = new GelfTransportMetrics();
+        for (int i = 0; i < 10; i++) {
+            queue.put(new GelfMessageEnvelope(new GelfMessage("Test " + i)));
+        }
+    }
+
+    @Test
+    public void testDrain() throws Exception {
+        final GelfEventLoopSender sender = new GelfEventLoopSender(queue, 5, metrics);
+        final EmbeddedChannel channel = new EmbeddedChannel();
+
+        sender.start(channel);
+        channel.runPendingTasks();
+
+        assertTrue(queue.isEmpty());
+        assertEquals(readAll(channel), 10);
+        assertEquals(metrics.getMessagesWritten(), 10L);
+        assertEquals(metrics.getFlushes(), 2L);
+
+        // Producers signal the sender after queueing a message.
+        queue.put(new GelfMessageEnvelope(new GelfMessage("Test")));
+        sender.signal();
+        channel.runPendingTasks();
+
+        assertEquals(readAll(channel), 1);
+        assertEquals(metrics.getFlushes(), 3L);
+    }
+
+    @Test
+    public void testPendingBytes() throws Exception {
+        final GelfEventLoopSender sender = new GelfEventLoopSender(queue, 100, metrics);
+        final EmbeddedChannel channel = new EmbeddedChannel();
+        assertEquals(sender.getPendingBytes(), Long.MAX_VALUE);
+
+        // Nothing to drain, so the written message isn't flushed.
+        queue.clear();
+        sender.start(channel);
+        channel.runPendingTasks();
+        assertEquals(sender.getPendingBytes(), 0L);
+        final ChannelFuture writeFuture = channel.write(new GelfMessage("Test"));
+        assertFalse(writeFuture.isDone());
+        assertTrue(sender.getPendingBytes() > 0L);
+
+        sender.stop();
+        assertEquals(sender.getPendingBytes(), Long.MAX_VALUE);
+        channel.finishAndReleaseAll();
+    }
+
+    @Test
+    public void testWritability() throws Exception {
+        final GelfEventLoopSender sender = new GelfEventLoopSender(queue, 100, metrics);
+        final EmbeddedChannel channel = new EmbeddedChannel(new ChannelInboundHandlerAdapter() {
+            @Override
+            public void channelWritabilityChanged(ChannelHandlerContext ctx) throws Exception {
+                sender.signal();
+                super.channelWritabilityChanged(ctx);
+            }
+        });
+        // Every pending message counts as 104 bytes (8 bytes estimated message size plus 96 bytes overhead),
+        // so the channel becomes unwritable after 3 unflushed messages.
+        channel.config().setWriteBufferWaterMark(new WriteBufferWaterMark(250, 300));
+
+        sender.start(channel);
+        channel.runPendingTasks();
+
+        // Every time the channel became unwritable, the sender flushed and waited for the writability change.
+        assertTrue(queue.isEmpty());
+        assertEquals(readAll(channel), 10);
+        assertEquals(metrics.getMessagesWritten(), 10L);
+        assertEquals(metrics.getFlushes(), 4L);
+    }
+
+    @Test
+    public void testStop() throws Exception {
+        final GelfEventLoopSender sender = new GelfEventLoopSender(queue, 1, metrics);
+        final EmbeddedChannel channel = new EmbeddedChannel();
+
+        sender.start(channel);
+        sender.stop();
+        channel.runPendingTasks();
+
+        assertEquals(queue.size(), 10);
+        assertNull(channel.readOutbound());
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testInvalidBatchSize() throws Exception {
+        new GelfEventLoopSender(queue, 0, metrics);
+    }
+
+    private int readAll(EmbeddedChannel channel) {
+        int messages = 0;
+        while (channel.readOutbound() != null) {
+            messages++;
+        }
+        return messages;
+    }
+}
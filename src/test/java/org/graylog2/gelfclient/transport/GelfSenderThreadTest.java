@@ -0,0 +1,245 @@
+/*
+ * Copyright 2026 Graylog, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graylog2.gelfclient.transport;
+
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelOutboundHandlerAdapter;
+import io.netty.channel.ChannelPromise;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.graylog2.gelfclient.GelfMessage;
+import org.graylog2.gelfclient.util.VirtualThreads;
+import org.testng.SkipException;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+public class GelfSenderThreadTest {
+    @Test
+    public void testWithoutBatching() throws Exception {
+        final CountingHandler handler = new CountingHandler();
+        final GelfTransportMetrics metrics = send(10, 1, handler);
+
+        assertEquals(handler.writes.get(), 10);
+        assertEquals(handler.flushes.get(), 10);
+        assertEquals(metrics.getMessagesWritten(), 10L);
+        assertEquals(metrics.getFlushes(), 10L);
+        assertEquals(metrics.getFlushesPerMessage(), 1.0d);
+    }
+
+    @Test
+    public void testBatching() throws Exception {
+        final CountingHandler handler = new CountingHandler();
+        final GelfTransportMetrics metrics = send(10, 5, handler);
+
+        // All messages are queued before the sender starts, so they are written in two batches.
+        assertEquals(handler.writes.get(), 10);
+        assertEquals(handler.flushes.get(), 2);
+        assertEquals(metrics.getMessagesWritten(), 10L);
+        assertEquals(metrics.getFlushes(), 2L);
+        assertEquals(metrics.getFlushesPerMessage(), 0.2d);
+    }
+
+    @Test(timeOut = 10000)
+    public void testMaxInflightSends() throws Exception {
+        final BlockingQueue<GelfMessageEnvelope> queue = new ArrayBlockingQueue<>(3);
+        for (int i = 0; i < 3; i++) {
+            queue.put(new GelfMessageEnvelope(new GelfMessage("Test " + i)));
+        }
+
+        final PendingWritesHandler handler = new PendingWritesHandler();
+        final GelfTransportMetrics metrics = new GelfTransportMetrics();
+        final GelfSenderThread senderThread = new GelfSenderThread(queue, 1, 1, metrics);
+        senderThread.start(new EmbeddedChannel(handler));
+        try {
+            for (int i = 1; i <= 3; i++) {
+                final ChannelPromise promise = handler.promises.take();
+                // The next message must not be written before the pending write has completed.
+                Thread.sleep(20L);
+                assertTrue(handler.promises.isEmpty());
+                promise.trySuccess();
+            }
+            senderThread.flushSynchronously(10, TimeUnit.MILLISECONDS, 500);
+        } finally {
+            senderThread.stop();
+        }
+
+        assertEquals(metrics.getMessagesWritten(), 3L);
+        assertEquals(metrics.getInflightWaits(), 2L);
+        // The sender only starts waiting some time after its write, so the wait can be shorter than the sleep.
+        assertTrue(metrics.getInflightWaitTime(TimeUnit.NANOSECONDS) > 0L);
+    }
+
+    @Test
+    public void testThreadFactory() throws Exception {
+        final BlockingQueue<GelfMessageEnvelope> queue = new ArrayBlockingQueue<>(1);
+        queue.put(new GelfMessageEnvelope(new GelfMessage("Test")));
+
+        final AtomicInteger threads = new AtomicInteger();
+        final ThreadFactory threadFactory = new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                threads.incrementAndGet();
+                return new Thread(r);
+            }
+        };
+        final CountingHandler handler = new CountingHandler();
+        final GelfSenderThread senderThread = new GelfSenderThread(queue, 512, 1, new GelfTransportMetrics(), threadFactory);
+        senderThread.start(new EmbeddedChannel(handler));
+        try {
+            senderThread.flushSynchronously(10, TimeUnit.MILLISECONDS, 500);
+        } finally {
+            senderThread.stop();
+        }
+
+        assertEquals(threads.get(), 1);
+        assertEquals(handler.writes.get(), 1);
+    }
+
+    @Test
+    public void testVirtualThread() throws Exception {
+        if (!VirtualThreads.isAvailable()) {
+            throw new SkipException("Virtual threads not available", VirtualThreads.unavailabilityCause());
+        }
+
+        final BlockingQueue<GelfMessageEnvelope> queue = new ArrayBlockingQueue<>(10);
+        for (int i = 0; i < 10; i++) {
+            queue.put(new GelfMessageEnvelope(new GelfMessage("Test " + i)));
+        }
+
+        final CountingHandler handler = new CountingHandler();
+        final GelfSenderThread senderThread = new GelfSenderThread(queue, 512, 1, new GelfTransportMetrics(),
+                VirtualThreads.newThreadFactory());
+        senderThread.start(new EmbeddedChannel(handler));
+        try {
+            senderThread.flushSynchronously(10, TimeUnit.MILLISECONDS, 500);
+        } finally {
+            senderThread.stop();
+        }
+
+        assertEquals(handler.writes.get(), 10);
+    }
+
+    @Test
+    public void testSendFuture() throws Exception {
+        final BlockingQueue<GelfMessageEnvelope> queue = new ArrayBlockingQueue<>(2);
+        final CompletableFuture<Void> succeedingFuture = new CompletableFuture<>();
+        final CompletableFuture<Void> failingFuture = new CompletableFuture<>();
+        queue.put(new GelfMessageEnvelope(new GelfMessage("Success"), succeedingFuture));
+        queue.put(new GelfMessageEnvelope(new GelfMessage("Failure"), failingFuture));
+
+        final ChannelOutboundHandlerAdapter handler = new ChannelOutboundHandlerAdapter() {
+            @Override
+            public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) {
+                if ("Failure".equals(((GelfMessage) msg).getMessage())) {
+                    promise.tryFailure(new IllegalStateException("Test"));
+                } else {
+                    promise.trySuccess();
+                }
+            }
+        };
+        final GelfSenderThread senderThread = new GelfSenderThread(queue, 512, 1, new GelfTransportMetrics());
+        senderThread.start(new EmbeddedChannel(handler));
+        try {
+            succeedingFuture.get(5, TimeUnit.SECONDS);
+            try {
+                failingFuture.get(5, TimeUnit.SECONDS);
+                fail("Write should have failed");
+            } catch (ExecutionException e) {
+                assertEquals(e.getCause().getMessage(), "Test");
+            }
+        } finally {
+            senderThread.stop();
+        }
+    }
+
+    @Test
+    public void testMessageQueue() throws Exception {
+        final BlockingQueue<GelfMessage> queue = new ArrayBlockingQueue<>(2);
+        queue.put(new GelfMessage("Test 1"));
+        queue.put(new GelfMessage("Test 2"));
+
+        final CountingHandler handler = new CountingHandler();
+        final GelfSenderThread senderThread = new GelfSenderThread(queue, 512);
+        senderThread.start(new EmbeddedChannel(handler));
+        try {
+            senderThread.flushSynchronously(10, TimeUnit.MILLISECONDS, 500);
+        } finally {
+            senderThread.stop();
+        }
+
+        assertTrue(queue.isEmpty());
+        assertEquals(handler.writes.get(), 2);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testInvalidBatchSize() throws Exception {
+        new GelfSenderThread(new ArrayBlockingQueue<GelfMessageEnvelope>(1), 1, 0, new GelfTransportMetrics());
+    }
+
+    private GelfTransportMetrics send(int messages, int batchSize, CountingHandler handler) throws Exception {
+        final BlockingQueue<GelfMessageEnvelope> queue = new ArrayBlockingQueue<>(messages);
+        for (int i = 0; i < messages; i++) {
+            queue.put(new GelfMessageEnvelope(new GelfMessage("Test " + i)));
+        }
+
+        final GelfTransportMetrics metrics = new GelfTransportMetrics();
+        final GelfSenderThread senderThread = new GelfSenderThread(queue, 512, batchSize, metrics);
+        senderThread.start(new EmbeddedChannel(handler));
+        try {
+            senderThread.flushSynchronously(10, TimeUnit.MILLISECONDS, 500);
+        } finally {
+            senderThread.stop();
+        }
+        return metrics;
+    }
+
+    private static class CountingHandler extends ChannelOutboundHandlerAdapter {
+        private final AtomicInteger writes = new AtomicInteger();
+        private final AtomicInteger flushes = new AtomicInteger();
+
+        @Override
+        public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) {
+            writes.incrementAndGet();
+            promise.trySuccess();
+        }
+
+        @Override
+        public void flush(ChannelHandlerContext ctx) {
+            flushes.incrementAndGet();
+        }
+    }
+
+    private static class PendingWritesHandler extends ChannelOutboundHandlerAdapter {
+        private final BlockingQueue<ChannelPromise> promises = new LinkedBlockingQueue<>();
+
+        @Override
+        public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) {
+            promises.add(promise);
+        }
+    }
+}
@@ -0,0 +1,432 @@
+/*
+ * Copyright 2026 Graylog, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.graylog2.gelfclient.transport;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.graylog2.gelfclient.ConnectionBalancing;
+import org.graylog2.gelfclient.EndpointSelection;
+import org.graylog2.gelfclient.GelfConfiguration;
+import org.graylog2.gelfclient.GelfMessage;
+import org.graylog2.gelfclient.SenderType;
+import org.graylog2.gelfclient.SpoolSyncPolicy;
+import org.graylog2.gelfclient.spool.GelfSpool;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertTrue;
+
+public class GelfTcpTransportTest {
+    private ServerSocket serverSocket;
+    private List<ServerSocket> serverSockets;
+    // The accepted connections of all servers in the order in which they were accepted.
+    private List<Socket> sockets;
+    // The received messages, prefixed with the index of the accepted connection.
+    private BlockingQueue<String> received;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        serverSockets = new CopyOnWriteArrayList<>();
+        sockets = new CopyOnWriteArrayList<>();
+        received = new LinkedBlockingQueue<>();
+        serverSocket = startServer();
+    }
+
+    private ServerSocket startServer() throws IOException {
+        final ServerSocket server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        serverSockets.add(server);
+
+        final List<Socket> accepted = sockets;
+        final BlockingQueue<String> messages = received;
+        final Thread acceptThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    while (!server.isClosed()) {
+                        final Socket socket = server.accept();
+                        synchronized (accepted) {
+                            accepted.add(socket);
+                            startReader(socket, accepted.size() - 1, messages);
+                        }
+                    }
+                } catch (IOException e) {
+                    // Server socket has been closed.
+                }
+            }
+        });
+        acceptThread.setDaemon(true);
+        acceptThread.start();
+        return server;
+    }
+
+    private static void startReader(final Socket socket, final int index, final BlockingQueue<String> messages) {
+        final Thread readerThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                final ByteArrayOutputStream frame = new ByteArrayOutputStream();
+                try (InputStream in = socket.getInputStream()) {
+                    int b;
+                    while ((b = in.read()) != -1) {
+                        // GELF TCP frames are delimited by '\0'.
+                        if (b == 0) {
+                            messages.add(index + ":" + new String(frame.toByteArray(), StandardCharsets.UTF_8));
+                            frame.reset();
+                        } else {
+                            frame.write(b);
+                        }
+                    }
+                } catch (IOException e) {
+                    // Socket has been closed.
+                }
+            }
+        });
+        readerThread.setDaemon(true);
+        readerThread.start();
+    }
+
+    @AfterMethod
+    public void tearDown() throws Exception {
+        for (ServerSocket server : serverSockets) {
+            server.close();
+        }
+        for (Socket socket : sockets) {
+            socket.close();
+        }
+    }
+
+    @DataProvider(name = "senders")
+    public Object[][] senders() {
+        return new Object[][]{
+                {SenderType.THREAD, ConnectionBalancing.ROUND_ROBIN},
+                {SenderType.THREAD, ConnectionBalancing.LEAST_PENDING_BYTES},
+                {SenderType.EVENT_LOOP, ConnectionBalancing.ROUND_ROBIN},
+                {SenderType.EVENT_LOOP, ConnectionBalancing.LEAST_PENDING_BYTES}
+        };
+    }
+
+    @Test(dataProvider = "senders", timeOut = 30000)
+    public void testConnections(SenderType senderType, ConnectionBalancing connectionBalancing) throws Exception {
+        final GelfTcpTransport transport = newTransport(newConfiguration()
+                .senderType(senderType)
+                .connections(3)
+                .connectionBalancing(connectionBalancing));
+        try {
+            awaitConnected(transport);
+            // The client side might be connected before the server has accepted the connection.
+            while (sockets.size() < 3) {
+                Thread.sleep(10L);
+            }
+            assertEquals(sockets.size(), 3);
+
+            for (int i = 0; i < 100; i++) {
+                transport.send(new GelfMessage("Test " + i));
+            }
+
+            final Set<String> messages = new HashSet<>();
+            for (int i = 0; i < 100; i++) {
+                final String message = received.poll(5, TimeUnit.SECONDS);
+                assertNotNull(message, "Missing message");
+                messages.add(message.substring(message.indexOf(':') + 1));
+            }
+            for (int i = 0; i < 100; i++) {
+                assertTrue(messages.toString().contains("\"short_message\":\"Test " + i + "\""));
+            }
+            assertEquals(messages.size(), 100);
+        } finally {
+            transport.flushAndStopSynchronously(10, TimeUnit.MILLISECONDS, 100);
+        }
+    }
+
+    @Test(timeOut = 30000)
+    public void testRoundRobin() throws Exception {
+        final GelfTcpTransport transport = newTransport(newConfiguration()
+                .senderType(SenderType.EVENT_LOOP)
+                .connections(3)
+                .connectionBalancing(ConnectionBalancing.ROUND_ROBIN));
+        try {
+            awaitConnected(transport);
+
+            // Each message is handed to the next connection's sender. A sender which is still draining might take
+            // the message of the next one, so only check that all connections are used.
+            final int[] perConnection = new int[3];
+            for (int i = 0; i < 30; i++) {
+                transport.send(new GelfMessage("Test " + i));
+                final String message = received.poll(5, TimeUnit.SECONDS);
+                assertNotNull(message, "Missing message");
+                perConnection[Integer.parseInt(message.substring(0, message.indexOf(':')))]++;
+                // Give the sender the chance to finish draining.
+                Thread.sleep(10L);
+            }
+            for (int count : perConnection) {
+                assertTrue(count > 0, Arrays.toString(perConnection));
+            }
+        } finally {
+            transport.flushAndStopSynchronously(10, TimeUnit.MILLISECONDS, 100);
+        }
+    }
+
+    @Test(dataProvider = "senders", timeOut = 30000)
+    public void testReconnect(SenderType senderType, ConnectionBalancing connectionBalancing) throws Exception {
+        final GelfTcpTransport transport = newTransport(newConfiguration()
+                .senderType(senderType)
+                .connections(2)
+                .connectionBalancing(connectionBalancing)
+                .reconnectDelay(10));
+        try {
+            awaitConnected(transport);
+            final GelfSender[] connected = {transport.senders.get(0), transport.senders.get(1)};
+
+            // Only the closed connection reconnects.
+            sockets.get(0).close();
+            while (replaced(transport, connected) == 0 || sockets.size() < 3) {
+                Thread.sleep(10L);
+            }
+            assertEquals(sockets.size(), 3);
+            assertEquals(replaced(transport, connected), 1);
+
+            awaitConnected(transport);
+            for (int i = 0; i < 10; i++) {
+                transport.send(new GelfMessage("Test " + i));
+            }
+            for (int i = 0; i < 10; i++) {
+                assertNotNull(received.poll(5, TimeUnit.SECONDS), "Missing message");
+            }
+        } finally {
+            transport.flushAndStopSynchronously(10, TimeUnit.MILLISECONDS, 100);
+        }
+    }
+
+    @Test(timeOut = 30000)
+    public void testFailover() throws Exception {
+        final InetSocketAddress primary = unusedAddress();
+        final InetSocketAddress standby = new InetSocketAddress(InetAddress.getLoopbackAddress(), serverSocket.getLocalPort());
+        final GelfTcpTransport transport = newTransport(newConfiguration()
+                .remoteAddresses(Arrays.asList(primary, standby))
+                .endpointSelection(EndpointSelection.FAILOVER)
+                .reconnectDelay(10));
+        try {
+            for (int i = 0; i < 10; i++) {
+                transport.send(new GelfMessage("Test " + i));
+            }
+            for (int i = 0; i < 10; i++) {
+                assertNotNull(received.poll(5, TimeUnit.SECONDS), "Missing message");
+            }
+
+            final List<GelfEndpoint> endpoints = transport.getEndpoints();
+            assertEquals(endpoints.get(0).getAddress(), primary);
+            assertEquals(endpoints.get(0).getState(), GelfEndpoint.State.DOWN);
+            assertTrue(endpoints.get(0).getConnectFailures() > 0L);
+            assertEquals(endpoints.get(1).getState(), GelfEndpoint.State.HEALTHY);
+            assertEquals(endpoints.get(1).getConnections(), 1);
+            // The writes are counted once they have completed, which might be after the server received them.
+            while (endpoints.get(1).getWrites() < 10L) {
+                Thread.sleep(10L);
+            }
+        } finally {
+            transport.flushAndStopSynchronously(10, TimeUnit.MILLISECONDS, 100);
+        }
+    }
+
+    @Test(timeOut = 30000)
+    public void testSingleEndpoint() throws Exception {
+        final GelfTcpTransport transport = newTransport(newConfiguration());
+        try {
+            for (int i = 0; i < 10; i++) {
+                transport.send(new GelfMessage("Test " + i));
+            }
+            for (int i = 0; i < 10; i++) {
+                assertNotNull(received.poll(5, TimeUnit.SECONDS), "Missing message");
+            }
+
+            // The connections are tracked, but there's no other server to choose, so the writes aren't.
+            final GelfEndpoint endpoint = transport.getEndpoints().get(0);
+            assertEquals(endpoint.getState(), GelfEndpoint.State.HEALTHY);
+            assertEquals(endpoint.getConnections(), 1);
+            assertEquals(endpoint.getWrites(), 0L);
+        } finally {
+            transport.flushAndStopSynchronously(10, TimeUnit.MILLISECONDS, 100);
+        }
+    }
+
+    @Test(timeOut = 30000)
+    public void testEndpointRoundRobin() throws Exception {
+        final ServerSocket secondServer = startServer();
+        final GelfTcpTransport transport = newTransport(newConfiguration()
+                .remoteAddresses(Arrays.asList(
+                        new InetSocketAddress(InetAddress.getLoopbackAddress(), serverSocket.getLocalPort()),
+                        new InetSocketAddress(InetAddress.getLoopbackAddress(), secondServer.getLocalPort())))
+                .endpointSelection(EndpointSelection.ROUND_ROBIN)
+                .connections(4));
+        try {
+            awaitConnected(transport);
+            for (GelfEndpoint endpoint : transport.getEndpoints()) {
+                assertEquals(endpoint.getConnections(), 2, endpoint.toString());
+            }
+        } finally {
+            transport.flushAndStopSynchronously(10, TimeUnit.MILLISECONDS, 100);
+        }
+    }
+
+    @Test(timeOut = 30000)
+    public void testCircuitBreaker() throws Exception {
+        final GelfTcpTransport transport = newTransport(new GelfConfiguration(unusedAddress())
+                .reconnectDelay(10)
+                .circuitBreakerThreshold(3)
+                .circuitBreakerCoolDown(60000));
+        try {
+            final GelfCircuitBreaker circuitBreaker = transport.getCircuitBreaker();
+            while (circuitBreaker.getState() != GelfCircuitBreaker.State.OPEN) {
+                Thread.sleep(10L);
+            }
+
+            // No more connection attempts while the circuit breaker is open, but messages are still queued.
+            Thread.sleep(200L);
+            assertEquals(transport.getMetrics().getConnectFailures(), 3L);
+            assertEquals(transport.getMetrics().getReconnectAttempts(), 2L);
+            assertTrue(transport.trySend(new GelfMessage("Test")));
+            assertEquals(transport.queue.size(), 1);
+        } finally {
+            transport.stop();
+        }
+    }
+
+    @DataProvider(name = "senderTypes")
+    public Object[][] senderTypes() {
+        return new Object[][]{{SenderType.THREAD}, {SenderType.EVENT_LOOP}};
+    }
+
+    @Test(dataProvider = "senderTypes", timeOut = 30000)
+    public void testEncodeOnSend(SenderType senderType) throws Exception {
+        final GelfTcpTransport transport = newTransport(newConfiguration()
+                .senderType(senderType)
+                .batchSize(4)
+                .encodeOnSend(true));
+        try {
+            awaitConnected(transport);
+            for (int i = 0; i < 10; i++) {
+                transport.send(new GelfMessage("Test " + i));
+            }
+
+            for (int i = 0; i < 10; i++) {
+                final String message = received.poll(5, TimeUnit.SECONDS);
+                assertNotNull(message, "Missing message");
+                assertTrue(message.contains("\"short_message\":\"Test " + i + "\""), message);
+            }
+        } finally {
+            transport.flushAndStopSynchronously(10, TimeUnit.MILLISECONDS, 100);
+        }
+    }
+
+    @Test(dataProvider = "senderTypes", timeOut = 30000)
+    public void testSpoolReplay(SenderType senderType) throws Exception {
+        final File spoolDirectory = Files.createTempDirectory("gelf-spool").toFile();
+        // Messages spooled before a restart of the application.
+        final GelfSpool spool = new GelfSpool(spoolDirectory, 1024L * 1024L, 64 * 1024, SpoolSyncPolicy.NEVER);
+        for (int i = 0; i < 3; i++) {
+            final ByteBuf payload = Unpooled.copiedBuffer("{\"short_message\":\"Test " + i + "\"}", StandardCharsets.UTF_8);
+            assertTrue(spool.append(payload));
+            payload.release();
+        }
+        spool.close();
+
+        final GelfTcpTransport transport = newTransport(newConfiguration()
+                .senderType(senderType)
+                .spoolDirectory(spoolDirectory)
+                .spoolMaxBytes(1024L * 1024L)
+                .spoolSegmentSize(64 * 1024));
+        try {
+            // Spooled while connecting, or because the recovered messages haven't been sent yet.
+            transport.send(new GelfMessage("Test 3"));
+            awaitConnected(transport);
+            transport.send(new GelfMessage("Test 4"));
+
+            // Single connection, so the messages arrive in order.
+            for (int i = 0; i < 5; i++) {
+                final String message = received.poll(5, TimeUnit.SECONDS);
+                assertNotNull(message, "Missing message");
+                assertTrue(message.contains("\"short_message\":\"Test " + i + "\""), message);
+            }
+            assertTrue(transport.getSpool().isEmpty());
+            assertTrue(transport.getMetrics().getMessagesReplayed() >= 4L);
+        } finally {
+            transport.flushAndStopSynchronously(10, TimeUnit.MILLISECONDS, 100);
+            final File[] files = spoolDirectory.listFiles();
+            for (File file : files) {
+                assertTrue(file.delete());
+            }
+            assertTrue(spoolDirectory.delete());
+        }
+    }
+
+    private static InetSocketAddress unusedAddress() throws IOException {
+        try (ServerSocket unused = new ServerSocket(0, 50, InetAddress.getLoopbackAddress())) {
+            return new InetSocketAddress(InetAddress.getLoopbackAddress(), unused.getLocalPort());
+        }
+    }
+
+    private static int replaced(AbstractGelfTransport transport, GelfSender[] senders) {
+        int replaced = 0;
+        for (int connection = 0; connection < senders.length; connection++) {
+            if (transport.senders.get(connection) != senders[connection]) {
+                replaced++;
+            }
+        }
+        return replaced;
+    }
+
+    private GelfConfiguration newConfiguration() {
+        return new GelfConfiguration(new InetSocketAddress(InetAddress.getLoopbackAddress(), serverSocket.getLocalPort()));
+    }
+
+    private static void awaitConnected(AbstractGelfTransport transport) throws InterruptedException {
+        for (int connection = 0; connection < transport.senders.length(); connection++) {
+            while (transport.senders.get(connection) == null
+                    || transport.senders.get(connection).getPendingBytes() == Long.MAX_VALUE) {
+                Thread.sleep(10L);
+            }
+        }
+    }
+
+    private static GelfTcpTransport newTransport(GelfConfiguration config) {
+        // Don't wait for the quiet period of the event loops when stopping the transport.
+        return new GelfTcpTransport(config.shutdownQuietPeriod(0));
+    }
+}
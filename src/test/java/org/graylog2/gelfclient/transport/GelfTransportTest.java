@@ -0,0 +1,57 @@
+/*
+ * Copyright 2026 Graylog, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graylog2.gelfclient.transport;
+
+import org.graylog2.gelfclient.GelfMessage;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class GelfTransportTest {
+    @Test
+    public void testDefaultSendAsync() throws Exception {
+        final GelfTransport transport = new GelfTransport() {
+            @Override
+            public void send(GelfMessage message) {
+            }
+
+            @Override
+            public boolean trySend(GelfMessage message) {
+                return !message.getMessage().isEmpty();
+            }
+
+            @Override
+            public void stop() {
+            }
+
+            @Override
+            public void flushAndStopSynchronously(int waitDuration, TimeUnit timeUnit, int retries) {
+            }
+        };
+
+        final CompletableFuture<Void> dispatched = transport.sendAsync(new GelfMessage("Test")).toCompletableFuture();
+        assertTrue(dispatched.isDone());
+        assertFalse(dispatched.isCompletedExceptionally());
+
+        final CompletableFuture<Void> rejected = transport.sendAsync(new GelfMessage("")).toCompletableFuture();
+        assertTrue(rejected.isCompletedExceptionally());
+    }
+}
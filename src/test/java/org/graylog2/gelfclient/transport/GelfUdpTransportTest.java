@@ -0,0 +1,273 @@
+/*
+ * Copyright 2026 Graylog, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.graylog2.gelfclient.transport;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelHandler;
+import io.netty.handler.codec.EncoderException;
+import org.graylog2.gelfclient.Compression;
+import org.graylog2.gelfclient.GelfConfiguration;
+import org.graylog2.gelfclient.GelfMessage;
+import org.graylog2.gelfclient.GelfTransports;
+import org.graylog2.gelfclient.QueueType;
+import org.graylog2.gelfclient.SenderType;
+import org.graylog2.gelfclient.compression.GelfCompressionCodec;
+import org.graylog2.gelfclient.encoder.AbstractGelfCompressionEncoder;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+public class GelfUdpTransportTest {
+    private DatagramSocket socket;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        socket = new DatagramSocket(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        socket.setSoTimeout(5000);
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        socket.close();
+    }
+
+    @DataProvider(name = "senders")
+    public Object[][] senders() {
+        return new Object[][]{
+                {SenderType.THREAD, false, QueueType.LINKED},
+                {SenderType.THREAD, true, QueueType.RING_BUFFER},
+                {SenderType.EVENT_LOOP, false, QueueType.RING_BUFFER},
+                {SenderType.EVENT_LOOP, true, QueueType.LINKED}
+        };
+    }
+
+    @Test(dataProvider = "senders")
+    public void testSend(SenderType senderType, boolean nativeTransport, QueueType queueType) throws Exception {
+        final GelfConfiguration config = new GelfConfiguration(new InetSocketAddress(InetAddress.getLoopbackAddress(), socket.getLocalPort()))
+                .transport(GelfTransports.UDP)
+                .compression(Compression.NONE)
+                .senderType(senderType)
+                .nativeTransport(nativeTransport)
+                .queueType(queueType)
+                .batchSize(16);
+        final GelfUdpTransport transport = newTransport(config);
+        try {
+            for (int i = 0; i < 10; i++) {
+                transport.send(new GelfMessage("Test " + i));
+            }
+
+            final Set<String> received = new HashSet<>();
+            final byte[] buffer = new byte[1024];
+            for (int i = 0; i < 10; i++) {
+                final DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
+                socket.receive(packet);
+                received.add(new String(packet.getData(), packet.getOffset(), packet.getLength(), StandardCharsets.UTF_8));
+            }
+
+            for (int i = 0; i < 10; i++) {
+                assertTrue(received.toString().contains("\"short_message\":\"Test " + i + "\""), received.toString());
+            }
+            assertEquals(received.size(), 10);
+        } finally {
+            transport.flushAndStopSynchronously(10, TimeUnit.MILLISECONDS, 100);
+        }
+    }
+
+    @Test(dataProvider = "senders")
+    public void testEncodeOnSend(SenderType senderType, boolean nativeTransport, QueueType queueType) throws Exception {
+        final GelfConfiguration config = new GelfConfiguration(new InetSocketAddress(InetAddress.getLoopbackAddress(), socket.getLocalPort()))
+                .transport(GelfTransports.UDP)
+                .compression(Compression.GZIP)
+                .senderType(senderType)
+                .nativeTransport(nativeTransport)
+                .queueType(queueType)
+                .encodeOnSend(true);
+        final GelfUdpTransport transport = newTransport(config);
+        try {
+            for (int i = 0; i < 10; i++) {
+                transport.send(new GelfMessage("Test " + i));
+            }
+
+            final Set<String> received = new HashSet<>();
+            final byte[] buffer = new byte[1024];
+            for (int i = 0; i < 10; i++) {
+                final DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
+                socket.receive(packet);
+                // Compressed on the sending thread, but only once.
+                try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(packet.getData(), packet.getOffset(), packet.getLength()))) {
+                    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+                    int b;
+                    while ((b = in.read()) != -1) {
+                        out.write(b);
+                    }
+                    received.add(new String(out.toByteArray(), StandardCharsets.UTF_8));
+                }
+            }
+
+            for (int i = 0; i < 10; i++) {
+                assertTrue(received.toString().contains("\"short_message\":\"Test " + i + "\""), received.toString());
+            }
+            assertEquals(received.size(), 10);
+        } finally {
+            transport.flushAndStopSynchronously(10, TimeUnit.MILLISECONDS, 100);
+        }
+    }
+
+    @Test
+    public void testCompressorsClosedOnStop() throws Exception {
+        final GelfConfiguration config = new GelfConfiguration(new InetSocketAddress(InetAddress.getLoopbackAddress(), socket.getLocalPort()))
+                .transport(GelfTransports.UDP)
+                .compression(Compression.GZIP)
+                .encodeOnSend(true);
+        final GelfUdpTransport transport = newTransport(config);
+        transport.send(new GelfMessage("Test"));
+        assertEquals(transport.compressors.size(), 1);
+
+        transport.stop();
+        assertTrue(transport.compressors.isEmpty());
+
+        // A compressor which is still in use while the transport is stopped is closed once it's returned.
+        final ByteBuf compressed = transport.compress(Unpooled.copiedBuffer("Test", StandardCharsets.UTF_8));
+        compressed.release();
+        assertTrue(transport.compressors.isEmpty());
+    }
+
+    @Test
+    public void testCompressorClosedOnFailure() throws Exception {
+        final AtomicInteger closed = new AtomicInteger();
+        final GelfConfiguration config = new GelfConfiguration(new InetSocketAddress(InetAddress.getLoopbackAddress(), socket.getLocalPort()))
+                .transport(GelfTransports.UDP)
+                .compressionCodec(new GelfCompressionCodec() {
+                    @Override
+                    public String getName() {
+                        return "failing";
+                    }
+
+                    @Override
+                    public ChannelHandler newEncoder(GelfConfiguration configuration) {
+                        return new AbstractGelfCompressionEncoder(0, false) {
+                            @Override
+                            protected ByteBuf compress(ByteBufAllocator alloc, ByteBuf msg) throws Exception {
+                                throw new IllegalStateException("Compression failed");
+                            }
+
+                            @Override
+                            public void close() {
+                                closed.incrementAndGet();
+                            }
+                        };
+                    }
+                })
+                .encodeOnSend(true);
+        final GelfUdpTransport transport = newTransport(config);
+        try {
+            assertTrue(transport.compressesOnSend());
+
+            final ByteBuf payload = Unpooled.copiedBuffer("Test", StandardCharsets.UTF_8);
+            try {
+                transport.compress(payload);
+                fail("Compression should have failed");
+            } catch (IllegalStateException e) {
+                assertEquals(e.getMessage(), "Compression failed");
+            }
+
+            // The failed compressor isn't used again.
+            assertEquals(payload.refCnt(), 0);
+            assertEquals(closed.get(), 1);
+            assertTrue(transport.compressors.isEmpty());
+        } finally {
+            transport.stop();
+        }
+    }
+
+    @Test
+    public void testCompressesOnSend() throws Exception {
+        final GelfConfiguration config = new GelfConfiguration(new InetSocketAddress(InetAddress.getLoopbackAddress(), socket.getLocalPort()))
+                .transport(GelfTransports.UDP)
+                .compression(Compression.GZIP);
+        final GelfUdpTransport transport = newTransport(config);
+        try {
+            // Without encoding on the sending threads, the channel pipeline compresses the messages.
+            assertFalse(transport.compressesOnSend());
+        } finally {
+            transport.stop();
+        }
+
+        final GelfUdpTransport encodingTransport = newTransport(config.encodeOnSend(true));
+        try {
+            assertTrue(encodingTransport.compressesOnSend());
+        } finally {
+            encodingTransport.stop();
+        }
+    }
+
+    @Test(dataProvider = "senders")
+    public void testSendAsync(SenderType senderType, boolean nativeTransport, QueueType queueType) throws Exception {
+        final GelfConfiguration config = new GelfConfiguration(new InetSocketAddress(InetAddress.getLoopbackAddress(), socket.getLocalPort()))
+                .transport(GelfTransports.UDP)
+                .compression(Compression.NONE)
+                .senderType(senderType)
+                .nativeTransport(nativeTransport)
+                .queueType(queueType)
+                .maxChunkSize(100);
+        final GelfUdpTransport transport = newTransport(config);
+        try {
+            transport.sendAsync(new GelfMessage("Test")).toCompletableFuture().get(5, TimeUnit.SECONDS);
+
+            // More than 128 chunks of 100 bytes.
+            final CompletableFuture<Void> tooBig = transport.sendAsync(new GelfMessage(new String(new char[20000]).replace('\0', 'x')))
+                    .toCompletableFuture();
+            try {
+                tooBig.get(5, TimeUnit.SECONDS);
+                fail("Message should have been too big");
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof EncoderException, e.getCause().toString());
+            }
+        } finally {
+            transport.flushAndStopSynchronously(10, TimeUnit.MILLISECONDS, 100);
+        }
+    }
+
+    private static GelfUdpTransport newTransport(GelfConfiguration config) {
+        // Don't wait for the quiet period of the event loops when stopping the transport.
+        return new GelfUdpTransport(config.shutdownQuietPeriod(0));
+    }
+}